@@ -0,0 +1,95 @@
+package ru.practicum.shareit.benchmarks;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Графы сущностей (без БД) для бенчмарков мапперов и группировки: на size записей - size / 10 пользователей,
+// каждая пятая вещь добавлена по запросу. Генерация детерминированная (фиксированный seed).
+public class BenchmarkData {
+    private static final long SEED = 42;
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    private final Random random = new Random(SEED);
+    private final LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private final List<User> users = new ArrayList<>();
+    private final List<ItemRequest> itemRequests = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+    private final List<Booking> bookings = new ArrayList<>();
+
+    public BenchmarkData(int size) {
+        final int userCount = Math.max(10, size / 10);
+        for (long id = 1; id <= userCount; id++) {
+            users.add(User.builder()
+                    .id(id)
+                    .name("user" + id)
+                    .email("user" + id + "@email.com")
+                    .build());
+        }
+
+        for (long id = 1; id <= size; id++) {
+            itemRequests.add(ItemRequest.builder()
+                    .id(id)
+                    .description("need item " + id)
+                    .requestor(randomUser())
+                    .created(now.minusHours(id))
+                    .itemsByRequest(new ArrayList<>())
+                    .build());
+        }
+
+        for (long id = 1; id <= size; id++) {
+            final ItemRequest request = id % 5 == 0 ? itemRequests.get(random.nextInt(itemRequests.size())) : null;
+            final Item item = Item.builder()
+                    .id(id)
+                    .name("item " + id)
+                    .description("description of item " + id)
+                    .isAvailable(random.nextBoolean())
+                    .owner(randomUser())
+                    .request(request)
+                    .build();
+            items.add(item);
+            if (request != null) {
+                request.getItemsByRequest().add(item);
+            }
+        }
+
+        for (long id = 1; id <= size; id++) {
+            final LocalDateTime start = now.plusHours(random.nextInt(2000) - 1000);
+            bookings.add(Booking.builder()
+                    .id(id)
+                    .item(items.get(random.nextInt(items.size())))
+                    .booker(randomUser())
+                    .start(start)
+                    .end(start.plusDays(1 + random.nextInt(7)))
+                    .status(STATUSES[random.nextInt(STATUSES.length)])
+                    .build());
+        }
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public List<ItemRequest> getItemRequests() {
+        return itemRequests;
+    }
+
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+
+    private User randomUser() {
+        return users.get(random.nextInt(users.size()));
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static java.util.Objects.nonNull;
+
+// Запуск бенчмарков с результатами в JSON (для сравнения между коммитами).
+// Принимает обычные параметры JMH (например, "MapperBenchmark -p size=200"). Если файл результата (-rff) не задан,
+// пишется jmh-result-<коммит>.json: коммит берется из -Dbenchmarks.commit или переменной GIT_COMMIT, иначе - время запуска.
+public class BenchmarkRunner {
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        final ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLineOptions.getResult().hasValue()) {
+            options.result(String.format("jmh-result-%s.json", resultLabel()));
+        }
+
+        new Runner(options.build()).run();
+    }
+
+    private static String resultLabel() {
+        final String commit = System.getProperty("benchmarks.commit", System.getenv("GIT_COMMIT"));
+        return nonNull(commit) && !commit.isBlank() ? commit : LocalDateTime.now().format(TIMESTAMP_FORMAT);
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.DaoItem;
+import ru.practicum.shareit.item.repository.DaoItemImpl;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+// Группировка вещей по запросам в DaoItemImpl.findItemsForItemRequests (репозиторий подменен готовой выборкой, без БД).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemRequestGroupingBenchmark {
+    @Param({"100", "1000", "10000"})
+    int itemCount;
+
+    DaoItem daoItem;
+    List<Long> requestIds;
+
+    @Setup
+    public void setUp() {
+        final BenchmarkData data = new BenchmarkData(itemCount);
+        final List<Item> requestItems = data.getItems().stream()
+                .filter(item -> item.getRequest() != null)
+                .collect(toUnmodifiableList());
+        requestIds = data.getItemRequests().stream()
+                .map(ItemRequest::getId)
+                .collect(toUnmodifiableList());
+
+        final ItemRepository itemRepository = (ItemRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ItemRepository.class},
+                (proxy, method, args) -> {
+                    if ("findItemsForItemRequests".equals(method.getName())) {
+                        return requestItems;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        daoItem = new DaoItemImpl(itemRepository, null);
+    }
+
+    @Benchmark
+    public Map<Long, List<Item>> findItemsForItemRequests() {
+        return daoItem.findItemsForItemRequests(requestIds);
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Поиск вещей (ItemService.searchItems, первая страница) на H2 в памяти: весь путь сервиса - транзакция,
+// проверка пользователя, запрос LIKE по названию и описанию, преобразование в dto.
+// Контекст сервера поднимается без веб-сервера с профилем test; каждая десятая вещь содержит искомое слово.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemSearchBenchmark {
+    private static final long SEED = 42;
+    private static final int PAGE_SIZE = 20;
+    private static final String[] WORDS = {"hammer", "saw", "ladder", "tent", "bike", "kayak", "projector", "mixer"};
+
+    @Param({"1000", "10000"})
+    int itemCount;
+
+    @Param({"drill", "missing"})
+    String text;
+
+    ConfigurableApplicationContext context;
+    ItemService itemService;
+    long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmarks",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework=WARN");
+        itemService = context.getBean(ItemService.class);
+
+        final UserRepository userRepository = context.getBean(UserRepository.class);
+        final List<User> owners = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            owners.add(userRepository.save(User.builder()
+                    .name("owner" + i)
+                    .email("owner" + i + "@email.com")
+                    .build()));
+        }
+        userId = owners.get(0).getId();
+
+        final Random random = new Random(SEED);
+        final List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            final String word = i % 10 == 0 ? "Drill" : WORDS[random.nextInt(WORDS.length)];
+            items.add(Item.builder()
+                    .name(word + " " + i)
+                    .description("good " + word.toLowerCase() + " for rent")
+                    .isAvailable(random.nextInt(10) > 0)
+                    .owner(owners.get(random.nextInt(owners.size())))
+                    .build());
+        }
+        context.getBean(ItemRepository.class).saveAll(items);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> searchFirstPage() {
+        return itemService.searchItems(text, userId, 0, PAGE_SIZE);
+    }
+}
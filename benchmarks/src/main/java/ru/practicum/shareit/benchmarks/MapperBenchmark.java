@@ -0,0 +1,62 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemWithAdditionalDataDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+// Преобразование списков сущностей в dto: размер страницы (20), крупная выборка (200) и выгрузка без пагинации (2000).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+    @Param({"20", "200", "2000"})
+    int size;
+
+    List<Booking> bookings;
+    List<Item> items;
+    List<ItemRequest> itemRequests;
+
+    @Setup
+    public void setUp() {
+        final BenchmarkData data = new BenchmarkData(size);
+        bookings = data.getBookings();
+        items = data.getItems();
+        itemRequests = data.getItemRequests();
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingDtoList() {
+        return BookingMapper.toBookingDtoList(bookings);
+    }
+
+    @Benchmark
+    public List<ItemDto> itemDtoList() {
+        return items.stream().map(ItemMapper::toItemDto).collect(toUnmodifiableList());
+    }
+
+    @Benchmark
+    public List<ItemWithAdditionalDataDto> itemWithAdditionalDataDtoList() {
+        return items.stream().map(ItemMapper::toItemWithAdditionalDataDto).collect(toUnmodifiableList());
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> itemRequestDtoList() {
+        return ItemRequestMapper.toItemRequestDtoList(itemRequests);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Гистограмма задержек с геометрическими корзинами (шаг 1.25, от 50 мкс до 60 с), потокобезопасная.
+// Перцентили - по верхней границе корзины (погрешность до 25%), максимум - точный.
+public class LatencyHistogram {
+    private static final long[] BUCKET_UPPER_MICROS = bucketBounds();
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_UPPER_MICROS.length + 1);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos, boolean error) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        final int index = Arrays.binarySearch(BUCKET_UPPER_MICROS, micros);
+        counts.incrementAndGet(index >= 0 ? index : -index - 1);
+        total.incrementAndGet();
+        if (error) {
+            errors.incrementAndGet();
+        }
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.addAndGet(i, other.counts.get(i));
+        }
+        total.addAndGet(other.total.get());
+        errors.addAndGet(other.errors.get());
+        maxNanos.accumulateAndGet(other.maxNanos.get(), Math::max);
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+    public double getMaxMs() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    public double percentileMs(double percentile) {
+        final long threshold = (long) Math.ceil(percentile * total.get());
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= threshold && seen > 0) {
+                return Math.min(upperMs(i), getMaxMs());
+            }
+        }
+        return getMaxMs();
+    }
+
+    // Непустые корзины: "<= 12.2 ms | ######## 1234".
+    public String render(int width) {
+        long maxCount = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            maxCount = Math.max(maxCount, counts.get(i));
+        }
+
+        final StringBuilder histogram = new StringBuilder();
+        for (int i = 0; i < counts.length(); i++) {
+            final long count = counts.get(i);
+            if (count == 0) {
+                continue;
+            }
+            final int bar = (int) Math.max(1, count * width / maxCount);
+            histogram.append(String.format("  <= %10.2f ms | %-" + width + "s %d%n", upperMs(i), "#".repeat(bar), count));
+        }
+        return histogram.toString();
+    }
+
+    private double upperMs(int index) {
+        return index < BUCKET_UPPER_MICROS.length ? BUCKET_UPPER_MICROS[index] / 1000.0 : getMaxMs();
+    }
+
+    private static long[] bucketBounds() {
+        final long maxMicros = TimeUnit.SECONDS.toMicros(60);
+        final long[] bounds = new long[128];
+        int size = 0;
+        for (double bound = 50; bound < maxMicros; bound *= 1.25) {
+            bounds[size++] = (long) bound;
+        }
+        bounds[size++] = maxMicros;
+        return Arrays.copyOf(bounds, size);
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import ru.practicum.shareit.common.seed.ZipfDistribution;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Нагрузка на gateway из одной JVM: load.threads клиентов в замкнутом цикле (следующий запрос - сразу после ответа)
+// выполняют смесь запросов load.mix, пользователь и вещь выбираются по Ципфу среди id 1..load.users и 1..load.items
+// (как при генерации профилем seed на пустой БД: первые id - горячие). После прогрева печатаются пропускная способность,
+// перцентили по каждому запросу и общая гистограмма задержек.
+// Запуск: java -Dload.gateway-url=http://localhost:8080 -Dload.duration-seconds=120 -cp target/benchmarks.jar \
+//     ru.practicum.shareit.benchmarks.load.LoadDriver
+public class LoadDriver {
+    private static final String USER_ID_REQUEST_HEADER = "X-Sharer-User-Id";
+    private static final String DEFAULT_MIX = "owner-items=25,item=25,search=15,bookings=10,owner-bookings=10,"
+            + "requests=5,all-requests=5,dashboard=5";
+    private static final String[] SEARCH_TEXTS = {"drill", "saw", "ladder", "tent", "bike", "camera", "grill", "skis"};
+
+    private final String gatewayUrl = System.getProperty("load.gateway-url", "http://localhost:8080");
+    private final int threads = Integer.getInteger("load.threads", 16);
+    private final int warmupSeconds = Integer.getInteger("load.warmup-seconds", 10);
+    private final int durationSeconds = Integer.getInteger("load.duration-seconds", 60);
+    private final long randomSeed = Long.getLong("load.random-seed", 42);
+    private final LoadMix mix = LoadMix.parse(System.getProperty("load.mix", DEFAULT_MIX));
+    private final double zipfExponent = Double.parseDouble(System.getProperty("load.zipf-exponent", "1.1"));
+    private final ZipfDistribution users = new ZipfDistribution(Integer.getInteger("load.users", 10_000), zipfExponent);
+    private final ZipfDistribution items = new ZipfDistribution(Integer.getInteger("load.items", 50_000), zipfExponent);
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<LoadEndpoint, LatencyHistogram> histograms = new EnumMap<>(LoadEndpoint.class);
+
+    private volatile boolean measuring;
+
+    public static void main(String[] args) throws InterruptedException {
+        new LoadDriver().run();
+    }
+
+    private void run() throws InterruptedException {
+        for (LoadEndpoint endpoint : mix.getEndpoints()) {
+            histograms.put(endpoint, new LatencyHistogram());
+        }
+        System.out.println(String.format("Нагрузка на %s: %s потоков, прогрев %s с, замер %s с, смесь %s",
+                gatewayUrl, threads, warmupSeconds, durationSeconds, mix));
+
+        final long startNanos = System.nanoTime();
+        final long measureFromNanos = startNanos + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        final long deadlineNanos = measureFromNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+        final ExecutorService clients = Executors.newFixedThreadPool(threads);
+        for (int client = 0; client < threads; client++) {
+            final SplittableRandom random = new SplittableRandom(randomSeed + client);
+            clients.submit(() -> runClient(random, deadlineNanos));
+        }
+
+        TimeUnit.NANOSECONDS.sleep(measureFromNanos - System.nanoTime());
+        measuring = true;
+        final long measuredFromNanos = System.nanoTime();
+        clients.shutdown();
+        clients.awaitTermination(durationSeconds + 60L, TimeUnit.SECONDS);
+        final double measuredSeconds = (System.nanoTime() - measuredFromNanos) / 1e9;
+
+        report(measuredSeconds);
+    }
+
+    private void runClient(SplittableRandom random, long deadlineNanos) {
+        while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+            final LoadEndpoint endpoint = mix.next(random);
+            final long userId = users.sample(random) + 1L;
+            final long itemId = items.sample(random) + 1L;
+            final String text = SEARCH_TEXTS[random.nextInt(SEARCH_TEXTS.length)];
+            final HttpRequest request = HttpRequest.newBuilder(URI.create(gatewayUrl + endpoint.path(userId, itemId, text)))
+                    .header(USER_ID_REQUEST_HEADER, String.valueOf(userId))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+
+            final long requestStartNanos = System.nanoTime();
+            boolean error;
+            try {
+                error = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+            } catch (IOException exp) {
+                error = true;
+            } catch (InterruptedException exp) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (measuring) {
+                histograms.get(endpoint).record(System.nanoTime() - requestStartNanos, error);
+            }
+        }
+    }
+
+    private void report(double measuredSeconds) {
+        final LatencyHistogram overall = new LatencyHistogram();
+        final List<String> rows = new ArrayList<>();
+        rows.add(String.format("%-16s %10s %10s %8s %9s %9s %9s %9s %9s", "запрос", "всего", "запр/с", "ошибок",
+                "p50 мс", "p90 мс", "p99 мс", "p99.9 мс", "max мс"));
+        histograms.forEach((endpoint, histogram) -> {
+            overall.add(histogram);
+            rows.add(row(endpoint.getKey(), histogram, measuredSeconds));
+        });
+        rows.add(row("всего", overall, measuredSeconds));
+
+        rows.forEach(System.out::println);
+        System.out.println("Гистограмма задержек (все запросы):");
+        System.out.print(overall.render(50));
+    }
+
+    private static String row(String name, LatencyHistogram histogram, double measuredSeconds) {
+        return String.format("%-16s %10d %10.1f %8d %9.2f %9.2f %9.2f %9.2f %9.2f", name, histogram.getTotal(),
+                histogram.getTotal() / measuredSeconds, histogram.getErrors(), histogram.percentileMs(0.5),
+                histogram.percentileMs(0.9), histogram.percentileMs(0.99), histogram.percentileMs(0.999), histogram.getMaxMs());
+    }
+}
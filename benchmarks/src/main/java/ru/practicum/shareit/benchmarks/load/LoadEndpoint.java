@@ -0,0 +1,44 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.util.Arrays;
+
+// Запросы смеси нагрузки (GET через gateway). Пользователь и вещь выбираются драйвером по Ципфу, text - слово для поиска.
+public enum LoadEndpoint {
+    OWNER_ITEMS("owner-items", (userId, itemId, text) -> "/items?from=0&size=20"),
+    ITEM("item", (userId, itemId, text) -> "/items/" + itemId),
+    SEARCH("search", (userId, itemId, text) -> "/items/search?text=" + text + "&from=0&size=20"),
+    BOOKINGS("bookings", (userId, itemId, text) -> "/bookings?state=ALL&from=0&size=20"),
+    OWNER_BOOKINGS("owner-bookings", (userId, itemId, text) -> "/bookings/owner?state=ALL&from=0&size=20"),
+    REQUESTS("requests", (userId, itemId, text) -> "/requests"),
+    ALL_REQUESTS("all-requests", (userId, itemId, text) -> "/requests/all?from=0&size=20"),
+    DASHBOARD("dashboard", (userId, itemId, text) -> "/me/dashboard"),
+    USER("user", (userId, itemId, text) -> "/users/" + userId);
+
+    private final String key;
+    private final PathBuilder pathBuilder;
+
+    LoadEndpoint(String key, PathBuilder pathBuilder) {
+        this.key = key;
+        this.pathBuilder = pathBuilder;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String path(long userId, long itemId, String text) {
+        return pathBuilder.build(userId, itemId, text);
+    }
+
+    public static LoadEndpoint byKey(String key) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Неизвестный запрос в смеси: %s", key)));
+    }
+
+    @FunctionalInterface
+    private interface PathBuilder {
+        String build(long userId, long itemId, String text);
+    }
+}
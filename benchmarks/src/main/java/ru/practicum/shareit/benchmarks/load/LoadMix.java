@@ -0,0 +1,62 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Смесь запросов с весами, задается строкой вида "owner-items=30,item=25,search=15".
+public class LoadMix {
+    private final List<LoadEndpoint> endpoints = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    private int totalWeight;
+
+    public static LoadMix parse(String mix) {
+        final LoadMix loadMix = new LoadMix();
+        for (String entry : mix.split(",")) {
+            final String[] keyAndWeight = entry.trim().split("=");
+            if (keyAndWeight.length != 2) {
+                throw new IllegalArgumentException(String.format("Ожидается запрос=вес, получено: %s", entry));
+            }
+
+            final int weight = Integer.parseInt(keyAndWeight[1].trim());
+            if (weight > 0) {
+                loadMix.totalWeight += weight;
+                loadMix.endpoints.add(LoadEndpoint.byKey(keyAndWeight[0].trim()));
+                loadMix.cumulativeWeights.add(loadMix.totalWeight);
+            }
+        }
+
+        if (loadMix.endpoints.isEmpty()) {
+            throw new IllegalArgumentException("Смесь запросов пуста");
+        }
+        return loadMix;
+    }
+
+    public List<LoadEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public LoadEndpoint next(SplittableRandom random) {
+        final int point = random.nextInt(totalWeight);
+        for (int i = 0; i < endpoints.size(); i++) {
+            if (point < cumulativeWeights.get(i)) {
+                return endpoints.get(i);
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder mix = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            if (i > 0) {
+                mix.append(',');
+            }
+            mix.append(endpoints.get(i).getKey()).append('=').append(cumulativeWeights.get(i) - previous);
+            previous = cumulativeWeights.get(i);
+        }
+        return mix.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStateForSearch;
+import ru.practicum.shareit.booking.model.QBooking;
+
+import java.util.concurrent.TimeUnit;
+
+// Построение условия поиска бронирований по состоянию и его сериализация в JPQL (без БД).
+// В пакете репозитория: условие строит package-private метод CustomBookingRepositoryImpl.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingSearchQueryBenchmark {
+    private static final long USER_ID = 1L;
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING"})
+    BookingStateForSearch state;
+
+    @Benchmark
+    public BooleanExpression searchExpression() {
+        return CustomBookingRepositoryImpl.getSearchExpressionByState(state);
+    }
+
+    @Benchmark
+    public String searchJpql() {
+        final BooleanExpression where = QBooking.booking.booker.id.eq(USER_ID)
+                .and(CustomBookingRepositoryImpl.getSearchExpressionByState(state));
+
+        return new JPAQuery<Booking>()
+                .select(QBooking.booking)
+                .from(QBooking.booking)
+                .where(where)
+                .orderBy(QBooking.booking.start.desc())
+                .toString();
+    }
+}
@@ -1,30 +1,68 @@
 package ru.practicum.shareit.booking;
 
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerResponseException;
+import ru.practicum.shareit.client.SseLineRelay;
+import ru.practicum.shareit.common.tracing.Tracer;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
+import static java.util.Objects.nonNull;
+import static ru.practicum.shareit.common.ConstantParamStorage.LAST_EVENT_ID_HEADER;
+import static ru.practicum.shareit.common.ConstantParamStorage.TRACEPARENT_HEADER;
+import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
+
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    private static final Duration STREAM_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    // Неблокирующий клиент для потока событий: поток на подключение не выделяется.
+    private final HttpClient streamClient;
+    private final URI streamUri;
+    private final long streamTimeoutMs;
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         @Value("${shareit.bookings.stream.timeout-ms:1800000}") long streamTimeoutMs,
+                         RestTemplateBuilder builder,
+                         CloseableHttpClient serverHttpClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(serverHttpClient))
                         .build()
         );
+
+        this.streamClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(STREAM_CONNECT_TIMEOUT)
+                .build();
+        this.streamUri = URI.create(serverUrl + API_PREFIX + "/stream");
+        this.streamTimeoutMs = streamTimeoutMs;
     }
 
     public ResponseEntity<Object> create(BookingCreateDto requestDto, long userId) {
@@ -40,27 +78,85 @@ public class BookingClient extends BaseClient {
         return patch("/{bookingId}?approved={approved}", userId, parameters);
     }
 
+    public ResponseEntity<Object> approveAll(BookingBulkDecisionDto decision, long userId) {
+        return patch("/bulk", userId, decision);
+    }
+
     public ResponseEntity<Object> getBooking(long bookingId, long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getUserBookingsByState(long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<Object> getBookings(List<Long> bookingIds, long userId) {
+        return get("?ids={ids}", userId, Map.of("ids", joinIds(bookingIds)));
+    }
+
+    public ResponseEntity<Object> getChanges(long userId, String since) {
+        return getChangesSince(userId, since);
+    }
+
+    public ResponseEntity<Object> getUserBookingsByState(long userId, BookingState state, Integer from, Integer size, boolean normalized,
+                                                         String fields) {
         final Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
 
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get("?state={state}&from={from}&size={size}" + viewParam(normalized) + fieldsParam(fields), userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsByItemOwner(long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<Object> getBookingsByItemOwner(long userId, BookingState state, Integer from, Integer size, boolean normalized,
+                                                         String fields) {
         final Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
 
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return get("/owner?state={state}&from={from}&size={size}" + viewParam(normalized) + fieldsParam(fields), userId, parameters);
+    }
+
+    // Поток событий бронирования проксируется с сервера: ответ клиенту формируется, когда сервер ответил на подключение.
+    // При успехе события пересылаются по мере поступления, при ошибке клиенту возвращается ответ сервера.
+    public DeferredResult<SseEmitter> stream(long userId, @Nullable Long lastEventId) {
+        final DeferredResult<SseEmitter> result = new DeferredResult<>(STREAM_CONNECT_TIMEOUT.toMillis(),
+                new ServerResponseException(HttpStatus.GATEWAY_TIMEOUT.value(), new byte[0]));
+        final SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        final SseLineRelay relay = new SseLineRelay(emitter);
+
+        final HttpRequest.Builder request = HttpRequest.newBuilder(streamUri)
+                .header(USER_ID_REQUEST_HEADER, String.valueOf(userId))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .GET();
+        if (nonNull(lastEventId)) {
+            request.header(LAST_EVENT_ID_HEADER, String.valueOf(lastEventId));
+        }
+        final String traceparent = Tracer.currentTraceparent();
+        if (nonNull(traceparent)) {
+            request.header(TRACEPARENT_HEADER, traceparent);
+        }
+
+        final HttpResponse.BodyHandler<Void> bodyHandler = responseInfo -> {
+            if (responseInfo.statusCode() != HttpStatus.OK.value()) {
+                return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), body -> {
+                    result.setErrorResult(new ServerResponseException(responseInfo.statusCode(), body));
+                    return null;
+                });
+            }
+
+            if (!result.setResult(emitter)) {
+                relay.cancel(); // клиент не дождался подключения
+            }
+            return HttpResponse.BodySubscribers.fromLineSubscriber(relay);
+        };
+
+        streamClient.sendAsync(request.build(), bodyHandler)
+                .whenComplete((response, e) -> {
+                    if (nonNull(e)) {
+                        result.setErrorResult(e);
+                    }
+                });
+
+        return result;
     }
 }
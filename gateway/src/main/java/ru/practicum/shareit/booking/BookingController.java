@@ -2,17 +2,25 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.validation.BookingStateValidator;
+import ru.practicum.shareit.validation.FieldsValidator;
+import ru.practicum.shareit.validation.IdListValidator;
+import ru.practicum.shareit.validation.ResponseViewResolver;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 import static ru.practicum.shareit.common.ConstantParamStorage.*;
 
@@ -28,7 +36,7 @@ public class BookingController {
     @PostMapping
     public ResponseEntity<Object> create(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                          @Valid @RequestBody BookingCreateDto newBooking) {
-        log.info(String.format("POST /bookings, body = %s, %s = %s", newBooking, USER_ID_REQUEST_HEADER, userId));
+        log.debug("POST /bookings, body = {}, {} = {}", newBooking, USER_ID_REQUEST_HEADER, userId);
         BookingDatesValidator.validate(newBooking);  // Валидация (начало и конец бронирования)
         return bookingClient.create(newBooking, userId);
     }
@@ -38,29 +46,67 @@ public class BookingController {
     public ResponseEntity<Object> approveBooking(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                                  @PathVariable(name = "bookingId") long bookingId,
                                                  @RequestParam(name = "approved") boolean approved) {
-        log.info(String.format("PATCH /bookings/{bookingId}?approved={approved}, {bookingId} = %s, %s = %s, {approved} = %s", bookingId, USER_ID_REQUEST_HEADER, userId, approved));
+        log.debug("PATCH /bookings/{bookingId}?approved={approved}, {bookingId} = {}, {} = {}, {approved} = {}", bookingId, USER_ID_REQUEST_HEADER, userId, approved);
         return bookingClient.approve(bookingId, userId, approved);
     }
 
+    // Пакетное подтверждение или отклонение запросов на бронирование.
+    @PatchMapping("/bulk")
+    public ResponseEntity<Object> approveBookings(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                                  @Valid @RequestBody BookingBulkDecisionDto decision) {
+        log.debug("PATCH /bookings/bulk, body = {}, {} = {}", decision, USER_ID_REQUEST_HEADER, userId);
+        return bookingClient.approveAll(decision, userId);
+    }
+
+    // Поток событий о бронированиях пользователя (SSE). Last-Event-ID передается серверу для досылки пропущенных событий.
+    @GetMapping("/stream")
+    public DeferredResult<SseEmitter> streamBookingEvents(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                                          @PositiveOrZero @RequestHeader(name = LAST_EVENT_ID_HEADER, required = false) Long lastEventId) {
+        log.debug("GET /bookings/stream, {} = {}, {} = {}", USER_ID_REQUEST_HEADER, userId, LAST_EVENT_ID_HEADER, lastEventId);
+        return bookingClient.stream(userId, lastEventId);
+    }
+
+    // Бронирования пользователя, измененные после токена since (без since - все бронирования).
+    @GetMapping("/changes")
+    public ResponseEntity<Object> getChanges(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                             @RequestParam(name = "since", required = false) String since) {
+        log.debug("GET /bookings/changes?since={since}, {since} = {}, {} = {}", since, USER_ID_REQUEST_HEADER, userId);
+        return bookingClient.getChanges(userId, since);
+    }
+
     // Получение данных о конкретном бронировании (включая его статус).
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                              @PathVariable(name = "bookingId") long bookingId) {
-        log.info(String.format("GET /bookings/{bookingId}, {bookingId} = %s, %s = %s", bookingId, USER_ID_REQUEST_HEADER, userId));
+        log.debug("GET /bookings/{bookingId}, {bookingId} = {}, {} = {}", bookingId, USER_ID_REQUEST_HEADER, userId);
         return bookingClient.getBooking(bookingId, userId);
     }
 
+    // Получение нескольких бронирований по списку id (в порядке запроса).
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getBookingsByIds(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                                   @RequestParam(name = "ids") List<Long> ids) {
+        log.debug("GET /bookings?ids={ids}, {ids} = {}, {} = {}", ids, USER_ID_REQUEST_HEADER, userId);
+        IdListValidator.validate(ids);
+        return bookingClient.getBookings(ids, userId);
+    }
+
     // Получение списка всех бронирований текущего пользователя (т.е список всех заявок на бронирование созданных данным пользователем).
     // Бронирования должны возвращаться отсортированными по дате от более новых к более старым.
     @GetMapping
     public ResponseEntity<Object> getUserBookingsByState(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                                          @RequestParam(name = "state", required = false) String stateStr,
                                                          @PositiveOrZero @RequestParam(name = "from", defaultValue = DEFAULT_FROM_PARAM) Integer from,
-                                                         @Positive @RequestParam(name = "size", defaultValue = DEFAULT_SIZE_PARAM) Integer size) {
-        final String logStr = "GET /bookings?state={state}&from={from}&size={size}, {state} = %s, {from} = %s, {size} = %s, %s = %s";
-        log.info(String.format(logStr, stateStr, from, size, USER_ID_REQUEST_HEADER, userId));
+                                                         @Positive @RequestParam(name = "size", defaultValue = DEFAULT_SIZE_PARAM) Integer size,
+                                                         @RequestParam(name = "view", required = false) String view,
+                                                         @RequestParam(name = "fields", required = false) String fields,
+                                                         @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        final String logStr = "GET /bookings?state={state}&from={from}&size={size}, {state} = {}, {from} = {}, {size} = {}, {} = {}";
+        log.debug(logStr, stateStr, from, size, USER_ID_REQUEST_HEADER, userId);
         final BookingState state = BookingStateValidator.validateAndGet(stateStr);
-        return bookingClient.getUserBookingsByState(userId, state, from, size);
+        final boolean normalized = ResponseViewResolver.isNormalized(view, accept);
+        final String validFields = FieldsValidator.validate(fields, BOOKING_FIELDS, normalized);
+        return bookingClient.getUserBookingsByState(userId, state, from, size, normalized, validFields);
     }
 
     // Получение списка бронирований для всех вещей текущего пользователя. (т.е все заявки на бронирование вещей данного пользователя.)
@@ -68,10 +114,15 @@ public class BookingController {
     public ResponseEntity<Object> getBookingsByItemOwner(@RequestHeader(USER_ID_REQUEST_HEADER) long ownerId,
                                                          @RequestParam(name = "state", required = false) String stateStr,
                                                          @PositiveOrZero @RequestParam(name = "from", defaultValue = DEFAULT_FROM_PARAM) Integer from,
-                                                         @Positive @RequestParam(name = "size", defaultValue = DEFAULT_SIZE_PARAM) Integer size) {
-        final String logStr = "GET /bookings/owner?state={state}&from={from}&size={size}, {state} = %s, {from} = %s, {size} = %s, %s = %s";
-        log.info(String.format(logStr, stateStr, from, size, USER_ID_REQUEST_HEADER, ownerId));
+                                                         @Positive @RequestParam(name = "size", defaultValue = DEFAULT_SIZE_PARAM) Integer size,
+                                                         @RequestParam(name = "view", required = false) String view,
+                                                         @RequestParam(name = "fields", required = false) String fields,
+                                                         @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        final String logStr = "GET /bookings/owner?state={state}&from={from}&size={size}, {state} = {}, {from} = {}, {size} = {}, {} = {}";
+        log.debug(logStr, stateStr, from, size, USER_ID_REQUEST_HEADER, ownerId);
         final BookingState state = BookingStateValidator.validateAndGet(stateStr);
-        return bookingClient.getBookingsByItemOwner(ownerId, state, from, size);
+        final boolean normalized = ResponseViewResolver.isNormalized(view, accept);
+        final String validFields = FieldsValidator.validate(fields, BOOKING_FIELDS, normalized);
+        return bookingClient.getBookingsByItemOwner(ownerId, state, from, size, normalized, validFields);
     }
 }
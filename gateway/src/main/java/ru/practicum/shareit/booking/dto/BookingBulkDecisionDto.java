@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Builder
+@Jacksonized
+@Data
+@AllArgsConstructor
+public class BookingBulkDecisionDto {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotNull @Positive Long> bookingIds;
+    @NotNull
+    private Boolean approved;
+}
@@ -2,11 +2,22 @@ package ru.practicum.shareit.client;
 
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.common.tracing.Tracer;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static ru.practicum.shareit.common.ConstantParamStorage.IDEMPOTENCY_KEY_HEADER;
+import static ru.practicum.shareit.common.ConstantParamStorage.NORMALIZED_VIEW;
+import static ru.practicum.shareit.common.ConstantParamStorage.TRACEPARENT_HEADER;
 
 public class BaseClient {
     protected final RestTemplate rest;
@@ -79,6 +90,30 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    // Изменения после токена синхронизации (токен непрозрачный, проверяется сервером; null - с начала).
+    protected ResponseEntity<Object> getChangesSince(long userId, @Nullable String since) {
+        if (isNull(since)) {
+            return get("/changes", userId);
+        }
+
+        return get("/changes?since={since}", userId, Map.of("since", since));
+    }
+
+    // Параметр нормализованной формы списка (дописывается к пути с другими параметрами).
+    protected static String viewParam(boolean normalized) {
+        return normalized ? "&view=" + NORMALIZED_VIEW : "";
+    }
+
+    // Параметр выбора полей (значение уже проверено, null - все поля).
+    protected static String fieldsParam(String fields) {
+        return nonNull(fields) ? "&fields=" + fields : "";
+    }
+
+    // Значение параметра ids (id через запятую).
+    protected static String joinIds(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
@@ -102,9 +137,30 @@ public class BaseClient {
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+
+        // Ключ идемпотентности клиента передается на сервер как есть.
+        final String idempotencyKey = getIncomingHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey != null) {
+            headers.set(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+
+        // Сервер продолжает трассу текущего участка.
+        final String traceparent = Tracer.currentTraceparent();
+        if (traceparent != null) {
+            headers.set(TRACEPARENT_HEADER, traceparent);
+        }
         return headers;
     }
 
+    @Nullable
+    private static String getIncomingHeader(String name) {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            return ((ServletRequestAttributes) attributes).getRequest().getHeader(name);
+        }
+        return null;
+    }
+
     private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
             return response;
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+// Общий пул HTTP-соединений gateway -> server для всех клиентов (до этого у каждого клиента был свой пул по умолчанию
+// на 5 соединений). Состояние пула публикуется метриками shareit.gateway.http.pool.*.
+@Configuration
+public class ServerHttpClientConfig {
+    @Bean
+    public PoolingHttpClientConnectionManager serverConnectionManager(
+            @Value("${shareit-server.http.max-connections:200}") int maxConnections,
+            @Value("${shareit-server.http.max-connections-per-route:200}") int maxConnectionsPerRoute) {
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient serverHttpClient(PoolingHttpClientConnectionManager serverConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(serverConnectionManager)
+                .build();
+    }
+
+    @Bean
+    public MeterBinder serverConnectionPoolMetrics(PoolingHttpClientConnectionManager serverConnectionManager) {
+        return registry -> {
+            registerPoolGauge(registry, serverConnectionManager, "leased", "Соединений выдано запросам", PoolStats::getLeased);
+            registerPoolGauge(registry, serverConnectionManager, "available", "Свободных соединений в пуле", PoolStats::getAvailable);
+            registerPoolGauge(registry, serverConnectionManager, "pending", "Запросов ждут соединения", PoolStats::getPending);
+            registerPoolGauge(registry, serverConnectionManager, "max", "Максимум соединений", PoolStats::getMax);
+        };
+    }
+
+    private static void registerPoolGauge(MeterRegistry registry, PoolingHttpClientConnectionManager connectionManager,
+                                          String name, String description, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("shareit.gateway.http.pool." + name, connectionManager, manager -> value.applyAsDouble(manager.getTotalStats()))
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+
+// Ответ сервера с ошибкой, который нужно вернуть клиенту как есть (используется там, где ResponseEntity вернуть нельзя).
+@Getter
+public class ServerResponseException extends RuntimeException {
+    private final int statusCode;
+    private final byte[] body;
+
+    public ServerResponseException(int statusCode, byte[] body) {
+        super(String.format("Сервер ответил со статусом %s", statusCode));
+        this.statusCode = statusCode;
+        this.body = body;
+    }
+}
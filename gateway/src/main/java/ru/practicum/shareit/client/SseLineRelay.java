@@ -0,0 +1,116 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Flow;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+// Пересылает поток событий сервера (text/event-stream) клиенту через SseEmitter.
+// Строки события накапливаются до пустой строки и отправляются клиенту одним событием.
+// Следующая строка запрашивается только после отправки предыдущей, поэтому медленный клиент не приводит к накоплению данных в памяти.
+public class SseLineRelay implements Flow.Subscriber<String> {
+    private static final MediaType UTF8_TEXT = new MediaType("text", "plain", StandardCharsets.UTF_8);
+
+    private final SseEmitter emitter;
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled;
+    private SseEmitter.SseEventBuilder event; // собираемое событие (null - строк события еще не было)
+
+    public SseLineRelay(SseEmitter emitter) {
+        this.emitter = emitter;
+        // Клиент отключился - закрываем и соединение с сервером.
+        emitter.onCompletion(this::cancel);
+        emitter.onTimeout(this::cancel);
+        emitter.onError(e -> cancel());
+    }
+
+    public void cancel() {
+        cancelled = true;
+        final Flow.Subscription current = subscription;
+        if (nonNull(current)) {
+            current.cancel();
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        if (cancelled) {
+            subscription.cancel();
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(String line) {
+        try {
+            handleLine(line);
+            subscription.request(1);
+        } catch (IOException | IllegalStateException e) {
+            cancel();
+        }
+    }
+
+    // Соединение с сервером оборвалось: клиент переподключится сам (с Last-Event-ID).
+    @Override
+    public void onError(Throwable throwable) {
+        emitter.complete();
+    }
+
+    @Override
+    public void onComplete() {
+        emitter.complete();
+    }
+
+    private void handleLine(String line) throws IOException {
+        if (line.isEmpty()) {
+            if (nonNull(event)) {
+                emitter.send(event);
+                event = null;
+            }
+            return;
+        }
+
+        final int colonIndex = line.indexOf(':');
+        final String field = colonIndex < 0 ? line : line.substring(0, colonIndex);
+        String value = colonIndex < 0 ? "" : line.substring(colonIndex + 1);
+        if (value.startsWith(" ")) {
+            value = value.substring(1);
+        }
+
+        switch (field) {
+            case "":
+                currentEvent().comment(value);
+                break;
+            case "id":
+                currentEvent().id(value);
+                break;
+            case "event":
+                currentEvent().name(value);
+                break;
+            case "data":
+                currentEvent().data(value, UTF8_TEXT);
+                break;
+            case "retry":
+                if (!value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+                    currentEvent().reconnectTime(Long.parseLong(value));
+                }
+                break;
+            default:
+                // Неизвестные поля игнорируются (так же поступает и браузер).
+        }
+    }
+
+    private SseEmitter.SseEventBuilder currentEvent() {
+        if (isNull(event)) {
+            event = SseEmitter.event();
+        }
+        return event;
+    }
+}
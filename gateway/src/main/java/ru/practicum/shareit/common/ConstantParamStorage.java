@@ -1,8 +1,23 @@
 package ru.practicum.shareit.common;
 
+import java.util.Set;
+
 public class ConstantParamStorage {
     public static final String USER_ID_REQUEST_HEADER = "X-Sharer-User-Id";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    // Контекст трассировки W3C Trace Context.
+    public static final String TRACEPARENT_HEADER = "traceparent";
     public static final String INCOMING_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss";
     public static final String DEFAULT_FROM_PARAM = "0";
     public static final String DEFAULT_SIZE_PARAM = "10";
+    public static final int MAX_IDS_COUNT = 100;
+    // Нормализованная форма списка: параметр view=normalized или этот тип в Accept.
+    public static final String NORMALIZED_VIEW = "normalized";
+    public static final String NORMALIZED_MEDIA_TYPE = "application/vnd.shareit.normalized+json";
+    // Поля, которые можно выбрать параметром fields (имена полей в json).
+    public static final Set<String> OWNER_ITEM_FIELDS = Set.of("id", "name", "description", "available",
+            "lastBooking", "nextBooking", "comments");
+    public static final Set<String> ITEM_FIELDS = Set.of("id", "name", "description", "available", "requestId");
+    public static final Set<String> BOOKING_FIELDS = Set.of("id", "item", "booker", "start", "end", "status");
 }
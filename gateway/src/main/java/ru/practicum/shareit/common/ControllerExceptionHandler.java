@@ -2,10 +2,12 @@ package ru.practicum.shareit.common;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import ru.practicum.shareit.client.ServerResponseException;
 import ru.practicum.shareit.validation.ValidationException;
 
 import java.util.HashMap;
@@ -26,6 +28,14 @@ public class ControllerExceptionHandler {
         return new ResponseEntity<>(new ErrorResponseData(exp.getMessage()), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ServerResponseException.class)
+    public ResponseEntity<byte[]> handle(ServerResponseException exp) {
+        log.warn(exp.getMessage());
+        return ResponseEntity.status(exp.getStatusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(exp.getBody());
+    }
+
     @ExceptionHandler(Throwable.class)
     public ResponseEntity<ErrorResponseData> handle(Throwable exp) {
         log.error(exp.getMessage(), exp);
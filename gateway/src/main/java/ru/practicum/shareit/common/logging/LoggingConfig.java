@@ -0,0 +1,22 @@
+package ru.practicum.shareit.common.logging;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Выборочное логирование HTTP-запросов (shareit.logging.requests.*).
+@Configuration
+@EnableConfigurationProperties(RequestLoggingProperties.class)
+@RequiredArgsConstructor
+public class LoggingConfig implements WebMvcConfigurer {
+    private final RequestLoggingProperties properties;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (properties.isEnabled()) {
+            registry.addInterceptor(new RequestLoggingInterceptor(properties));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.common.logging;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
+
+// Одна строка лога на HTTP-запрос в виде ключ=значение (обработчик, статус, время, пользователь).
+// В лог попадает доля запросов по sample-rate обработчика; медленные запросы и ответы 5xx - всегда (WARN).
+// Для асинхронных обработчиков (поток событий) строка пишется, когда поток отдан, а не при закрытии подключения.
+@RequiredArgsConstructor
+@Slf4j
+public class RequestLoggingInterceptor implements AsyncHandlerInterceptor {
+    private static final String START_NANOS_ATTRIBUTE = RequestLoggingInterceptor.class.getName() + ".startNanos";
+
+    private final RequestLoggingProperties properties;
+    private final Map<HandlerMethod, String> handlerNames = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC && handler instanceof HandlerMethod) {
+            request.setAttribute(START_NANOS_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        logRequest(request, response, handler, true);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception exp) {
+        logRequest(request, response, handler, false);
+    }
+
+    // Пишется ли запрос в лог: медленные и 5xx - всегда, остальные - с вероятностью sample-rate обработчика.
+    public boolean shouldLog(String handlerName, long elapsedMs, int status) {
+        if (elapsedMs >= properties.getSlowMs() || status >= 500) {
+            return true;
+        }
+
+        final double sampleRate = properties.getSampleRates().getOrDefault(handlerName, properties.getSampleRate());
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private void logRequest(HttpServletRequest request, HttpServletResponse response, Object handler, boolean async) {
+        final Object startNanos = request.getAttribute(START_NANOS_ATTRIBUTE);
+        if (isNull(startNanos) || !(handler instanceof HandlerMethod)) {
+            return;
+        }
+        request.removeAttribute(START_NANOS_ATTRIBUTE);
+
+        final long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - (Long) startNanos);
+        final String handlerName = handlerName((HandlerMethod) handler);
+        final int status = response.getStatus();
+        if (!shouldLog(handlerName, elapsedMs, status)) {
+            return;
+        }
+
+        final String query = request.getQueryString();
+        final String target = nonNull(query) ? request.getRequestURI() + "?" + query : request.getRequestURI();
+        if (elapsedMs >= properties.getSlowMs() || status >= 500) {
+            log.warn("request method={} target=\"{}\" handler={} status={} duration_ms={} user={} async={} slow={}",
+                    request.getMethod(), target, handlerName, status, elapsedMs, request.getHeader(USER_ID_REQUEST_HEADER),
+                    async, elapsedMs >= properties.getSlowMs());
+        } else {
+            log.info("request method={} target=\"{}\" handler={} status={} duration_ms={} user={} async={}",
+                    request.getMethod(), target, handlerName, status, elapsedMs, request.getHeader(USER_ID_REQUEST_HEADER), async);
+        }
+    }
+
+    private String handlerName(HandlerMethod handlerMethod) {
+        return handlerNames.computeIfAbsent(handlerMethod,
+                method -> method.getBeanType().getSimpleName() + "#" + method.getMethod().getName());
+    }
+}
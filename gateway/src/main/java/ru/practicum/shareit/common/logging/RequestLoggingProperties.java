@@ -0,0 +1,21 @@
+package ru.practicum.shareit.common.logging;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "shareit.logging.requests")
+@Getter
+@Setter
+public class RequestLoggingProperties {
+    private boolean enabled = true;
+    // Доля запросов, попадающих в лог (0..1).
+    private double sampleRate = 1.0;
+    // Доли по обработчикам, ключ - Controller#method (sample-rates[ItemController#getItemById]=0.01).
+    private Map<String, Double> sampleRates = new HashMap<>();
+    // Запросы не быстрее slow-ms и ответы 5xx пишутся всегда.
+    private long slowMs = 1000;
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Время выполнения методов контроллеров и клиентов сервера: таймер shareit.method (слой, класс, метод, исход)
+// с гистограммой, по которой в Prometheus считаются перцентили (histogram_quantile).
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MethodTimingAspect {
+    private static final String TIMER_NAME = "shareit.method";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Around("within(ru.practicum.shareit..*) && @within(org.springframework.web.bind.annotation.RestController)")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("controller", joinPoint);
+    }
+
+    @Around("within(ru.practicum.shareit..*) && @within(org.springframework.stereotype.Service)")
+    public Object timeClient(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("client", joinPoint);
+    }
+
+    private Object time(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        final long startNanos = System.nanoTime();
+        String outcome = "error";
+        try {
+            final Object result = joinPoint.proceed();
+            outcome = "success";
+            return result;
+        } finally {
+            timer(layer, joinPoint.getTarget().getClass().getSimpleName(), joinPoint.getSignature().getName(), outcome)
+                    .record(Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+    }
+
+    private Timer timer(String layer, String className, String methodName, String outcome) {
+        return timers.computeIfAbsent(String.join("#", layer, className, methodName, outcome), key -> Timer.builder(TIMER_NAME)
+                .description("Время выполнения метода контроллера или клиента сервера")
+                .tags("layer", layer, "class", className, "method", methodName, "outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,186 @@
+package ru.practicum.shareit.common.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+// Запись JDK Flight Recorder по запросу (без внешних инструментов): одна запись за раз и не чаще раза в min-interval,
+// длительность не больше max-duration. Настройки - встроенные default (накладные расходы ~1%) или profile (~2%,
+// с выборками аллокаций). Хранится только последний файл записи, предыдущий удаляется.
+@Component
+@Slf4j
+public class JfrProfiler {
+    public static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final Map<String, String> ALLOCATION_EVENTS = Map.of(
+            "jdk.ObjectAllocationInNewTLAB", "tlabSize",
+            "jdk.ObjectAllocationOutsideTLAB", "allocationSize",
+            "jdk.ObjectAllocationSample", "weight");
+    // События с окружением процесса (переменные окружения с паролями, системные свойства, аргументы JVM) в запись не попадают.
+    private static final List<String> SECRET_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.InitialSecurityProperty", "jdk.JVMInformation");
+
+    private final Duration maxDuration;
+    private final Duration minInterval;
+    private final Path directory;
+
+    private boolean recording;
+    private long lastFinishedMillis;
+    private Path lastFile;
+
+    public JfrProfiler(@Value("${shareit.profiling.max-duration-seconds:120}") long maxDurationSeconds,
+                       @Value("${shareit.profiling.min-interval-seconds:60}") long minIntervalSeconds,
+                       @Value("${shareit.profiling.directory:${java.io.tmpdir}}") String directory) {
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.minInterval = Duration.ofSeconds(minIntervalSeconds);
+        this.directory = Path.of(directory);
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    // Записывает профиль заданной длительности (поток запроса ждет окончания записи) и возвращает файл .jfr.
+    // IllegalArgumentException - неизвестные настройки или длительность, IllegalStateException - запись уже идет
+    // или предыдущая закончилась меньше min-interval назад.
+    public Path record(Duration duration, String settings) throws IOException, ParseException, InterruptedException {
+        if (!SETTINGS.contains(settings)) {
+            throw new IllegalArgumentException(String.format("Неизвестные настройки записи %s, допустимы %s", settings, SETTINGS));
+        }
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException(String.format("Длительность записи должна быть от 1 до %s секунд", maxDuration.getSeconds()));
+        }
+
+        acquire();
+        final Path file = directory.resolve(String.format("shareit-%s.jfr", System.currentTimeMillis()));
+        try (Recording jfr = new Recording(Configuration.getConfiguration(settings))) {
+            jfr.setName("shareit-on-demand");
+            SECRET_EVENTS.forEach(jfr::disable);
+            jfr.setToDisk(true);
+            log.info("Начата запись JFR ({}, {} с)", settings, duration.getSeconds());
+            jfr.start();
+            try {
+                Thread.sleep(duration.toMillis());
+            } finally {
+                jfr.stop();
+                jfr.dump(file);
+            }
+            log.info("Запись JFR сохранена в {} ({} байт)", file, Files.size(file));
+            replaceLastFile(file);
+            return file;
+        } finally {
+            release();
+        }
+    }
+
+    // Сводка по записи: top методов по выборкам CPU (верхний кадр стека), по выделенной памяти и классы по выделенной памяти.
+    public JfrSummary summarize(Path file, String settings, Duration duration, int top) throws IOException {
+        final Map<String, Long> cpu = new HashMap<>();
+        final Map<String, Long> allocationSites = new HashMap<>();
+        final Map<String, Long> allocatedClasses = new HashMap<>();
+        long executionSamples = 0;
+        long allocatedBytes = 0;
+
+        try (RecordingFile recordingFile = new RecordingFile(file)) {
+            while (recordingFile.hasMoreEvents()) {
+                final RecordedEvent event = recordingFile.readEvent();
+                final String type = event.getEventType().getName();
+                if (EXECUTION_SAMPLE.equals(type)) {
+                    executionSamples++;
+                    cpu.merge(topFrame(event.getStackTrace()), 1L, Long::sum);
+                } else if (ALLOCATION_EVENTS.containsKey(type)) {
+                    final long bytes = event.getLong(ALLOCATION_EVENTS.get(type));
+                    allocatedBytes += bytes;
+                    allocationSites.merge(topFrame(event.getStackTrace()), bytes, Long::sum);
+                    if (nonNull(event.getClass("objectClass"))) {
+                        allocatedClasses.merge(event.getClass("objectClass").getName(), bytes, Long::sum);
+                    }
+                }
+            }
+        }
+
+        return JfrSummary.builder()
+                .settings(settings)
+                .durationSeconds(duration.getSeconds())
+                .recordingBytes(Files.size(file))
+                .executionSamples(executionSamples)
+                .allocatedBytes(allocatedBytes)
+                .cpuHotspots(top(cpu, executionSamples, top))
+                .allocationHotspots(top(allocationSites, allocatedBytes, top))
+                .allocatedClasses(top(allocatedClasses, allocatedBytes, top))
+                .build();
+    }
+
+    @PreDestroy
+    public synchronized void deleteLastFile() throws IOException {
+        if (nonNull(lastFile)) {
+            Files.deleteIfExists(lastFile);
+            lastFile = null;
+        }
+    }
+
+    private synchronized void acquire() {
+        final long sinceLastMillis = System.currentTimeMillis() - lastFinishedMillis;
+        if (recording) {
+            throw new IllegalStateException("Запись JFR уже идет");
+        }
+        if (lastFinishedMillis > 0 && sinceLastMillis < minInterval.toMillis()) {
+            throw new IllegalStateException(String.format("Следующая запись JFR возможна через %s с",
+                    Duration.ofMillis(minInterval.toMillis() - sinceLastMillis).toSeconds() + 1));
+        }
+        recording = true;
+    }
+
+    private synchronized void release() {
+        recording = false;
+        lastFinishedMillis = System.currentTimeMillis();
+    }
+
+    private synchronized void replaceLastFile(Path file) throws IOException {
+        deleteLastFile();
+        lastFile = file;
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (isNull(stackTrace) || stackTrace.getFrames().isEmpty()) {
+            return "<unknown>";
+        }
+
+        final RecordedFrame frame = stackTrace.getFrames().get(0);
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static List<JfrSummary.Hotspot> top(Map<String, Long> values, long total, int top) {
+        return values.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(top)
+                .map(entry -> JfrSummary.Hotspot.builder()
+                        .name(entry.getKey())
+                        .value(entry.getValue())
+                        .percent(total == 0 ? 0 : Math.round(entry.getValue() * 1000.0 / total) / 10.0)
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
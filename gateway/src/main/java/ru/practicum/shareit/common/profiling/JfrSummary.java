@@ -0,0 +1,28 @@
+package ru.practicum.shareit.common.profiling;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+// Сводка записи JFR: для CPU value - число выборок, для аллокаций - байты (оценка по выборкам TLAB).
+@Getter
+@Builder
+public class JfrSummary {
+    private final String settings;
+    private final long durationSeconds;
+    private final long recordingBytes;
+    private final long executionSamples;
+    private final long allocatedBytes;
+    private final List<Hotspot> cpuHotspots;
+    private final List<Hotspot> allocationHotspots;
+    private final List<Hotspot> allocatedClasses;
+
+    @Getter
+    @Builder
+    public static class Hotspot {
+        private final String name;
+        private final long value;
+        private final double percent;
+    }
+}
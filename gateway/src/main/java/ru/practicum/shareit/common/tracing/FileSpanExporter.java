@@ -0,0 +1,84 @@
+package ru.practicum.shareit.common.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+// Участки в локальный файл, по одному JSON в строке (shareit.tracing.exporter=file).
+// Пишет отдельный поток; если очередь записи заполнена, участки отбрасываются - запросы запись не ждут.
+@Component
+@ConditionalOnProperty(name = "shareit.tracing.exporter", havingValue = "file")
+@Slf4j
+public class FileSpanExporter implements SpanExporter {
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private final ThreadPoolExecutor writerExecutor;
+    private final AtomicLong dropped = new AtomicLong();
+    private BufferedWriter writer;
+
+    public FileSpanExporter(ObjectMapper objectMapper,
+                            @Value("${shareit.tracing.file.path:traces.jsonl}") String path,
+                            @Value("${shareit.tracing.file.queue-capacity:10000}") int queueCapacity) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+        this.writerExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "span-file-exporter");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public void export(Span span) {
+        try {
+            writerExecutor.execute(() -> write(span));
+        } catch (RejectedExecutionException exp) {
+            if (dropped.incrementAndGet() % 1000 == 1) {
+                log.warn("Очередь записи трасс в {} заполнена, отброшено участков: {}", path, dropped.get());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException, IOException {
+        writerExecutor.shutdown();
+        writerExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        if (nonNull(writer)) {
+            writer.close();
+        }
+    }
+
+    private void write(Span span) {
+        try {
+            if (isNull(writer)) {
+                writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(objectMapper.writeValueAsString(span));
+            writer.newLine();
+            if (writerExecutor.getQueue().isEmpty()) {
+                writer.flush();
+            }
+        } catch (IOException exp) {
+            log.warn("Не удалось записать участок трассы в {}: {}", path, exp.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.common.tracing;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.nonNull;
+
+// Участок трассы. Идентификаторы - в формате W3C Trace Context (hex), время - в микросекундах.
+// Участок изменяется только потоком, в котором он открыт, до завершения.
+@Getter
+public class Span {
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final boolean sampled;
+    private final String kind;
+    private String name;
+    private final long startEpochMicros;
+    private long durationMicros;
+    private final Map<String, String> attributes = new LinkedHashMap<>();
+    private String error;
+
+    @JsonIgnore
+    private final Span parent;
+    @JsonIgnore
+    private final long startNanos;
+
+    Span(String traceId, String parentSpanId, Span parent, boolean sampled, String kind, String name, long startNanos) {
+        this.traceId = traceId;
+        this.spanId = Tracer.newId(8);
+        this.parentSpanId = parentSpanId;
+        this.parent = parent;
+        this.sampled = sampled;
+        this.kind = kind;
+        this.name = name;
+        this.startNanos = startNanos;
+        this.startEpochMicros = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now())
+                - TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+
+    public Span rename(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public Span tag(String key, Object value) {
+        attributes.put(key, String.valueOf(value));
+        return this;
+    }
+
+    // Заголовок traceparent для продолжения трассы в вызываемом сервисе.
+    public String toTraceparent() {
+        return String.format("00-%s-%s-%s", traceId, spanId, sampled ? "01" : "00");
+    }
+
+    void finish(Throwable error) {
+        durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        if (nonNull(error)) {
+            this.error = error.getClass().getSimpleName() + ": " + error.getMessage();
+        }
+    }
+}
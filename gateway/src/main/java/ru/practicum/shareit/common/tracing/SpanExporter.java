@@ -0,0 +1,7 @@
+package ru.practicum.shareit.common.tracing;
+
+// Получатель завершенных участков (выбирается свойством shareit.tracing.exporter: memory, file или none).
+// Вызывается в потоке запроса, поэтому не должен блокироваться.
+public interface SpanExporter {
+    void export(Span span);
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.common.tracing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+// Трассировка запросов (W3C Trace Context). Текущий участок хранится в ThreadLocal.
+// Новые трассы выбираются для записи с вероятностью sample-rate, для продолжаемых решение берется из флага в traceparent.
+// Завершенные участки выбранных трасс получает SpanExporter.
+@Component
+@Slf4j
+public class Tracer {
+    private static final Pattern TRACEPARENT = Pattern.compile("^00-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})$");
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final SpanExporter spanExporter;
+    private final double sampleRate;
+
+    public Tracer(ObjectProvider<SpanExporter> spanExporter,
+                  @Value("${shareit.tracing.sample-rate:1.0}") double sampleRate) {
+        this.spanExporter = spanExporter.getIfAvailable(() -> span -> {
+        });
+        this.sampleRate = sampleRate;
+    }
+
+    // Корневой участок входящего запроса: продолжает трассу из traceparent или начинает новую.
+    public Span startRequestSpan(String name, @Nullable String traceparent) {
+        final Matcher matcher = TRACEPARENT.matcher(isNull(traceparent) ? "" : traceparent.trim());
+        final Span span;
+        if (matcher.matches() && !INVALID_TRACE_ID.equals(matcher.group(1))) {
+            final boolean sampled = (Integer.parseInt(matcher.group(3), 16) & 1) == 1;
+            span = new Span(matcher.group(1), matcher.group(2), null, sampled, "server", name, System.nanoTime());
+        } else {
+            final boolean sampled = ThreadLocalRandom.current().nextDouble() < sampleRate;
+            span = new Span(newId(16), null, null, sampled, "server", name, System.nanoTime());
+        }
+
+        CURRENT.set(span);
+        return span;
+    }
+
+    // Вложенный участок текущей трассы. Вне трассы и для невыбранных трасс - null (ничего не записывается).
+    @Nullable
+    public Span startSpan(String name, String kind) {
+        final Span parent = CURRENT.get();
+        if (isNull(parent) || !parent.isSampled()) {
+            return null;
+        }
+
+        final Span span = new Span(parent.getTraceId(), parent.getSpanId(), parent, true, kind, name, System.nanoTime());
+        CURRENT.set(span);
+        return span;
+    }
+
+    // Завершает участок, текущим снова становится его родитель.
+    public void finish(@Nullable Span span, @Nullable Throwable error) {
+        if (isNull(span)) {
+            return;
+        }
+
+        span.finish(error);
+        if (CURRENT.get() == span) {
+            restore(span.getParent());
+        }
+        if (span.isSampled()) {
+            export(span);
+        }
+    }
+
+    // Уже завершившийся участок (например, SQL-запрос - длительность известна после выполнения).
+    public void recordSpan(String name, String kind, long durationNanos, Map<String, String> attributes, @Nullable Throwable error) {
+        final Span parent = CURRENT.get();
+        if (isNull(parent) || !parent.isSampled()) {
+            return;
+        }
+
+        final Span span = new Span(parent.getTraceId(), parent.getSpanId(), parent, true, kind, name,
+                System.nanoTime() - durationNanos);
+        attributes.forEach(span::tag);
+        span.finish(error);
+        export(span);
+    }
+
+    @Nullable
+    public Span currentSpan() {
+        return CURRENT.get();
+    }
+
+    // Заголовок traceparent текущего участка для исходящего запроса (null вне трассы).
+    @Nullable
+    public static String currentTraceparent() {
+        final Span span = CURRENT.get();
+        return isNull(span) ? null : span.toTraceparent();
+    }
+
+    static String newId(int bytes) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final char[] id = new char[bytes * 2];
+        for (int i = 0; i < bytes; i++) {
+            final int value = random.nextInt(256);
+            id[2 * i] = HEX[value >> 4];
+            id[2 * i + 1] = HEX[value & 0xF];
+        }
+        return new String(id);
+    }
+
+    private void export(Span span) {
+        try {
+            spanExporter.export(span);
+        } catch (RuntimeException exp) {
+            log.warn("Не удалось передать участок трассы {}: {}", span.getTraceId(), exp.getMessage());
+        }
+    }
+
+    private static void restore(@Nullable Span span) {
+        if (nonNull(span)) {
+            CURRENT.set(span);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.common.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import static java.util.Objects.isNull;
+
+// Участки трассы для методов контроллеров и клиентов сервера (Класс.метод).
+// Запрос к server идет внутри участка клиента, и server продолжает трассу от него.
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class TracingAspect {
+    private final Tracer tracer;
+
+    @Around("within(ru.practicum.shareit..*) && @within(org.springframework.web.bind.annotation.RestController)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("controller", joinPoint);
+    }
+
+    @Around("within(ru.practicum.shareit..*) && @within(org.springframework.stereotype.Service)")
+    public Object traceClient(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("client", joinPoint);
+    }
+
+    private Object trace(String kind, ProceedingJoinPoint joinPoint) throws Throwable {
+        final Span span = tracer.startSpan(joinPoint.getTarget().getClass().getSimpleName() + "."
+                + joinPoint.getSignature().getName(), kind);
+        if (isNull(span)) {
+            return joinPoint.proceed();
+        }
+
+        Throwable error = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable exp) {
+            error = exp;
+            throw exp;
+        } finally {
+            tracer.finish(span, error);
+        }
+    }
+}
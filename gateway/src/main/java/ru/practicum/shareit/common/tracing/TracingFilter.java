@@ -0,0 +1,67 @@
+package ru.practicum.shareit.common.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static ru.practicum.shareit.common.ConstantParamStorage.TRACEPARENT_HEADER;
+
+// Корневой участок HTTP-запроса: продолжает трассу из заголовка traceparent клиента или начинает новую.
+// Идентификатор трассы - в MDC (traceId) и в заголовке traceparent ответа. Участок называется по шаблону пути
+// обработчика (GET /items/{itemId}), чтобы трассы одного эндпоинта группировались.
+// Исходящие запросы к server продолжают трассу (BaseClient передает traceparent текущего участка).
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class TracingFilter extends OncePerRequestFilter {
+    private static final String MDC_TRACE_ID = "traceId";
+
+    private final ObjectProvider<Tracer> tracer;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        final Tracer currentTracer = tracer.getIfAvailable();
+        if (isNull(currentTracer)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final Span span = currentTracer.startRequestSpan(request.getMethod() + " " + request.getRequestURI(),
+                request.getHeader(TRACEPARENT_HEADER));
+        MDC.put(MDC_TRACE_ID, span.getTraceId());
+        response.setHeader(TRACEPARENT_HEADER, span.toTraceparent());
+        Throwable error = null;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException exp) {
+            error = exp;
+            throw exp;
+        } finally {
+            final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (nonNull(pattern)) {
+                span.rename(request.getMethod() + " " + pattern);
+            }
+            span.tag("http.method", request.getMethod())
+                    .tag("http.target", request.getRequestURI())
+                    .tag("http.status", response.getStatus());
+            if (request.isAsyncStarted()) {
+                span.tag("http.async", true);
+            }
+            currentTracer.finish(span, error);
+            MDC.remove(MDC_TRACE_ID);
+        }
+    }
+}
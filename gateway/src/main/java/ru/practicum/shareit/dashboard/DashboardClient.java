@@ -0,0 +1,31 @@
+package ru.practicum.shareit.dashboard;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+
+@Service
+public class DashboardClient extends BaseClient {
+    private static final String API_PREFIX = "/me";
+
+    @Autowired
+    public DashboardClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                           CloseableHttpClient serverHttpClient) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(serverHttpClient))
+                        .build()
+        );
+    }
+
+    public ResponseEntity<Object> getDashboard(long userId) {
+        return get("/dashboard", userId);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.dashboard;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
+
+@Controller
+@RequestMapping(path = "/me")
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardController {
+    private final DashboardClient dashboardClient;
+
+    // Главный экран: свои вещи, свои бронирования, ожидающие подтверждения заявки на свои вещи и свои запросы.
+    @GetMapping("/dashboard")
+    public ResponseEntity<Object> getDashboard(@RequestHeader(USER_ID_REQUEST_HEADER) long userId) {
+        log.debug("GET /me/dashboard, {} = {}", USER_ID_REQUEST_HEADER, userId);
+        return dashboardClient.getDashboard(userId);
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -12,6 +13,7 @@ import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -19,11 +21,12 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      CloseableHttpClient serverHttpClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(serverHttpClient))
                         .build()
         );
     }
@@ -40,23 +43,31 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAllOwnerItems(long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> getByIds(List<Long> itemIds, long userId) {
+        return get("?ids={ids}", userId, Map.of("ids", joinIds(itemIds)));
+    }
+
+    public ResponseEntity<Object> getAllOwnerItems(long userId, Integer from, Integer size, String fields) {
         final Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
 
-        return get("?from={from}&size={size}", userId, parameters);
+        return get("?from={from}&size={size}" + fieldsParam(fields), userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItems(String searchText, long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> searchItems(String searchText, long userId, Integer from, Integer size, String fields) {
         final Map<String, Object> parameters = Map.of(
                 "text", searchText,
                 "from", from,
                 "size", size
         );
 
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/search?text={text}&from={from}&size={size}" + fieldsParam(fields), userId, parameters);
+    }
+
+    public ResponseEntity<Object> getChanges(long userId, String since) {
+        return getChangesSince(userId, since);
     }
 
     public ResponseEntity<Object> addComment(long itemId, long userId, CommentCreateDto commentCreateDto) {
@@ -9,10 +9,13 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.validation.FieldsValidator;
+import ru.practicum.shareit.validation.IdListValidator;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 import static ru.practicum.shareit.common.ConstantParamStorage.*;
 
@@ -27,7 +30,7 @@ public class ItemController {
     // Добавление вещи
     @PostMapping
     public ResponseEntity<Object> add(@RequestHeader(USER_ID_REQUEST_HEADER) long ownerId, @Valid @RequestBody ItemCreateDto item) {
-        log.info(String.format("POST /items, body = %s, %s = %s", item, USER_ID_REQUEST_HEADER, ownerId));
+        log.debug("POST /items, body = {}, {} = {}", item, USER_ID_REQUEST_HEADER, ownerId);
         return itemClient.createAndGet(item, ownerId);
     }
 
@@ -36,7 +39,7 @@ public class ItemController {
     public ResponseEntity<Object> update(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                          @Valid @RequestBody ItemDto item,
                                          @PathVariable(name = "itemId") long itemId) {
-        log.info(String.format("PATCH /items/{itemId}, body = %s, {itemId} = %s, %s = %s", item, itemId, USER_ID_REQUEST_HEADER, userId));
+        log.debug("PATCH /items/{itemId}, body = {}, {itemId} = {}, {} = {}", item, itemId, USER_ID_REQUEST_HEADER, userId);
         return itemClient.update(itemId, item, userId);
     }
 
@@ -44,17 +47,27 @@ public class ItemController {
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItemById(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                               @PathVariable(name = "itemId") long itemId) {
-        log.info(String.format("GET /items/{itemId}, {itemId} = %s, %s = %s", itemId, USER_ID_REQUEST_HEADER, userId));
+        log.debug("GET /items/{itemId}, {itemId} = {}, {} = {}", itemId, USER_ID_REQUEST_HEADER, userId);
         return itemClient.getById(itemId, userId);
     }
 
+    // Получение нескольких вещей по списку id (в порядке запроса)
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getItemsByIds(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                                @RequestParam(name = "ids") List<Long> ids) {
+        log.debug("GET /items?ids={ids}, {ids} = {}, {} = {}", ids, USER_ID_REQUEST_HEADER, userId);
+        IdListValidator.validate(ids);
+        return itemClient.getByIds(ids, userId);
+    }
+
     // Просмотр владельцем списка всех его вещей с указанием названия и описания для каждой
     @GetMapping
     public ResponseEntity<Object> getAllOwnerItems(@RequestHeader(USER_ID_REQUEST_HEADER) long ownerId,
                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = DEFAULT_FROM_PARAM) Integer from,
-                                                   @Positive @RequestParam(name = "size", defaultValue = DEFAULT_SIZE_PARAM) Integer size) {
-        log.info(String.format("GET /items?from={from}&size={size}, {from} = %s, {size} = %s, %s = %s", from, size, USER_ID_REQUEST_HEADER, ownerId));
-        return itemClient.getAllOwnerItems(ownerId, from, size);
+                                                   @Positive @RequestParam(name = "size", defaultValue = DEFAULT_SIZE_PARAM) Integer size,
+                                                   @RequestParam(name = "fields", required = false) String fields) {
+        log.debug("GET /items?from={from}&size={size}, {from} = {}, {size} = {}, {} = {}", from, size, USER_ID_REQUEST_HEADER, ownerId);
+        return itemClient.getAllOwnerItems(ownerId, from, size, FieldsValidator.validate(fields, OWNER_ITEM_FIELDS));
     }
 
     // Поиск вещи потенциальным арендатором.
@@ -63,10 +76,19 @@ public class ItemController {
     public ResponseEntity<Object> searchItems(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                               @RequestParam(name = "text") String text,
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = DEFAULT_FROM_PARAM) Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = DEFAULT_SIZE_PARAM) Integer size) {
-        final String logStr = "GET /items/search?text=text&from={from}&size={size}, text = %s, {from} = %s, {size} = %s, %s = %s";
-        log.info(String.format(logStr, text, from, size, USER_ID_REQUEST_HEADER, userId));
-        return itemClient.searchItems(text, userId, from, size);
+                                              @Positive @RequestParam(name = "size", defaultValue = DEFAULT_SIZE_PARAM) Integer size,
+                                              @RequestParam(name = "fields", required = false) String fields) {
+        final String logStr = "GET /items/search?text=text&from={from}&size={size}, text = {}, {from} = {}, {size} = {}, {} = {}";
+        log.debug(logStr, text, from, size, USER_ID_REQUEST_HEADER, userId);
+        return itemClient.searchItems(text, userId, from, size, FieldsValidator.validate(fields, ITEM_FIELDS));
+    }
+
+    // Вещи владельца, измененные после токена since (без since - все вещи).
+    @GetMapping("/changes")
+    public ResponseEntity<Object> getChanges(@RequestHeader(USER_ID_REQUEST_HEADER) long ownerId,
+                                             @RequestParam(name = "since", required = false) String since) {
+        log.debug("GET /items/changes?since={since}, {since} = {}, {} = {}", since, USER_ID_REQUEST_HEADER, ownerId);
+        return itemClient.getChanges(ownerId, since);
     }
 
     // Добавление комментария к вещи, которую когда-то бронировал.
@@ -74,7 +96,7 @@ public class ItemController {
     public ResponseEntity<Object> addComment(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                              @Valid @RequestBody CommentCreateDto comment,
                                              @PathVariable(name = "itemId") long itemId) {
-        log.info(String.format("POST /items/{itemId}/comment, {itemId} = %s, %s = %s", itemId, USER_ID_REQUEST_HEADER, userId));
+        log.debug("POST /items/{itemId}/comment, {itemId} = {}, {} = {}", itemId, USER_ID_REQUEST_HEADER, userId);
         return itemClient.addComment(itemId, userId, comment);
     }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -12,16 +13,19 @@ import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 
 import java.util.Map;
 
+import static ru.practicum.shareit.common.ConstantParamStorage.NORMALIZED_VIEW;
+
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             CloseableHttpClient serverHttpClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(serverHttpClient))
                         .build()
         );
     }
@@ -30,17 +34,21 @@ public class ItemRequestClient extends BaseClient {
         return post("", userId, itemRequestCreateDto);
     }
 
-    public ResponseEntity<Object> getAllUserItemRequests(long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getAllUserItemRequests(long userId, boolean normalized) {
+        return get(normalized ? "?view=" + NORMALIZED_VIEW : "", userId);
     }
 
-    public ResponseEntity<Object> getAllItemRequests(long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> getAllItemRequests(long userId, Integer from, Integer size, boolean normalized) {
         final Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
 
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return get("/all?from={from}&size={size}" + viewParam(normalized), userId, parameters);
+    }
+
+    public ResponseEntity<Object> getChanges(long userId, String since) {
+        return getChangesSince(userId, since);
     }
 
     public ResponseEntity<Object> getItemRequestById(long requestId, long userId) {
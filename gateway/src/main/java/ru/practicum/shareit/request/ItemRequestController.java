@@ -2,11 +2,13 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.validation.ResponseViewResolver;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
@@ -26,31 +28,45 @@ public class ItemRequestController {
     @PostMapping
     public ResponseEntity<Object> addItemRequest(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                                  @Valid @RequestBody ItemRequestCreateDto itemRequest) {
-        log.info(String.format("POST /requests, body = %s, %s = %s", itemRequest, USER_ID_REQUEST_HEADER, userId));
+        log.debug("POST /requests, body = {}, {} = {}", itemRequest, USER_ID_REQUEST_HEADER, userId);
         return itemRequestClient.createAndGet(itemRequest, userId);
     }
 
     // Получить список своих запросов вместе с данными об ответах на них
     @GetMapping
-    public ResponseEntity<Object> getAllUserItemRequests(@RequestHeader(USER_ID_REQUEST_HEADER) long userId) {
-        log.info(String.format("GET /requests, %s = %s", USER_ID_REQUEST_HEADER, userId));
-        return itemRequestClient.getAllUserItemRequests(userId);
+    public ResponseEntity<Object> getAllUserItemRequests(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                                         @RequestParam(name = "view", required = false) String view,
+                                                         @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        log.debug("GET /requests, {} = {}", USER_ID_REQUEST_HEADER, userId);
+        final boolean normalized = ResponseViewResolver.isNormalized(view, accept);
+        return itemRequestClient.getAllUserItemRequests(userId, normalized);
     }
 
     // Получить список запросов, созданных другими пользователями
     @GetMapping("/all")
     public ResponseEntity<Object> getAllItemRequests(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                                      @PositiveOrZero @RequestParam(name = "from", defaultValue = DEFAULT_FROM_PARAM) Integer from,
-                                                     @Positive @RequestParam(name = "size", defaultValue = DEFAULT_SIZE_PARAM) Integer size) {
-        log.info(String.format("GET /requests/all?from={from}&size={size}, {from} = %s, {size} = %s, %s = %s", from, size, USER_ID_REQUEST_HEADER, userId));
-        return itemRequestClient.getAllItemRequests(userId, from, size);
+                                                     @Positive @RequestParam(name = "size", defaultValue = DEFAULT_SIZE_PARAM) Integer size,
+                                                     @RequestParam(name = "view", required = false) String view,
+                                                     @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        log.debug("GET /requests/all?from={from}&size={size}, {from} = {}, {size} = {}, {} = {}", from, size, USER_ID_REQUEST_HEADER, userId);
+        final boolean normalized = ResponseViewResolver.isNormalized(view, accept);
+        return itemRequestClient.getAllItemRequests(userId, from, size, normalized);
+    }
+
+    // Свои запросы, измененные после токена since (без since - все запросы).
+    @GetMapping("/changes")
+    public ResponseEntity<Object> getChanges(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                             @RequestParam(name = "since", required = false) String since) {
+        log.debug("GET /requests/changes?since={since}, {since} = {}, {} = {}", since, USER_ID_REQUEST_HEADER, userId);
+        return itemRequestClient.getChanges(userId, since);
     }
 
     // Получить данные об одном конкретном запросе
     @GetMapping("/{requestId}")
     public ResponseEntity<Object> getItemRequest(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                                  @PathVariable(name = "requestId") long requestId) {
-        log.info(String.format("GET /requests/{requestId}, {requestId} = %s, %s = %s", requestId, USER_ID_REQUEST_HEADER, userId));
+        log.debug("GET /requests/{requestId}, {requestId} = {}, {} = {}", requestId, USER_ID_REQUEST_HEADER, userId);
         return itemRequestClient.getItemRequestById(requestId, userId);
     }
 }
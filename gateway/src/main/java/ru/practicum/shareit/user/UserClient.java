@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user;
 
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -11,16 +12,20 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      CloseableHttpClient serverHttpClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(serverHttpClient))
                         .build()
         );
     }
@@ -37,6 +42,10 @@ public class UserClient extends BaseClient {
         return get("/" + id);
     }
 
+    public ResponseEntity<Object> getByIds(List<Long> userIds) {
+        return get("?ids={ids}", null, Map.of("ids", joinIds(userIds)));
+    }
+
     public ResponseEntity<Object> getAll() {
         return get("");
     }
@@ -7,8 +7,10 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.validation.IdListValidator;
 
 import javax.validation.Valid;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/users")
@@ -19,31 +21,38 @@ public class UserController {
 
     @PostMapping
     public ResponseEntity<Object> create(@Valid @RequestBody UserCreateDto user) {
-        log.info(String.format("POST /users, body = %s", user));
+        log.debug("POST /users, body = {}", user);
         return userClient.createAndGet(user);
     }
 
     @PatchMapping("/{id}")
     public ResponseEntity<Object> update(@Valid @RequestBody UserDto user, @PathVariable(name = "id") long id) {
-        log.info(String.format("PATCH /users/{id}, {id} = %s", id));
+        log.debug("PATCH /users/{id}, {id} = {}", id);
         return userClient.update(id, user);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Object> getById(@PathVariable(name = "id") long id) {
-        log.info(String.format("GET /users/{id}, {id} = %s", id));
+        log.debug("GET /users/{id}, {id} = {}", id);
         return userClient.getById(id);
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getByIds(@RequestParam(name = "ids") List<Long> ids) {
+        log.debug("GET /users?ids={ids}, {ids} = {}", ids);
+        IdListValidator.validate(ids);
+        return userClient.getByIds(ids);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getAll() {
-        log.info("GET /users/");
+        log.debug("GET /users/");
         return userClient.getAll();
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> deleteById(@PathVariable(name = "id") long id) {
-        log.info(String.format("DELETE /users/{id}, {id} = %s", id));
+        log.debug("DELETE /users/{id}, {id} = {}", id);
         return userClient.delete(id);
     }
 }
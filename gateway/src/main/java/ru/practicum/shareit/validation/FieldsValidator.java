@@ -0,0 +1,49 @@
+package ru.practicum.shareit.validation;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+@UtilityClass
+public class FieldsValidator {
+    // Проверяет параметр fields (имена полей через запятую) и возвращает его без пробелов; null - все поля.
+    public String validate(String fields, Set<String> allowedFields) {
+        if (isNull(fields)) {
+            return null;
+        }
+
+        final List<String> fieldList = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        if (fieldList.isEmpty()) {
+            throw new ValidationException("Список полей (fields) не может быть пустым!");
+        }
+
+        final List<String> unknownFields = fieldList.stream()
+                .filter(field -> !allowedFields.contains(field))
+                .collect(Collectors.toList());
+        if (!unknownFields.isEmpty()) {
+            throw new ValidationException(String.format("Неизвестные поля: %s (допустимые: %s)", unknownFields, allowedFields));
+        }
+
+        return String.join(",", fieldList);
+    }
+
+    // Выбор полей не сочетается с нормализованной формой списка.
+    public String validate(String fields, Set<String> allowedFields, boolean normalized) {
+        final String validFields = validate(fields, allowedFields);
+        if (nonNull(validFields) && normalized) {
+            throw new ValidationException("Параметр fields нельзя использовать с нормализованной формой списка!");
+        }
+
+        return validFields;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.validation;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.List;
+
+import static ru.practicum.shareit.common.ConstantParamStorage.MAX_IDS_COUNT;
+
+@UtilityClass
+public class IdListValidator {
+    public void validate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            throw new ValidationException("Список id не может быть пустым!");
+        }
+
+        if (ids.size() > MAX_IDS_COUNT) {
+            throw new ValidationException(String.format("В списке может быть не больше %s id!", MAX_IDS_COUNT));
+        }
+
+        if (ids.stream().anyMatch(id -> id <= 0)) {
+            throw new ValidationException("Id в списке должны быть положительными!");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.validation;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.http.MediaType;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static ru.practicum.shareit.common.ConstantParamStorage.NORMALIZED_MEDIA_TYPE;
+import static ru.practicum.shareit.common.ConstantParamStorage.NORMALIZED_VIEW;
+
+@UtilityClass
+public class ResponseViewResolver {
+    private final MediaType normalizedMediaType = MediaType.parseMediaType(NORMALIZED_MEDIA_TYPE);
+
+    // Нужна ли нормализованная форма списка: параметр view важнее заголовка Accept.
+    public boolean isNormalized(String view, String accept) {
+        if (nonNull(view)) {
+            if (!NORMALIZED_VIEW.equals(view)) {
+                throw new ValidationException(String.format("Неизвестное представление ответа: %s", view));
+            }
+            return true;
+        }
+
+        if (isNull(accept)) {
+            return false;
+        }
+
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(mediaType -> mediaType.equalsTypeAndSubtype(normalizedMediaType));
+        } catch (IllegalArgumentException exp) {
+            throw new ValidationException(String.format("Некорректный заголовок Accept: %s", accept));
+        }
+    }
+}
@@ -11,27 +11,40 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.ShareItGateway;
 import ru.practicum.shareit.booking.BookingClient;
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.ServerResponseException;
 import ru.practicum.shareit.validation.ValidationException;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.common.ConstantParamStorage.LAST_EVENT_ID_HEADER;
+import static ru.practicum.shareit.common.ConstantParamStorage.NORMALIZED_MEDIA_TYPE;
 import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -60,7 +73,46 @@ public class BookingControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).getUserBookingsByState(anyLong(), any(BookingState.class), anyInt(), anyInt());
+        verify(bookingClient, never()).getUserBookingsByState(anyLong(), any(BookingState.class), anyInt(), anyInt(), anyBoolean(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    public void getUserBookingsByState_whenUnknownView_thenReturn400() {
+        mockMvc.perform(get(BASE_ENDPOINT)
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .param("view", "flat")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).getUserBookingsByState(anyLong(), any(BookingState.class), anyInt(), anyInt(), anyBoolean(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    public void getUserBookingsByState_whenFieldsWithNormalizedView_thenReturn400() {
+        mockMvc.perform(get(BASE_ENDPOINT)
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .param("view", "normalized")
+                        .param("fields", "status")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).getUserBookingsByState(anyLong(), any(BookingState.class), anyInt(), anyInt(), anyBoolean(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    public void getUserBookingsByState_whenNormalizedMediaType_thenRequestNormalizedView() {
+        Mockito.when(bookingClient.getUserBookingsByState(userId, BookingState.ALL, 0, 10, true, null))
+                .thenReturn(ResponseEntity.ok().build());
+
+        mockMvc.perform(get(BASE_ENDPOINT)
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .header(HttpHeaders.ACCEPT, NORMALIZED_MEDIA_TYPE + ", application/json"))
+                .andExpect(status().isOk());
+
+        verify(bookingClient).getUserBookingsByState(userId, BookingState.ALL, 0, 10, true, null);
     }
 
     @SneakyThrows
@@ -68,7 +120,7 @@ public class BookingControllerTest {
     public void getBookingsByItemOwner_whenUnsupportedState_thenReturn400() {
         final String stateStr = "UNSUPPORTED STATE";
 
-        Mockito.when(bookingClient.getBookingsByItemOwner(userId, BookingState.ALL, null, null))
+        Mockito.when(bookingClient.getBookingsByItemOwner(userId, BookingState.ALL, null, null, false, null))
                 .thenReturn(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
 
         mockMvc.perform(get(BASE_ENDPOINT + "/owner")
@@ -79,7 +131,7 @@ public class BookingControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).getUserBookingsByState(anyLong(), any(BookingState.class), anyInt(), anyInt());
+        verify(bookingClient, never()).getUserBookingsByState(anyLong(), any(BookingState.class), anyInt(), anyInt(), anyBoolean(), any());
     }
 
     @Nested
@@ -270,4 +322,94 @@ public class BookingControllerTest {
 
         verify(bookingClient, never()).create(bookingCreateDto, userId);
     }
+
+    @SneakyThrows
+    @Test
+    public void approveBookings_whenValid_thenForwardToServer() {
+        val decision = BookingBulkDecisionDto.builder()
+                .bookingIds(List.of(1L, 2L))
+                .approved(true)
+                .build();
+
+        Mockito.when(bookingClient.approveAll(decision, userId)).thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        mockMvc.perform(patch(BASE_ENDPOINT + "/bulk")
+                        .content(objectMapper.writeValueAsBytes(decision))
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(bookingClient).approveAll(decision, userId);
+    }
+
+    @SneakyThrows
+    @Test
+    public void approveBookings_whenEmptyIds_thenReturn400() {
+        val decision = BookingBulkDecisionDto.builder()
+                .bookingIds(Collections.emptyList())
+                .approved(true)
+                .build();
+
+        mockMvc.perform(patch(BASE_ENDPOINT + "/bulk")
+                        .content(objectMapper.writeValueAsBytes(decision))
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).approveAll(any(BookingBulkDecisionDto.class), anyLong());
+    }
+
+    @SneakyThrows
+    @Test
+    public void approveBookings_whenDecisionIsNull_thenReturn400() {
+        val decision = BookingBulkDecisionDto.builder()
+                .bookingIds(List.of(1L))
+                .build();
+
+        mockMvc.perform(patch(BASE_ENDPOINT + "/bulk")
+                        .content(objectMapper.writeValueAsBytes(decision))
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).approveAll(any(BookingBulkDecisionDto.class), anyLong());
+    }
+
+    @SneakyThrows
+    @Test
+    public void streamBookingEvents_whenServerAccepted_thenStartStream() {
+        final DeferredResult<SseEmitter> result = new DeferredResult<>();
+        result.setResult(new SseEmitter());
+        Mockito.when(bookingClient.stream(userId, 5L)).thenReturn(result);
+
+        mockMvc.perform(get(BASE_ENDPOINT + "/stream")
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .header(LAST_EVENT_ID_HEADER, 5)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(bookingClient).stream(userId, 5L);
+    }
+
+    @SneakyThrows
+    @Test
+    public void streamBookingEvents_whenServerRejected_thenReturnServerResponse() {
+        final DeferredResult<SseEmitter> result = new DeferredResult<>();
+        result.setErrorResult(new ServerResponseException(HttpStatus.NOT_FOUND.value(), "{\"error\":\"not found\"}".getBytes(StandardCharsets.UTF_8)));
+        Mockito.when(bookingClient.stream(userId, null)).thenReturn(result);
+
+        final MvcResult mvcResult = mockMvc.perform(get(BASE_ENDPOINT + "/stream")
+                        .header(USER_ID_REQUEST_HEADER, userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -20,12 +20,19 @@ import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.common.ConstantParamStorage.MAX_IDS_COUNT;
 import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -97,12 +104,39 @@ public class ItemControllerTest {
         verify(itemClient, never()).createAndGet(correctItem, userId);
     }
 
+    @SneakyThrows
+    @Test
+    public void getAllOwnerItems_whenFields_thenPassValidatedFields() {
+        Mockito.when(itemClient.getAllOwnerItems(userId, 0, 10, "name,comments"))
+                .thenReturn(ResponseEntity.ok().build());
+
+        mockMvc.perform(get(BASE_ENDPOINT)
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .param("fields", "name, comments,name")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(itemClient).getAllOwnerItems(userId, 0, 10, "name,comments");
+    }
+
+    @SneakyThrows
+    @Test
+    public void getAllOwnerItems_whenUnknownField_thenReturn400() {
+        mockMvc.perform(get(BASE_ENDPOINT)
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .param("fields", "name,owner")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).getAllOwnerItems(anyLong(), anyInt(), anyInt(), any());
+    }
+
     @SneakyThrows
     @Test
     public void getAllOwnerItems_whenFromAndHasIsZero_thenReturn500() {
         final Integer from = 0;
         final Integer size = 0;
-        Mockito.when(itemClient.getAllOwnerItems(userId, from, size))
+        Mockito.when(itemClient.getAllOwnerItems(userId, from, size, null))
                 .thenReturn(new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR));
 
         mockMvc.perform(get(BASE_ENDPOINT)
@@ -114,7 +148,7 @@ public class ItemControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isInternalServerError());
 
-        verify(itemClient, never()).getAllOwnerItems(userId, from, size);
+        verify(itemClient, never()).getAllOwnerItems(userId, from, size, null);
     }
 
     @SneakyThrows
@@ -122,7 +156,7 @@ public class ItemControllerTest {
     public void getAllOwnerItems_whenFromNegative_thenReturn500() {
         final Integer from = -1;
         final Integer size = 10;
-        Mockito.when(itemClient.getAllOwnerItems(userId, from, size))
+        Mockito.when(itemClient.getAllOwnerItems(userId, from, size, null))
                 .thenReturn(new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR));
 
         mockMvc.perform(get(BASE_ENDPOINT)
@@ -134,7 +168,7 @@ public class ItemControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isInternalServerError());
 
-        verify(itemClient, never()).getAllOwnerItems(userId, from, size);
+        verify(itemClient, never()).getAllOwnerItems(userId, from, size, null);
     }
 
     @SneakyThrows
@@ -142,7 +176,7 @@ public class ItemControllerTest {
     public void getAllOwnerItems_whenSizeNegative_thenReturn500() {
         final Integer from = 0;
         final Integer size = -10;
-        Mockito.when(itemClient.getAllOwnerItems(userId, from, size))
+        Mockito.when(itemClient.getAllOwnerItems(userId, from, size, null))
                 .thenReturn(new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR));
 
         mockMvc.perform(get(BASE_ENDPOINT)
@@ -154,7 +188,7 @@ public class ItemControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isInternalServerError());
 
-        verify(itemClient, never()).getAllOwnerItems(userId, from, size);
+        verify(itemClient, never()).getAllOwnerItems(userId, from, size, null);
     }
 
     @SneakyThrows
@@ -175,4 +209,34 @@ public class ItemControllerTest {
 
         verify(itemClient, never()).addComment(itemId, userId, emptyComment);
     }
+
+    @SneakyThrows
+    @Test
+    public void getItemsByIds_whenTooManyIds_thenReturn400() {
+        final List<Long> ids = LongStream.rangeClosed(1, MAX_IDS_COUNT + 1).boxed().collect(Collectors.toList());
+        final String idsParam = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+
+        mockMvc.perform(get(BASE_ENDPOINT)
+                        .param("ids", idsParam)
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).getByIds(ids, userId);
+    }
+
+    @SneakyThrows
+    @Test
+    public void getItemsByIds_whenOk_thenPassIdsInRequestOrder() {
+        final List<Long> ids = List.of(3L, 1L, 2L);
+        Mockito.when(itemClient.getByIds(ids, userId)).thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        mockMvc.perform(get(BASE_ENDPOINT)
+                        .param("ids", "3,1,2")
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(itemClient).getByIds(ids, userId);
+    }
 }
@@ -1,16 +1,30 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingRefDto;
 import ru.practicum.shareit.booking.model.BookingStateForSearch;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingStreamService;
 import ru.practicum.shareit.booking.validation.BookingStateForSearchHelper;
+import ru.practicum.shareit.common.fields.FieldSet;
+import ru.practicum.shareit.common.normalized.NormalizedListDto;
+import ru.practicum.shareit.common.sync.ChangesDto;
 
 import java.util.List;
 
+import static ru.practicum.shareit.common.ConstantParamStorage.FIELDS_PARAM;
+import static ru.practicum.shareit.common.ConstantParamStorage.LAST_EVENT_ID_HEADER;
+import static ru.practicum.shareit.common.ConstantParamStorage.NORMALIZED_VIEW_PARAM;
 import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
 
 @RestController
@@ -19,13 +33,15 @@ import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_H
 @Slf4j
 public class BookingController {
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final BookingStreamService bookingStreamService;
 
     // Добавление нового запроса на бронирование.
     @PostMapping
     public BookingDto create(@RequestHeader(USER_ID_REQUEST_HEADER) long userId, @RequestBody BookingCreateDto newBooking) {
-        log.info(String.format("POST /bookings, body = %s, %s = %s", newBooking, USER_ID_REQUEST_HEADER, userId));
+        log.debug("POST /bookings, body = {}, {} = {}", newBooking, USER_ID_REQUEST_HEADER, userId);
         final BookingDto bookingDto = bookingService.create(newBooking, userId);
-        log.info(String.format("Успешно создана заявка на бронирование предмета с id = %s от пользователя с id = %s", newBooking.getItemId(), userId));
+        log.debug("Успешно создана заявка на бронирование предмета с id = {} от пользователя с id = {}", newBooking.getItemId(), userId);
 
         return bookingDto;
     }
@@ -35,23 +51,66 @@ public class BookingController {
     public BookingDto approveBooking(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                      @PathVariable(name = "bookingId") long bookingId,
                                      @RequestParam(name = "approved") boolean approved) {
-        log.info(String.format("PATCH /bookings/{bookingId}?approved={approved}, {bookingId} = %s, %s = %s, {approved} = %s", bookingId, USER_ID_REQUEST_HEADER, userId, approved));
+        log.debug("PATCH /bookings/{bookingId}?approved={approved}, {bookingId} = {}, {} = {}, {approved} = {}", bookingId, USER_ID_REQUEST_HEADER, userId, approved);
         final BookingDto bookingDto = bookingService.approve(bookingId, userId, approved);
-        log.info(String.format("Владелец вещи изменил статус запроса бронирования на %s", bookingDto.getStatus()));
+        log.debug("Владелец вещи изменил статус запроса бронирования на {}", bookingDto.getStatus());
 
         return bookingDto;
     }
 
+    // Пакетное подтверждение или отклонение запросов на бронирование.
+    @PatchMapping("/bulk")
+    public List<BookingDecisionResultDto> approveBookings(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                                          @RequestBody BookingBulkDecisionDto decision) {
+        log.debug("PATCH /bookings/bulk, body = {}, {} = {}", decision, USER_ID_REQUEST_HEADER, userId);
+        final List<BookingDecisionResultDto> results = bookingService.approveAll(decision.getBookingIds(), userId, decision.isApproved());
+        log.debug("Владелец вещей обработал {} заявок на бронирование", results.size());
+
+        return results;
+    }
+
+    // Поток событий о бронированиях пользователя (SSE): новые заявки на его вещи и решения по его заявкам.
+    // После переподключения с заголовком Last-Event-ID досылаются пропущенные события.
+    @GetMapping("/stream")
+    public SseEmitter streamBookingEvents(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                          @RequestHeader(name = LAST_EVENT_ID_HEADER, required = false) Long lastEventId) {
+        log.debug("GET /bookings/stream, {} = {}, {} = {}", USER_ID_REQUEST_HEADER, userId, LAST_EVENT_ID_HEADER, lastEventId);
+        return bookingStreamService.subscribe(userId, lastEventId);
+    }
+
+    // Бронирования пользователя (как автора и как владельца вещи), измененные после токена since.
+    // Без since - все бронирования. Возвращает токен для следующего вызова.
+    @GetMapping("/changes")
+    public ChangesDto<BookingDto> getChanges(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                             @RequestParam(name = "since", required = false) String since) {
+        log.debug("GET /bookings/changes?since={since}, {since} = {}, {} = {}", since, USER_ID_REQUEST_HEADER, userId);
+        final ChangesDto<BookingDto> changes = bookingService.getChanges(userId, since);
+        log.debug("Успешно получены измененные бронирования ({} штук) пользователя с id = {}", changes.getChanged().size(), userId);
+
+        return changes;
+    }
+
     // Получение данных о конкретном бронировании (включая его статус).
     @GetMapping("/{bookingId}")
     public BookingDto getBooking(@RequestHeader(USER_ID_REQUEST_HEADER) long userId, @PathVariable(name = "bookingId") long bookingId) {
-        log.info(String.format("GET /bookings/{bookingId}, {bookingId} = %s, %s = %s", bookingId, USER_ID_REQUEST_HEADER, userId));
+        log.debug("GET /bookings/{bookingId}, {bookingId} = {}, {} = {}", bookingId, USER_ID_REQUEST_HEADER, userId);
         final BookingDto bookingDto = bookingService.getBooking(bookingId, userId);
-        log.info("Данные о бронировании успешно получены");
+        log.debug("Данные о бронировании успешно получены");
 
         return bookingDto;
     }
 
+    // Получение нескольких бронирований по списку id (в порядке запроса). Недоступные пользователю бронирования пропускаются.
+    @GetMapping(params = "ids")
+    public List<BookingDto> getBookingsByIds(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                             @RequestParam(name = "ids") List<Long> ids) {
+        log.debug("GET /bookings?ids={ids}, {ids} = {}, {} = {}", ids, USER_ID_REQUEST_HEADER, userId);
+        final List<BookingDto> bookings = bookingService.getBookings(ids, userId);
+        log.debug("Успешно получены бронирования ({} штук) по списку id", bookings.size());
+
+        return bookings;
+    }
+
     // Получение списка всех бронирований текущего пользователя (т.е список всех заявок на бронирование созданных данным пользователем).
     // Бронирования должны возвращаться отсортированными по дате от более новых к более старым.
     @GetMapping
@@ -59,27 +118,63 @@ public class BookingController {
                                                    @RequestParam(name = "state", required = false) String stateStr,
                                                    @RequestParam(name = "from", required = false) Integer from,
                                                    @RequestParam(name = "size", required = false) Integer size) {
-        final String logStr = "GET /bookings?state={state}&from={from}&size={size}, {state} = %s, {from} = %s, {size} = %s, %s = %s";
-        log.info(String.format(logStr, stateStr, from, size, USER_ID_REQUEST_HEADER, userId));
+        final String logStr = "GET /bookings?state={state}&from={from}&size={size}, {state} = {}, {from} = {}, {size} = {}, {} = {}";
+        log.debug(logStr, stateStr, from, size, USER_ID_REQUEST_HEADER, userId);
         final BookingStateForSearch state = BookingStateForSearchHelper.convertFromString(stateStr);
         final List<BookingDto> userBookings = bookingService.getUserBookingsByState(userId, state, from, size);
-        log.info(String.format("Список всех заявок на бронирование, созданных пользователем id = %s успешно получен", userId));
+        log.debug("Список всех заявок на бронирование, созданных пользователем id = {} успешно получен", userId);
 
         return userBookings;
     }
 
+    @GetMapping(params = {NORMALIZED_VIEW_PARAM, "!ids"})
+    public NormalizedListDto<BookingRefDto> getUserBookingsByStateNormalized(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                                                             @RequestParam(name = "state", required = false) String stateStr,
+                                                                             @RequestParam(name = "from", required = false) Integer from,
+                                                                             @RequestParam(name = "size", required = false) Integer size) {
+        return BookingMapper.toNormalizedBookingList(getUserBookingsByState(userId, stateStr, from, size));
+    }
+
+    @GetMapping(params = {FIELDS_PARAM, "!ids", "!view"})
+    public List<ObjectNode> getUserBookingsByStateFields(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                                         @RequestParam(name = "state", required = false) String stateStr,
+                                                         @RequestParam(name = "from", required = false) Integer from,
+                                                         @RequestParam(name = "size", required = false) Integer size,
+                                                         @RequestParam(name = FIELDS_PARAM) String fieldsParam) {
+        final FieldSet fields = FieldSet.parse(fieldsParam, BookingDto.FIELDS);
+        return fields.apply(objectMapper, getUserBookingsByState(userId, stateStr, from, size));
+    }
+
     // Получение списка бронирований для всех вещей текущего пользователя. (т.е все заявки на бронирование вещей данного пользователя.)
     @GetMapping("/owner")
     public List<BookingDto> getBookingsByItemOwner(@RequestHeader(USER_ID_REQUEST_HEADER) long ownerId,
                                                    @RequestParam(name = "state", required = false) String stateStr,
                                                    @RequestParam(name = "from", required = false) Integer from,
                                                    @RequestParam(name = "size", required = false) Integer size) {
-        final String logStr = "GET /bookings/owner?state={state}&from={from}&size={size}, {state} = %s, {from} = %s, {size} = %s, %s = %s";
-        log.info(String.format(logStr, stateStr, from, size, USER_ID_REQUEST_HEADER, ownerId));
+        final String logStr = "GET /bookings/owner?state={state}&from={from}&size={size}, {state} = {}, {from} = {}, {size} = {}, {} = {}";
+        log.debug(logStr, stateStr, from, size, USER_ID_REQUEST_HEADER, ownerId);
         final BookingStateForSearch state = BookingStateForSearchHelper.convertFromString(stateStr);
         final List<BookingDto> ownerBookings = bookingService.getBookingsByItemOwner(ownerId, state, from, size);
-        log.info(String.format("Список всех заявок на бронирование вещей пользователя id = %s успешно получен", ownerId));
+        log.debug("Список всех заявок на бронирование вещей пользователя id = {} успешно получен", ownerId);
 
         return ownerBookings;
     }
+
+    @GetMapping(path = "/owner", params = NORMALIZED_VIEW_PARAM)
+    public NormalizedListDto<BookingRefDto> getBookingsByItemOwnerNormalized(@RequestHeader(USER_ID_REQUEST_HEADER) long ownerId,
+                                                                             @RequestParam(name = "state", required = false) String stateStr,
+                                                                             @RequestParam(name = "from", required = false) Integer from,
+                                                                             @RequestParam(name = "size", required = false) Integer size) {
+        return BookingMapper.toNormalizedBookingList(getBookingsByItemOwner(ownerId, stateStr, from, size));
+    }
+
+    @GetMapping(path = "/owner", params = {FIELDS_PARAM, "!view"})
+    public List<ObjectNode> getBookingsByItemOwnerFields(@RequestHeader(USER_ID_REQUEST_HEADER) long ownerId,
+                                                         @RequestParam(name = "state", required = false) String stateStr,
+                                                         @RequestParam(name = "from", required = false) Integer from,
+                                                         @RequestParam(name = "size", required = false) Integer size,
+                                                         @RequestParam(name = FIELDS_PARAM) String fieldsParam) {
+        final FieldSet fields = FieldSet.parse(fieldsParam, BookingDto.FIELDS);
+        return fields.apply(objectMapper, getBookingsByItemOwner(ownerId, stateStr, from, size));
+    }
 }
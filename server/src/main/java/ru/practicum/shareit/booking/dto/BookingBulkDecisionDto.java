@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+@Builder
+@Jacksonized
+@Data
+@AllArgsConstructor
+public class BookingBulkDecisionDto {
+    private List<Long> bookingIds;
+    private boolean approved;
+}
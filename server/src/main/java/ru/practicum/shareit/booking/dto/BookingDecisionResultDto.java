@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+import ru.practicum.shareit.booking.model.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+@Builder
+@Jacksonized
+@Data
+@AllArgsConstructor
+public class BookingDecisionResultDto {
+    private Long bookingId;
+    private BookingDecisionOutcome outcome;
+    private BookingStatus status; // статус заявки после обработки (не заполняется для NOT_FOUND)
+}
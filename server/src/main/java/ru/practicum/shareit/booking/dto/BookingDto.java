@@ -9,12 +9,16 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Builder
 @Jacksonized
 @Data
 @AllArgsConstructor
 public class BookingDto {
+    // Имена полей в json (для параметра fields).
+    public static final Set<String> FIELDS = Set.of("id", "item", "booker", "start", "end", "status");
+
     private Long id;
     private ItemDto item;
     private UserDto booker;
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+// Данные события об изменении бронирования (outbox).
+@Builder
+@Jacksonized
+@Data
+@AllArgsConstructor
+public class BookingEventDto {
+    private Long bookingId;
+    private Long itemId;
+    private Long ownerId;
+    private Long bookerId;
+    private BookingStatus status;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -2,8 +2,13 @@ package ru.practicum.shareit.booking.dto;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.common.AbstractMapper;
+import ru.practicum.shareit.common.normalized.IncludedCollector;
+import ru.practicum.shareit.common.normalized.NormalizedListDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.user.dto.UserMapper;
 
 import java.util.Collection;
@@ -35,6 +40,23 @@ public class BookingMapper extends AbstractMapper {
                 .collect(Collectors.toUnmodifiableList());
     }
 
+    public NormalizedListDto<BookingRefDto> toNormalizedBookingList(List<BookingDto> bookingList) {
+        final IncludedCollector included = new IncludedCollector();
+        final List<BookingRefDto> bookings = Stream.ofNullable(bookingList)
+                .flatMap(Collection::stream)
+                .map(booking -> BookingRefDto.builder()
+                        .id(booking.getId())
+                        .itemId(included.addItem(booking.getItem()))
+                        .bookerId(included.addUser(booking.getBooker()))
+                        .start(booking.getStart())
+                        .end(booking.getEnd())
+                        .status(booking.getStatus())
+                        .build())
+                .collect(Collectors.toUnmodifiableList());
+
+        return new NormalizedListDto<>(bookings, included.toIncludedDto());
+    }
+
     public BookingForItemDto toBookingForItemDto(Booking booking) {
         if (isNull(booking)) return null;
 
@@ -46,6 +68,28 @@ public class BookingMapper extends AbstractMapper {
                 .build();
     }
 
+    public BookingForItemDto toLastBookingForItemDto(ItemBookingSummary summary) {
+        if (isNull(summary) || isNull(summary.getLastBookingId())) return null;
+
+        return BookingForItemDto.builder()
+                .id(summary.getLastBookingId())
+                .start(summary.getLastStart())
+                .end(summary.getLastEnd())
+                .bookerId(summary.getLastBookerId())
+                .build();
+    }
+
+    public BookingForItemDto toNextBookingForItemDto(ItemBookingSummary summary) {
+        if (isNull(summary) || isNull(summary.getNextBookingId())) return null;
+
+        return BookingForItemDto.builder()
+                .id(summary.getNextBookingId())
+                .start(summary.getNextStart())
+                .end(summary.getNextEnd())
+                .bookerId(summary.getNextBookerId())
+                .build();
+    }
+
     public Booking toBooking(BookingCreateDto bookingCreateDto) {
         if (isNull(bookingCreateDto)) return null;
 
@@ -54,4 +98,32 @@ public class BookingMapper extends AbstractMapper {
                 .end(bookingCreateDto.getEnd())
                 .build();
     }
+
+    public BookingEventDto toBookingEventDto(Booking booking) {
+        if (isNull(booking)) return null;
+
+        return BookingEventDto.builder()
+                .bookingId(booking.getId())
+                .itemId(booking.getItem().getId())
+                .ownerId(booking.getItem().getOwner().getId())
+                .bookerId(booking.getBooker().getId())
+                .status(booking.getStatus())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+    }
+
+    public BookingEventDto toBookingEventDto(BookingSnapshot booking, BookingStatus status) {
+        if (isNull(booking)) return null;
+
+        return BookingEventDto.builder()
+                .bookingId(booking.getId())
+                .itemId(booking.getItemId())
+                .ownerId(booking.getOwnerId())
+                .bookerId(booking.getBookerId())
+                .status(status)
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+    }
 }
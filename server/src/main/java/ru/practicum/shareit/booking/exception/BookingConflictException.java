@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.exception;
+
+// Заявку нельзя перевести в новый статус из-за параллельных изменений (409): запрос можно повторить.
+public class BookingConflictException extends RuntimeException {
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.exception;
+
+public class BookingStreamLimitException extends RuntimeException {
+    private static final String MESSAGE_BASE = "Превышено допустимое число подключений к потоку событий бронирования (%s), повторите позже";
+
+    public BookingStreamLimitException(int maxConnections) {
+        super(String.format(MESSAGE_BASE, maxConnections));
+    }
+}
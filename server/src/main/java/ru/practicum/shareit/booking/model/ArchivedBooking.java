@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// Завершившееся давно бронирование, перенесенное из bookings в архивную (холодную) таблицу.
+// id сохраняется прежним, поэтому записи архива и основной таблицы не пересекаются.
+@Entity
+@Table(name = "bookings_archive")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedBooking {
+    @Id
+    private Long id;
+    @ManyToOne
+    @JoinColumn(name = "item_id")
+    private Item item;
+    @ManyToOne
+    @JoinColumn(name = "user_id")
+    private User booker;
+    @Column(name = "start_booking")
+    private LocalDateTime start;
+    @Column(name = "end_booking")
+    private LocalDateTime end;
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+}
@@ -5,8 +5,11 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
+import java.time.Duration;
 import java.time.LocalDateTime;
 
+import static java.util.Objects.nonNull;
+
 @Entity
 @Table(name = "bookings")
 @Builder
@@ -15,6 +18,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Booking {
+    // Бронирования длиннее этого помечаются как длительные (longRunning). Выборка текущих бронирований (CURRENT)
+    // читает секции bookings только за последние LONG_RUNNING_AFTER, а более ранние длительные - отдельно, по флагу.
+    public static final Duration LONG_RUNNING_AFTER = Duration.ofDays(31);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id; // уникальный идентификатор бронирования
@@ -30,4 +37,17 @@ public class Booking {
     private LocalDateTime end; // дата и время конца бронирования
     @Enumerated(EnumType.STRING)
     private BookingStatus status; // статус бронирования
+    @Version
+    private Long version; // версия записи для оптимистической блокировки
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt; // время последнего изменения (для синхронизации изменений)
+    @Column(name = "long_running")
+    private boolean longRunning; // бронирование длиннее LONG_RUNNING_AFTER
+
+    @PrePersist
+    @PreUpdate
+    private void touch() {
+        updatedAt = LocalDateTime.now();
+        longRunning = nonNull(start) && nonNull(end) && Duration.between(start, end).compareTo(LONG_RUNNING_AFTER) > 0;
+    }
 }
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.model;
+
+// Результат пакетного подтверждения/отклонения для отдельной заявки.
+public enum BookingDecisionOutcome {
+    UPDATED, // статус изменен
+    NOT_FOUND, // заявки нет или она на чужую вещь
+    NOT_WAITING, // заявка уже не ожидает подтверждения
+    OVERLAPS // пересекается с уже подтвержденным бронированием этой вещи
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Краткие данные о бронировании без загрузки связанных сущностей (для пакетной обработки заявок).
+@Getter
+@AllArgsConstructor
+public class BookingSnapshot {
+    private final Long id;
+    private final Long itemId;
+    private final Long ownerId;
+    private final Long bookerId;
+    private final BookingStatus status;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
@@ -6,5 +6,6 @@ public enum BookingStateForSearch {
     PAST,
     FUTURE,
     WAITING,
-    REJECTED
+    REJECTED,
+    EXPIRED
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Число бронирований вещи в заданном статусе.
+@Getter
+@AllArgsConstructor
+public class ItemBookingStatusCount {
+    private final Long itemId;
+    private final BookingStatus status;
+    private final Long count;
+}
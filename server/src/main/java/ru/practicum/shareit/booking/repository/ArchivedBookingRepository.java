@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingStatusCount;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive (id, item_id, user_id, start_booking, end_booking, status) " +
+            "SELECT id, item_id, user_id, start_booking, end_booking, status FROM bookings WHERE id IN (:bookingIds)",
+            nativeQuery = true)
+    int copyFromBookings(@Param("bookingIds") List<Long> bookingIds);
+
+    @Query("SELECT new ru.practicum.shareit.booking.model.ItemBookingStatusCount(b.item.id, b.status, COUNT(b)) " +
+            "FROM ArchivedBooking b WHERE b.item.id IN (:itemIds) AND b.status IN (:statuses) GROUP BY b.item.id, b.status")
+    List<ItemBookingStatusCount> countByItemIdInAndStatusIn(@Param("itemIds") List<Long> itemIds,
+                                                            @Param("statuses") List<BookingStatus> statuses);
+}
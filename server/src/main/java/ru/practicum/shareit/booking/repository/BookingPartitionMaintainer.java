@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import static java.util.Objects.nonNull;
+
+// Создание помесячных секций таблицы bookings (секционирование по start_booking, см. schema-partitioning-postgresql.sql).
+// Секции создаются заранее на months-ahead месяцев вперед, бронирования вне созданных секций попадают в bookings_default.
+// Для БД без секционирования (H2 в тестах) ничего не делает.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingPartitionMaintainer {
+    private static final DateTimeFormatter PARTITION_SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${shareit.bookings.partitions.months-ahead:12}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.bookings.partitions.cron:0 0 3 * * *}")
+    public void createMissingPartitions() {
+        if (!isBookingsPartitioned()) {
+            return;
+        }
+
+        final YearMonth current = YearMonth.now();
+        for (int month = 0; month <= monthsAhead; month++) {
+            createPartition(current.plusMonths(month));
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        final LocalDate from = month.atDay(1);
+        final LocalDate to = month.plusMonths(1).atDay(1);
+        final String sql = String.format("CREATE TABLE IF NOT EXISTS bookings_p%s PARTITION OF bookings FOR VALUES FROM ('%s') TO ('%s')",
+                month.format(PARTITION_SUFFIX_FORMAT), from, to);
+
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException exp) {
+            // Например, в bookings_default уже есть строки из этого диапазона - их нужно перенести вручную.
+            log.warn("Не удалось создать секцию bookings за {}: {}", month, exp.getMessage());
+        }
+    }
+
+    private boolean isBookingsPartitioned() {
+        final String databaseName = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(databaseName)) {
+            return false;
+        }
+
+        final Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_partitioned_table pt " +
+                "JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = 'bookings'", Integer.class);
+        return nonNull(count) && count > 0;
+    }
+}
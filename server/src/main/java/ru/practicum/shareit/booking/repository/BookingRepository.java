@@ -1,11 +1,23 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingStatusCount;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long>, QuerydslPredicateExecutor<Booking>, CustomBookingRepository {
@@ -14,4 +26,109 @@ public interface BookingRepository extends JpaRepository<Booking, Long>, Queryds
 
     @Query("SELECT case when count(b)> 0 then true else false end FROM Booking b WHERE b.id = :bookingId AND b.booker.id = :userId")
     boolean isUserBookingAuthor(@Param("bookingId") long bookingId, @Param("userId") long userId);
+
+    // Условная смена статуса одним запросом: обновится только заявка в статусе expectedStatus на вещь пользователя ownerId.
+    // Возвращает кол-во обновленных записей (0 или 1).
+    default int updateStatusIfOwner(long bookingId, long ownerId, BookingStatus expectedStatus, BookingStatus newStatus) {
+        return updateStatusIfOwner(bookingId, ownerId, expectedStatus, newStatus, LocalDateTime.now());
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :newStatus, b.version = b.version + 1, b.updatedAt = :updatedAt " +
+            "WHERE b.id = :bookingId AND b.status = :expectedStatus " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int updateStatusIfOwner(@Param("bookingId") long bookingId,
+                            @Param("ownerId") long ownerId,
+                            @Param("expectedStatus") BookingStatus expectedStatus,
+                            @Param("newStatus") BookingStatus newStatus,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
+    default int updateStatusIfOwner(List<Long> bookingIds, long ownerId, BookingStatus expectedStatus, BookingStatus newStatus) {
+        return updateStatusIfOwner(bookingIds, ownerId, expectedStatus, newStatus, LocalDateTime.now());
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :newStatus, b.version = b.version + 1, b.updatedAt = :updatedAt " +
+            "WHERE b.id IN (:bookingIds) AND b.status = :expectedStatus " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int updateStatusIfOwner(@Param("bookingIds") List<Long> bookingIds,
+                            @Param("ownerId") long ownerId,
+                            @Param("expectedStatus") BookingStatus expectedStatus,
+                            @Param("newStatus") BookingStatus newStatus,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingSnapshot(b.id, b.item.id, b.item.owner.id, b.booker.id, b.status, b.start, b.end) " +
+            "FROM Booking b WHERE b.id IN (:bookingIds)")
+    List<BookingSnapshot> findSnapshotsByIdIn(@Param("bookingIds") List<Long> bookingIds);
+
+    // Подтвержденные бронирования вещей, пересекающиеся с периодом [start, end).
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingSnapshot(b.id, b.item.id, b.item.owner.id, b.booker.id, b.status, b.start, b.end) " +
+            "FROM Booking b WHERE b.item.id IN (:itemIds) AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "AND b.start < :end AND b.end > :start")
+    List<BookingSnapshot> findApprovedSnapshotsInPeriod(@Param("itemIds") List<Long> itemIds,
+                                                        @Param("start") LocalDateTime start,
+                                                        @Param("end") LocalDateTime end);
+
+    // Кандидаты на перенос в архив: бронирования, закончившиеся раньше endBefore.
+    @Query("SELECT b.id FROM Booking b WHERE b.end < :endBefore ORDER BY b.id")
+    List<Long> findIdsEndedBefore(@Param("endBefore") LocalDateTime endBefore, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id IN (:bookingIds)")
+    int deleteByIdIn(@Param("bookingIds") List<Long> bookingIds);
+
+    // Заявки в статусе status с id больше afterId (постраничная загрузка без OFFSET).
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingSnapshot(b.id, b.item.id, b.item.owner.id, b.booker.id, b.status, b.start, b.end) " +
+            "FROM Booking b WHERE b.status = :status AND b.id > :afterId ORDER BY b.id")
+    List<BookingSnapshot> findSnapshotsByStatusAfterId(@Param("status") BookingStatus status,
+                                                       @Param("afterId") long afterId,
+                                                       Pageable pageable);
+
+    // Блокировка уже начавшихся заявок в статусе status из списка.
+    // Строки, заблокированные другой транзакцией (например, другим узлом), пропускаются - FOR UPDATE SKIP LOCKED (lock.timeout = -2).
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT b FROM Booking b WHERE b.id IN (:bookingIds) AND b.status = :status AND b.start <= :now ORDER BY b.id")
+    List<Booking> lockStartedByIdIn(@Param("bookingIds") List<Long> bookingIds,
+                                    @Param("status") BookingStatus status,
+                                    @Param("now") LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT b FROM Booking b WHERE b.status = :status AND b.start <= :now ORDER BY b.id")
+    List<Booking> lockStarted(@Param("status") BookingStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    default int updateStatus(List<Long> bookingIds, BookingStatus expectedStatus, BookingStatus newStatus) {
+        return updateStatus(bookingIds, expectedStatus, newStatus, LocalDateTime.now());
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :newStatus, b.version = b.version + 1, b.updatedAt = :updatedAt " +
+            "WHERE b.id IN (:bookingIds) AND b.status = :expectedStatus")
+    int updateStatus(@Param("bookingIds") List<Long> bookingIds,
+                     @Param("expectedStatus") BookingStatus expectedStatus,
+                     @Param("newStatus") BookingStatus newStatus,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Бронирования пользователя (как автора или владельца вещи), измененные после (sinceUpdatedAt, sinceId) и раньше horizon.
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH i.owner JOIN FETCH b.booker " +
+            "WHERE (b.booker.id = :userId OR i.owner.id = :userId) " +
+            "AND (b.updatedAt > :sinceUpdatedAt OR (b.updatedAt = :sinceUpdatedAt AND b.id > :sinceId)) " +
+            "AND b.updatedAt < :horizon " +
+            "ORDER BY b.updatedAt, b.id")
+    List<Booking> findChanged(@Param("userId") long userId,
+                              @Param("sinceUpdatedAt") LocalDateTime sinceUpdatedAt,
+                              @Param("sinceId") long sinceId,
+                              @Param("horizon") LocalDateTime horizon,
+                              Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.booking.model.ItemBookingStatusCount(b.item.id, b.status, COUNT(b)) " +
+            "FROM Booking b WHERE b.item.id IN (:itemIds) AND b.status IN (:statuses) GROUP BY b.item.id, b.status")
+    List<ItemBookingStatusCount> countByItemIdInAndStatusIn(@Param("itemIds") List<Long> itemIds,
+                                                            @Param("statuses") List<BookingStatus> statuses);
+
+    // Бронирования из списка, доступные пользователю (автору бронирования или владельцу вещи), вместе с вещью и автором.
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH i.owner JOIN FETCH b.booker " +
+            "WHERE b.id IN (:bookingIds) AND (b.booker.id = :userId OR i.owner.id = :userId)")
+    List<Booking> findAccessibleByIdIn(@Param("bookingIds") List<Long> bookingIds, @Param("userId") long userId);
 }
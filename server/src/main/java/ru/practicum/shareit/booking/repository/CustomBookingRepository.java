@@ -7,6 +7,7 @@ import ru.practicum.shareit.booking.model.BookingStateForSearch;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public interface CustomBookingRepository {
     Booking getLastBookingForItemById(long itemId, LocalDateTime endDate);
@@ -28,4 +29,10 @@ public interface CustomBookingRepository {
     List<Booking> getUserBookingsByState(long userId, BookingStateForSearch searchState, Pageable pageable);
 
     List<Booking> getBookingsByItemOwner(long ownerId, BookingStateForSearch searchState, Pageable pageable);
+
+    // Бронирование из архива (давно закончившееся).
+    Optional<Booking> findArchivedById(long bookingId);
+
+    // Бронирования из архива, доступные пользователю (автору бронирования или владельцу вещи).
+    List<Booking> findArchivedAccessibleByIdIn(List<Long> bookingIds, long userId);
 }
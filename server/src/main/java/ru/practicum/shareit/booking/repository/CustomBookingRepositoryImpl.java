@@ -10,29 +10,53 @@ import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.support.Querydsl;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStateForSearch;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.QArchivedBooking;
 import ru.practicum.shareit.booking.model.QBooking;
+import ru.practicum.shareit.common.OffsetBasedPageRequest;
+import ru.practicum.shareit.common.Utils;
+import ru.practicum.shareit.common.replica.ReplicaQueryExecutor;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 public class CustomBookingRepositoryImpl implements CustomBookingRepository {
+    // Порядок выдачи списков бронирований: от более новых к более старым.
+    private static final Comparator<Booking> BOOKING_START_DESC_ORDER = Comparator.comparing(Booking::getStart)
+            .thenComparing(Booking::getId)
+            .reversed();
+    // Состояния, записи которых могут лежать в архиве (давно закончившиеся бронирования).
+    private static final Set<BookingStateForSearch> ARCHIVED_SEARCH_STATES = EnumSet.of(BookingStateForSearch.ALL,
+            BookingStateForSearch.PAST, BookingStateForSearch.WAITING, BookingStateForSearch.REJECTED, BookingStateForSearch.EXPIRED);
+
     private final JPAQueryFactory queryFactory;
+    private final ReplicaQueryExecutor replicaQueryExecutor;
     private final QBooking booking = new QBooking("booking");
     private final QBooking subBooking = new QBooking("subBooking");
+    private final QArchivedBooking archivedBooking = new QArchivedBooking("archivedBooking");
+    private final QArchivedBooking subArchivedBooking = new QArchivedBooking("subArchivedBooking");
     @PersistenceContext
     private EntityManager entityManager;
 
-    public CustomBookingRepositoryImpl(EntityManager entityManager) {
+    public CustomBookingRepositoryImpl(EntityManager entityManager, ReplicaQueryExecutor replicaQueryExecutor) {
         queryFactory = new JPAQueryFactory(JPQLTemplates.DEFAULT, entityManager);
+        this.replicaQueryExecutor = replicaQueryExecutor;
     }
 
     // Условие - Все заявки на бронирование вещей данного пользователя.
@@ -45,6 +69,17 @@ public class CustomBookingRepositoryImpl implements CustomBookingRepository {
         return QBooking.booking.booker.id.eq(userId);
     }
 
+    private static Booking toBooking(ArchivedBooking archived) {
+        return Booking.builder()
+                .id(archived.getId())
+                .item(archived.getItem())
+                .booker(archived.getBooker())
+                .start(archived.getStart())
+                .end(archived.getEnd())
+                .status(archived.getStatus())
+                .build();
+    }
+
     @Override
     public Booking getLastBookingForItemById(long itemId, LocalDateTime endDate) {
         final QBookingQueryHelper helper = new QBookingQueryHelper(booking);
@@ -52,7 +87,20 @@ public class CustomBookingRepositoryImpl implements CustomBookingRepository {
         final BooleanExpression whereExp = helper.getLastBooking(itemId, endDate);
         final JPAQuery<Booking> query = helper.getLastBookingSelectQuery(whereExp);
 
-        return query.fetchFirst();
+        final Booking lastBooking = query.fetchFirst();
+        if (nonNull(lastBooking)) {
+            return lastBooking;
+        }
+
+        // Последнее бронирование могло уже уйти в архив.
+        final ArchivedBooking lastArchived = queryFactory.selectFrom(archivedBooking)
+                .where(archivedBooking.item.id.eq(itemId)
+                        .and(archivedBooking.status.eq(BookingStatus.APPROVED))
+                        .and(archivedBooking.start.before(endDate)))
+                .orderBy(archivedBooking.start.desc())
+                .fetchFirst();
+
+        return nonNull(lastArchived) ? toBooking(lastArchived) : null;
     }
 
     @Override
@@ -69,7 +117,41 @@ public class CustomBookingRepositoryImpl implements CustomBookingRepository {
         final BooleanExpression whereExp = helper.getLastBooking(itemIdList, endDate).and(booking.start.eq(subQuery));
         final List<Booking> lastBookings = queryFactory.selectFrom(booking).where(whereExp).fetch();
 
-        return lastBookings.stream().collect(Collectors.toUnmodifiableMap(b -> b.getItem().getId(), b -> b));
+        // Для вещей без последнего бронирования в основной таблице смотрим архив.
+        final Set<Long> itemIdsWithLastBooking = lastBookings.stream()
+                .map(b -> b.getItem().getId())
+                .collect(Collectors.toSet());
+        final List<Long> itemIdsWithoutLastBooking = itemIdList.stream()
+                .filter(itemId -> !itemIdsWithLastBooking.contains(itemId))
+                .collect(Collectors.toList());
+        final List<Booking> lastArchivedBookings = getLastArchivedBookingForItemsByIdList(itemIdsWithoutLastBooking, endDate);
+
+        return Stream.concat(lastBookings.stream(), lastArchivedBookings.stream())
+                .collect(Collectors.toUnmodifiableMap(b -> b.getItem().getId(), b -> b));
+    }
+
+    private List<Booking> getLastArchivedBookingForItemsByIdList(List<Long> itemIdList, LocalDateTime endDate) {
+        if (itemIdList.isEmpty()) {
+            return List.of();
+        }
+
+        var subQuery = JPAExpressions.select(subArchivedBooking.start.max())
+                .from(subArchivedBooking)
+                .where(subArchivedBooking.item.id.eq(archivedBooking.item.id)
+                        .and(subArchivedBooking.status.eq(BookingStatus.APPROVED))
+                        .and(subArchivedBooking.start.before(endDate)))
+                .groupBy(subArchivedBooking.item.id);
+
+        final BooleanExpression whereExp = archivedBooking.item.id.in(itemIdList)
+                .and(archivedBooking.status.eq(BookingStatus.APPROVED))
+                .and(archivedBooking.start.eq(subQuery));
+
+        return queryFactory.selectFrom(archivedBooking)
+                .where(whereExp)
+                .fetch()
+                .stream()
+                .map(CustomBookingRepositoryImpl::toBooking)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -113,43 +195,103 @@ public class CustomBookingRepositoryImpl implements CustomBookingRepository {
         final Booking oneOfBooking = queryFactory.selectFrom(booking)
                 .where(whereExp)
                 .fetchFirst();
+        if (nonNull(oneOfBooking)) {
+            return true;
+        }
 
-        return nonNull(oneOfBooking);
+        final ArchivedBooking oneOfArchived = queryFactory.selectFrom(archivedBooking)
+                .where(archivedBooking.booker.id.eq(userId)
+                        .and(archivedBooking.item.id.eq(itemId))
+                        .and(archivedBooking.status.eq(BookingStatus.APPROVED))
+                        .and(archivedBooking.start.before(startUsingBeforeDate)))
+                .fetchFirst();
+
+        return nonNull(oneOfArchived);
     }
 
     @Override
     public List<Booking> getUserBookingsByState(long userId, BookingStateForSearch searchState) {
-        final BooleanExpression userBookingsExpression = getBookingsCreateByUserExpression(userId);
-        return getBookingsBySearchState(userBookingsExpression, searchState, null);
-
+        return getUserBookingsByState(userId, searchState, null);
     }
 
     @Override
     public List<Booking> getBookingsByItemOwner(long ownerId, BookingStateForSearch searchState) {
-        // Все заявки на бронирование вещей данного пользователя.
-        final BooleanExpression bookingsByItemsOwnerExpression = getBookingsByItemsOwnerExpression(ownerId);
-        return getBookingsBySearchState(bookingsByItemsOwnerExpression, searchState, null);
+        return getBookingsByItemOwner(ownerId, searchState, null);
     }
 
+    // Бронирования пользователя могут относиться к вещам разных владельцев, поэтому при чтении с реплик
+    // запрос выполняется на всех репликах, а результаты сливаются.
     @Override
     public List<Booking> getUserBookingsByState(long userId, BookingStateForSearch searchState, Pageable pageable) {
         final BooleanExpression userBookingsExpression = getBookingsCreateByUserExpression(userId);
-        return getBookingsBySearchState(userBookingsExpression, searchState, pageable);
+        final BooleanExpression archivedUserBookingsExpression = archivedBooking.booker.id.eq(userId);
+        return replicaQueryExecutor.readOnAllReplicas(
+                replicaPageable -> getBookingsBySearchState(userBookingsExpression, archivedUserBookingsExpression, searchState, replicaPageable),
+                BOOKING_START_DESC_ORDER,
+                pageable);
     }
 
+    // Все заявки на бронирование вещей данного пользователя читаются с реплики владельца.
     @Override
     public List<Booking> getBookingsByItemOwner(long ownerId, BookingStateForSearch searchState, Pageable pageable) {
         final BooleanExpression bookingsByItemsOwnerExpression = getBookingsByItemsOwnerExpression(ownerId);
-        return getBookingsBySearchState(bookingsByItemsOwnerExpression, searchState, pageable);
+        final BooleanExpression archivedBookingsByItemsOwnerExpression = archivedBooking.item.owner.id.eq(ownerId);
+        return replicaQueryExecutor.readOnOwnerReplica(ownerId,
+                () -> getBookingsBySearchState(bookingsByItemsOwnerExpression, archivedBookingsByItemsOwnerExpression, searchState, pageable));
+    }
+
+    @Override
+    public Optional<Booking> findArchivedById(long bookingId) {
+        return Optional.ofNullable(entityManager.find(ArchivedBooking.class, bookingId))
+                .map(CustomBookingRepositoryImpl::toBooking);
     }
 
-    private List<Booking> getBookingsBySearchState(BooleanExpression expression, BookingStateForSearch searchState, Pageable pageable) {
-        final BooleanExpression searchStateExpression = getSearchExpressionByState(searchState); // условие сформированное исходя из searchState.
-        final BooleanExpression finalExpression = expression.and(searchStateExpression);
+    @Override
+    public List<Booking> findArchivedAccessibleByIdIn(List<Long> bookingIds, long userId) {
+        return queryFactory.selectFrom(archivedBooking)
+                .where(archivedBooking.id.in(bookingIds)
+                        .and(archivedBooking.booker.id.eq(userId).or(archivedBooking.item.owner.id.eq(userId))))
+                .fetch()
+                .stream()
+                .map(CustomBookingRepositoryImpl::toBooking)
+                .collect(Collectors.toList());
+    }
 
+    // В архив переносятся давно закончившиеся бронирования любого статуса, поэтому архив читают все состояния,
+    // кроме текущих (CURRENT) и будущих (FUTURE), которые там оказаться не могут.
+    // Текущие бронирования основной таблицы читаются двумя запросами: начавшиеся за последние Booking.LONG_RUNNING_AFTER
+    // (только свежие секции bookings) и более ранние длительные (по флагу longRunning).
+    // Из каждой части берется по offset + size записей, затем результаты сливаются и обрезаются по pageable.
+    private List<Booking> getBookingsBySearchState(BooleanExpression expression, BooleanExpression archivedExpression,
+                                                   BookingStateForSearch searchState, Pageable pageable) {
+        final LocalDateTime now = LocalDateTime.now();
+        final boolean isArchiveRead = ARCHIVED_SEARCH_STATES.contains(searchState);
+        final boolean isLongRunningRead = searchState == BookingStateForSearch.CURRENT;
+        if (!isArchiveRead && !isLongRunningRead) {
+            return getBookingsBySearchState(expression.and(getSearchExpressionByState(searchState, now)), pageable);
+        }
+
+        final Pageable mergePageable = isNull(pageable)
+                ? null
+                : new OffsetBasedPageRequest(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()), pageable.getSort());
+
+        final List<List<Booking>> parts = new ArrayList<>();
+        parts.add(getBookingsBySearchState(expression.and(getSearchExpressionByState(searchState, now)), mergePageable));
+        if (isLongRunningRead) {
+            parts.add(getBookingsBySearchState(expression.and(getLongRunningCurrentExpression(now)), mergePageable));
+        }
+        if (isArchiveRead) {
+            parts.add(getArchivedBookings(archivedExpression.and(getArchivedSearchExpressionByState(searchState, now)), mergePageable));
+        }
+
+        return Utils.mergeSortedAndPage(parts, BOOKING_START_DESC_ORDER, pageable);
+    }
+
+    private List<Booking> getBookingsBySearchState(BooleanExpression finalExpression, Pageable pageable) {
         final JPAQuery<Booking> query = queryFactory.selectFrom(QBooking.booking)
                 .where(finalExpression)
-                .orderBy(QBooking.booking.start.desc());
+                // Тот же порядок, что у BOOKING_START_DESC_ORDER: иначе при слиянии частей равные start обрезаются по-разному.
+                .orderBy(QBooking.booking.start.desc(), QBooking.booking.id.desc());
 
         final List<Booking> result;
         if (nonNull(pageable)) {
@@ -162,9 +304,26 @@ public class CustomBookingRepositoryImpl implements CustomBookingRepository {
         return result;
     }
 
-    private BooleanExpression getSearchExpressionByState(BookingStateForSearch searchState) {
+    private List<Booking> getArchivedBookings(BooleanExpression archivedExpression, Pageable pageable) {
+        final JPAQuery<ArchivedBooking> archivedQuery = queryFactory.selectFrom(archivedBooking)
+                .where(archivedExpression)
+                .orderBy(archivedBooking.start.desc(), archivedBooking.id.desc());
+        if (nonNull(pageable)) {
+            archivedQuery.limit(pageable.getPageSize());
+        }
+
+        return archivedQuery.fetch().stream()
+                .map(CustomBookingRepositoryImpl::toBooking)
+                .collect(Collectors.toList());
+    }
+
+    // Не зависит от состояния репозитория (доступно бенчмаркам построения запросов).
+    static BooleanExpression getSearchExpressionByState(BookingStateForSearch searchState) {
+        return getSearchExpressionByState(searchState, LocalDateTime.now());
+    }
+
+    private static BooleanExpression getSearchExpressionByState(BookingStateForSearch searchState, LocalDateTime now) {
         BooleanExpression searchStateExpression = null;
-        final LocalDateTime now = LocalDateTime.now();
 
         switch (searchState) {
             case PAST: {
@@ -176,7 +335,11 @@ public class CustomBookingRepositoryImpl implements CustomBookingRepository {
                 break;
             }
             case CURRENT: {
-                searchStateExpression = QBooking.booking.start.before(now).and(QBooking.booking.end.after(now));
+                // Нижняя граница start отсекает старые секции bookings, начавшиеся раньше длительные читает
+                // getLongRunningCurrentExpression.
+                searchStateExpression = QBooking.booking.start.after(now.minus(Booking.LONG_RUNNING_AFTER))
+                        .and(QBooking.booking.start.before(now))
+                        .and(QBooking.booking.end.after(now));
                 break;
             }
             case WAITING: {
@@ -187,11 +350,39 @@ public class CustomBookingRepositoryImpl implements CustomBookingRepository {
                 searchStateExpression = QBooking.booking.status.eq(BookingStatus.REJECTED);
                 break;
             }
+            case EXPIRED: {
+                searchStateExpression = QBooking.booking.status.eq(BookingStatus.EXPIRED);
+                break;
+            }
         }
 
         return searchStateExpression;
     }
 
+    // Текущие длительные бронирования, начавшиеся раньше нижней границы start выборки CURRENT
+    // (с ней не пересекаются; в PostgreSQL читаются по частичному индексу ix_bookings_long_running_end).
+    private static BooleanExpression getLongRunningCurrentExpression(LocalDateTime now) {
+        return QBooking.booking.longRunning.isTrue()
+                .and(QBooking.booking.start.loe(now.minus(Booking.LONG_RUNNING_AFTER)))
+                .and(QBooking.booking.end.after(now));
+    }
+
+    // То же условие, что у getSearchExpressionByState, для архивной таблицы (только для ARCHIVED_SEARCH_STATES).
+    private BooleanExpression getArchivedSearchExpressionByState(BookingStateForSearch searchState, LocalDateTime now) {
+        switch (searchState) {
+            case PAST:
+                return archivedBooking.end.before(now);
+            case WAITING:
+                return archivedBooking.status.eq(BookingStatus.WAITING);
+            case REJECTED:
+                return archivedBooking.status.eq(BookingStatus.REJECTED);
+            case EXPIRED:
+                return archivedBooking.status.eq(BookingStatus.EXPIRED);
+            default:
+                return null;
+        }
+    }
+
     @RequiredArgsConstructor
     class QBookingQueryHelper {
         private final QBooking booking;
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+// Периодический перенос давно закончившихся бронирований в архив.
+// Каждая порция переносится в отдельной транзакции, чтобы не держать долгие блокировки на bookings.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingArchiveJob {
+    private final BookingArchiveService bookingArchiveService;
+
+    @Value("${shareit.bookings.archive.after-days:365}")
+    private int archiveAfterDays;
+    @Value("${shareit.bookings.archive.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${shareit.bookings.archive.cron:0 30 3 * * *}")
+    public void archivePastBookings() {
+        final LocalDateTime endBefore = LocalDateTime.now().minusDays(archiveAfterDays);
+
+        int total = 0;
+        int archived;
+        do {
+            archived = bookingArchiveService.archiveBatch(endBefore, batchSize);
+            total += archived;
+        } while (archived == batchSize);
+
+        log.info("Архивация бронирований завершена, всего перенесено {}", total);
+    }
+}
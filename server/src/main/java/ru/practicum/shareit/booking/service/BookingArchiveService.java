@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.service;
+
+import java.time.LocalDateTime;
+
+public interface BookingArchiveService {
+    // Переносит в архив одну порцию (не больше batchSize) бронирований, закончившихся раньше endBefore.
+    // Возвращает кол-во перенесенных бронирований.
+    int archiveBatch(LocalDateTime endBefore, int batchSize);
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.OffsetBasedPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingArchiveServiceImpl implements BookingArchiveService {
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+
+    // Копирование и удаление выполняются в одной транзакции, поэтому бронирование видно ровно в одной из таблиц.
+    @Transactional
+    @Override
+    public int archiveBatch(LocalDateTime endBefore, int batchSize) {
+        final List<Long> bookingIds = bookingRepository.findIdsEndedBefore(endBefore, new OffsetBasedPageRequest(0, batchSize));
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+
+        archivedBookingRepository.copyFromBookings(bookingIds);
+        final int archivedCount = bookingRepository.deleteByIdIn(bookingIds);
+
+        log.debug("В архив перенесено {} бронирований (закончились раньше {})", archivedCount, endBefore);
+        return archivedCount;
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.HierarchicalTimingWheel;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Планировщик истечения заявок: каждая заявка в статусе WAITING лежит в колесе таймеров до момента начала бронирования.
+// Колесо заполняется из БД при старте и обновляется при создании заявки и принятии решения по ней (после фиксации транзакции).
+// Каждый узел ведет свое колесо, от двойной обработки защищает блокировка заявок с SKIP LOCKED в BookingExpiryService.
+// Периодическая проверка по БД подбирает заявки, которые не попали в колесо ни одного работающего узла.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExpiryScheduler {
+    private static final long TICK_MS = 1000;
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 4; // 64^4 секунд ~ 194 дня, более поздние сроки - в списке переполнения колеса
+
+    private final BookingRepository bookingRepository;
+    private final BookingExpiryService bookingExpiryService;
+
+    @Value("${shareit.bookings.expiry.batch-size:500}")
+    private int batchSize;
+
+    private final HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK_MS, WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+    // Заявки, срок которых наступил, но которые еще не обработаны (остаются здесь при ошибке до следующего тика).
+    private final Set<Long> dueBookingIds = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadWaitingBookings() {
+        long afterId = 0;
+        int loaded = 0;
+        List<BookingSnapshot> bookings;
+        do {
+            bookings = bookingRepository.findSnapshotsByStatusAfterId(BookingStatus.WAITING, afterId, PageRequest.of(0, batchSize));
+            bookings.forEach(booking -> schedule(booking.getId(), booking.getStart()));
+            if (!bookings.isEmpty()) {
+                afterId = bookings.get(bookings.size() - 1).getId();
+            }
+            loaded += bookings.size();
+        } while (bookings.size() == batchSize);
+
+        log.info("В планировщик истечения загружено {} заявок на бронирование", loaded);
+    }
+
+    public void onCreated(long bookingId, LocalDateTime start) {
+        afterCommit(() -> schedule(bookingId, start));
+    }
+
+    public void onDecided(Collection<Long> bookingIds) {
+        afterCommit(() -> bookingIds.forEach(wheel::cancel));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.expiry.tick-ms:1000}")
+    public void expireDue() {
+        dueBookingIds.addAll(wheel.advance(System.currentTimeMillis()));
+        if (dueBookingIds.isEmpty()) {
+            return;
+        }
+
+        final LocalDateTime now = LocalDateTime.now();
+        final List<Long> bookingIds = new ArrayList<>(dueBookingIds);
+        for (int from = 0; from < bookingIds.size(); from += batchSize) {
+            final List<Long> batch = bookingIds.subList(from, Math.min(from + batchSize, bookingIds.size()));
+            try {
+                bookingExpiryService.expire(batch, now);
+                batch.forEach(dueBookingIds::remove);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось обработать истекшие заявки {}, повтор на следующем тике", batch, e);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${shareit.bookings.expiry.sweep-cron:0 */5 * * * *}")
+    public void expireStarted() {
+        final LocalDateTime now = LocalDateTime.now();
+        int expired;
+        do {
+            expired = bookingExpiryService.expireStarted(now, batchSize);
+        } while (expired == batchSize);
+    }
+
+    private void schedule(long bookingId, LocalDateTime start) {
+        final long startMs = start.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (wheel.schedule(bookingId, startMs)) {
+            dueBookingIds.add(bookingId);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingExpiryService {
+    int expire(List<Long> bookingIds, LocalDateTime now);
+
+    int expireStarted(LocalDateTime now, int batchSize);
+}
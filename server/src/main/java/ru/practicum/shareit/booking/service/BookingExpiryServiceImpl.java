@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.outbox.OutboxEventType;
+import ru.practicum.shareit.common.outbox.OutboxService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Перевод заявок, не подтвержденных до начала бронирования, в статус EXPIRED.
+// Заявки блокируются с SKIP LOCKED: заявку, которую уже обрабатывает другой узел (или подтверждает владелец), пропускаем.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExpiryServiceImpl implements BookingExpiryService {
+    private final BookingRepository bookingRepository;
+    private final OutboxService outboxService;
+
+    @Transactional
+    @Override
+    public int expire(List<Long> bookingIds, LocalDateTime now) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+
+        return expireLocked(bookingRepository.lockStartedByIdIn(bookingIds, BookingStatus.WAITING, now));
+    }
+
+    @Transactional
+    @Override
+    public int expireStarted(LocalDateTime now, int batchSize) {
+        return expireLocked(bookingRepository.lockStarted(BookingStatus.WAITING, now, PageRequest.of(0, batchSize)));
+    }
+
+    private int expireLocked(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+
+        final List<BookingEventDto> events = bookings.stream()
+                .map(BookingMapper::toBookingEventDto)
+                .peek(event -> event.setStatus(BookingStatus.EXPIRED))
+                .collect(Collectors.toList());
+        final List<Long> bookingIds = bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+
+        // Строки заблокированы этой транзакцией, поэтому обновятся все.
+        final int expired = bookingRepository.updateStatus(bookingIds, BookingStatus.WAITING, BookingStatus.EXPIRED);
+        events.forEach(event -> outboxService.add(OutboxEventType.BOOKING_EXPIRED, event.getBookingId(), event));
+
+        log.debug("Истек срок {} заявок на бронирование: {}", expired, bookingIds);
+        return expired;
+    }
+}
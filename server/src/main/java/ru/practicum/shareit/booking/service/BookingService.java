@@ -1,8 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingStateForSearch;
+import ru.practicum.shareit.common.sync.ChangesDto;
 
 import java.util.List;
 
@@ -11,8 +14,14 @@ public interface BookingService {
 
     BookingDto approve(long bookingId, long userId, boolean isApproved);
 
+    List<BookingDecisionResultDto> approveAll(List<Long> bookingIds, long userId, boolean isApproved);
+
     BookingDto getBooking(long id, long userId);
 
+    List<BookingDto> getBookings(List<Long> ids, long userId);
+
+    ChangesDto<BookingDto> getChanges(long userId, String since);
+
     List<BookingDto> getUserBookingsByState(long userId, BookingStateForSearch searchState);
 
     List<BookingDto> getBookingsByItemOwner(long ownerId, BookingStateForSearch searchState);
@@ -20,4 +29,8 @@ public interface BookingService {
     List<BookingDto> getUserBookingsByState(long userId, BookingStateForSearch searchState, Integer from, Integer size);
 
     List<BookingDto> getBookingsByItemOwner(long ownerId, BookingStateForSearch searchState, Integer from, Integer size);
+
+    List<BookingDto> findUserBookings(long userId, BookingStateForSearch searchState, Pageable pageable);
+
+    List<BookingDto> findBookingsByItemOwner(long ownerId, BookingStateForSearch searchState, Pageable pageable);
 }
@@ -1,26 +1,43 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.exception.BookingConflictException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
 import ru.practicum.shareit.booking.model.BookingStateForSearch;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.sync.ChangeFeedReader;
+import ru.practicum.shareit.common.sync.ChangesDto;
+import ru.practicum.shareit.common.sync.SyncToken;
 import ru.practicum.shareit.common.NotFoundException;
+import ru.practicum.shareit.common.outbox.OutboxEventType;
+import ru.practicum.shareit.common.outbox.OutboxService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.DaoItem;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.DaoUser;
 
-import java.util.List;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static java.util.Objects.isNull;
 import static ru.practicum.shareit.common.Utils.createOffsetBasedPageRequest;
+import static ru.practicum.shareit.common.Utils.orderByIds;
 
 @Service
 @RequiredArgsConstructor
@@ -28,6 +45,10 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final DaoUser daoUser;
     private final DaoItem daoItem;
+    private final OutboxService outboxService;
+    private final BookingExpiryScheduler bookingExpiryScheduler;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ChangeFeedReader changeFeedReader;
 
     //  Добавление нового запроса на бронирование.
     //  Запрос может быть создан любым пользователем, а затем подтверждён владельцем вещи.
@@ -58,6 +79,8 @@ public class BookingServiceImpl implements BookingService {
         booking.setItem(item);
 
         booking = bookingRepository.save(booking);
+        outboxService.add(OutboxEventType.BOOKING_CREATED, booking.getId(), BookingMapper.toBookingEventDto(booking));
+        bookingExpiryScheduler.onCreated(booking.getId(), booking.getStart());
 
         return BookingMapper.toBookingDto(booking);
     }
@@ -65,27 +88,81 @@ public class BookingServiceImpl implements BookingService {
     // Подтверждение или отклонение запроса на бронирование.
     // Может быть выполнено только владельцем вещи.
     // Затем статус бронирования становится либо APPROVED, либо REJECTED
+    // Статус меняется одним условным UPDATE (заявка в статусе WAITING и пользователь - владелец вещи),
+    // поэтому из нескольких одновременных подтверждений/отклонений успешным будет только одно.
+    // Пересечение с подтвержденными бронированиями (с блокировкой вещи) проверяет только пакетное подтверждение.
     @Transactional
     @Override
     public BookingDto approve(long bookingId, long userId, boolean isApproved) {
-        // Проверяем есть ли заявка на бронирование.
-        Booking booking = getBooking(bookingId);
+        final BookingStatus newStatus = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        final boolean isUpdated = bookingRepository.updateStatusIfOwner(bookingId, userId, BookingStatus.WAITING, newStatus) > 0;
 
-        if (booking.getStatus() != BookingStatus.WAITING) {
-            throw new UnsupportedOperationException(String.format("При подтверждении/отклонении заявки ее статус должен быть %s. Текущий статус - %s", BookingStatus.WAITING, booking.getStatus()));
+        // Заявка нужна и для ответа, и для выяснения причины, по которой статус не изменился.
+        final Booking booking = getBooking(bookingId);
+
+        if (!isUpdated) {
+            throwApproveFailure(booking, userId);
         }
+        final BookingEventDto event = BookingMapper.toBookingEventDto(booking);
+        outboxService.add(toDecisionEventType(newStatus), bookingId, event);
+        itemBookingSummaryService.onBookingDecided(event);
+        bookingExpiryScheduler.onDecided(List.of(bookingId));
 
-        // Проверяем, что одобрение/отклонение устанавливает владелец вещи.
-        if (!bookingRepository.isUserOwnItemFromBooking(bookingId, userId)) {
-            throw new NotFoundException(String.format("Статус заявки на бронирование вещи может менять только ее владелец! (id заявки = %s, id пользователя = %s)", bookingId, userId));
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    // Пакетное подтверждение или отклонение заявок владельцем вещей.
+    // Статусы меняются одним условным UPDATE. При подтверждении заявки обрабатываются в порядке начала бронирования (затем id):
+    // заявка, пересекающаяся с уже подтвержденным бронированием той же вещи (в т.ч. подтвержденным в этом же пакете), остается в WAITING.
+    // Если за время обработки какую-то заявку изменили параллельно, весь пакет откатывается (409).
+    @Transactional
+    @Override
+    public List<BookingDecisionResultDto> approveAll(List<Long> bookingIds, long userId, boolean isApproved) {
+        final List<Long> distinctIds = bookingIds.stream().distinct().collect(Collectors.toList());
+        if (distinctIds.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        final BookingStatus newStatus = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
-        booking.setStatus(newStatus);
+        final Map<Long, BookingSnapshot> bookings = findSnapshotsForDecision(distinctIds, userId, isApproved);
+        final List<BookingSnapshot> waitingBookings = findWaitingBookings(bookings, userId);
 
-        booking = bookingRepository.save(booking);
+        final Set<Long> overlappingIds = isApproved ? findOverlappingWithApproved(waitingBookings) : Collections.emptySet();
+        final List<BookingSnapshot> bookingsToUpdate = waitingBookings.stream()
+                .filter(booking -> !overlappingIds.contains(booking.getId()))
+                .collect(Collectors.toList());
+        final List<Long> idsToUpdate = bookingsToUpdate.stream()
+                .map(BookingSnapshot::getId)
+                .collect(Collectors.toList());
 
-        return BookingMapper.toBookingDto(booking);
+        final BookingStatus newStatus = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (!idsToUpdate.isEmpty()) {
+            final int updatedCount = bookingRepository.updateStatusIfOwner(idsToUpdate, userId, BookingStatus.WAITING, newStatus);
+            if (updatedCount != idsToUpdate.size()) {
+                throw new ObjectOptimisticLockingFailureException(Booking.class, idsToUpdate);
+            }
+            bookingExpiryScheduler.onDecided(idsToUpdate);
+        }
+        bookingsToUpdate.forEach(booking -> {
+            final BookingEventDto event = BookingMapper.toBookingEventDto(booking, newStatus);
+            outboxService.add(toDecisionEventType(newStatus), booking.getId(), event);
+            itemBookingSummaryService.onBookingDecided(event);
+        });
+
+        return distinctIds.stream()
+                .map(id -> {
+                    final BookingSnapshot booking = bookings.get(id);
+                    if (isNull(booking) || !booking.getOwnerId().equals(userId)) {
+                        return new BookingDecisionResultDto(id, BookingDecisionOutcome.NOT_FOUND, null);
+                    }
+                    if (booking.getStatus() != BookingStatus.WAITING) {
+                        return new BookingDecisionResultDto(id, BookingDecisionOutcome.NOT_WAITING, booking.getStatus());
+                    }
+                    if (overlappingIds.contains(id)) {
+                        return new BookingDecisionResultDto(id, BookingDecisionOutcome.OVERLAPS, BookingStatus.WAITING);
+                    }
+                    return new BookingDecisionResultDto(id, BookingDecisionOutcome.UPDATED, newStatus);
+                })
+                .collect(Collectors.toList());
     }
 
     // Получение данных о конкретном бронировании (включая его статус).
@@ -96,8 +173,11 @@ public class BookingServiceImpl implements BookingService {
         // Проверяем существует ли пользователь.
         daoUser.checkUserExists(userId);
 
-        // Проверяем есть ли заявка на бронирование.
-        final Booking booking = getBooking(id);
+        // Проверяем есть ли заявка на бронирование (давно закончившееся могло уйти в архив).
+        final Optional<Booking> bookingOpt = bookingRepository.findById(id);
+        if (bookingOpt.isEmpty()) {
+            return getArchivedBooking(id, userId);
+        }
 
         // Проверяем есть ли доступ (запросил автор или владелец).
         final boolean isUserOwnItem = bookingRepository.isUserOwnItemFromBooking(id, userId);
@@ -106,9 +186,57 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException(String.format("Данные о бронировании может запросить либо владелец вещи либо автор бронирования. Пользователь id = %s не подходит под эти требования", userId));
         }
 
+        return BookingMapper.toBookingDto(bookingOpt.get());
+    }
+
+    private BookingDto getArchivedBooking(long id, long userId) {
+        final Booking booking = bookingRepository.findArchivedById(id).orElseThrow(() -> new BookingNotFoundException(id));
+
+        final boolean isUserOwnItem = booking.getItem().getOwner().getId().equals(userId);
+        final boolean isUserAuthorBooking = booking.getBooker().getId().equals(userId);
+        if (!isUserOwnItem && !isUserAuthorBooking) {
+            throw new NotFoundException(String.format("Данные о бронировании может запросить либо владелец вещи либо автор бронирования. Пользователь id = %s не подходит под эти требования", userId));
+        }
+
         return BookingMapper.toBookingDto(booking);
     }
 
+    // Получение нескольких бронирований одним запросом (в порядке запрошенных id).
+    // Права доступа как у getBooking: бронирования, которые пользователь видеть не может, пропускаются (как несуществующие).
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> getBookings(List<Long> ids, long userId) {
+        daoUser.checkUserExists(userId);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        final List<Booking> foundBookings = new ArrayList<>(bookingRepository.findAccessibleByIdIn(ids, userId));
+        // Не найденные в основной таблице ищутся в архиве.
+        if (foundBookings.size() < ids.size()) {
+            final Set<Long> foundIds = foundBookings.stream().map(Booking::getId).collect(Collectors.toSet());
+            final List<Long> missingIds = ids.stream().filter(id -> !foundIds.contains(id)).distinct().collect(Collectors.toList());
+            foundBookings.addAll(bookingRepository.findArchivedAccessibleByIdIn(missingIds, userId));
+        }
+
+        final List<Booking> bookings = orderByIds(ids, foundBookings, Booking::getId);
+        return BookingMapper.toBookingDtoList(bookings);
+    }
+
+    // Бронирования пользователя (как автора и как владельца вещи), измененные после токена since.
+    // Архивные бронирования не меняются, поэтому читается только основная таблица.
+    @Transactional(readOnly = true)
+    @Override
+    public ChangesDto<BookingDto> getChanges(long userId, String since) {
+        daoUser.checkUserExists(userId);
+
+        return changeFeedReader.read(since,
+                (sinceUpdatedAt, sinceId, horizon, pageable) ->
+                        bookingRepository.findChanged(userId, sinceUpdatedAt, sinceId, horizon, pageable),
+                booking -> new SyncToken(booking.getUpdatedAt(), booking.getId()),
+                BookingMapper::toBookingDtoList);
+    }
+
     // Получение списка всех бронирований текущего пользователя (т.е список всех заявок на бронирование созданных данным пользователем).
     // Бронирования должны возвращаться отсортированными по дате от более новых к более старым.
     @Transactional(readOnly = true)
@@ -154,6 +282,92 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.toBookingDtoList(bookingsByOwner);
     }
 
+    // Без проверки существования пользователя (ее выполняет вызывающий).
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> findUserBookings(long userId, BookingStateForSearch searchState, Pageable pageable) {
+        final List<Booking> userBookings = bookingRepository.getUserBookingsByState(userId, searchState, pageable);
+        return BookingMapper.toBookingDtoList(userBookings);
+    }
+
+    // Без проверки существования пользователя (ее выполняет вызывающий).
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> findBookingsByItemOwner(long ownerId, BookingStateForSearch searchState, Pageable pageable) {
+        final List<Booking> bookingsByOwner = bookingRepository.getBookingsByItemOwner(ownerId, searchState, pageable);
+        return BookingMapper.toBookingDtoList(bookingsByOwner);
+    }
+
+    // При подтверждении сначала блокируются вещи заявок, и только затем читаются заявки: параллельные пакеты по одной вещи
+    // выполняются по очереди, и каждый видит бронирования, подтвержденные предыдущим.
+    private Map<Long, BookingSnapshot> findSnapshotsForDecision(List<Long> bookingIds, long ownerId, boolean isApproved) {
+        if (isApproved) {
+            daoItem.lockOwnerItemsOfBookings(ownerId, bookingIds);
+        }
+        return bookingRepository.findSnapshotsByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(BookingSnapshot::getId, Function.identity()));
+    }
+
+    // Ожидающие заявки владельца в порядке начала бронирования (затем id).
+    private List<BookingSnapshot> findWaitingBookings(Map<Long, BookingSnapshot> bookings, long ownerId) {
+        return bookings.values().stream()
+                .filter(booking -> booking.getOwnerId().equals(ownerId) && booking.getStatus() == BookingStatus.WAITING)
+                .sorted(Comparator.comparing(BookingSnapshot::getStart).thenComparing(BookingSnapshot::getId))
+                .collect(Collectors.toList());
+    }
+
+    // Заявки (уже отсортированные по началу) проверяются по очереди: подтверждаемая добавляется к подтвержденным,
+    // поэтому из двух пересекающихся заявок пакета подтверждается более ранняя.
+    // Вызывается под блокировкой вещей (findSnapshotsForDecision).
+    private Set<Long> findOverlappingWithApproved(List<BookingSnapshot> waitingBookings) {
+        if (waitingBookings.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        final List<Long> itemIds = waitingBookings.stream()
+                .map(BookingSnapshot::getItemId)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+
+        final LocalDateTime periodStart = waitingBookings.stream().map(BookingSnapshot::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        final LocalDateTime periodEnd = waitingBookings.stream().map(BookingSnapshot::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+        final Map<Long, List<BookingSnapshot>> approvedByItem = bookingRepository.findApprovedSnapshotsInPeriod(itemIds, periodStart, periodEnd).stream()
+                .collect(Collectors.groupingBy(BookingSnapshot::getItemId, Collectors.toCollection(ArrayList::new)));
+
+        final Set<Long> overlappingIds = new HashSet<>();
+        for (BookingSnapshot booking : waitingBookings) {
+            final List<BookingSnapshot> approved = approvedByItem.computeIfAbsent(booking.getItemId(), itemId -> new ArrayList<>());
+            final boolean isOverlapping = approved.stream()
+                    .anyMatch(other -> other.getStart().isBefore(booking.getEnd()) && booking.getStart().isBefore(other.getEnd()));
+
+            if (isOverlapping) {
+                overlappingIds.add(booking.getId());
+            } else {
+                approved.add(booking);
+            }
+        }
+
+        return overlappingIds;
+    }
+
+    private OutboxEventType toDecisionEventType(BookingStatus status) {
+        return status == BookingStatus.APPROVED ? OutboxEventType.BOOKING_APPROVED : OutboxEventType.BOOKING_REJECTED;
+    }
+
+    private void throwApproveFailure(Booking booking, long userId) {
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            throw new UnsupportedOperationException(String.format("При подтверждении/отклонении заявки ее статус должен быть %s. Текущий статус - %s", BookingStatus.WAITING, booking.getStatus()));
+        }
+
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
+            throw new NotFoundException(String.format("Статус заявки на бронирование вещи может менять только ее владелец! (id заявки = %s, id пользователя = %s)", booking.getId(), userId));
+        }
+
+        // Заявку изменили между UPDATE и чтением, а затем вернули в WAITING.
+        throw new BookingConflictException(String.format("Заявка на бронирование с id = %s была изменена параллельно, повторите запрос", booking.getId()));
+    }
+
     private Booking getBooking(long bookingId) {
         final Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
         return bookingOpt.orElseThrow(() -> new BookingNotFoundException(bookingId));
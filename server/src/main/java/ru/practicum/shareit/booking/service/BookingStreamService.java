@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface BookingStreamService {
+    SseEmitter subscribe(long userId, Long lastEventId);
+}
@@ -0,0 +1,295 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.exception.BookingStreamLimitException;
+import ru.practicum.shareit.common.outbox.OutboxAggregateType;
+import ru.practicum.shareit.common.outbox.OutboxEventMessage;
+import ru.practicum.shareit.common.outbox.OutboxEventRepository;
+import ru.practicum.shareit.user.repository.DaoUser;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+// Рассылка событий о бронированиях (создано, подтверждено, отклонено) владельцу вещи и автору бронирования через SSE.
+// События приходят из outbox (OutboxEventMessage), id события outbox - id события в потоке.
+// Подключения асинхронные (поток на подключение не выделяется), их число ограничено;
+// для возобновления по Last-Event-ID хранится ограниченный буфер последних событий.
+// id событий outbox выдаются до фиксации транзакций, поэтому событие с меньшим id может прийти позже большего:
+// буфер хранит события в порядке поступления, а повторы отсекаются по точному id (ограниченное множество последних id).
+// Событие попадает в буфер сразу (в потоке доставки outbox), а отправка подписчикам идет в отдельном потоке с ограниченной очередью:
+// медленный клиент с заполненным TCP-буфером не задерживает доставку outbox и ее транзакцию с блокировками строк.
+// Если очередь отправки заполнена, подключения адресатов события закрываются - клиент переподключится с Last-Event-ID
+// и получит событие из буфера.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingStreamServiceImpl implements BookingStreamService {
+    // Событие, после которого клиенту нужно перечитать бронирования (часть событий уже недоступна для повтора).
+    public static final String RESET_EVENT_NAME = "RESET";
+
+    private final DaoUser daoUser;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${shareit.bookings.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+    @Value("${shareit.bookings.stream.reconnect-ms:3000}")
+    private long reconnectMs;
+    @Value("${shareit.bookings.stream.max-connections:20000}")
+    private int maxConnections;
+    @Value("${shareit.bookings.stream.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+    @Value("${shareit.bookings.stream.replay-buffer-size:1000}")
+    private int replayBufferSize;
+    @Value("${shareit.bookings.stream.delivery-queue-capacity:10000}")
+    private int deliveryQueueCapacity;
+    @Value("${shareit.bookings.stream.seen-ids-size:10000}")
+    private int seenIdsSize;
+
+    private final Map<Long, Deque<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    // Последние события (в порядке поступления). Регистрация подписчиков и добавление событий - под блокировкой буфера.
+    private final Deque<BookingStreamEvent> recentEvents = new ArrayDeque<>();
+    // id последних разосланных событий (повторно доставленные outbox события пропускаются), не больше seenIdsSize.
+    private final Set<Long> seenEventIds = new LinkedHashSet<>();
+    private long evictedEventId; // id последнего вытесненного из буфера события (все события до него в буфере отсутствуют)
+    // Один поток: события уходят подписчикам в порядке поступления.
+    private ThreadPoolExecutor deliveryExecutor;
+
+    @PostConstruct
+    public void startDelivery() {
+        deliveryExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(deliveryQueueCapacity),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "booking-stream-delivery");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stopDelivery() {
+        deliveryExecutor.shutdownNow();
+    }
+
+    @Override
+    public SseEmitter subscribe(long userId, Long lastEventId) {
+        daoUser.checkUserExists(userId);
+
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            throw new BookingStreamLimitException(maxConnections);
+        }
+
+        final SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> unregister(userId, emitter));
+        emitter.onError(e -> unregister(userId, emitter));
+        send(userId, emitter, SseEmitter.event().comment("connected").reconnectTime(reconnectMs));
+
+        synchronized (recentEvents) {
+            final Deque<SseEmitter> userEmitters = subscribers.compute(userId, (id, current) -> {
+                final Deque<SseEmitter> emitters = isNull(current) ? new ConcurrentLinkedDeque<>() : current;
+                emitters.addLast(emitter);
+                return emitters;
+            });
+
+            // Повтор - через поток отправки, раньше событий, добавленных после регистрации.
+            if (nonNull(lastEventId)) {
+                final List<SseEmitter.SseEventBuilder> missedEvents = missedEvents(userId, lastEventId);
+                deliver(Map.of(emitter, userId), () -> {
+                    for (SseEmitter.SseEventBuilder event : missedEvents) {
+                        if (!send(userId, emitter, event)) {
+                            return;
+                        }
+                    }
+                });
+            }
+
+            // Самое старое подключение пользователя закрывается (обычно это брошенная вкладка).
+            if (userEmitters.size() > maxConnectionsPerUser) {
+                final SseEmitter oldest = userEmitters.pollFirst();
+                if (nonNull(oldest)) {
+                    connectionCount.decrementAndGet();
+                    oldest.complete();
+                }
+            }
+        }
+
+        return emitter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initReplayPosition() {
+        final long maxPublishedId = outboxEventRepository.findMaxPublishedId();
+        synchronized (recentEvents) {
+            if (recentEvents.isEmpty()) {
+                evictedEventId = maxPublishedId;
+            }
+        }
+    }
+
+    // Вызывается при доставке событий outbox (в ее транзакции), поэтому подписчикам событие отправляется асинхронно.
+    // Адресаты фиксируются вместе с добавлением в буфер: подключившиеся позже получают событие при повторе, а не дважды.
+    // Ошибки отправки отдельным подписчикам не прерывают доставку.
+    @EventListener
+    public void onOutboxEvent(OutboxEventMessage message) {
+        if (message.getAggregateType() != OutboxAggregateType.BOOKING) {
+            return;
+        }
+
+        final BookingEventDto booking = parse(message);
+        if (isNull(booking)) {
+            return;
+        }
+
+        final BookingStreamEvent event = new BookingStreamEvent(message.getId(), message.getEventType().name(),
+                message.getPayload(), booking.getOwnerId(), booking.getBookerId());
+        final Map<SseEmitter, Long> recipients = new LinkedHashMap<>();
+        synchronized (recentEvents) {
+            if (!seenEventIds.add(event.id)) {
+                return;
+            }
+            if (seenEventIds.size() > seenIdsSize) {
+                final Iterator<Long> oldestSeenId = seenEventIds.iterator();
+                oldestSeenId.next();
+                oldestSeenId.remove();
+            }
+
+            recentEvents.addLast(event);
+            if (recentEvents.size() > replayBufferSize) {
+                evictedEventId = recentEvents.removeFirst().id;
+            }
+
+            addRecipients(recipients, event.ownerId);
+            addRecipients(recipients, event.bookerId);
+        }
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        deliver(recipients, () -> recipients.forEach((emitter, userId) -> send(userId, emitter, event.toSseEvent())));
+    }
+
+    // Комментарий в потоке не дает прокси и балансировщикам закрыть простаивающее соединение.
+    @Scheduled(fixedRateString = "${shareit.bookings.stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        subscribers.forEach((userId, emitters) ->
+                emitters.forEach(emitter -> send(userId, emitter, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    // События, поступившие после события lastEventId (вызывается под блокировкой буфера).
+    // Если такого события в буфере нет (и это не последнее вытесненное), часть событий могла потеряться:
+    // перед повтором всего буфера отправляется RESET с id последнего вытесненного события.
+    private List<SseEmitter.SseEventBuilder> missedEvents(long userId, long lastEventId) {
+        final List<SseEmitter.SseEventBuilder> missedEvents = new ArrayList<>();
+        final boolean isInBuffer = recentEvents.stream().anyMatch(event -> event.id == lastEventId);
+        if (!isInBuffer && lastEventId != evictedEventId) {
+            missedEvents.add(SseEmitter.event()
+                    .id(String.valueOf(evictedEventId))
+                    .name(RESET_EVENT_NAME)
+                    .data("{}", MediaType.APPLICATION_JSON));
+        }
+
+        boolean isAfterLastEvent = !isInBuffer;
+        for (BookingStreamEvent event : recentEvents) {
+            if (isAfterLastEvent && event.isAddressedTo(userId)) {
+                missedEvents.add(event.toSseEvent());
+            }
+            if (event.id == lastEventId) {
+                isAfterLastEvent = true;
+            }
+        }
+        return missedEvents;
+    }
+
+    // Отправка в потоке доставки. Если очередь заполнена, подключения получателей закрываются:
+    // клиенты переподключатся с Last-Event-ID и получат пропущенное из буфера.
+    private void deliver(Map<SseEmitter, Long> recipients, Runnable delivery) {
+        try {
+            deliveryExecutor.execute(delivery);
+        } catch (RejectedExecutionException e) {
+            log.warn("Очередь отправки событий бронирования заполнена, закрыто подключений: {}", recipients.size());
+            recipients.forEach((emitter, userId) -> {
+                unregister(userId, emitter);
+                emitter.complete();
+            });
+        }
+    }
+
+    private void addRecipients(Map<SseEmitter, Long> recipients, Long userId) {
+        final Deque<SseEmitter> emitters = isNull(userId) ? null : subscribers.get(userId);
+        if (nonNull(emitters)) {
+            emitters.forEach(emitter -> recipients.put(emitter, userId));
+        }
+    }
+
+    private boolean send(long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Клиент отключился, контейнер сам завершит запрос.
+            unregister(userId, emitter);
+            return false;
+        }
+    }
+
+    private void unregister(long userId, SseEmitter emitter) {
+        final Deque<SseEmitter> emitters = subscribers.get(userId);
+        if (nonNull(emitters) && emitters.remove(emitter)) {
+            connectionCount.decrementAndGet();
+            subscribers.computeIfPresent(userId, (id, current) -> current.isEmpty() ? null : current);
+        }
+    }
+
+    private BookingEventDto parse(OutboxEventMessage message) {
+        try {
+            return objectMapper.readValue(message.getPayload(), BookingEventDto.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось разобрать данные события id = {}", message.getId(), e);
+            return null;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class BookingStreamEvent {
+        private final long id;
+        private final String name;
+        private final String payload;
+        private final Long ownerId;
+        private final Long bookerId;
+
+        private boolean isAddressedTo(long userId) {
+            return Objects.equals(ownerId, userId) || Objects.equals(bookerId, userId);
+        }
+
+        private SseEmitter.SseEventBuilder toSseEvent() {
+            return SseEmitter.event()
+                    .id(String.valueOf(id))
+                    .name(name)
+                    .data(payload, MediaType.APPLICATION_JSON);
+        }
+    }
+}
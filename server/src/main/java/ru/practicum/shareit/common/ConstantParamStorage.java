@@ -2,5 +2,13 @@ package ru.practicum.shareit.common;
 
 public class ConstantParamStorage {
     public static final String USER_ID_REQUEST_HEADER = "X-Sharer-User-Id";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    // Контекст трассировки W3C Trace Context.
+    public static final String TRACEPARENT_HEADER = "traceparent";
     public static final String INCOMING_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss";
+    // Нормализованная форма списка (вложенные вещи и пользователи - один раз в included).
+    public static final String NORMALIZED_VIEW_PARAM = "view=normalized";
+    // Выбор полей элементов списка (имена полей в json через запятую). С нормализованной формой не сочетается.
+    public static final String FIELDS_PARAM = "fields";
 }
@@ -1,19 +1,29 @@
 package ru.practicum.shareit.common;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.booking.exception.BookingConflictException;
+import ru.practicum.shareit.booking.exception.BookingStreamLimitException;
 import ru.practicum.shareit.item.exception.NotOwnerAccessException;
 import ru.practicum.shareit.user.exception.EmailAlreadyUsedException;
 
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
 
+import static java.util.Objects.nonNull;
+
 @Slf4j
 @RestControllerAdvice
 public class ExceptionHandler {
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
     @org.springframework.web.bind.annotation.ExceptionHandler(NotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponseData handle(NotFoundException exp) {
@@ -26,6 +36,32 @@ public class ExceptionHandler {
         return simpleHandle(exp);
     }
 
+    // Запись изменили параллельно (не совпала версия).
+    @org.springframework.web.bind.annotation.ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponseData handle(ObjectOptimisticLockingFailureException exp) {
+        return simpleHandle(exp);
+    }
+
+    // Заявку изменили параллельно (условный UPDATE не применился).
+    @org.springframework.web.bind.annotation.ExceptionHandler(BookingConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponseData handle(BookingConflictException exp) {
+        return simpleHandle(exp);
+    }
+
+    // Нарушение уникальности (например, повторное создание того же бронирования, un_unique_booking_record) - конфликт.
+    // Остальные нарушения ограничений БД (внешние ключи, NOT NULL и т.д.) - ошибка сервера, как любое другое исключение.
+    @org.springframework.web.bind.annotation.ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponseData> handle(DataIntegrityViolationException exp) {
+        if (!isUniqueViolation(exp)) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(handle((Throwable) exp));
+        }
+
+        log.warn(exp.getMessage(), exp);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponseData("Запись с такими данными уже существует"));
+    }
+
     @org.springframework.web.bind.annotation.ExceptionHandler(NotOwnerAccessException.class)
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ErrorResponseData handle(NotOwnerAccessException exp) {
@@ -44,6 +80,18 @@ public class ExceptionHandler {
         return simpleHandle(exp);
     }
 
+    @org.springframework.web.bind.annotation.ExceptionHandler(BookingStreamLimitException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponseData handle(BookingStreamLimitException exp) {
+        return simpleHandle(exp);
+    }
+
+    @org.springframework.web.bind.annotation.ExceptionHandler(ParallelReadTimeoutException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponseData handle(ParallelReadTimeoutException exp) {
+        return simpleHandle(exp);
+    }
+
     @org.springframework.web.bind.annotation.ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> handle(MethodArgumentNotValidException exp) {
@@ -63,6 +111,17 @@ public class ExceptionHandler {
         return new ErrorResponseData("internal server error. info: " + exp.getMessage());
     }
 
+    // SQLSTATE 23505 (unique_violation) одинаков у PostgreSQL и H2. Имя ограничения не проверяется:
+    // у секций bookings в PostgreSQL уникальные индексы получают сгенерированные имена.
+    private static boolean isUniqueViolation(Throwable exp) {
+        for (Throwable cause = exp; nonNull(cause); cause = cause.getCause()) {
+            if (cause instanceof SQLException && UNIQUE_VIOLATION_SQL_STATE.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private ErrorResponseData simpleHandle(RuntimeException exp) {
         log.warn(exp.getMessage(), exp);
         return new ErrorResponseData(exp.getMessage());
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Иерархическое колесо таймеров: ключи (id) планируются на момент времени и возвращаются из advance(), когда он наступил.
+// Уровень L состоит из wheelSize ячеек по tickMs * wheelSize^L мс. Когда нижний уровень проходит полный круг,
+// очередная ячейка верхнего уровня раскладывается по нижним. Добавление и отмена - O(1), продвижение на тик - O(кол-во сработавших).
+// Ключи дальше горизонта верхнего уровня хранятся в отдельном списке и перекладываются при каждом обороте верхнего уровня.
+// Повторное планирование ключа заменяет прежний срок (старая запись отбрасывается при срабатывании ячейки).
+public class HierarchicalTimingWheel {
+    private final long tickMs;
+    private final int wheelSize;
+    private final long[] levelTicks; // длительность ячейки уровня в тиках
+    private final List<List<Entry>> slots; // ячейки всех уровней подряд: уровень L, ячейка i -> L * wheelSize + i
+    private final List<Entry> overflow = new ArrayList<>();
+    private final Map<Long, Long> deadlines = new HashMap<>(); // ключ -> тик срабатывания (актуальная запись)
+    private long currentTick;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levels, long startTimeMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.levelTicks = new long[levels + 1];
+        this.slots = new ArrayList<>(wheelSize * levels);
+        this.currentTick = startTimeMs / tickMs;
+
+        long ticks = 1;
+        for (int level = 0; level <= levels; level++) {
+            levelTicks[level] = ticks;
+            ticks *= wheelSize;
+        }
+        for (int i = 0; i < wheelSize * levels; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    // Возвращает true, если срок уже наступил (ключ не планируется, обработать его нужно сразу).
+    public synchronized boolean schedule(long key, long deadlineMs) {
+        final long deadlineTick = ceilDiv(deadlineMs, tickMs);
+        if (deadlineTick <= currentTick) {
+            deadlines.remove(key);
+            return true;
+        }
+
+        deadlines.put(key, deadlineTick);
+        place(new Entry(key, deadlineTick), null);
+        return false;
+    }
+
+    public synchronized void cancel(long key) {
+        deadlines.remove(key);
+    }
+
+    public synchronized int size() {
+        return deadlines.size();
+    }
+
+    // Продвигает колесо до момента nowMs и возвращает ключи, срок которых наступил.
+    public synchronized List<Long> advance(long nowMs) {
+        final long nowTick = nowMs / tickMs;
+        final List<Long> expired = new ArrayList<>();
+
+        while (currentTick < nowTick) {
+            currentTick++;
+            cascade(expired);
+
+            final List<Entry> slot = slots.get(slotIndex(0, currentTick));
+            for (Entry entry : slot) {
+                collectIfActual(entry, expired);
+            }
+            slot.clear();
+        }
+
+        return expired;
+    }
+
+    // На границе оборота уровня L ячейка уровня L + 1, чей интервал начинается сейчас, раскладывается по нижним уровням.
+    private void cascade(List<Long> expired) {
+        final int levels = levelTicks.length - 1;
+        for (int level = 1; level < levels && currentTick % levelTicks[level] == 0; level++) {
+            final List<Entry> slot = slots.get(slotIndex(level, currentTick));
+            final List<Entry> entries = new ArrayList<>(slot);
+            slot.clear();
+            entries.forEach(entry -> place(entry, expired));
+        }
+
+        if (currentTick % levelTicks[levels] == 0 && !overflow.isEmpty()) {
+            final List<Entry> entries = new ArrayList<>(overflow);
+            overflow.clear();
+            entries.forEach(entry -> place(entry, expired));
+        }
+    }
+
+    private void place(Entry entry, List<Long> expired) {
+        if (entry.deadlineTick <= currentTick) {
+            if (expired != null) {
+                collectIfActual(entry, expired);
+            }
+            return;
+        }
+
+        final long delta = entry.deadlineTick - currentTick;
+        final int levels = levelTicks.length - 1;
+        for (int level = 0; level < levels; level++) {
+            if (delta < levelTicks[level + 1]) {
+                slots.get(slotIndex(level, entry.deadlineTick)).add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private void collectIfActual(Entry entry, List<Long> expired) {
+        if (deadlines.remove(entry.key, entry.deadlineTick)) {
+            expired.add(entry.key);
+        }
+    }
+
+    private int slotIndex(int level, long tick) {
+        return level * wheelSize + (int) ((tick / levelTicks[level]) % wheelSize);
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private static class Entry {
+        private final long key;
+        private final long deadlineTick;
+
+        private Entry(long key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
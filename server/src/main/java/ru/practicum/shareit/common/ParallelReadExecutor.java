@@ -0,0 +1,163 @@
+package ru.practicum.shareit.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+// Параллельное выполнение независимых чтений в рамках одного запроса.
+// Каждое чтение (этап) выполняется в отдельной read-only транзакции (на своем соединении) в ограниченном пуле потоков,
+// поэтому время ответа близко к самому долгому запросу, а не к сумме. Этапы не видят незафиксированных изменений вызывающей транзакции,
+// поэтому использовать их можно только в методах чтения.
+// Вызывающий не должен держать свою транзакцию: иначе на запрос приходится соединение вызывающего плюс по соединению на этап,
+// и под нагрузкой этапы ждут соединения из пула. Поэтому внутри транзакции этапы выполняются сразу в вызывающем потоке,
+// в его транзакции (параллельность - только для вызывающих без транзакции, как DashboardServiceImpl и ItemServiceImpl.getById/getByIds).
+// По той же причине вызывающий не читает БД в своем потоке, все чтения идут этапами: при open-in-view соединение,
+// взятое первым запросом потока HTTP-запроса, держится до конца HTTP-запроса.
+// На этап действует тайм-аут (и на ожидание результата, и на запросы в его транзакции); этап, не начавшийся до тайм-аута,
+// не выполняется.
+// Если пул и очередь заняты, а также для этапов, запущенных из другого этапа, чтение выполняется сразу в вызывающем потоке
+// (этап не ждет освобождения потока того же пула).
+// Контекст запроса (например, счетчики SQL) передается в потоки этапов через бины TaskDecorator.
+@Component
+@Slf4j
+public class ParallelReadExecutor {
+    private static final ThreadLocal<Boolean> IN_STAGE = ThreadLocal.withInitial(() -> false);
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Executor decoratedExecutor;
+    private final long timeoutMs;
+
+    @Autowired
+    public ParallelReadExecutor(PlatformTransactionManager transactionManager,
+                                ObjectProvider<TaskDecorator> taskDecorators,
+                                @Value("${shareit.reads.parallel.enabled:true}") boolean enabled,
+                                @Value("${shareit.reads.parallel.threads:8}") int threads,
+                                @Value("${shareit.reads.parallel.queue-capacity:256}") int queueCapacity,
+                                @Value("${shareit.reads.parallel.timeout-ms:5000}") long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+        if (!enabled) {
+            readOnlyTransactionTemplate = null;
+            executor = null;
+            decoratedExecutor = null;
+            return;
+        }
+
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readOnlyTransactionTemplate.setReadOnly(true);
+        readOnlyTransactionTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs + 999)));
+
+        final AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "parallel-read-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+
+        final List<TaskDecorator> decorators = taskDecorators.orderedStream().collect(Collectors.toUnmodifiableList());
+        decoratedExecutor = runnable -> {
+            Runnable decorated = runnable;
+            for (TaskDecorator decorator : decorators) {
+                decorated = decorator.decorate(decorated);
+            }
+            executor.execute(decorated);
+        };
+    }
+
+    private ParallelReadExecutor() {
+        readOnlyTransactionTemplate = null;
+        executor = null;
+        decoratedExecutor = null;
+        timeoutMs = 0;
+    }
+
+    // Все этапы выполняются сразу в вызывающем потоке (без пула и отдельных транзакций).
+    public static ParallelReadExecutor inline() {
+        return new ParallelReadExecutor();
+    }
+
+    public <T> CompletableFuture<T> fork(String stage, Supplier<T> query) {
+        if (isNull(executor) || IN_STAGE.get() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return runInline(query);
+        }
+
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            decoratedExecutor.execute(() -> {
+                // Тайм-аут истек, пока этап стоял в очереди, - соединение уже не нужно.
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    result.complete(runStage(query));
+                } catch (RuntimeException | Error exp) {
+                    result.completeExceptionally(exp);
+                }
+            });
+            return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException exp) {
+            log.debug("Пул параллельных чтений занят, этап {} выполняется в вызывающем потоке", stage);
+            return runInline(query);
+        }
+    }
+
+    // Результат этапа. Исключение этапа пробрасывается как есть, превышение тайм-аута - ParallelReadTimeoutException.
+    public <T> T join(String stage, CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exp) {
+            final Throwable cause = exp.getCause();
+            if (cause instanceof TimeoutException) {
+                throw new ParallelReadTimeoutException(stage, timeoutMs);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw exp;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (nonNull(executor)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> T runStage(Supplier<T> query) {
+        IN_STAGE.set(true);
+        try {
+            return readOnlyTransactionTemplate.execute(status -> query.get());
+        } finally {
+            IN_STAGE.remove();
+        }
+    }
+
+    private <T> CompletableFuture<T> runInline(Supplier<T> query) {
+        try {
+            return CompletableFuture.completedFuture(query.get());
+        } catch (RuntimeException exp) {
+            return CompletableFuture.failedFuture(exp);
+        }
+    }
+}
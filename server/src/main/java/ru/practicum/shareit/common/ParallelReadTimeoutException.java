@@ -0,0 +1,9 @@
+package ru.practicum.shareit.common;
+
+public class ParallelReadTimeoutException extends RuntimeException {
+    private static final String MESSAGE_BASE = "Чтение \"%s\" не завершилось за %s мс, повторите позже";
+
+    public ParallelReadTimeoutException(String stage, long timeoutMs) {
+        super(String.format(MESSAGE_BASE, stage, timeoutMs));
+    }
+}
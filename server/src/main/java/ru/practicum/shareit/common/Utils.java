@@ -3,6 +3,12 @@ package ru.practicum.shareit.common;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 public class Utils {
@@ -18,4 +24,32 @@ public class Utils {
     public static Pageable createOffsetBasedPageRequest(Integer from, Integer size) {
         return createOffsetBasedPageRequest(from, size, Sort.unsorted());
     }
+
+    // Слияние нескольких частей результата (каждая уже отсортирована и содержит не меньше offset + size записей)
+    // в одну страницу.
+    public static <T> List<T> mergeSortedAndPage(List<List<T>> parts, Comparator<T> order, Pageable pageable) {
+        final Stream<T> merged = parts.stream()
+                .flatMap(Collection::stream)
+                .sorted(order);
+
+        if (isNull(pageable)) {
+            return merged.collect(Collectors.toUnmodifiableList());
+        }
+
+        return merged.skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    // Сущности в порядке запрошенных id: повторяющиеся id не дублируются, не найденные (или недоступные) пропускаются.
+    public static <T> List<T> orderByIds(List<Long> ids, Collection<T> entities, Function<T, Long> idGetter) {
+        final Map<Long, T> entitiesById = entities.stream()
+                .collect(Collectors.toMap(idGetter, Function.identity(), (first, second) -> first));
+
+        return ids.stream()
+                .distinct()
+                .map(entitiesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableList());
+    }
 }
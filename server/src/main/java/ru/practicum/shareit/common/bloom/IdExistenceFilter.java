@@ -0,0 +1,146 @@
+package ru.practicum.shareit.common.bloom;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+// Фильтр существующих id одной сущности. Пока фильтр не построен, каждое id считается возможно существующим (проверка в БД).
+// При перестроении новые id пишутся и в старый, и в строящийся фильтр, чтобы не потеряться при замене.
+// Счетчики: ответы "точно нет" (без БД), "возможно есть" и ложные срабатывания (фильтр пропустил, а в БД записи нет).
+// "Точно нет" отвечается только для id не выше scannedUpToId - lookbackIds: запись с большим id мог создать
+// другой экземпляр server после последнего чтения, а транзакции фиксируются не в порядке выдачи id - запись с id чуть ниже
+// прочитанных могла зафиксироваться позже (ее дочитает следующий проход с запасом lookbackIds). Такие id проверяются в БД.
+public class IdExistenceFilter {
+    private final String entity;
+    private final long initialCapacity;
+    private final double falsePositiveRate;
+    private final long lookbackIds;
+    private volatile ScalableBloomFilter filter;
+    private ScalableBloomFilter building;
+    private volatile long scannedUpToId;
+
+    private final AtomicLong definiteMisses = new AtomicLong();
+    private final AtomicLong passed = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+    private final AtomicLong deletedSinceBuild = new AtomicLong();
+
+    public IdExistenceFilter(String entity, long initialCapacity, double falsePositiveRate, long lookbackIds) {
+        this.entity = entity;
+        this.initialCapacity = initialCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.lookbackIds = lookbackIds;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public boolean isReady() {
+        return nonNull(filter);
+    }
+
+    // false - записи с таким id точно нет, true - возможно есть (нужна проверка в БД).
+    public boolean mightExist(long id) {
+        final ScalableBloomFilter current = filter;
+        if (isNull(current)) {
+            return true;
+        }
+        if (!isScanned(id)) {
+            passed.incrementAndGet();
+            return true;
+        }
+
+        final boolean mightExist = current.mightContain(id);
+        (mightExist ? passed : definiteMisses).incrementAndGet();
+        return mightExist;
+    }
+
+    // Фильтр пропустил id, а в БД записи нет (id выше надежно прочитанных фильтр не проверял - это не ложное срабатывание).
+    public void recordFalsePositive(long id) {
+        if (isReady() && isScanned(id)) {
+            falsePositives.incrementAndGet();
+        }
+    }
+
+    // Все зафиксированные записи с таким id уже прочитаны в фильтр.
+    private boolean isScanned(long id) {
+        return id <= scannedUpToId - lookbackIds;
+    }
+
+    public synchronized void add(long id) {
+        if (nonNull(filter)) {
+            filter.add(id);
+        }
+        if (nonNull(building)) {
+            building.add(id);
+        }
+    }
+
+    // Удалить из фильтра нельзя: удаленный id дает ложное срабатывание, пока фильтр не перестроен.
+    public void deleted() {
+        deletedSinceBuild.incrementAndGet();
+    }
+
+    synchronized ScalableBloomFilter startRebuild(long expectedSize) {
+        building = new ScalableBloomFilter(Math.max(initialCapacity, expectedSize), falsePositiveRate);
+        return building;
+    }
+
+    synchronized void finishRebuild() {
+        filter = building;
+        building = null;
+        deletedSinceBuild.set(0);
+    }
+
+    synchronized void cancelRebuild() {
+        building = null;
+    }
+
+    // Наибольший id, прочитанный из таблицы в фильтр.
+    void setScannedUpToId(long id) {
+        scannedUpToId = id;
+    }
+
+    public long getScannedUpToId() {
+        return scannedUpToId;
+    }
+
+    long getDeletedSinceBuild() {
+        return deletedSinceBuild.get();
+    }
+
+    public long getSize() {
+        final ScalableBloomFilter current = filter;
+        return isNull(current) ? 0 : current.size();
+    }
+
+    public long getBitCount() {
+        final ScalableBloomFilter current = filter;
+        return isNull(current) ? 0 : current.bitCount();
+    }
+
+    public double getExpectedFalsePositiveRate() {
+        final ScalableBloomFilter current = filter;
+        return isNull(current) ? 0 : current.expectedFalsePositiveRate();
+    }
+
+    // Наблюдаемая доля ложных срабатываний среди отсутствующих id: FP / (FP + "точно нет").
+    public double getObservedFalsePositiveRate() {
+        final long falsePositiveCount = falsePositives.get();
+        final long negatives = falsePositiveCount + definiteMisses.get();
+        return negatives == 0 ? 0 : (double) falsePositiveCount / negatives;
+    }
+
+    public long getDefiniteMisses() {
+        return definiteMisses.get();
+    }
+
+    public long getPassed() {
+        return passed.get();
+    }
+
+    public long getFalsePositives() {
+        return falsePositives.get();
+    }
+}
@@ -0,0 +1,171 @@
+package ru.practicum.shareit.common.bloom;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import static java.util.Objects.nonNull;
+
+// Фильтры Блума существующих id пользователей и вещей: запросы с несуществующим X-Sharer-User-Id или id вещи
+// получают 404 без транзакции и запроса existsById (DaoUserImpl.checkUserExists, DaoItemImpl.checkItemExists).
+// Строятся после старта потоковым чтением id (курсор, fetch-size строк за раз), дальше пополняются из IdExistenceListener.
+// Раз в refresh-ms дочитываются id, добавленные в обход JPA (другими экземплярами server, скриптами): с запасом lookback-ids
+// ниже последнего прочитанного, так как транзакции фиксируются не в порядке выдачи id. Id выше последнего прочитанного
+// минус lookback-ids проверяются в БД: до следующего чтения фильтр может не знать о таких записях. После большого числа удалений
+// (rebuild-deleted-fraction от размера) фильтр перестраивается. Метрики - shareit.bloom.*.
+@Component
+@Slf4j
+public class IdExistenceFilters {
+    private final IdExistenceFilter users;
+    private final IdExistenceFilter items;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long lookbackIds;
+    private final double rebuildDeletedFraction;
+
+    private long lastUserId;
+    private long lastItemId;
+
+    public IdExistenceFilters(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              ObjectProvider<MeterRegistry> meterRegistry,
+                              @Value("${shareit.bloom.enabled:true}") boolean enabled,
+                              @Value("${shareit.bloom.initial-capacity:100000}") long initialCapacity,
+                              @Value("${shareit.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                              @Value("${shareit.bloom.fetch-size:10000}") int fetchSize,
+                              @Value("${shareit.bloom.lookback-ids:1000}") long lookbackIds,
+                              @Value("${shareit.bloom.rebuild-deleted-fraction:0.2}") double rebuildDeletedFraction) {
+        this.users = new IdExistenceFilter("user", initialCapacity, falsePositiveRate, lookbackIds);
+        this.items = new IdExistenceFilter("item", initialCapacity, falsePositiveRate, lookbackIds);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.lookbackIds = lookbackIds;
+        this.rebuildDeletedFraction = rebuildDeletedFraction;
+
+        final MeterRegistry meters = meterRegistry.getIfAvailable();
+        if (nonNull(meters)) {
+            List.of(users, items).forEach(filter -> registerMetrics(meters, filter));
+        }
+    }
+
+    public IdExistenceFilter users() {
+        return users;
+    }
+
+    public IdExistenceFilter items() {
+        return items;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        lastUserId = rebuild(users, "users", lastUserId);
+        lastItemId = rebuild(items, "items", lastItemId);
+        users.setScannedUpToId(lastUserId);
+        items.setScannedUpToId(lastItemId);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bloom.refresh-ms:10000}")
+    public synchronized void refresh() {
+        if (!enabled || !users.isReady() || !items.isReady()) {
+            return;
+        }
+
+        lastUserId = needsRebuild(users) ? rebuild(users, "users", lastUserId) : catchUp(users, "users", lastUserId);
+        lastItemId = needsRebuild(items) ? rebuild(items, "items", lastItemId) : catchUp(items, "items", lastItemId);
+        users.setScannedUpToId(lastUserId);
+        items.setScannedUpToId(lastItemId);
+    }
+
+    private boolean needsRebuild(IdExistenceFilter filter) {
+        return filter.getDeletedSinceBuild() > Math.max(1000, filter.getSize() * rebuildDeletedFraction);
+    }
+
+    // Полное чтение id таблицы в новый фильтр; возвращает наибольший прочитанный id (при ошибке - прежний).
+    private long rebuild(IdExistenceFilter filter, String table, long previousLastId) {
+        final long startNanos = System.nanoTime();
+        try {
+            final Long count = jdbcTemplate.queryForObject(String.format("SELECT COUNT(*) FROM %s", table), Long.class);
+            final ScalableBloomFilter building = filter.startRebuild(nonNull(count) ? count * 2 : 0);
+            final long lastId = scan(building::add, table, 0);
+            filter.finishRebuild();
+            // id транзакций, которые зафиксировались уже после начала чтения.
+            final long caughtUpId = catchUp(filter, table, lastId);
+            log.info("Построен фильтр id {}: {} id, {} бит, ожидаемая доля ложных срабатываний {} за {} мс",
+                    table, filter.getSize(), filter.getBitCount(), filter.getExpectedFalsePositiveRate(),
+                    Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+            return caughtUpId;
+        } catch (RuntimeException exp) {
+            filter.cancelRebuild();
+            log.warn("Не удалось построить фильтр id {}: {}", table, exp.getMessage());
+            return previousLastId;
+        }
+    }
+
+    private long catchUp(IdExistenceFilter filter, String table, long lastId) {
+        return Math.max(lastId, scan(filter::add, table, Math.max(0, lastId - lookbackIds)));
+    }
+
+    // В read-only транзакции: PostgreSQL отдает строки курсором (по fetch-size) только вне автокоммита.
+    private long scan(LongConsumer sink, String table, long afterId) {
+        final long[] maxId = {afterId};
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                String.format("SELECT id FROM %s WHERE id > ?", table),
+                resultSet -> {
+                    final long id = resultSet.getLong(1);
+                    sink.accept(id);
+                    maxId[0] = Math.max(maxId[0], id);
+                },
+                afterId));
+        return maxId[0];
+    }
+
+    private static void registerMetrics(MeterRegistry meters, IdExistenceFilter filter) {
+        FunctionCounter.builder("shareit.bloom.checks", filter, IdExistenceFilter::getDefiniteMisses)
+                .description("Проверки id по фильтру Блума")
+                .tags("entity", filter.getEntity(), "result", "miss")
+                .register(meters);
+        FunctionCounter.builder("shareit.bloom.checks", filter, IdExistenceFilter::getPassed)
+                .description("Проверки id по фильтру Блума")
+                .tags("entity", filter.getEntity(), "result", "maybe")
+                .register(meters);
+        FunctionCounter.builder("shareit.bloom.false.positives", filter, IdExistenceFilter::getFalsePositives)
+                .description("Фильтр пропустил id, которого нет в БД")
+                .tag("entity", filter.getEntity())
+                .register(meters);
+        Gauge.builder("shareit.bloom.false.positive.rate", filter, IdExistenceFilter::getObservedFalsePositiveRate)
+                .description("Наблюдаемая доля ложных срабатываний среди отсутствующих id")
+                .tag("entity", filter.getEntity())
+                .register(meters);
+        Gauge.builder("shareit.bloom.expected.false.positive.rate", filter, IdExistenceFilter::getExpectedFalsePositiveRate)
+                .description("Расчетная доля ложных срабатываний при текущем заполнении")
+                .tag("entity", filter.getEntity())
+                .register(meters);
+        Gauge.builder("shareit.bloom.size", filter, IdExistenceFilter::getSize)
+                .description("Число id в фильтре")
+                .tag("entity", filter.getEntity())
+                .register(meters);
+    }
+}
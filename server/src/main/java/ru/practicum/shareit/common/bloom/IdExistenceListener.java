@@ -0,0 +1,48 @@
+package ru.practicum.shareit.common.bloom;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+// Обновление фильтров id при любом сохранении и удалении пользователя или вещи через JPA (не только через Dao).
+// Создается Hibernate через контейнер бинов Spring; без фильтров (срезы @DataJpaTest) ничего не делает.
+// Id добавляется до фиксации транзакции: при откате остается лишь ложное срабатывание.
+@RequiredArgsConstructor
+public class IdExistenceListener {
+    private final ObjectProvider<IdExistenceFilters> idExistenceFilters;
+
+    @PostPersist
+    public void afterPersist(Object entity) {
+        final IdExistenceFilter filter = filterFor(entity);
+        if (nonNull(filter)) {
+            filter.add(entityId(entity));
+        }
+    }
+
+    @PostRemove
+    public void afterRemove(Object entity) {
+        final IdExistenceFilter filter = filterFor(entity);
+        if (nonNull(filter)) {
+            filter.deleted();
+        }
+    }
+
+    private IdExistenceFilter filterFor(Object entity) {
+        final IdExistenceFilters filters = idExistenceFilters.getIfAvailable();
+        if (isNull(filters)) {
+            return null;
+        }
+        return entity instanceof User ? filters.users() : entity instanceof Item ? filters.items() : null;
+    }
+
+    private static long entityId(Object entity) {
+        return entity instanceof User ? ((User) entity).getId() : ((Item) entity).getId();
+    }
+}
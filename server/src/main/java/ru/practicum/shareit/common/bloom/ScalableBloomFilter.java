@@ -0,0 +1,164 @@
+package ru.practicum.shareit.common.bloom;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Масштабируемый фильтр Блума для long (Almeida и др., 2007): когда ступень заполнена до расчетной емкости,
+// добавляется следующая - вдвое больше и с более строгой долей ложных срабатываний (x0.8), поэтому общая доля
+// не превышает заданной при любом числе элементов. Ложноотрицательных ответов нет, удаление не поддерживается.
+// Проверки без блокировок, добавления - атомарной установкой битов.
+public class ScalableBloomFilter {
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.8;
+    private static final double LN2_SQUARED = Math.log(2) * Math.log(2);
+
+    private final double falsePositiveRate;
+    private volatile Stage[] stages;
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Емкость фильтра должна быть больше нуля, доля ложных срабатываний - от 0 до 1");
+        }
+
+        this.falsePositiveRate = falsePositiveRate;
+        // Сумма долей ступеней p0 * (1 + r + r^2 + ...) = p0 / (1 - r) не больше заданной.
+        this.stages = new Stage[]{new Stage(initialCapacity, falsePositiveRate * (1 - TIGHTENING))};
+    }
+
+    public boolean mightContain(long value) {
+        final long hash = mix(value);
+        final long step = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (Stage stage : stages) {
+            if (stage.contains(hash, step)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void add(long value) {
+        if (mightContain(value)) {
+            return;
+        }
+
+        final long hash = mix(value);
+        final long step = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        Stage stage = currentStage();
+        if (stage.count.get() >= stage.capacity) {
+            stage = grow(stage);
+        }
+        stage.add(hash, step);
+    }
+
+    // Число различных добавленных значений (оценка: совпадение всех битов с уже добавленным значением не считается).
+    public long size() {
+        long size = 0;
+        for (Stage stage : stages) {
+            size += stage.count.get();
+        }
+        return size;
+    }
+
+    public long bitCount() {
+        long bits = 0;
+        for (Stage stage : stages) {
+            bits += stage.bitCount;
+        }
+        return bits;
+    }
+
+    // Ожидаемая доля ложных срабатываний при текущем заполнении: 1 - П(1 - p_i), p_i = (1 - e^(-k * n_i / m_i))^k.
+    public double expectedFalsePositiveRate() {
+        double allNegative = 1;
+        for (Stage stage : stages) {
+            allNegative *= 1 - Math.pow(1 - Math.exp(-(double) stage.hashCount * stage.count.get() / stage.bitCount), stage.hashCount);
+        }
+        return 1 - allNegative;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    private Stage currentStage() {
+        final Stage[] current = stages;
+        return current[current.length - 1];
+    }
+
+    private synchronized Stage grow(Stage full) {
+        final Stage[] current = stages;
+        final Stage last = current[current.length - 1];
+        if (last != full) {
+            return last;
+        }
+
+        final Stage[] grown = new Stage[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        grown[current.length] = new Stage(last.capacity * GROWTH, last.falsePositiveRate * TIGHTENING);
+        stages = grown;
+        return grown[current.length];
+    }
+
+    // Финальное перемешивание MurmurHash3 (fmix64): соседние id дают независимые биты.
+    private static long mix(long value) {
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    // Ступень емкостью capacity: m = -n * ln(p) / ln(2)^2 бит, k = m / n * ln(2) хешей (двойное хеширование h1 + i * h2).
+    private static class Stage {
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray words;
+        private final AtomicLong count = new AtomicLong();
+
+        Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            final long words = Math.max(1, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / LN2_SQUARED / Long.SIZE));
+            if (words > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Слишком большая ступень фильтра Блума");
+            }
+            this.words = new AtomicLongArray((int) words);
+            this.bitCount = words * Long.SIZE;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        boolean contains(long hash, long step) {
+            for (int i = 0; i < hashCount; i++) {
+                final long bit = Math.floorMod(hash + i * step, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void add(long hash, long step) {
+            boolean changed = false;
+            for (int i = 0; i < hashCount; i++) {
+                final long bit = Math.floorMod(hash + i * step, bitCount);
+                final int index = (int) (bit >>> 6);
+                final long mask = 1L << bit;
+                long word = words.get(index);
+                while ((word & mask) == 0) {
+                    if (words.compareAndSet(index, word, word | mask)) {
+                        changed = true;
+                        break;
+                    }
+                    word = words.get(index);
+                }
+            }
+            if (changed) {
+                count.incrementAndGet();
+            }
+        }
+    }
+}
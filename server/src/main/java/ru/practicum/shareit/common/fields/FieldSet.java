@@ -0,0 +1,78 @@
+package ru.practicum.shareit.common.fields;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import ru.practicum.shareit.common.ValidationException;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+
+// Набор полей из параметра fields (имена полей в json через запятую). id возвращается всегда.
+// Без параметра выбраны все поля.
+public class FieldSet {
+    public static final String ID_FIELD = "id";
+
+    private static final FieldSet ALL = new FieldSet(null);
+
+    private final Set<String> fields; // null - все поля
+
+    private FieldSet(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldSet all() {
+        return ALL;
+    }
+
+    public static FieldSet parse(String fieldsParam, Set<String> allowedFields) {
+        if (isNull(fieldsParam)) {
+            return ALL;
+        }
+
+        final Set<String> fields = Arrays.stream(fieldsParam.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (fields.isEmpty()) {
+            throw new ValidationException("Список полей (fields) не может быть пустым");
+        }
+
+        final List<String> unknownFields = fields.stream()
+                .filter(field -> !allowedFields.contains(field))
+                .collect(Collectors.toList());
+        if (!unknownFields.isEmpty()) {
+            throw new ValidationException(String.format("Неизвестные поля: %s (допустимые: %s)", unknownFields, allowedFields));
+        }
+
+        fields.add(ID_FIELD);
+        return new FieldSet(Set.copyOf(fields));
+    }
+
+    public boolean isAll() {
+        return isNull(fields);
+    }
+
+    public boolean includes(String field) {
+        return isNull(fields) || fields.contains(field);
+    }
+
+    public boolean includesAny(String... fields) {
+        return Arrays.stream(fields).anyMatch(this::includes);
+    }
+
+    // Json-представление элементов, в котором оставлены только выбранные поля.
+    public List<ObjectNode> apply(ObjectMapper objectMapper, Collection<?> dtoList) {
+        return dtoList.stream()
+                .map(dto -> {
+                    final ObjectNode node = objectMapper.valueToTree(dto);
+                    return isNull(fields) ? node : node.retain(fields);
+                })
+                .collect(Collectors.toUnmodifiableList());
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.common.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Сохраненный ответ на запрос с ключом идемпотентности.
+@Getter
+@AllArgsConstructor
+class CachedResponse {
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+}
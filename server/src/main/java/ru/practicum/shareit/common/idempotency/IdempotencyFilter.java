@@ -0,0 +1,151 @@
+package ru.practicum.shareit.common.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static ru.practicum.shareit.common.ConstantParamStorage.IDEMPOTENCY_KEY_HEADER;
+import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
+
+// Поддержка заголовка Idempotency-Key для POST /bookings, /items и /items/{itemId}/comment.
+// Повтор запроса с тем же ключом (от того же пользователя на тот же путь) получает сохраненный ответ без обращения к БД.
+// Одновременный дубликат ждет ответа первого запроса. Ответы 5xx не сохраняются - такой запрос можно повторить.
+// С ключом хранится хеш тела запроса: тот же ключ с другим телом - ошибка клиента (422), а не повтор.
+// Если хранилище заполнено запросами, которые еще выполняются, новый запрос с ключом отклоняется (503).
+@Component
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String REPLAYED_RESPONSE_HEADER = "Idempotent-Replayed";
+    private static final Pattern IDEMPOTENT_PATHS = Pattern.compile("^/(bookings|items|items/\\d+/comment)$");
+
+    private final IdempotentResponseStore store;
+    private final long waitTimeoutMillis;
+
+    public IdempotencyFilter(@Value("${shareit.idempotency.max-entries:10000}") int maxEntries,
+                             @Value("${shareit.idempotency.ttl-seconds:3600}") long ttlSeconds,
+                             @Value("${shareit.idempotency.wait-timeout-seconds:30}") long waitTimeoutSeconds) {
+        store = new IdempotentResponseStore(maxEntries, TimeUnit.SECONDS.toMillis(ttlSeconds));
+        waitTimeoutMillis = TimeUnit.SECONDS.toMillis(waitTimeoutSeconds);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || isNull(request.getHeader(IDEMPOTENCY_KEY_HEADER))
+                || !IDEMPOTENT_PATHS.matcher(getPath(request)).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        final String key = String.join("|", String.valueOf(request.getHeader(USER_ID_REQUEST_HEADER)),
+                getPath(request), request.getHeader(IDEMPOTENCY_KEY_HEADER));
+        final CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        final byte[] requestHash = hash(cachedRequest.getBody());
+
+        while (true) {
+            final IdempotentResponseStore.Acquired acquired = store.acquire(key, requestHash, System.currentTimeMillis());
+            if (isNull(acquired)) {
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Слишком много выполняющихся запросов с ключом идемпотентности, повторите позже");
+                return;
+            }
+            final IdempotentResponseStore.Entry entry = acquired.getEntry();
+
+            if (acquired.isOwner()) {
+                executeAndStore(cachedRequest, response, filterChain, key, entry);
+                return;
+            }
+
+            if (!MessageDigest.isEqual(entry.getRequestHash(), requestHash)) {
+                response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), "Ключ идемпотентности уже использован для запроса с другим телом");
+                return;
+            }
+
+            final CachedResponse cached = awaitResponse(entry);
+            if (nonNull(cached)) {
+                log.debug("Повтор запроса {} {} с {} = {}, возвращен сохраненный ответ",
+                        request.getMethod(), getPath(request), IDEMPOTENCY_KEY_HEADER, request.getHeader(IDEMPOTENCY_KEY_HEADER));
+                writeCached(response, cached);
+                return;
+            }
+
+            if (entry.getResponse().isDone()) {
+                continue; // первый запрос не удался, пробуем выполнить сами
+            }
+
+            response.sendError(HttpStatus.CONFLICT.value(), "Запрос с таким ключом идемпотентности еще выполняется");
+            return;
+        }
+    }
+
+    private void executeAndStore(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                                 String key, IdempotentResponseStore.Entry entry) throws ServletException, IOException {
+        final ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean isStored = false;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+
+            final int status = responseWrapper.getStatus();
+            if (status < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                store.complete(entry, new CachedResponse(status, responseWrapper.getContentType(), responseWrapper.getContentAsByteArray()));
+                isStored = true;
+            }
+        } finally {
+            if (!isStored) {
+                store.release(key, entry);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private CachedResponse awaitResponse(IdempotentResponseStore.Entry entry) throws ServletException {
+        try {
+            return entry.getResponse().get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException exp) {
+            return null;
+        } catch (InterruptedException exp) {
+            Thread.currentThread().interrupt();
+            throw new ServletException(exp);
+        } catch (ExecutionException exp) {
+            throw new ServletException(exp.getCause());
+        }
+    }
+
+    private static byte[] hash(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException exp) {
+            throw new IllegalStateException(exp);
+        }
+    }
+
+    private static String getPath(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void writeCached(HttpServletResponse response, CachedResponse cached) throws IOException {
+        response.setStatus(cached.getStatus());
+        if (nonNull(cached.getContentType())) {
+            response.setContentType(cached.getContentType());
+        }
+        response.setHeader(REPLAYED_RESPONSE_HEADER, "true");
+        response.getOutputStream().write(cached.getBody());
+    }
+}
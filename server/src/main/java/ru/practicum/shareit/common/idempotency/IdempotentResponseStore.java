@@ -0,0 +1,101 @@
+package ru.practicum.shareit.common.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.nonNull;
+
+// Ограниченное по размеру хранилище ответов "ключ -> ответ" с вытеснением по времени жизни.
+// Записи хранятся в порядке добавления, поэтому устаревшие и лишние записи удаляются с начала.
+// Запись, ответ по которой еще не получен, не вытесняется: иначе повтор запроса выполнил бы его второй раз.
+class IdempotentResponseStore {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    IdempotentResponseStore(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    // Возвращает запись по ключу. Если записи не было, она создается и вызывающий становится ее владельцем,
+    // т.е. должен выполнить запрос и сохранить ответ (complete) либо освободить ключ (release).
+    // null - места нет: все записи ждут ответов выполняющихся запросов.
+    synchronized Acquired acquire(String key, byte[] requestHash, long nowMillis) {
+        evictExpired(nowMillis);
+
+        final Entry existing = entries.get(key);
+        if (nonNull(existing)) {
+            return new Acquired(existing, false);
+        }
+
+        if (!evictOverflow()) {
+            return null;
+        }
+        final Entry entry = new Entry(nowMillis, requestHash, new CompletableFuture<>());
+        entries.put(key, entry);
+
+        return new Acquired(entry, true);
+    }
+
+    void complete(Entry entry, CachedResponse response) {
+        entry.getResponse().complete(response);
+    }
+
+    // Запрос не удался - ключ освобождается, ожидающие повторы получают null и выполняются заново.
+    void release(String key, Entry entry) {
+        synchronized (this) {
+            entries.remove(key, entry);
+        }
+        entry.getResponse().complete(null);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long nowMillis) {
+        final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next().getValue();
+            if (nowMillis - entry.getCreatedMillis() < ttlMillis) {
+                break;
+            }
+            if (entry.getResponse().isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    // Освобождает место под новую запись, удаляя самые старые записи с готовым ответом.
+    // Возвращает false, если место освободить нельзя.
+    private boolean evictOverflow() {
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() >= maxEntries && iterator.hasNext()) {
+            if (iterator.next().getResponse().isDone()) {
+                iterator.remove();
+            }
+        }
+        return entries.size() < maxEntries;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class Entry {
+        private final long createdMillis;
+        private final byte[] requestHash; // хеш тела запроса, выполненного с этим ключом
+        private final CompletableFuture<CachedResponse> response;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class Acquired {
+        private final Entry entry;
+        private final boolean owner;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.common.jdbc;
+
+// Наблюдатель за SQL-запросами приложения (вызывается ObservedDataSource в потоке, выполнившем запрос).
+public interface JdbcStatementListener {
+    default void afterExecute(StatementExecution execution) {
+    }
+
+    // Результат запроса закрыт, rows - сколько строк из него прочитано.
+    default void afterFetch(String sql, long rows) {
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.common.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+// Источник соединений, сообщающий JdbcStatementListener о каждом выполненном запросе (текст, параметры, время, ошибка)
+// и о числе прочитанных строк результата. Соединения, запросы и результаты оборачиваются динамическими прокси,
+// пул (Hikari) остается внутри и доступен через unwrap.
+public class ObservedDataSource extends DelegatingDataSource {
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate",
+            "executeBatch", "executeLargeBatch");
+
+    private final ObjectProvider<JdbcStatementListener> listenerProvider;
+    private volatile List<JdbcStatementListener> listeners;
+
+    public ObservedDataSource(DataSource targetDataSource, ObjectProvider<JdbcStatementListener> listenerProvider) {
+        super(targetDataSource);
+        this.listenerProvider = listenerProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return observedConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return observedConnection(super.getConnection(username, password));
+    }
+
+    private Connection observedConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    final Object result = invoke(connection, method, args);
+                    switch (method.getName()) {
+                        case "prepareStatement":
+                            return observedStatement((Statement) result, PreparedStatement.class, (String) args[0]);
+                        case "prepareCall":
+                            return observedStatement((Statement) result, CallableStatement.class, (String) args[0]);
+                        case "createStatement":
+                            return observedStatement((Statement) result, Statement.class, null);
+                        default:
+                            return result;
+                    }
+                });
+    }
+
+    // preparedSql - текст подготовленного запроса; у обычного Statement текст передается в execute*.
+    // Параметры подготовленного запроса (set*(index, value, ...)) запоминаются по номеру до clearParameters.
+    private Statement observedStatement(Statement statement, Class<? extends Statement> type, String preparedSql) {
+        final Map<Integer, Object> parameters = nonNull(preparedSql) ? new TreeMap<>() : null;
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    final String sql = nonNull(preparedSql) ? preparedSql
+                            : nonNull(args) && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                    if (!EXECUTE_METHODS.contains(method.getName())) {
+                        final Object result = invoke(statement, method, args);
+                        if (nonNull(parameters)) {
+                            rememberParameter(parameters, method.getName(), args);
+                        }
+                        return "getResultSet".equals(method.getName()) && nonNull(result)
+                                ? observedResultSet((ResultSet) result, sql)
+                                : result;
+                    }
+
+                    final Collection<Object> boundParameters = nonNull(parameters) ? parameters.values() : List.of();
+                    final long startNanos = System.nanoTime();
+                    try {
+                        final Object result = invoke(statement, method, args);
+                        notifyExecuted(new StatementExecution(sql, System.nanoTime() - startNanos, null, boundParameters));
+                        return result instanceof ResultSet ? observedResultSet((ResultSet) result, sql) : result;
+                    } catch (Throwable exp) {
+                        notifyExecuted(new StatementExecution(sql, System.nanoTime() - startNanos, exp, boundParameters));
+                        throw exp;
+                    }
+                });
+    }
+
+    private static void rememberParameter(Map<Integer, Object> parameters, String methodName, Object[] args) {
+        if ("clearParameters".equals(methodName)) {
+            parameters.clear();
+        } else if (methodName.startsWith("set") && nonNull(args) && args.length >= 2 && args[0] instanceof Integer) {
+            parameters.put((Integer) args[0], "setNull".equals(methodName) ? null : args[1]);
+        }
+    }
+
+    private ResultSet observedResultSet(ResultSet resultSet, String sql) {
+        final long[] rows = new long[1];
+        final boolean[] closed = new boolean[1];
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    final Object result = invoke(resultSet, method, args);
+                    if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                        rows[0]++;
+                    } else if ("close".equals(method.getName()) && !closed[0]) {
+                        closed[0] = true;
+                        for (JdbcStatementListener listener : getListeners()) {
+                            listener.afterFetch(sql, rows[0]);
+                        }
+                    }
+                    return result;
+                });
+    }
+
+    private void notifyExecuted(StatementExecution execution) {
+        for (JdbcStatementListener listener : getListeners()) {
+            listener.afterExecute(execution);
+        }
+    }
+
+    // Наблюдатели берутся при первом запросе: источник создается раньше, чем бины, которые его используют.
+    private List<JdbcStatementListener> getListeners() {
+        if (isNull(listeners)) {
+            listeners = listenerProvider.orderedStream().collect(Collectors.toUnmodifiableList());
+        }
+        return listeners;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
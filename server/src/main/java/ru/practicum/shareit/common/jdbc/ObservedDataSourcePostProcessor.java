@@ -0,0 +1,27 @@
+package ru.practicum.shareit.common.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Оборачивает источник соединений приложения в ObservedDataSource.
+// Маршрутизирующий источник (реплики чтения) не оборачивается: его целевые источники оборачивает ReadReplicaConfig.
+@Component
+public class ObservedDataSourcePostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<JdbcStatementListener> listeners;
+
+    public ObservedDataSourcePostProcessor(ObjectProvider<JdbcStatementListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof ObservedDataSource) && !(bean instanceof AbstractRoutingDataSource)) {
+            return new ObservedDataSource((DataSource) bean, listeners);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.common.jdbc;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@Getter
+@AllArgsConstructor
+public class StatementExecution {
+    private final String sql;
+    private final long elapsedNanos;
+    private final Throwable error; // null, если запрос выполнен успешно
+    // Параметры подготовленного запроса по порядку. Представление параметров запроса, а не копия:
+    // если значения нужны после возврата из наблюдателя, их нужно скопировать.
+    private final Collection<Object> parameters;
+
+    public long getElapsedMs() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.common.job;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// Фоновая задача в очереди. Тип задачи определяет обработчик (JobHandler), данные задачи хранятся в JSON.
+@Entity
+@Table(name = "background_jobs")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackgroundJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String type;
+    private String payload;
+    @Enumerated(EnumType.STRING)
+    private JobStatus status;
+    private int attempts; // число взятых в работу попыток
+    @Column(name = "max_attempts")
+    private int maxAttempts;
+    @Column(name = "run_at")
+    private LocalDateTime runAt; // не раньше этого момента задачу можно брать в работу
+    @Column(name = "locked_by")
+    private String lockedBy; // обработчик, взявший задачу
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil; // после этого момента невыполненная задача снова доступна другим обработчикам
+    @Column(name = "last_error")
+    private String lastError;
+    private LocalDateTime created;
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    @Version
+    private Long version;
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.common.job;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BackgroundJobRepository extends JpaRepository<BackgroundJob, Long> {
+    // Задачи, которые можно взять в работу: ожидающие, срок которых наступил, и взятые, но не завершенные до конца аренды.
+    // Строки, заблокированные другими обработчиками, пропускаются - FOR UPDATE SKIP LOCKED (lock.timeout = -2).
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT j FROM BackgroundJob j " +
+            "WHERE (j.status = ru.practicum.shareit.common.job.JobStatus.PENDING AND j.runAt <= :now) " +
+            "OR (j.status = ru.practicum.shareit.common.job.JobStatus.RUNNING AND j.lockedUntil < :now) " +
+            "ORDER BY j.runAt, j.id")
+    List<BackgroundJob> lockClaimable(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Завершение только той попытки, которая все еще владеет задачей (аренда не истекла и задачу не взял другой обработчик).
+    @Modifying
+    @Query("UPDATE BackgroundJob j SET j.status = ru.practicum.shareit.common.job.JobStatus.DONE, j.finishedAt = :now, " +
+            "j.lockedBy = NULL, j.lockedUntil = NULL, j.version = j.version + 1 " +
+            "WHERE j.id = :id AND j.lockedBy = :workerId AND j.status = ru.practicum.shareit.common.job.JobStatus.RUNNING")
+    int complete(@Param("id") long id, @Param("workerId") String workerId, @Param("now") LocalDateTime now);
+
+    long countByStatus(JobStatus status);
+
+    @Modifying
+    @Query("DELETE FROM BackgroundJob j WHERE j.status = ru.practicum.shareit.common.job.JobStatus.DONE AND j.finishedAt < :finishedBefore")
+    int deleteDoneBefore(@Param("finishedBefore") LocalDateTime finishedBefore);
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.common.job;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// Задача, взятая обработчиком в работу (данные для выполнения вне транзакции взятия).
+@Getter
+@ToString
+@AllArgsConstructor
+public class ClaimedJob {
+    private final long id;
+    private final String type;
+    private final String payload;
+    private final int attempts;
+
+    public static ClaimedJob of(BackgroundJob job) {
+        return new ClaimedJob(job.getId(), job.getType(), job.getPayload(), job.getAttempts());
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.common.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+// Удаление давно выполненных задач (FAILED остаются для разбора).
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JobCleanupJob {
+    private final JobService jobService;
+
+    @Value("${shareit.jobs.retention-hours:168}")
+    private int retentionHours;
+
+    @Scheduled(cron = "${shareit.jobs.cleanup.cron:0 30 4 * * *}")
+    public void deleteDone() {
+        final int deleted = jobService.deleteDoneBefore(LocalDateTime.now().minusHours(retentionHours));
+        log.info("Удалено выполненных фоновых задач: {}", deleted);
+    }
+}
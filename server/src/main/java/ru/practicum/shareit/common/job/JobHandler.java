@@ -0,0 +1,12 @@
+package ru.practicum.shareit.common.job;
+
+// Обработчик задач одного типа. Бины-обработчики подхватываются пулом обработчиков автоматически.
+// Задача может быть выполнена повторно (истек срок аренды, сбой после выполнения), поэтому обработка должна быть идемпотентной.
+// Исключение из handle() - неудачная попытка: задача будет повторена с задержкой или помечена FAILED.
+public interface JobHandler<T> {
+    String getType();
+
+    Class<T> getPayloadType();
+
+    void handle(T payload);
+}
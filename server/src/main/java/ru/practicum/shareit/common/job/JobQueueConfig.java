@@ -0,0 +1,30 @@
+package ru.practicum.shareit.common.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+// Пул обработчиков очереди задач по умолчанию (выполняет задачи всех типов, для которых есть JobHandler).
+// Пока бинов JobHandler нет, потоки пула не запускаются и таблицу задач не опрашивают.
+// В тестах выключен (shareit.jobs.enabled=false), тесты создают пулы сами.
+@Configuration
+@ConditionalOnProperty(name = "shareit.jobs.enabled", havingValue = "true", matchIfMissing = true)
+public class JobQueueConfig {
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public JobWorkerPool defaultJobWorkerPool(JobService jobService,
+                                              ObjectMapper objectMapper,
+                                              ObjectProvider<JobHandler<?>> handlers,
+                                              @Value("${shareit.jobs.workers:4}") int workers,
+                                              @Value("${shareit.jobs.batch-size:10}") int batchSize,
+                                              @Value("${shareit.jobs.poll-interval-ms:1000}") long pollIntervalMs,
+                                              @Value("${shareit.jobs.visibility-timeout-ms:300000}") long visibilityTimeoutMs) {
+        return new JobWorkerPool(jobService, objectMapper, handlers.orderedStream().collect(Collectors.toList()), "default", workers, batchSize,
+                Duration.ofMillis(pollIntervalMs), Duration.ofMillis(visibilityTimeoutMs));
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.common.job;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface JobService {
+    long enqueue(String type, Object payload);
+
+    long enqueue(String type, Object payload, LocalDateTime runAt);
+
+    List<ClaimedJob> claim(String workerId, int batchSize, Duration visibilityTimeout);
+
+    boolean complete(long jobId, String workerId);
+
+    void fail(long jobId, String workerId, String error);
+
+    int deleteDoneBefore(LocalDateTime finishedBefore);
+}
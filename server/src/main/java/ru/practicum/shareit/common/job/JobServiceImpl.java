@@ -0,0 +1,153 @@
+package ru.practicum.shareit.common.job;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+
+// Очередь фоновых задач в БД.
+// Задача добавляется в транзакции вызывающего метода (вместе с изменением, ради которого она создана) и выполняется обработчиками вне запроса.
+// Взятие в работу - короткая транзакция с SKIP LOCKED: задача получает статус RUNNING и аренду до locked_until.
+// Если обработчик не завершил задачу до конца аренды (упал, завис), ее возьмет другой обработчик.
+// Неудачная попытка повторяется с экспоненциальной задержкой, после max_attempts попыток задача помечается FAILED.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobServiceImpl implements JobService {
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final BackgroundJobRepository backgroundJobRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${shareit.jobs.max-attempts:5}")
+    private int maxAttempts;
+    @Value("${shareit.jobs.backoff-ms:1000}")
+    private long backoffMs;
+    @Value("${shareit.jobs.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    @Transactional
+    @Override
+    public long enqueue(String type, Object payload) {
+        return enqueue(type, payload, LocalDateTime.now());
+    }
+
+    @Transactional
+    @Override
+    public long enqueue(String type, Object payload, LocalDateTime runAt) {
+        final BackgroundJob job = BackgroundJob.builder()
+                .type(type)
+                .payload(toJson(payload))
+                .status(JobStatus.PENDING)
+                .attempts(0)
+                .maxAttempts(maxAttempts)
+                .runAt(runAt)
+                .created(LocalDateTime.now())
+                .build();
+
+        return backgroundJobRepository.save(job).getId();
+    }
+
+    // Попытка засчитывается при взятии, поэтому задача, на которой обработчик каждый раз падает, тоже когда-то станет FAILED.
+    // Повторное взятие одной задачи двумя обработчиками (если БД не поддерживает SKIP LOCKED) отсекает версия строки.
+    @Transactional
+    @Override
+    public List<ClaimedJob> claim(String workerId, int batchSize, Duration visibilityTimeout) {
+        final LocalDateTime now = LocalDateTime.now();
+        final List<BackgroundJob> jobs = backgroundJobRepository.lockClaimable(now, PageRequest.of(0, batchSize));
+
+        return jobs.stream()
+                .filter(job -> {
+                    if (job.getAttempts() < job.getMaxAttempts()) {
+                        return true;
+                    }
+                    // Аренда последней попытки истекла, а задача так и не завершилась.
+                    markFailed(job, "Истек срок аренды последней попытки", now);
+                    return false;
+                })
+                .peek(job -> {
+                    job.setStatus(JobStatus.RUNNING);
+                    job.setAttempts(job.getAttempts() + 1);
+                    job.setLockedBy(workerId);
+                    job.setLockedUntil(now.plus(visibilityTimeout));
+                })
+                .map(ClaimedJob::of)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    @Override
+    public boolean complete(long jobId, String workerId) {
+        final boolean isCompleted = backgroundJobRepository.complete(jobId, workerId, LocalDateTime.now()) > 0;
+        if (!isCompleted) {
+            log.warn("Задача id = {} выполнена обработчиком {} после истечения аренды", jobId, workerId);
+        }
+
+        return isCompleted;
+    }
+
+    @Transactional
+    @Override
+    public void fail(long jobId, String workerId, String error) {
+        final BackgroundJob job = backgroundJobRepository.findById(jobId).orElse(null);
+        if (isNull(job) || job.getStatus() != JobStatus.RUNNING || !workerId.equals(job.getLockedBy())) {
+            return;
+        }
+
+        final LocalDateTime now = LocalDateTime.now();
+        if (job.getAttempts() >= job.getMaxAttempts()) {
+            markFailed(job, error, now);
+            return;
+        }
+
+        job.setStatus(JobStatus.PENDING);
+        job.setRunAt(now.plus(Duration.ofMillis(getBackoffMs(job.getAttempts()))));
+        job.setLockedBy(null);
+        job.setLockedUntil(null);
+        job.setLastError(truncate(error));
+    }
+
+    @Transactional
+    @Override
+    public int deleteDoneBefore(LocalDateTime finishedBefore) {
+        return backgroundJobRepository.deleteDoneBefore(finishedBefore);
+    }
+
+    // Задержка перед попыткой attempts + 1: backoff, 2 * backoff, 4 * backoff ... но не больше maxBackoff.
+    private long getBackoffMs(int attempts) {
+        final int shift = Math.min(attempts - 1, 30);
+        return Math.min(backoffMs << shift, maxBackoffMs);
+    }
+
+    private void markFailed(BackgroundJob job, String error, LocalDateTime now) {
+        job.setStatus(JobStatus.FAILED);
+        job.setFinishedAt(now);
+        job.setLockedBy(null);
+        job.setLockedUntil(null);
+        job.setLastError(truncate(error));
+        log.warn("Задача id = {} ({}) не выполнена за {} попыток: {}", job.getId(), job.getType(), job.getAttempts(), error);
+    }
+
+    private String truncate(String error) {
+        return (isNull(error) || error.length() <= MAX_ERROR_LENGTH) ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать данные задачи", e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.common.job;
+
+public enum JobStatus {
+    PENDING, // ожидает выполнения (в т.ч. повторного - не раньше run_at)
+    RUNNING, // взято обработчиком до locked_until
+    DONE, // выполнено
+    FAILED // исчерпаны попытки
+}
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.common.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+
+// Пул обработчиков очереди задач: каждый поток берет порцию задач, выполняет их по одной и отмечает результат.
+// Если задач нет, поток ждет pollInterval. Обработчики на разных узлах не мешают друг другу (задачи берутся с SKIP LOCKED).
+@Slf4j
+public class JobWorkerPool {
+    private final JobService jobService;
+    private final ObjectMapper objectMapper;
+    private final Map<String, JobHandler<?>> handlers;
+    private final String name;
+    private final int workers;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration visibilityTimeout;
+
+    private final AtomicInteger processedCount = new AtomicInteger();
+    private ExecutorService executor;
+    private volatile boolean isRunning;
+
+    public JobWorkerPool(JobService jobService, ObjectMapper objectMapper, List<JobHandler<?>> handlers, String name,
+                         int workers, int batchSize, Duration pollInterval, Duration visibilityTimeout) {
+        this.jobService = jobService;
+        this.objectMapper = objectMapper;
+        this.handlers = handlers.stream().collect(Collectors.toMap(JobHandler::getType, Function.identity()));
+        this.name = name;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.visibilityTimeout = visibilityTimeout;
+    }
+
+    public synchronized void start() {
+        if (isRunning || workers <= 0) {
+            return;
+        }
+        if (handlers.isEmpty()) {
+            // Выполнять нечего, а потоки впустую опрашивали бы таблицу задач каждые pollInterval.
+            log.info("Пул обработчиков задач {} не запущен: нет ни одного обработчика (JobHandler)", name);
+            return;
+        }
+
+        isRunning = true;
+        executor = Executors.newFixedThreadPool(workers, new NamedThreadFactory(name));
+        final String nodeId = ManagementFactory.getRuntimeMXBean().getName(); // pid@host
+        for (int i = 0; i < workers; i++) {
+            final String workerId = String.format("%s-%s-%s", nodeId, name, i);
+            executor.execute(() -> runWorker(workerId));
+        }
+        log.info("Запущен пул обработчиков задач {}: {} потоков, типы задач {}", name, workers, handlers.keySet());
+    }
+
+    // Потоки доделывают текущую задачу; невыполненные взятые задачи вернутся в очередь по истечении аренды.
+    public synchronized void stop() {
+        if (!isRunning) {
+            return;
+        }
+
+        isRunning = false;
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(pollInterval.toMillis() + 5000, TimeUnit.MILLISECONDS)) {
+                log.warn("Пул обработчиков задач {} не остановился вовремя", name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Одна итерация обработчика: взять порцию задач и выполнить. Возвращает число взятых задач.
+    public int runOnce(String workerId) {
+        final List<ClaimedJob> jobs = jobService.claim(workerId, batchSize, visibilityTimeout);
+        jobs.forEach(job -> execute(job, workerId));
+        return jobs.size();
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    public int getProcessedCount() {
+        return processedCount.get();
+    }
+
+    private void runWorker(String workerId) {
+        while (isRunning) {
+            int claimed = 0;
+            try {
+                claimed = runOnce(workerId);
+            } catch (RuntimeException e) {
+                log.warn("Ошибка обработчика задач {}", workerId, e);
+            }
+
+            if (claimed == 0 && !sleep()) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void execute(ClaimedJob job, String workerId) {
+        final JobHandler handler = handlers.get(job.getType());
+        try {
+            if (isNull(handler)) {
+                throw new IllegalStateException(String.format("Нет обработчика задач типа %s", job.getType()));
+            }
+            handler.handle(objectMapper.readValue(job.getPayload(), handler.getPayloadType()));
+        } catch (Exception e) {
+            log.warn("Задача id = {} ({}), попытка {} завершилась ошибкой", job.getId(), job.getType(), job.getAttempts(), e);
+            jobService.fail(job.getId(), workerId, String.valueOf(e));
+            return;
+        }
+
+        jobService.complete(job.getId(), workerId);
+        processedCount.incrementAndGet();
+    }
+
+    private boolean sleep() {
+        try {
+            Thread.sleep(pollInterval.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        private NamedThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, String.format("jobs-%s-%s", name, threadNumber.getAndIncrement()));
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import static java.util.Objects.nonNull;
+
+// Метрики SQL на HTTP-запрос. Без реестра метрик (срезы @WebMvcTest) перехватчик не подключается.
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+    private final ObjectProvider<SqlRequestStats> sqlRequestStats;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        final SqlRequestStats stats = sqlRequestStats.getIfAvailable();
+        final MeterRegistry meters = meterRegistry.getIfAvailable();
+        if (nonNull(stats) && nonNull(meters)) {
+            registry.addInterceptor(new SqlRequestMetricsInterceptor(stats, meters));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.common.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.isNull;
+
+// SQL-запросы и прочитанные строки на один HTTP-запрос по обработчикам (Controller#method):
+// распределения shareit.sql.statements и shareit.sql.rows.
+@RequiredArgsConstructor
+public class SqlRequestMetricsInterceptor implements AsyncHandlerInterceptor {
+    private final SqlRequestStats sqlRequestStats;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            sqlRequestStats.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception exp) {
+        final SqlRequestStats.Counters counters = sqlRequestStats.end();
+        if (isNull(counters) || !(handler instanceof HandlerMethod)) {
+            return;
+        }
+
+        final HandlerMethod handlerMethod = (HandlerMethod) handler;
+        final String handlerName = handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+        summary("shareit.sql.statements", "SQL-запросов на HTTP-запрос", handlerName).record(counters.getStatements());
+        summary("shareit.sql.rows", "Прочитано строк на HTTP-запрос", handlerName).record(counters.getRows());
+    }
+
+    // Асинхронная обработка (поток событий): поток отдается, счетчики не пишутся.
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        sqlRequestStats.end();
+    }
+
+    private DistributionSummary summary(String name, String description, String handlerName) {
+        return summaries.computeIfAbsent(name + "#" + handlerName, key -> DistributionSummary.builder(name)
+                .description(description)
+                .tag("handler", handlerName)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(10_000.0)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.common.metrics;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.jdbc.JdbcStatementListener;
+import ru.practicum.shareit.common.jdbc.StatementExecution;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+// Число SQL-запросов и прочитанных строк в рамках текущего HTTP-запроса (пишет SqlRequestMetricsInterceptor).
+// Счетчики передаются в потоки параллельных чтений (ParallelReadExecutor) через TaskDecorator.
+@Component
+public class SqlRequestStats implements JdbcStatementListener, TaskDecorator {
+    private static final ThreadLocal<Counters> CURRENT = new ThreadLocal<>();
+
+    public void begin() {
+        CURRENT.set(new Counters());
+    }
+
+    // Счетчики завершенного запроса (null, если begin не вызывался).
+    public Counters end() {
+        final Counters counters = CURRENT.get();
+        CURRENT.remove();
+        return counters;
+    }
+
+    @Override
+    public void afterExecute(StatementExecution execution) {
+        final Counters counters = CURRENT.get();
+        if (nonNull(counters)) {
+            counters.statements.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void afterFetch(String sql, long rows) {
+        final Counters counters = CURRENT.get();
+        if (nonNull(counters)) {
+            counters.rows.addAndGet(rows);
+        }
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        final Counters counters = CURRENT.get();
+        if (isNull(counters)) {
+            return runnable;
+        }
+
+        return () -> {
+            final Counters previous = CURRENT.get();
+            CURRENT.set(counters);
+            try {
+                runnable.run();
+            } finally {
+                if (isNull(previous)) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    public static class Counters {
+        private final AtomicLong statements = new AtomicLong();
+        private final AtomicLong rows = new AtomicLong();
+
+        public long getStatements() {
+            return statements.get();
+        }
+
+        public long getRows() {
+            return rows.get();
+        }
+    }
+}
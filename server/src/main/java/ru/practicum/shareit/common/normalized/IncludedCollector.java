@@ -0,0 +1,37 @@
+package ru.practicum.shareit.common.normalized;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+
+// Собирает вещи и пользователей для included: каждый id - один раз, в порядке первого упоминания.
+public class IncludedCollector {
+    private final Map<Long, ItemDto> items = new LinkedHashMap<>();
+    private final Map<Long, UserDto> users = new LinkedHashMap<>();
+
+    public Long addItem(ItemDto item) {
+        if (isNull(item)) return null;
+
+        items.putIfAbsent(item.getId(), item);
+        return item.getId();
+    }
+
+    public Long addUser(UserDto user) {
+        if (isNull(user)) return null;
+
+        users.putIfAbsent(user.getId(), user);
+        return user.getId();
+    }
+
+    public IncludedDto toIncludedDto() {
+        return IncludedDto.builder()
+                .items(new ArrayList<>(items.values()))
+                .users(new ArrayList<>(users.values()))
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.common.normalized;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+@Builder
+@Jacksonized
+@Data
+@AllArgsConstructor
+public class IncludedDto {
+    private List<ItemDto> items;
+    private List<UserDto> users;
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.common.normalized;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+// Нормализованный список: элементы ссылаются на вещи и пользователей по id, а сами вещи и пользователи
+// передаются по одному разу в included (вместо копии в каждом элементе).
+@Builder
+@Jacksonized
+@Data
+@AllArgsConstructor
+public class NormalizedListDto<T> {
+    private List<T> data;
+    private IncludedDto included;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.common.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Приемник по умолчанию - пишет события в лог.
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.logging-sink.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class LoggingOutboxEventSink implements OutboxEventSink {
+    @Override
+    public void publish(OutboxEventMessage message) {
+        log.debug("Событие {}", message);
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.common.outbox;
+
+// Тип агрегата, к которому относится событие. Порядок доставки гарантируется в пределах одного агрегата.
+public enum OutboxAggregateType {
+    BOOKING,
+    ITEM,
+    COMMENT
+}
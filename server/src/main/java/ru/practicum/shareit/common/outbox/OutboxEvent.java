@@ -0,0 +1,32 @@
+package ru.practicum.shareit.common.outbox;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// Событие об изменении данных, записанное в той же транзакции, что и само изменение.
+@Entity
+@Table(name = "outbox_events")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // порядковый номер события (в этом порядке события и доставляются)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregate_type")
+    private OutboxAggregateType aggregateType;
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type")
+    private OutboxEventType eventType;
+    private String payload; // данные события в JSON
+    private LocalDateTime created;
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt; // момент доставки (null - событие еще не доставлено)
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.common.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+// Событие, передаваемое подписчикам внутри приложения и во внешний приемник.
+// Доставка "хотя бы один раз": получатель должен быть готов к повторам (id события не меняется).
+@Getter
+@ToString
+@AllArgsConstructor
+public class OutboxEventMessage {
+    private final Long id;
+    private final OutboxAggregateType aggregateType;
+    private final Long aggregateId;
+    private final OutboxEventType eventType;
+    private final String payload;
+    private final LocalDateTime created;
+
+    public static OutboxEventMessage of(OutboxEvent event) {
+        return new OutboxEventMessage(event.getId(),
+                event.getAggregateType(),
+                event.getAggregateId(),
+                event.getEventType(),
+                event.getPayload(),
+                event.getCreated());
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.common.outbox;
+
+// Внешний приемник событий (брокер сообщений и т.п.). Подключается объявлением бина, реализующего интерфейс.
+// Исключение при публикации означает, что событие не доставлено: оно и все последующие будут отправлены повторно.
+public interface OutboxEventSink {
+    void publish(OutboxEventMessage message);
+}
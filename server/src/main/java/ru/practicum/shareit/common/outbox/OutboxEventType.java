@@ -0,0 +1,18 @@
+package ru.practicum.shareit.common.outbox;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum OutboxEventType {
+    BOOKING_CREATED(OutboxAggregateType.BOOKING),
+    BOOKING_APPROVED(OutboxAggregateType.BOOKING),
+    BOOKING_REJECTED(OutboxAggregateType.BOOKING),
+    BOOKING_EXPIRED(OutboxAggregateType.BOOKING),
+    ITEM_CREATED(OutboxAggregateType.ITEM),
+    ITEM_UPDATED(OutboxAggregateType.ITEM),
+    COMMENT_ADDED(OutboxAggregateType.COMMENT);
+
+    private final OutboxAggregateType aggregateType;
+}
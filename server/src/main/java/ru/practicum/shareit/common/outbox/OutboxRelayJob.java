@@ -0,0 +1,36 @@
+package ru.practicum.shareit.common.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+// Периодическая доставка событий из outbox и удаление давно доставленных.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelayJob {
+    private final OutboxService outboxService;
+
+    @Value("${shareit.outbox.batch-size:100}")
+    private int batchSize;
+    @Value("${shareit.outbox.retention-hours:72}")
+    private int retentionHours;
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.relay-delay-ms:500}")
+    public void relay() {
+        int published;
+        do {
+            published = outboxService.relayBatch(batchSize);
+        } while (published == batchSize);
+    }
+
+    @Scheduled(cron = "${shareit.outbox.cleanup.cron:0 0 4 * * *}")
+    public void deletePublished() {
+        final int deleted = outboxService.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours));
+        log.info("Удалено доставленных событий outbox: {}", deleted);
+    }
+}
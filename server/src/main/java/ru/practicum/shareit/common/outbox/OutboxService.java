@@ -0,0 +1,11 @@
+package ru.practicum.shareit.common.outbox;
+
+import java.time.LocalDateTime;
+
+public interface OutboxService {
+    void add(OutboxEventType eventType, long aggregateId, Object payload);
+
+    int relayBatch(int batchSize);
+
+    int deletePublishedBefore(LocalDateTime publishedBefore);
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxServiceImpl implements OutboxService {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ObjectProvider<OutboxEventSink> sinks;
+
+    // Событие сохраняется только вместе с изменением, которое оно описывает (в транзакции вызывающего метода).
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void add(OutboxEventType eventType, long aggregateId, Object payload) {
+        final OutboxEvent event = OutboxEvent.builder()
+                .aggregateType(eventType.getAggregateType())
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(toJson(payload))
+                .created(LocalDateTime.now())
+                .build();
+
+        outboxEventRepository.save(event);
+    }
+
+    // Доставка порции недоставленных событий в порядке их записи: сначала подписчикам внутри приложения, затем во внешние приемники.
+    // Событие помечается доставленным только после успешной отправки всем получателям, поэтому возможны повторы, но не потери.
+    // При ошибке доставка останавливается на этом событии, чтобы следующие события не обогнали его.
+    @Transactional
+    @Override
+    public int relayBatch(int batchSize) {
+        final List<OutboxEvent> events = outboxEventRepository.findUnpublished(PageRequest.of(0, batchSize));
+        final List<OutboxEventSink> eventSinks = sinks.orderedStream().collect(Collectors.toList());
+
+        int published = 0;
+        for (OutboxEvent event : events) {
+            final OutboxEventMessage message = OutboxEventMessage.of(event);
+            try {
+                applicationEventPublisher.publishEvent(message);
+                eventSinks.forEach(sink -> sink.publish(message));
+            } catch (RuntimeException e) {
+                log.warn("Не удалось доставить событие id = {}, доставка будет повторена", event.getId(), e);
+                break;
+            }
+
+            event.setPublishedAt(LocalDateTime.now());
+            published++;
+        }
+
+        return published;
+    }
+
+    @Transactional
+    @Override
+    public int deletePublishedBefore(LocalDateTime publishedBefore) {
+        return outboxEventRepository.deletePublishedBefore(publishedBefore);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать данные события", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.common.profiling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+// Профилирование на работающем сервисе:
+// POST /actuator/jfr {"durationSeconds": 30, "settings": "profile"} - файл .jfr (открывается в JDK Mission Control,
+// ошибки - только статусом, причина в логе);
+// POST /actuator/jfr/summary {"durationSeconds": 30, "top": 20} - top-N горячих методов по CPU и аллокациям в json.
+// Запись уже идет или была недавно - 429, неверные параметры - 400.
+@Component
+@WebEndpoint(id = "jfr")
+@RequiredArgsConstructor
+@Slf4j
+public class JfrEndpoint {
+    private static final int DEFAULT_DURATION_SECONDS = 30;
+    private static final String DEFAULT_SETTINGS = "profile";
+    private static final int DEFAULT_TOP = 20;
+    private static final int MAX_TOP = 200;
+    private static final String SUMMARY = "summary";
+
+    private final JfrProfiler profiler;
+
+    @WriteOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Object> record(@Nullable Integer durationSeconds, @Nullable String settings)
+            throws IOException, ParseException, InterruptedException {
+        try {
+            final Path file = profiler.record(duration(durationSeconds), isNull(settings) ? DEFAULT_SETTINGS : settings);
+            return new WebEndpointResponse<>(new FileSystemResource(file), WebEndpointResponse.STATUS_OK);
+        } catch (IllegalArgumentException exp) {
+            log.warn(exp.getMessage());
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException exp) {
+            log.warn(exp.getMessage());
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> summary(@Selector String view, @Nullable Integer durationSeconds,
+                                               @Nullable String settings, @Nullable Integer top)
+            throws IOException, ParseException, InterruptedException {
+        if (!SUMMARY.equals(view)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (nonNull(top) && (top < 1 || top > MAX_TOP)) {
+            return new WebEndpointResponse<>(Map.of("error", String.format("top должен быть от 1 до %s", MAX_TOP)),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        try {
+            final Duration duration = duration(durationSeconds);
+            final String recordingSettings = isNull(settings) ? DEFAULT_SETTINGS : settings;
+            final Path file = profiler.record(duration, recordingSettings);
+            return new WebEndpointResponse<>(profiler.summarize(file, recordingSettings, duration, isNull(top) ? DEFAULT_TOP : top));
+        } catch (IllegalArgumentException exp) {
+            return error(exp, WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException exp) {
+            return error(exp, WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+    }
+
+    private static Duration duration(@Nullable Integer durationSeconds) {
+        return Duration.ofSeconds(isNull(durationSeconds) ? DEFAULT_DURATION_SECONDS : durationSeconds);
+    }
+
+    private static WebEndpointResponse<Object> error(RuntimeException exp, int status) {
+        return new WebEndpointResponse<>(Map.of("error", exp.getMessage()), status);
+    }
+}
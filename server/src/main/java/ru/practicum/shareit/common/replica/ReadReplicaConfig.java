@@ -0,0 +1,45 @@
+package ru.practicum.shareit.common.replica;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import ru.practicum.shareit.common.jdbc.JdbcStatementListener;
+import ru.practicum.shareit.common.jdbc.ObservedDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Включается только при shareit.read-replicas.enabled=true.
+// Основной источник берется из spring.datasource.*, реплики - из shareit.read-replicas.replicas[i].*
+// Реплики наполняются данными владельцев (owner_id % кол-во реплик) репликацией с основной БД.
+// Это разгрузка чтений, а не шардирование: основная БД хранит все данные и принимает всю запись,
+// чтения по одному id тоже идут в нее.
+// Запросы к основному источнику и репликам наблюдаются так же, как без реплик (ObservedDataSource).
+@Configuration
+@ConditionalOnProperty(name = "shareit.read-replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+    @Bean
+    @Primary
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties, ReadReplicaProperties readReplicaProperties,
+                                                         ObjectProvider<JdbcStatementListener> jdbcStatementListeners) {
+        final List<DataSource> replicas = readReplicaProperties.getReplicas().stream()
+                .map(replica -> DataSourceBuilder.create()
+                        .driverClassName(replica.getDriverClassName())
+                        .url(replica.getUrl())
+                        .username(replica.getUsername())
+                        .password(replica.getPassword())
+                        .build())
+                .map(replica -> new ObservedDataSource(replica, jdbcStatementListeners))
+                .collect(Collectors.toUnmodifiableList());
+
+        return new ReplicaRoutingDataSource(
+                new ObservedDataSource(dataSourceProperties.initializeDataSourceBuilder().build(), jdbcStatementListeners), replicas);
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.common.replica;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.function.Supplier;
+
+// Реплика, на которую должны уйти запросы текущего потока.
+// Если реплика не выбрана, то запросы идут в основной источник данных.
+@UtilityClass
+public class ReplicaContext {
+    private final ThreadLocal<Integer> currentReplica = new ThreadLocal<>();
+
+    public Integer getCurrentReplica() {
+        return currentReplica.get();
+    }
+
+    public <T> T callOnReplica(int replica, Supplier<T> action) {
+        final Integer previousReplica = currentReplica.get();
+        currentReplica.set(replica);
+        try {
+            return action.get();
+        } finally {
+            if (previousReplica == null) {
+                currentReplica.remove();
+            } else {
+                currentReplica.set(previousReplica);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.common.replica;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.common.OffsetBasedPageRequest;
+import ru.practicum.shareit.common.Utils;
+
+import javax.annotation.PreDestroy;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+// Выполнение чтений списков на реплике владельца вещи (разгрузка основной БД).
+// Запись и чтения по одному id всегда идут в основной источник.
+// Если чтение с реплик выключено (по умолчанию), запросы выполняются как есть в текущей транзакции.
+@Component
+@Slf4j
+public class ReplicaQueryExecutor {
+    private final boolean enabled;
+    private final int replicaCount;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ExecutorService scatterExecutor;
+
+    public ReplicaQueryExecutor(PlatformTransactionManager transactionManager, ObjectProvider<ReplicaRoutingDataSource> routingDataSource) {
+        final ReplicaRoutingDataSource dataSource = routingDataSource.getIfAvailable();
+        enabled = nonNull(dataSource);
+        replicaCount = enabled ? dataSource.getReplicaCount() : 1;
+
+        // Каждая реплика читается в своей транзакции, т.к. соединение выбирается при ее открытии.
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readOnlyTransactionTemplate.setReadOnly(true);
+
+        scatterExecutor = enabled ? Executors.newFixedThreadPool(replicaCount) : null;
+        if (enabled) {
+            log.info("Включено чтение с реплик по владельцу, кол-во реплик = {}", replicaCount);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getReplicaByOwner(long ownerId) {
+        return Math.floorMod(ownerId, replicaCount);
+    }
+
+    // Запрос, затрагивающий данные одного владельца, уходит на его реплику.
+    public <T> T readOnOwnerReplica(long ownerId, Supplier<T> query) {
+        if (!enabled) {
+            return query.get();
+        }
+
+        final int replica = getReplicaByOwner(ownerId);
+        if (Objects.equals(ReplicaContext.getCurrentReplica(), replica)) {
+            return query.get();
+        }
+
+        return readOnReplica(replica, query);
+    }
+
+    // Запрос по всем репликам (scatter-gather).
+    // С каждой реплики берется offset + size записей, затем результаты сливаются по order и обрезаются по pageable.
+    // Запрос должен сортировать строки в том же порядке, что и order (включая уникальный id для равных значений),
+    // иначе первые offset + size записей реплики - не те, что нужны для страницы.
+    public <T> List<T> readOnAllReplicas(Function<Pageable, List<T>> query, Comparator<T> order, Pageable pageable) {
+        if (!enabled) {
+            return query.apply(pageable);
+        }
+
+        final Pageable replicaPageable = isNull(pageable)
+                ? null
+                : new OffsetBasedPageRequest(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()), pageable.getSort());
+
+        final List<CompletableFuture<List<T>>> replicaQueries = IntStream.range(0, replicaCount)
+                .mapToObj(replica -> CompletableFuture.supplyAsync(() -> readOnReplica(replica, () -> query.apply(replicaPageable)), scatterExecutor))
+                .collect(Collectors.toUnmodifiableList());
+
+        final List<List<T>> replicaResults;
+        try {
+            replicaResults = replicaQueries.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toUnmodifiableList());
+        } catch (CompletionException exp) {
+            if (exp.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exp.getCause();
+            }
+            throw exp;
+        }
+
+        return Utils.mergeSortedAndPage(replicaResults, order, pageable);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (nonNull(scatterExecutor)) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+
+    private <T> T readOnReplica(int replica, Supplier<T> query) {
+        return ReplicaContext.callOnReplica(replica, () -> readOnlyTransactionTemplate.execute(status -> query.get()));
+    }
+}
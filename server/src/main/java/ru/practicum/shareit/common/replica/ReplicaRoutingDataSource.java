@@ -0,0 +1,39 @@
+package ru.practicum.shareit.common.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Источник данных, который выбирает реплику по ReplicaContext.
+// Без выбранной реплики соединение берется из основного источника (в него идет вся запись).
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private final int replicaCount;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("Для чтения с реплик нужна хотя бы одна реплика");
+        }
+
+        final Map<Object, Object> targetDataSources = new HashMap<>();
+        for (int replica = 0; replica < replicas.size(); replica++) {
+            targetDataSources.put(replica, replicas.get(replica));
+        }
+
+        this.replicaCount = replicas.size();
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    public int getReplicaCount() {
+        return replicaCount;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ReplicaContext.getCurrentReplica();
+    }
+}
@@ -0,0 +1,268 @@
+package ru.practicum.shareit.common.seed;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.common.bloom.IdExistenceFilters;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Синтетические данные для воспроизведения нагрузки: users, requests, items, bookings, comments пачками через JDBC (batch insert).
+// Объемы - базовые, умноженные на scale-factor (1.0 - миллион бронирований). Владельцы вещей выбираются по Ципфу:
+// у нескольких горячих владельцев большая часть вещей, вещи горячих владельцев идут первыми, и бронирования по Ципфу
+// на вещах тоже достаются в основном им. Комментарии оставляют бронировавшие по прошедшим подтвержденным бронированиям.
+// При одном random-seed данные одинаковые (даты - относительно момента запуска).
+// Сводки по бронированиям не пишутся - их строит ItemBookingSummaryJob при старте.
+// Идентификаторы новых строк читаются по id > max(id) до вставки, поэтому во время генерации в таблицы никто не должен писать.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDataGenerator {
+    private static final int BASE_USERS = 10_000;
+    private static final int BASE_REQUESTS = 20_000;
+    private static final int BASE_ITEMS = 50_000;
+    private static final int BASE_BOOKINGS = 1_000_000;
+    private static final int BASE_COMMENTS = 100_000;
+    private static final String[] THINGS = {"drill", "saw", "hammer", "ladder", "tent", "bike", "kayak", "projector",
+            "camera", "tripod", "grill", "mixer", "vacuum", "stroller", "skis", "snowboard"};
+    private static final String[] CONDITIONS = {"new", "used", "like new", "heavy duty", "compact", "professional"};
+    private static final String[] REVIEWS = {"works great", "as described", "a bit worn", "would rent again", "owner was late"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<IdExistenceFilters> idExistenceFilters;
+
+    @Value("${shareit.seed.scale-factor:1.0}")
+    private double scaleFactor;
+    @Value("${shareit.seed.random-seed:42}")
+    private long randomSeed;
+    @Value("${shareit.seed.zipf-exponent:1.1}")
+    private double zipfExponent;
+    @Value("${shareit.seed.batch-size:1000}")
+    private int batchSize;
+
+    public void generate() {
+        final long startNanos = System.nanoTime();
+        final SplittableRandom random = new SplittableRandom(randomSeed);
+        final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        final long[] userIds = insertUsers(scaled(BASE_USERS, 2));
+        final long[] requestIds = insertRequests(scaled(BASE_REQUESTS, 0), userIds, random, now);
+
+        // Ранг владельца каждой вещи по Ципфу, по возрастанию: первыми идут вещи самых горячих владельцев.
+        final ZipfDistribution owners = new ZipfDistribution(userIds.length, zipfExponent);
+        final int[] itemOwners = new int[scaled(BASE_ITEMS, 1)];
+        for (int i = 0; i < itemOwners.length; i++) {
+            itemOwners[i] = owners.sample(random);
+        }
+        Arrays.sort(itemOwners);
+        final long[] itemIds = insertItems(itemOwners, userIds, requestIds, random, now);
+
+        final PastBookings pastBookings = insertBookings(scaled(BASE_BOOKINGS, 0), itemIds, itemOwners, userIds, random, now);
+        final int comments = insertComments(scaled(BASE_COMMENTS, 0), pastBookings, itemIds, userIds, random, now);
+        // Строки вставлены в обход JPA: уже построенные фильтры id перестраиваются (при старте их построят после генерации).
+        idExistenceFilters.ifAvailable(filters -> {
+            if (filters.users().isReady()) {
+                filters.rebuild();
+            }
+        });
+
+        log.info("Сгенерированы данные (масштаб {}, seed {}): пользователей {}, запросов {}, вещей {}, "
+                        + "бронирований {}, комментариев {} за {} мс", scaleFactor, randomSeed, userIds.length, requestIds.length,
+                itemIds.length, pastBookings.total, comments, Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+    }
+
+    private long[] insertUsers(int count) {
+        final long maxIdBefore = maxId("users");
+        final BatchWriter users = new BatchWriter("INSERT INTO users (name, email) VALUES (?, ?)");
+        for (int i = 1; i <= count; i++) {
+            final long number = maxIdBefore + i;
+            users.add("user" + number, String.format("user%s@seed.shareit", number));
+        }
+        users.flush();
+        return idsAfter("users", maxIdBefore);
+    }
+
+    private long[] insertRequests(int count, long[] userIds, SplittableRandom random, LocalDateTime now) {
+        final long maxIdBefore = maxId("requests");
+        final BatchWriter requests = new BatchWriter("INSERT INTO requests (description, user_id, created, updated_at) "
+                + "VALUES (?, ?, ?, ?)");
+        for (int i = 0; i < count; i++) {
+            requests.add("need a " + pick(THINGS, random),
+                    userIds[random.nextInt(userIds.length)],
+                    Timestamp.valueOf(now.minusMinutes(random.nextInt(2 * 365 * 24 * 60))),
+                    Timestamp.valueOf(now));
+        }
+        requests.flush();
+        return idsAfter("requests", maxIdBefore);
+    }
+
+    private long[] insertItems(int[] itemOwners, long[] userIds, long[] requestIds, SplittableRandom random, LocalDateTime now) {
+        final long maxIdBefore = maxId("items");
+        final BatchWriter items = new BatchWriter("INSERT INTO items (name, description, is_available, owner_id, request_id, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)");
+        for (int i = 0; i < itemOwners.length; i++) {
+            final String thing = pick(THINGS, random);
+            // Примерно каждая десятая вещь добавлена в ответ на запрос.
+            final Long requestId = requestIds.length > 0 && random.nextInt(10) == 0
+                    ? requestIds[random.nextInt(requestIds.length)]
+                    : null;
+            items.add(thing + " " + i,
+                    String.format("%s %s #%s", pick(CONDITIONS, random), thing, i),
+                    random.nextInt(10) != 0,
+                    userIds[itemOwners[i]],
+                    requestId,
+                    Timestamp.valueOf(now));
+        }
+        items.flush();
+        return idsAfter("items", maxIdBefore);
+    }
+
+    // Бронирования равномерно по времени от двух лет назад до двух месяцев вперед (начала различаются, поэтому
+    // ограничение уникальности не нарушается), вещь - по Ципфу, бронирующий - любой пользователь, кроме владельца.
+    private PastBookings insertBookings(int count, long[] itemIds, int[] itemOwners, long[] userIds, SplittableRandom random,
+                                        LocalDateTime now) {
+        final PastBookings pastBookings = new PastBookings(count);
+        if (count == 0) {
+            return pastBookings;
+        }
+
+        final LocalDateTime origin = now.minusYears(2);
+        final long spacingSeconds = Math.max(1, Duration.between(origin, now.plusMonths(2)).getSeconds() / count);
+        final ZipfDistribution items = new ZipfDistribution(itemIds.length, zipfExponent);
+        final BatchWriter bookings = new BatchWriter("INSERT INTO bookings (item_id, user_id, start_booking, end_booking, status, "
+                + "version, updated_at) VALUES (?, ?, ?, ?, ?, 0, ?)");
+        for (int i = 0; i < count; i++) {
+            final int item = items.sample(random);
+            int booker = random.nextInt(userIds.length);
+            if (booker == itemOwners[item]) {
+                booker = (booker + 1) % userIds.length;
+            }
+            final LocalDateTime start = origin.plusSeconds(i * spacingSeconds);
+            final LocalDateTime end = start.plusHours(1 + random.nextInt(7 * 24));
+            final BookingStatus status = bookingStatus(start, end, now, random);
+            if (status == BookingStatus.APPROVED && end.isBefore(now)) {
+                pastBookings.add(item, booker, end);
+            }
+
+            bookings.add(itemIds[item], userIds[booker], Timestamp.valueOf(start), Timestamp.valueOf(end), status.name(),
+                    Timestamp.valueOf(now));
+        }
+        bookings.flush();
+        return pastBookings;
+    }
+
+    private BookingStatus bookingStatus(LocalDateTime start, LocalDateTime end, LocalDateTime now, SplittableRandom random) {
+        final int percent = random.nextInt(100);
+        if (end.isBefore(now)) {
+            return percent < 85 ? BookingStatus.APPROVED
+                    : percent < 92 ? BookingStatus.REJECTED
+                    : percent < 97 ? BookingStatus.CANCELED
+                    : BookingStatus.EXPIRED;
+        }
+        if (start.isAfter(now)) {
+            return percent < 40 ? BookingStatus.WAITING
+                    : percent < 90 ? BookingStatus.APPROVED
+                    : BookingStatus.REJECTED;
+        }
+        return BookingStatus.APPROVED;
+    }
+
+    private int insertComments(int count, PastBookings pastBookings, long[] itemIds, long[] userIds, SplittableRandom random,
+                               LocalDateTime now) {
+        if (pastBookings.size == 0) {
+            return 0;
+        }
+
+        final BatchWriter comments = new BatchWriter("INSERT INTO comments (text, item_id, author_id, created) VALUES (?, ?, ?, ?)");
+        for (int i = 0; i < count; i++) {
+            final int booking = random.nextInt(pastBookings.size);
+            final LocalDateTime created = LocalDateTime.ofEpochSecond(pastBookings.ends[booking], 0, ZoneOffset.UTC)
+                    .plusHours(1 + random.nextInt(72));
+            comments.add(pick(REVIEWS, random),
+                    itemIds[pastBookings.items[booking]],
+                    userIds[pastBookings.bookers[booking]],
+                    Timestamp.valueOf(created.isAfter(now) ? now : created));
+        }
+        comments.flush();
+        return count;
+    }
+
+    private int scaled(int base, int min) {
+        return Math.max(min, (int) Math.round(base * scaleFactor));
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private long maxId(String table) {
+        final Long maxId = jdbcTemplate.queryForObject(String.format("SELECT MAX(id) FROM %s", table), Long.class);
+        return maxId == null ? 0 : maxId;
+    }
+
+    private long[] idsAfter(String table, long afterId) {
+        return jdbcTemplate.queryForList(String.format("SELECT id FROM %s WHERE id > ? ORDER BY id", table), Long.class, afterId)
+                .stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    // Вставка строк пачками по batch-size (для PostgreSQL стоит включить reWriteBatchedInserts=true в url).
+    private class BatchWriter {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        BatchWriter(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+
+    // Прошедшие подтвержденные бронирования (индексы вещи и бронирующего, конец) - основа для комментариев.
+    private static class PastBookings {
+        private final int total;
+        private final int[] items;
+        private final int[] bookers;
+        private final long[] ends;
+        private int size;
+
+        PastBookings(int total) {
+            this.total = total;
+            this.items = new int[total];
+            this.bookers = new int[total];
+            this.ends = new long[total];
+        }
+
+        void add(int item, int booker, LocalDateTime end) {
+            items[size] = item;
+            bookers[size] = booker;
+            ends[size] = end.toEpochSecond(ZoneOffset.UTC);
+            size++;
+        }
+    }
+}
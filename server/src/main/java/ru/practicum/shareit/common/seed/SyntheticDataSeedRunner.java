@@ -0,0 +1,21 @@
+package ru.practicum.shareit.common.seed;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+// Заполнение БД синтетическими данными при старте с профилем seed (например, --spring.profiles.active=seed
+// --shareit.seed.scale-factor=0.1). После генерации сервер продолжает работать, на нем можно сразу запускать нагрузку.
+@Component
+@Profile("seed")
+@RequiredArgsConstructor
+public class SyntheticDataSeedRunner implements ApplicationRunner {
+    private final SyntheticDataGenerator syntheticDataGenerator;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        syntheticDataGenerator.generate();
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.common.seed;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Распределение Ципфа на рангах 0..size-1: вероятность ранга k пропорциональна 1 / (k + 1)^exponent.
+// Ранг 0 - самый частый (горячий владелец, популярная вещь), хвост длинный.
+// Функция распределения считается заранее, выборка - двоичный поиск по ней.
+public class ZipfDistribution {
+    private final double[] cumulative;
+
+    public ZipfDistribution(int size, double exponent) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Размер распределения должен быть больше нуля");
+        }
+
+        cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+
+    public int sample(SplittableRandom random) {
+        final int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        final int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.common.slowquery;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+
+// План медленного запроса: EXPLAIN (ANALYZE, BUFFERS) с теми же параметрами для доли explain-sample-rate запросов.
+// Только PostgreSQL и только SELECT (ANALYZE выполняет запрос), в read-only транзакции с откатом и с таймаутом.
+// Выполняется одним фоновым потоком; если очередь заполнена, план не строится.
+// При чтении с реплик план строится на основном источнике, а не на реплике, где выполнялся запрос.
+@Component
+@Slf4j
+public class QueryPlanExplainer {
+    private static final ThreadLocal<Boolean> EXPLAINING = new ThreadLocal<>();
+
+    private final ObjectProvider<DataSource> dataSource;
+    private final double sampleRate;
+    private final int timeoutSeconds;
+    private final ThreadPoolExecutor executor;
+    private volatile Boolean postgres;
+
+    public QueryPlanExplainer(ObjectProvider<DataSource> dataSource,
+                              @Value("${shareit.slow-queries.explain-sample-rate:0.1}") double sampleRate,
+                              @Value("${shareit.slow-queries.explain-timeout-seconds:30}") int timeoutSeconds,
+                              @Value("${shareit.slow-queries.explain-queue-capacity:16}") int queueCapacity) {
+        this.dataSource = dataSource;
+        this.sampleRate = sampleRate;
+        this.timeoutSeconds = timeoutSeconds;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Запросы самого EXPLAIN не попадают в журнал медленных запросов.
+    static boolean isExplaining() {
+        return Boolean.TRUE.equals(EXPLAINING.get());
+    }
+
+    void explainLater(SlowQuery query, List<Object> parameters) {
+        if (isNull(query.getSql()) || !isSelect(query.getSql()) || Boolean.FALSE.equals(postgres)
+                || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> explain(query, parameters));
+        } catch (RejectedExecutionException exp) {
+            log.debug("Очередь EXPLAIN заполнена, план запроса {} не строится", query.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void explain(SlowQuery query, List<Object> parameters) {
+        EXPLAINING.set(true);
+        try (Connection connection = dataSource.getObject().getConnection()) {
+            if (!isPostgres(connection)) {
+                return;
+            }
+
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + query.getSql())) {
+                statement.setQueryTimeout(timeoutSeconds);
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+
+                final StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+                query.setPlan(plan.toString());
+            } finally {
+                connection.rollback();
+                connection.setReadOnly(false);
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException | RuntimeException exp) {
+            query.setPlan("EXPLAIN не выполнен: " + exp.getMessage());
+            log.warn("Не удалось получить план медленного запроса {}: {}", query.getId(), exp.getMessage());
+        } finally {
+            EXPLAINING.remove();
+        }
+    }
+
+    private boolean isPostgres(Connection connection) throws SQLException {
+        if (isNull(postgres)) {
+            postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        }
+        return postgres;
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select");
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.common.slowquery;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+// Запись журнала медленных запросов. План (EXPLAIN ANALYZE) дописывается позже отдельным потоком
+// и есть только у выбранных запросов на PostgreSQL.
+@Getter
+@Builder
+public class SlowQuery {
+    private final long id;
+    private final String time;
+    private final long elapsedMs;
+    private final String sql;
+    private final List<String> parameters;
+    private final String caller;
+    private final String traceId;
+    private final String error;
+    private volatile String plan;
+
+    void setPlan(String plan) {
+        this.plan = plan;
+    }
+}
@@ -0,0 +1,157 @@
+package ru.practicum.shareit.common.slowquery;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.jdbc.JdbcStatementListener;
+import ru.practicum.shareit.common.jdbc.StatementExecution;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+// Журнал медленных SQL-запросов (не быстрее threshold-ms): текст, параметры (строки скрыты при redact-strings),
+// вызвавший метод приложения и репозитория (по стеку вызова - только для медленных запросов), идентификатор трассы.
+// Последние max-entries записей доступны через /actuator/slowqueries, часть запросов получает план (QueryPlanExplainer).
+@Component
+@Slf4j
+public class SlowQueryLog implements JdbcStatementListener {
+    private static final String APPLICATION_PACKAGE = "ru.practicum.shareit.";
+    private static final Set<String> INFRASTRUCTURE_PACKAGES = Set.of("ru.practicum.shareit.common.jdbc.",
+            "ru.practicum.shareit.common.slowquery.", "ru.practicum.shareit.common.tracing.", "ru.practicum.shareit.common.metrics.");
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final QueryPlanExplainer explainer;
+    private final long thresholdNanos;
+    private final int maxEntries;
+    private final boolean redactStrings;
+    private final AtomicLong ids = new AtomicLong();
+    private final Deque<SlowQuery> entries = new ArrayDeque<>();
+
+    public SlowQueryLog(QueryPlanExplainer explainer,
+                        @Value("${shareit.slow-queries.threshold-ms:200}") long thresholdMs,
+                        @Value("${shareit.slow-queries.max-entries:200}") int maxEntries,
+                        @Value("${shareit.slow-queries.redact-strings:true}") boolean redactStrings) {
+        this.explainer = explainer;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.maxEntries = maxEntries;
+        this.redactStrings = redactStrings;
+    }
+
+    @Override
+    public void afterExecute(StatementExecution execution) {
+        if (execution.getElapsedNanos() < thresholdNanos || QueryPlanExplainer.isExplaining()) {
+            return;
+        }
+
+        final List<Object> parameters = new ArrayList<>(execution.getParameters());
+        final SlowQuery query = SlowQuery.builder()
+                .id(ids.incrementAndGet())
+                .time(Instant.now().toString())
+                .elapsedMs(execution.getElapsedMs())
+                .sql(execution.getSql())
+                .parameters(parameters.stream().map(this::redact).collect(Collectors.toList()))
+                .caller(findCaller())
+                .traceId(MDC.get("traceId"))
+                .error(nonNull(execution.getError()) ? execution.getError().getMessage() : null)
+                .build();
+        add(query);
+        log.warn("slow_query duration_ms={} caller={} sql=\"{}\" params={}", query.getElapsedMs(), query.getCaller(),
+                query.getSql(), query.getParameters());
+
+        if (isNull(execution.getError())) {
+            explainer.explainLater(query, parameters);
+        }
+    }
+
+    // Последние записи, новые первыми.
+    public synchronized List<SlowQuery> getRecent() {
+        final List<SlowQuery> recent = new ArrayList<>(entries.size());
+        entries.descendingIterator().forEachRemaining(recent::add);
+        return recent;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private synchronized void add(SlowQuery query) {
+        if (entries.size() >= maxEntries) {
+            entries.removeFirst();
+        }
+        entries.addLast(query);
+    }
+
+    // Числа, даты и флаги остаются (по ним видно, какие строки выбирались), строки скрываются - в них могут быть личные данные.
+    private String redact(Object value) {
+        if (isNull(value)) {
+            return "null";
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Enum
+                || value instanceof Date || value instanceof TemporalAccessor) {
+            return String.valueOf(value);
+        }
+        if (value instanceof CharSequence) {
+            return redactStrings ? "'***'" : "'" + value + "'";
+        }
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+
+    // Первый метод приложения над JDBC, а если это репозиторий (пакет repository или интерфейс Spring Data за прокси) -
+    // еще и метод, который его вызвал: "BookingServiceImpl.getById -> BookingRepository.findById".
+    private static String findCaller() {
+        return STACK_WALKER.walk(frames -> {
+            String repository = null;
+            for (Iterator<StackWalker.StackFrame> iterator = frames.iterator(); iterator.hasNext(); ) {
+                final StackWalker.StackFrame frame = iterator.next();
+                final Class<?> type = frame.getDeclaringClass();
+                final String typeName = type.getName();
+                if (Proxy.isProxyClass(type)) {
+                    final String proxied = applicationInterface(type);
+                    if (isNull(repository) && nonNull(proxied)) {
+                        repository = proxied + "." + frame.getMethodName();
+                    }
+                    continue;
+                }
+                if (!typeName.startsWith(APPLICATION_PACKAGE) || typeName.contains("$$")
+                        || INFRASTRUCTURE_PACKAGES.stream().anyMatch(typeName::startsWith)) {
+                    continue;
+                }
+
+                final String method = type.getSimpleName() + "." + frame.getMethodName();
+                if (typeName.contains(".repository.")) {
+                    if (isNull(repository)) {
+                        repository = method;
+                    }
+                    continue;
+                }
+                return isNull(repository) ? method : method + " -> " + repository;
+            }
+            return isNull(repository) ? "unknown" : repository;
+        });
+    }
+
+    private static String applicationInterface(Class<?> proxyClass) {
+        return Arrays.stream(proxyClass.getInterfaces())
+                .filter(type -> type.getName().startsWith(APPLICATION_PACKAGE))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.common.sync;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.OffsetBasedPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+// Чтение изменений после токена.
+// Отдаются только записи с updated_at раньше горизонта, чтобы запись с меньшим updated_at не появилась после выдачи токена за ней.
+// updated_at ставится при записи, а не при фиксации, поэтому горизонт не позже начала самой старой незавершенной
+// пишущей транзакции (PostgreSQL, pg_stat_activity: у транзакции есть backend_xid после первой записи) и еще на commit-lag-ms раньше.
+// Возраст транзакции считается по часам БД, поэтому окно commit-lag-ms покрывает только расхождение часов узлов приложения.
+// Транзакции, не видимые в pg_stat_activity (другая роль БД без pg_read_all_stats), не учитываются.
+// На других БД (H2 в тестах) горизонт - сейчас минус commit-lag-ms: тогда окно должно покрывать и длительность пишущих транзакций.
+@Component
+@RequiredArgsConstructor
+public class ChangeFeedReader {
+    private static final String OLDEST_WRITE_TRANSACTION_AGE_SQL = "SELECT CAST(COALESCE(EXTRACT(EPOCH FROM clock_timestamp() - min(xact_start)) * 1000, 0) AS BIGINT) " +
+            "FROM pg_stat_activity WHERE datname = current_database() AND backend_type = 'client backend' AND backend_xid IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    @Value("${shareit.sync.commit-lag-ms:2000}")
+    private long commitLagMs;
+    @Value("${shareit.sync.page-size:500}")
+    private int pageSize;
+
+    public <E, D> ChangesDto<D> read(String since,
+                                     ChangeQuery<E> query,
+                                     Function<E, SyncToken> positionGetter,
+                                     Function<List<E>, List<D>> mapper) {
+        final SyncToken sinceToken = SyncToken.parse(since);
+        final LocalDateTime horizon = getHorizon();
+
+        // На одну запись больше размера страницы - чтобы узнать, есть ли продолжение.
+        final List<E> rows = query.find(sinceToken.getUpdatedAt(), sinceToken.getId(), horizon,
+                new OffsetBasedPageRequest(0, pageSize + 1));
+
+        final boolean hasMore = rows.size() > pageSize;
+        final List<E> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        SyncToken nextToken;
+        if (hasMore) {
+            nextToken = positionGetter.apply(page.get(page.size() - 1));
+        } else {
+            // Все изменения до горизонта переданы.
+            nextToken = new SyncToken(horizon, 0);
+            if (nextToken.compareTo(sinceToken) < 0) {
+                nextToken = sinceToken;
+            }
+        }
+
+        return ChangesDto.<D>builder()
+                .changed(mapper.apply(page))
+                .nextToken(nextToken.encode())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private LocalDateTime getHorizon() {
+        long lagMs = commitLagMs;
+        if (isPostgres()) {
+            final Long oldestWriteTransactionAgeMs = jdbcTemplate.queryForObject(OLDEST_WRITE_TRANSACTION_AGE_SQL, Long.class);
+            if (nonNull(oldestWriteTransactionAgeMs)) {
+                lagMs += Math.max(0, oldestWriteTransactionAgeMs);
+            }
+        }
+        return LocalDateTime.now().minusNanos(lagMs * 1_000_000);
+    }
+
+    private boolean isPostgres() {
+        if (isNull(postgres)) {
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+
+    @FunctionalInterface
+    public interface ChangeQuery<E> {
+        // Записи с (updated_at, id) больше (sinceUpdatedAt, sinceId) и updated_at < horizon, по возрастанию (updated_at, id).
+        List<E> find(LocalDateTime sinceUpdatedAt, long sinceId, LocalDateTime horizon, Pageable pageable);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.common.sync;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+// Записи, измененные после токена since (в порядке изменения), и токен для следующего запроса.
+// hasMore = true - изменений больше, чем помещается в ответ, следующую часть нужно запросить сразу.
+@Builder
+@Jacksonized
+@Data
+@AllArgsConstructor
+public class ChangesDto<T> {
+    private List<T> changed;
+    private String nextToken;
+    private boolean hasMore;
+}
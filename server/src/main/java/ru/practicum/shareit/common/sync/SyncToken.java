@@ -0,0 +1,56 @@
+package ru.practicum.shareit.common.sync;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.common.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+
+import static java.util.Objects.isNull;
+
+// Позиция в потоке изменений: все записи с (updated_at, id) не больше этой пары уже переданы клиенту.
+// Клиенту отдается непрозрачной строкой.
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class SyncToken implements Comparable<SyncToken> {
+    public static final SyncToken INITIAL = new SyncToken(LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+
+    private static final Comparator<SyncToken> ORDER = Comparator.comparing(SyncToken::getUpdatedAt)
+            .thenComparingLong(SyncToken::getId);
+    private static final String SEPARATOR = "/";
+
+    private final LocalDateTime updatedAt;
+    private final long id;
+
+    // Без токена - с самого начала (полная синхронизация).
+    public static SyncToken parse(String token) {
+        if (isNull(token) || token.isBlank()) {
+            return INITIAL;
+        }
+
+        try {
+            final String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final int separatorIndex = decoded.lastIndexOf(SEPARATOR);
+            return new SyncToken(LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+                    Long.parseLong(decoded.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException exp) {
+            throw new ValidationException(String.format("Некорректный токен синхронизации: %s", token));
+        }
+    }
+
+    public String encode() {
+        final String raw = updatedAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int compareTo(SyncToken other) {
+        return ORDER.compare(this, other);
+    }
+}
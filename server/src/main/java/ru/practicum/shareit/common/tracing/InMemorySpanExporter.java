@@ -0,0 +1,51 @@
+package ru.practicum.shareit.common.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+
+// Последние завершенные участки в памяти (экспорт по умолчанию), просмотр через /actuator/traces.
+// При заполнении вытесняются самые старые участки.
+@Component
+@ConditionalOnProperty(name = "shareit.tracing.exporter", havingValue = "memory", matchIfMissing = true)
+public class InMemorySpanExporter implements SpanExporter {
+    private final int maxSpans;
+    private final Deque<Span> spans = new ArrayDeque<>();
+
+    public InMemorySpanExporter(@Value("${shareit.tracing.memory.max-spans:10000}") int maxSpans) {
+        this.maxSpans = maxSpans;
+    }
+
+    @Override
+    public synchronized void export(Span span) {
+        if (spans.size() >= maxSpans) {
+            spans.removeFirst();
+        }
+        spans.addLast(span);
+    }
+
+    // Участки трассы (без traceId - последние limit участков), в порядке завершения.
+    public synchronized List<Span> getSpans(@Nullable String traceId, int limit) {
+        if (isNull(traceId)) {
+            final List<Span> recent = new ArrayList<>(spans);
+            return recent.subList(Math.max(0, recent.size() - limit), recent.size());
+        }
+
+        return spans.stream()
+                .filter(span -> span.getTraceId().equals(traceId))
+                .collect(Collectors.toList());
+    }
+
+    public synchronized void clear() {
+        spans.clear();
+    }
+}
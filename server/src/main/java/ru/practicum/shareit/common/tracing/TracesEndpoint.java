@@ -0,0 +1,34 @@
+package ru.practicum.shareit.common.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static java.util.Objects.isNull;
+
+// Трассы из памяти (InMemorySpanExporter): /actuator/traces - последние участки, /actuator/traces/{traceId} - одна трасса.
+@Component
+@Endpoint(id = "traces")
+@RequiredArgsConstructor
+public class TracesEndpoint {
+    private static final int RECENT_LIMIT = 200;
+
+    private final ObjectProvider<InMemorySpanExporter> inMemorySpanExporter;
+
+    @ReadOperation
+    public List<Span> recent() {
+        final InMemorySpanExporter exporter = inMemorySpanExporter.getIfAvailable();
+        return isNull(exporter) ? List.of() : exporter.getSpans(null, RECENT_LIMIT);
+    }
+
+    @ReadOperation
+    public List<Span> trace(@Selector String traceId) {
+        final InMemorySpanExporter exporter = inMemorySpanExporter.getIfAvailable();
+        return isNull(exporter) ? List.of() : exporter.getSpans(traceId, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.common.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.isNull;
+
+// Участки трассы для методов контроллеров, сервисов и репозиториев (Класс.метод).
+// Репозитории Spring Data называются по своему интерфейсу (UserRepository), а не по SimpleJpaRepository.
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class TracingAspect {
+    private final Tracer tracer;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("within(ru.practicum.shareit..*) && @within(org.springframework.web.bind.annotation.RestController)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("controller", joinPoint.getTarget().getClass().getSimpleName(), joinPoint);
+    }
+
+    @Around("within(ru.practicum.shareit..*) && @within(org.springframework.stereotype.Service)")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("service", joinPoint.getTarget().getClass().getSimpleName(), joinPoint);
+    }
+
+    @Around("target(org.springframework.data.repository.Repository) "
+            + "|| (within(ru.practicum.shareit..*) && @within(org.springframework.stereotype.Repository))")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("repository", repositoryName(joinPoint), joinPoint);
+    }
+
+    private Object trace(String kind, String className, ProceedingJoinPoint joinPoint) throws Throwable {
+        final Span span = tracer.startSpan(className + "." + joinPoint.getSignature().getName(), kind);
+        if (isNull(span)) {
+            return joinPoint.proceed();
+        }
+
+        Throwable error = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable exp) {
+            error = exp;
+            throw exp;
+        } finally {
+            tracer.finish(span, error);
+        }
+    }
+
+    private String repositoryName(ProceedingJoinPoint joinPoint) {
+        final Object target = joinPoint.getTarget();
+        if (!(target instanceof Repository)) {
+            return target.getClass().getSimpleName();
+        }
+
+        final Object proxy = joinPoint.getThis();
+        return repositoryNames.computeIfAbsent(proxy.getClass(), proxyClass -> Arrays.stream(ClassUtils.getAllInterfaces(proxy))
+                .filter(type -> type.getName().startsWith("ru.practicum.shareit"))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(target.getClass().getSimpleName()));
+    }
+}
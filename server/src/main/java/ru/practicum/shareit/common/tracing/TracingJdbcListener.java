@@ -0,0 +1,49 @@
+package ru.practicum.shareit.common.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.jdbc.JdbcStatementListener;
+import ru.practicum.shareit.common.jdbc.StatementExecution;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+
+// Участок на каждый SQL-запрос (имя - по первому слову: jdbc select, jdbc update...).
+// Текст запроса записывается только для медленных (не быстрее slow-statement-ms), чтобы не раздувать трассы.
+@Component
+@RequiredArgsConstructor
+public class TracingJdbcListener implements JdbcStatementListener {
+    private final Tracer tracer;
+
+    @Value("${shareit.tracing.slow-statement-ms:100}")
+    private long slowStatementMs;
+
+    @Override
+    public void afterExecute(StatementExecution execution) {
+        final Span current = tracer.currentSpan();
+        if (isNull(current) || !current.isSampled()) {
+            return;
+        }
+
+        final boolean slow = execution.getElapsedNanos() >= TimeUnit.MILLISECONDS.toNanos(slowStatementMs);
+        tracer.recordSpan("jdbc " + verb(execution.getSql()), "jdbc", execution.getElapsedNanos(),
+                slow ? Map.of("db.statement", execution.getSql()) : Map.of(), execution.getError());
+    }
+
+    private static String verb(String sql) {
+        if (isNull(sql)) {
+            return "statement";
+        }
+
+        final String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? "statement" : trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+}
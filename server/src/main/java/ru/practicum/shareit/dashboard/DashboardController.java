@@ -0,0 +1,30 @@
+package ru.practicum.shareit.dashboard;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.dashboard.dto.DashboardDto;
+import ru.practicum.shareit.dashboard.service.DashboardService;
+
+import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
+
+@RestController
+@RequestMapping(path = "/me")
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardController {
+    private final DashboardService dashboardService;
+
+    // Главный экран: свои вещи, свои бронирования, ожидающие подтверждения заявки на свои вещи и свои запросы.
+    @GetMapping("/dashboard")
+    public DashboardDto getDashboard(@RequestHeader(USER_ID_REQUEST_HEADER) long userId) {
+        log.debug("GET /me/dashboard, {} = {}", USER_ID_REQUEST_HEADER, userId);
+        final DashboardDto dashboard = dashboardService.getDashboard(userId);
+        log.debug("Успешно получены данные главного экрана пользователя с id = {}", userId);
+
+        return dashboard;
+    }
+}
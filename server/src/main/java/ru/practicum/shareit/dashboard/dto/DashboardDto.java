@@ -0,0 +1,23 @@
+package ru.practicum.shareit.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemWithAdditionalDataDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+// Данные главного экрана пользователя: его вещи, его бронирования, ожидающие подтверждения заявки на его вещи и его запросы.
+@Builder
+@Jacksonized
+@Data
+@AllArgsConstructor
+public class DashboardDto {
+    private List<ItemWithAdditionalDataDto> items;
+    private List<BookingDto> bookings;
+    private List<BookingDto> waitingOwnerBookings;
+    private List<ItemRequestDto> requests;
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.dashboard.service;
+
+import ru.practicum.shareit.dashboard.dto.DashboardDto;
+
+public interface DashboardService {
+    DashboardDto getDashboard(long userId);
+}
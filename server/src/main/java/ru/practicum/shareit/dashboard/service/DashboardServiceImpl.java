@@ -0,0 +1,72 @@
+package ru.practicum.shareit.dashboard.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStateForSearch;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.OffsetBasedPageRequest;
+import ru.practicum.shareit.common.ParallelReadExecutor;
+import ru.practicum.shareit.dashboard.dto.DashboardDto;
+import ru.practicum.shareit.item.dto.ItemWithAdditionalDataDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.repository.DaoUser;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Главный экран за один запрос вместо четырех (/items, /bookings, /bookings/owner?state=WAITING, /requests).
+// Пользователь проверяется один раз, разделы читаются параллельно (каждый в своей read-only транзакции),
+// размер каждого раздела ограничен настройкой.
+// Метод не транзакционный: вызывающий поток не держит соединение, пока ждет разделы.
+@Service
+@RequiredArgsConstructor
+public class DashboardServiceImpl implements DashboardService {
+    private final DaoUser daoUser;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService itemRequestService;
+    private final ParallelReadExecutor parallelReadExecutor;
+
+    @Value("${shareit.dashboard.items-limit:10}")
+    private int itemsLimit;
+    @Value("${shareit.dashboard.bookings-limit:10}")
+    private int bookingsLimit;
+    @Value("${shareit.dashboard.waiting-owner-bookings-limit:10}")
+    private int waitingOwnerBookingsLimit;
+    @Value("${shareit.dashboard.requests-limit:10}")
+    private int requestsLimit;
+
+    @Override
+    public DashboardDto getDashboard(long userId) {
+        final CompletableFuture<Boolean> userCheck = parallelReadExecutor.fork("user check", () -> {
+            daoUser.checkUserExists(userId);
+            return true;
+        });
+        final CompletableFuture<List<ItemWithAdditionalDataDto>> itemsRead = parallelReadExecutor.fork("items",
+                () -> itemService.findOwnerItems(userId, new OffsetBasedPageRequest(0, itemsLimit, Sort.by("id"))));
+        final CompletableFuture<List<BookingDto>> bookingsRead = parallelReadExecutor.fork("bookings",
+                () -> bookingService.findUserBookings(userId, BookingStateForSearch.ALL,
+                        new OffsetBasedPageRequest(0, bookingsLimit)));
+        final CompletableFuture<List<BookingDto>> waitingOwnerBookingsRead = parallelReadExecutor.fork("waiting owner bookings",
+                () -> bookingService.findBookingsByItemOwner(userId, BookingStateForSearch.WAITING,
+                        new OffsetBasedPageRequest(0, waitingOwnerBookingsLimit)));
+        final CompletableFuture<List<ItemRequestDto>> requestsRead = parallelReadExecutor.fork("requests",
+                () -> itemRequestService.findUserItemRequests(userId,
+                        new OffsetBasedPageRequest(0, requestsLimit, Sort.by("created").descending())));
+
+        // Для несуществующего пользователя разделы пусты, но отвечать нужно ошибкой.
+        parallelReadExecutor.join("user check", userCheck);
+
+        return DashboardDto.builder()
+                .items(parallelReadExecutor.join("items", itemsRead))
+                .bookings(parallelReadExecutor.join("bookings", bookingsRead))
+                .waitingOwnerBookings(parallelReadExecutor.join("waiting owner bookings", waitingOwnerBookingsRead))
+                .requests(parallelReadExecutor.join("requests", requestsRead))
+                .build();
+    }
+}
@@ -1,13 +1,18 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.fields.FieldSet;
+import ru.practicum.shareit.common.sync.ChangesDto;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.util.List;
 
+import static ru.practicum.shareit.common.ConstantParamStorage.FIELDS_PARAM;
 import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
 
 @RestController
@@ -16,13 +21,14 @@ import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_H
 @Slf4j
 public class ItemController {
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     // Добавление вещи
     @PostMapping
     public ItemDto add(@RequestHeader(USER_ID_REQUEST_HEADER) long ownerId, @RequestBody ItemCreateDto item) {
-        log.info(String.format("POST /items, body = %s, %s = %s", item, USER_ID_REQUEST_HEADER, ownerId));
+        log.debug("POST /items, body = {}, {} = {}", item, USER_ID_REQUEST_HEADER, ownerId);
         final ItemDto newItem = itemService.createAndGet(item, ownerId);
-        log.info(String.format("Успешно добавлена вещь с id = %s", newItem.getId()));
+        log.debug("Успешно добавлена вещь с id = {}", newItem.getId());
 
         return newItem;
     }
@@ -32,9 +38,9 @@ public class ItemController {
     public ItemDto update(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                           @RequestBody ItemDto item,
                           @PathVariable(name = "itemId") long itemId) {
-        log.info(String.format("PATCH /items/{itemId}, body = %s, {itemId} = %s, %s = %s", item, itemId, USER_ID_REQUEST_HEADER, userId));
+        log.debug("PATCH /items/{itemId}, body = {}, {itemId} = {}, {} = {}", item, itemId, USER_ID_REQUEST_HEADER, userId);
         final ItemDto updatedItem = itemService.update(itemId, item, userId);
-        log.info(String.format("Успешно обновлены данные вещи с id = %s", updatedItem.getId()));
+        log.debug("Успешно обновлены данные вещи с id = {}", updatedItem.getId());
 
         return updatedItem;
     }
@@ -43,25 +49,51 @@ public class ItemController {
     @GetMapping("/{itemId}")
     public ItemWithAdditionalDataDto getItemById(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                                  @PathVariable(name = "itemId") long itemId) {
-        log.info(String.format("GET /items/{itemId}, {itemId} = %s, %s = %s", itemId, USER_ID_REQUEST_HEADER, userId));
+        log.debug("GET /items/{itemId}, {itemId} = {}, {} = {}", itemId, USER_ID_REQUEST_HEADER, userId);
         final ItemWithAdditionalDataDto item = itemService.getById(itemId, userId);
-        log.info(String.format("Успешно получены данные о вещи с id = %s", item.getId()));
+        log.debug("Успешно получены данные о вещи с id = {}", item.getId());
 
         return item;
     }
 
+    // Получение нескольких вещей по списку id (в порядке запроса)
+    @GetMapping(params = "ids")
+    public List<ItemWithAdditionalDataDto> getItemsByIds(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                                         @RequestParam(name = "ids") List<Long> ids) {
+        log.debug("GET /items?ids={ids}, {ids} = {}, {} = {}", ids, USER_ID_REQUEST_HEADER, userId);
+        final List<ItemWithAdditionalDataDto> items = itemService.getByIds(ids, userId);
+        log.debug("Успешно получены вещи ({} штук) по списку id", items.size());
+
+        return items;
+    }
+
     // Просмотр владельцем списка всех его вещей с указанием названия и описания для каждой
     @GetMapping
     public List<ItemWithAdditionalDataDto> getAllOwnerItems(@RequestHeader(USER_ID_REQUEST_HEADER) long ownerId,
                                                             @RequestParam(name = "from", required = false) Integer from,
                                                             @RequestParam(name = "size", required = false) Integer size) {
-        log.info(String.format("GET /items?from={from}&size={size}, {from} = %s, {size} = %s, %s = %s", from, size, USER_ID_REQUEST_HEADER, ownerId));
+        log.debug("GET /items?from={from}&size={size}, {from} = {}, {size} = {}, {} = {}", from, size, USER_ID_REQUEST_HEADER, ownerId);
         final List<ItemWithAdditionalDataDto> ownerItems = itemService.getAllOwnerItems(ownerId, from, size);
-        log.info(String.format("Успешно получены вещи (%s штук) пользователя с id = %s", ownerItems.size(), ownerId));
+        log.debug("Успешно получены вещи ({} штук) пользователя с id = {}", ownerItems.size(), ownerId);
 
         return ownerItems;
     }
 
+    // Список вещей владельца только с выбранными полями: невыбранные данные (комментарии, бронирования) не читаются из БД.
+    @GetMapping(params = {FIELDS_PARAM, "!ids"})
+    public List<ObjectNode> getAllOwnerItemsFields(@RequestHeader(USER_ID_REQUEST_HEADER) long ownerId,
+                                                   @RequestParam(name = "from", required = false) Integer from,
+                                                   @RequestParam(name = "size", required = false) Integer size,
+                                                   @RequestParam(name = FIELDS_PARAM) String fieldsParam) {
+        log.debug("GET /items?from={from}&size={size}&fields={fields}, {from} = {}, {size} = {}, {fields} = {}, {} = {}",
+                from, size, fieldsParam, USER_ID_REQUEST_HEADER, ownerId);
+        final FieldSet fields = FieldSet.parse(fieldsParam, ItemWithAdditionalDataDto.FIELDS);
+        final List<ItemWithAdditionalDataDto> ownerItems = itemService.getAllOwnerItems(ownerId, from, size, fields);
+        log.debug("Успешно получены вещи ({} штук) пользователя с id = {}", ownerItems.size(), ownerId);
+
+        return fields.apply(objectMapper, ownerItems);
+    }
+
     // Поиск вещи потенциальным арендатором.
     // Пользователь передаёт в строке запроса текст, и система ищет вещи, содержащие этот текст в названии или описании
     @GetMapping("/search")
@@ -69,22 +101,43 @@ public class ItemController {
                                      @RequestParam(name = "text") String text,
                                      @RequestParam(name = "from", required = false) Integer from,
                                      @RequestParam(name = "size", required = false) Integer size) {
-        final String logStr = "GET /items/search?text={text}&from={from}&size={size}, {text} = %s, {from} = %s, {size} = %s, %s = %s";
-        log.info(String.format(logStr, text, from, size, USER_ID_REQUEST_HEADER, userId));
+        final String logStr = "GET /items/search?text={text}&from={from}&size={size}, {text} = {}, {from} = {}, {size} = {}, {} = {}";
+        log.debug(logStr, text, from, size, USER_ID_REQUEST_HEADER, userId);
         final List<ItemDto> searchedItems = itemService.searchItems(text, userId, from, size);
-        log.info(String.format("Успешно получены вещи (%s штук) по запросу \"%s\" пользователя с id = %s", searchedItems.size(), text, userId));
+        log.debug("Успешно получены вещи ({} штук) по запросу \"{}\" пользователя с id = {}", searchedItems.size(), text, userId);
 
         return searchedItems;
     }
 
+    @GetMapping(path = "/search", params = FIELDS_PARAM)
+    public List<ObjectNode> searchItemsFields(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                              @RequestParam(name = "text") String text,
+                                              @RequestParam(name = "from", required = false) Integer from,
+                                              @RequestParam(name = "size", required = false) Integer size,
+                                              @RequestParam(name = FIELDS_PARAM) String fieldsParam) {
+        final FieldSet fields = FieldSet.parse(fieldsParam, ItemDto.FIELDS);
+        return fields.apply(objectMapper, searchItems(userId, text, from, size));
+    }
+
+    // Вещи владельца, измененные после токена since (без since - все вещи). Возвращает токен для следующего вызова.
+    @GetMapping("/changes")
+    public ChangesDto<ItemDto> getChanges(@RequestHeader(USER_ID_REQUEST_HEADER) long ownerId,
+                                          @RequestParam(name = "since", required = false) String since) {
+        log.debug("GET /items/changes?since={since}, {since} = {}, {} = {}", since, USER_ID_REQUEST_HEADER, ownerId);
+        final ChangesDto<ItemDto> changes = itemService.getChanges(ownerId, since);
+        log.debug("Успешно получены измененные вещи ({} штук) пользователя с id = {}", changes.getChanged().size(), ownerId);
+
+        return changes;
+    }
+
     // Добавление комментария к вещи, которую когда-то бронировал.
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                  @RequestBody CommentCreateDto comment,
                                  @PathVariable(name = "itemId") long itemId) {
-        log.info(String.format("POST /items/{itemId}/comment, {itemId} = %s, %s = %s", itemId, USER_ID_REQUEST_HEADER, userId));
+        log.debug("POST /items/{itemId}/comment, {itemId} = {}, {} = {}", itemId, USER_ID_REQUEST_HEADER, userId);
         final CommentDto commentDto = itemService.addComment(itemId, userId, comment);
-        log.info(String.format("Комментарий успешно добавлен (id = %s)", commentDto.getId()));
+        log.debug("Комментарий успешно добавлен (id = {})", commentDto.getId());
 
         return commentDto;
     }
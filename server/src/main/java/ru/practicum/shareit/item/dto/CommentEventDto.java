@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDateTime;
+
+// Данные события о новом комментарии (outbox).
+@Builder
+@Jacksonized
+@Data
+@AllArgsConstructor
+public class CommentEventDto {
+    private Long commentId;
+    private Long itemId;
+    private Long authorId;
+    private String text;
+    private LocalDateTime created;
+}
@@ -27,4 +27,16 @@ public class CommentMapper extends AbstractMapper {
                 .created(comment.getCreated())
                 .build();
     }
+
+    public CommentEventDto toCommentEventDto(Comment comment) {
+        if (isNull(comment)) return null;
+
+        return CommentEventDto.builder()
+                .commentId(comment.getId())
+                .itemId(comment.getItem().getId())
+                .authorId(comment.getAuthor().getId())
+                .text(comment.getText())
+                .created(comment.getCreated())
+                .build();
+    }
 }
@@ -6,11 +6,16 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.extern.jackson.Jacksonized;
 
+import java.util.Set;
+
 @Builder
 @Jacksonized
 @Data
 @AllArgsConstructor
 public class ItemDto {
+    // Имена полей в json (для параметра fields).
+    public static final Set<String> FIELDS = Set.of("id", "name", "description", "available", "requestId");
+
     private Long id;
     private String name;
     private String description;
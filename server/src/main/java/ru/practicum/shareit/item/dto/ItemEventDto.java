@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+// Данные события о создании/изменении вещи (outbox).
+@Builder
+@Jacksonized
+@Data
+@AllArgsConstructor
+public class ItemEventDto {
+    private Long itemId;
+    private Long ownerId;
+    private String name;
+    private String description;
+    private Boolean available;
+    private Long requestId;
+}
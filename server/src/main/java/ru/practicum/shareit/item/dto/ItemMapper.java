@@ -33,6 +33,17 @@ public class ItemMapper extends AbstractMapper {
                 .build();
     }
 
+    public ItemWithAdditionalDataDto toItemWithAdditionalDataDto(ItemDto itemDto) {
+        if (isNull(itemDto)) return null;
+
+        return ItemWithAdditionalDataDto.builder()
+                .id(itemDto.getId())
+                .name(itemDto.getName())
+                .description(itemDto.getDescription())
+                .isAvailable(itemDto.getIsAvailable())
+                .build();
+    }
+
     public Item toItem(ItemCreateDto itemDto) {
         if (isNull(itemDto)) return null;
 
@@ -52,4 +63,19 @@ public class ItemMapper extends AbstractMapper {
                 .isAvailable(getChanged(item.isAvailable(), itemWithChanges.getIsAvailable()))
                 .build();
     }
+
+    public ItemEventDto toItemEventDto(Item item) {
+        if (isNull(item)) return null;
+
+        final Long requestId = isNull(item.getRequest()) ? null : item.getRequest().getId();
+
+        return ItemEventDto.builder()
+                .itemId(item.getId())
+                .ownerId(item.getOwner().getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.isAvailable())
+                .requestId(requestId)
+                .build();
+    }
 }
@@ -8,12 +8,20 @@ import lombok.extern.jackson.Jacksonized;
 import ru.practicum.shareit.booking.dto.BookingForItemDto;
 
 import java.util.List;
+import java.util.Set;
 
 @Builder
 @Jacksonized
 @Data
 @AllArgsConstructor
 public class ItemWithAdditionalDataDto {
+    // Имена полей в json (для параметра fields).
+    public static final String LAST_BOOKING_FIELD = "lastBooking";
+    public static final String NEXT_BOOKING_FIELD = "nextBooking";
+    public static final String COMMENTS_FIELD = "comments";
+    public static final Set<String> FIELDS = Set.of("id", "name", "description", "available",
+            LAST_BOOKING_FIELD, NEXT_BOOKING_FIELD, COMMENTS_FIELD);
+
     private Long id;
     private String name;
     private String description;
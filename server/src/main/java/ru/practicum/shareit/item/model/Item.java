@@ -1,12 +1,15 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.*;
+import ru.practicum.shareit.common.bloom.IdExistenceListener;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(IdExistenceListener.class)
 @Table(name = "items")
 @Builder
 @Getter
@@ -29,4 +32,12 @@ public class Item {
     @ManyToOne
     @JoinColumn(name = "request_id")
     private ItemRequest request;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt; // время последнего изменения (для синхронизации изменений)
+
+    @PrePersist
+    @PreUpdate
+    private void touch() {
+        updatedAt = LocalDateTime.now();
+    }
 }
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// Предрасчитанные последнее и следующее подтвержденные бронирования вещи и счетчики бронирований (модель для чтения).
+// Обновляется при подтверждении/отклонении заявок; когда наступает начало следующего бронирования, оно становится последним.
+@Entity
+@Table(name = "item_booking_summary")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+    @Column(name = "last_start")
+    private LocalDateTime lastStart;
+    @Column(name = "last_end")
+    private LocalDateTime lastEnd;
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+    @Column(name = "next_start")
+    private LocalDateTime nextStart; // когда наступит, следующее бронирование становится последним
+    @Column(name = "next_end")
+    private LocalDateTime nextEnd;
+    @Column(name = "approved_count")
+    private long approvedCount;
+    @Column(name = "rejected_count")
+    private long rejectedCount;
+
+    // Сводка актуальна, пока не наступило начало следующего бронирования.
+    public boolean isActualAt(LocalDateTime now) {
+        return nextStart == null || nextStart.isAfter(now);
+    }
+}
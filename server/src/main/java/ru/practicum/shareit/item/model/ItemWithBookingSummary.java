@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Вещь вместе со сводкой по ее бронированиям (сводки может не быть).
+@Getter
+@AllArgsConstructor
+public class ItemWithBookingSummary {
+    private final Item item;
+    private final ItemBookingSummary summary;
+}
@@ -9,7 +9,7 @@ import ru.practicum.shareit.item.model.Comment;
 import java.util.List;
 
 @Repository
-public interface CommentRepository extends JpaRepository<Comment, Long>, QuerydslPredicateExecutor<Comment> {
+public interface CommentRepository extends JpaRepository<Comment, Long>, QuerydslPredicateExecutor<Comment>, CustomCommentRepository {
     List<Comment> findByItemId(long itemId);
 
     List<Comment> findByItemIdIn(List<Long> itemIds);
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.Comment;
+
+import java.util.List;
+
+public interface CustomCommentRepository {
+    // Комментарии к вещам одного владельца (от новых к старым).
+    List<Comment> findOwnerItemsComments(long ownerId, List<Long> itemIds);
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.repository;
+
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import ru.practicum.shareit.common.replica.ReplicaQueryExecutor;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.QComment;
+
+import javax.persistence.EntityManager;
+import java.util.Collections;
+import java.util.List;
+
+public class CustomCommentRepositoryImpl implements CustomCommentRepository {
+    private final JPAQueryFactory queryFactory;
+    private final ReplicaQueryExecutor replicaQueryExecutor;
+
+    public CustomCommentRepositoryImpl(EntityManager entityManager, ReplicaQueryExecutor replicaQueryExecutor) {
+        queryFactory = new JPAQueryFactory(JPQLTemplates.DEFAULT, entityManager);
+        this.replicaQueryExecutor = replicaQueryExecutor;
+    }
+
+    // Комментарии хранятся вместе с вещами, т.е. на реплике владельца.
+    @Override
+    public List<Comment> findOwnerItemsComments(long ownerId, List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final QComment comment = QComment.comment;
+
+        return replicaQueryExecutor.readOnOwnerReplica(ownerId, () -> queryFactory.selectFrom(comment)
+                .where(comment.item.id.in(itemIds))
+                .orderBy(comment.created.desc())
+                .fetch());
+    }
+}
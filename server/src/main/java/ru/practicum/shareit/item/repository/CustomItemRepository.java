@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+public interface CustomItemRepository {
+    // Вещи владельца (по возрастанию id) - только столбцы самой вещи, без загрузки сущностей.
+    List<ItemDto> findOwnerItemDtoList(long ownerId, Pageable pageable);
+}
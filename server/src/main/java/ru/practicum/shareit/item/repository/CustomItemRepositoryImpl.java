@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.repository;
+
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.common.replica.ReplicaQueryExecutor;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.QItem;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static java.util.Objects.nonNull;
+
+public class CustomItemRepositoryImpl implements CustomItemRepository {
+    private final JPAQueryFactory queryFactory;
+    private final ReplicaQueryExecutor replicaQueryExecutor;
+
+    public CustomItemRepositoryImpl(EntityManager entityManager, ReplicaQueryExecutor replicaQueryExecutor) {
+        queryFactory = new JPAQueryFactory(JPQLTemplates.DEFAULT, entityManager);
+        this.replicaQueryExecutor = replicaQueryExecutor;
+    }
+
+    @Override
+    public List<ItemDto> findOwnerItemDtoList(long ownerId, Pageable pageable) {
+        final QItem item = QItem.item;
+
+        return replicaQueryExecutor.readOnOwnerReplica(ownerId, () -> {
+            final JPAQuery<ItemDto> query = queryFactory
+                    .select(Projections.constructor(ItemDto.class, item.id, item.name, item.description, item.isAvailable, item.request.id))
+                    .from(item)
+                    .where(item.owner.id.eq(ownerId))
+                    .orderBy(item.id.asc());
+            if (nonNull(pageable) && pageable.isPaged()) {
+                query.offset(pageable.getOffset()).limit(pageable.getPageSize());
+            }
+
+            return query.fetch();
+        });
+    }
+}
@@ -2,8 +2,10 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -13,6 +15,9 @@ public interface DaoItem {
 
     List<Item> findByOwnerId(long ownerId, Pageable pageable);
 
+    // Вещи владельца без связанных сущностей (только поля вещи).
+    List<ItemDto> findOwnerItemDtoList(long ownerId, Pageable pageable);
+
     boolean existsByIdAndOwnerId(long itemId, long userId);
 
     Item getByIdAndOwnerId(long itemId, long ownerId);
@@ -23,6 +28,8 @@ public interface DaoItem {
 
     Item getItemById(long id);
 
+    List<Item> findByIdIn(List<Long> ids);
+
     boolean existsById(long id);
 
     void checkItemExists(long id);
@@ -32,6 +39,12 @@ public interface DaoItem {
     // Ключ - id ItemRequest, Значение - список предметов по этому запросу
     Map<Long, List<Item>> findItemsForItemRequests(List<Long> requestIds);
 
+    // Вещи владельца, измененные после позиции (sinceUpdatedAt, sinceId) и раньше горизонта.
+    List<Item> findChanged(long ownerId, LocalDateTime sinceUpdatedAt, long sinceId, LocalDateTime horizon, Pageable pageable);
+
+    // Блокирует до конца транзакции вещи владельца, на которые оформлены заявки; возвращает их id.
+    List<Long> lockOwnerItemsOfBookings(long ownerId, List<Long> bookingIds);
+
     Item save(Item entity);
 
     List<Item> findAll();
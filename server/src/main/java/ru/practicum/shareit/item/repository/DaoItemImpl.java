@@ -1,11 +1,16 @@
 package ru.practicum.shareit.item.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.common.bloom.IdExistenceFilters;
+import ru.practicum.shareit.common.replica.ReplicaQueryExecutor;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static java.util.Objects.isNull;
@@ -14,16 +19,31 @@ import static java.util.Objects.nonNull;
 @Repository
 @RequiredArgsConstructor
 public class DaoItemImpl implements DaoItem {
+    private static final Comparator<Item> ITEM_ID_ORDER = Comparator.comparing(Item::getId);
+
     private final ItemRepository itemRepository;
+    private final ReplicaQueryExecutor replicaQueryExecutor;
+    private final ObjectProvider<IdExistenceFilters> idExistenceFilters;
 
     @Override
     public List<Item> findByOwnerId(long ownerId) {
-        return itemRepository.findByOwnerId(ownerId);
+        return replicaQueryExecutor.readOnOwnerReplica(ownerId, () -> itemRepository.findByOwnerId(ownerId));
     }
 
     @Override
     public List<Item> findByOwnerId(long ownerId, Pageable pageable) {
-        return itemRepository.findByOwnerId(ownerId, pageable);
+        return replicaQueryExecutor.readOnOwnerReplica(ownerId, () -> itemRepository.findByOwnerId(ownerId, pageable));
+    }
+
+    @Override
+    public List<ItemDto> findOwnerItemDtoList(long ownerId, Pageable pageable) {
+        return itemRepository.findOwnerItemDtoList(ownerId, pageable);
+    }
+
+    // Всегда с основной БД: отставание реплики может превысить окно commit-lag, и изменения были бы пропущены.
+    @Override
+    public List<Item> findChanged(long ownerId, LocalDateTime sinceUpdatedAt, long sinceId, LocalDateTime horizon, Pageable pageable) {
+        return itemRepository.findChanged(ownerId, sinceUpdatedAt, sinceId, horizon, pageable);
     }
 
     @Override
@@ -33,12 +53,24 @@ public class DaoItemImpl implements DaoItem {
 
     @Override
     public List<Item> findAvailableByNameOrDescription(String text) {
-        return itemRepository.findAvailableByNameOrDescription(text);
+        return replicaQueryExecutor.readOnAllReplicas(
+                replicaPageable -> itemRepository.findAvailableByNameOrDescription(text),
+                ITEM_ID_ORDER,
+                null);
     }
 
+    // Поиск затрагивает вещи всех владельцев, поэтому при чтении с реплик выполняется на всех репликах.
     @Override
     public List<Item> findAvailableByNameOrDescription(String text, Pageable pageable) {
-        return itemRepository.findAvailableByNameOrDescription(text, pageable);
+        return replicaQueryExecutor.readOnAllReplicas(
+                replicaPageable -> itemRepository.findAvailableByNameOrDescription(text, replicaPageable),
+                ITEM_ID_ORDER,
+                pageable);
+    }
+
+    @Override
+    public List<Long> lockOwnerItemsOfBookings(long ownerId, List<Long> bookingIds) {
+        return itemRepository.lockOwnerItemsOfBookings(ownerId, bookingIds);
     }
 
     @Override
@@ -56,6 +88,11 @@ public class DaoItemImpl implements DaoItem {
         itemRepository.deleteAll();
     }
 
+    @Override
+    public List<Item> findByIdIn(List<Long> ids) {
+        return itemRepository.findByIdInWithOwner(ids);
+    }
+
     @Override
     public Item getItemById(long id) {
         final Optional<Item> itemOpt = itemRepository.findById(id);
@@ -69,7 +106,16 @@ public class DaoItemImpl implements DaoItem {
 
     @Override
     public void checkItemExists(long id) {
+        // Фильтр Блума: если id точно нет, запрос в БД не нужен.
+        final IdExistenceFilters filters = idExistenceFilters.getIfAvailable();
+        if (nonNull(filters) && !filters.items().mightExist(id)) {
+            throw new ItemNotFoundException(id);
+        }
+
         if (!itemRepository.existsById(id)) {
+            if (nonNull(filters)) {
+                filters.items().recordFalsePositive(id);
+            }
             throw new ItemNotFoundException(id);
         }
     }
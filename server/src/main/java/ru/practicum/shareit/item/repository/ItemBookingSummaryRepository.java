@@ -0,0 +1,62 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.model.ItemWithBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    // Вещи владельца и их сводки одним запросом (по индексу items.owner_id и первичному ключу сводки).
+    @Query("SELECT new ru.practicum.shareit.item.model.ItemWithBookingSummary(i, s) " +
+            "FROM Item i LEFT JOIN ItemBookingSummary s ON s.itemId = i.id " +
+            "WHERE i.owner.id = :ownerId")
+    List<ItemWithBookingSummary> findOwnerItemsWithSummary(@Param("ownerId") long ownerId, Pageable pageable);
+
+    // Подтвержденное бронирование, начавшееся раньше текущего последнего, последним не становится.
+    @Modifying
+    @Query("UPDATE ItemBookingSummary s SET s.approvedCount = s.approvedCount + 1, " +
+            "s.lastBookingId = CASE WHEN s.lastStart IS NULL OR s.lastStart < :start THEN :bookingId ELSE s.lastBookingId END, " +
+            "s.lastBookerId = CASE WHEN s.lastStart IS NULL OR s.lastStart < :start THEN :bookerId ELSE s.lastBookerId END, " +
+            "s.lastEnd = CASE WHEN s.lastStart IS NULL OR s.lastStart < :start THEN :end ELSE s.lastEnd END, " +
+            "s.lastStart = CASE WHEN s.lastStart IS NULL OR s.lastStart < :start THEN :start ELSE s.lastStart END " +
+            "WHERE s.itemId = :itemId")
+    int applyApprovedStarted(@Param("itemId") long itemId,
+                             @Param("bookingId") long bookingId,
+                             @Param("bookerId") long bookerId,
+                             @Param("start") LocalDateTime start,
+                             @Param("end") LocalDateTime end);
+
+    // Подтвержденное бронирование, начинающееся позже текущего следующего, следующим не становится.
+    @Modifying
+    @Query("UPDATE ItemBookingSummary s SET s.approvedCount = s.approvedCount + 1, " +
+            "s.nextBookingId = CASE WHEN s.nextStart IS NULL OR s.nextStart > :start THEN :bookingId ELSE s.nextBookingId END, " +
+            "s.nextBookerId = CASE WHEN s.nextStart IS NULL OR s.nextStart > :start THEN :bookerId ELSE s.nextBookerId END, " +
+            "s.nextEnd = CASE WHEN s.nextStart IS NULL OR s.nextStart > :start THEN :end ELSE s.nextEnd END, " +
+            "s.nextStart = CASE WHEN s.nextStart IS NULL OR s.nextStart > :start THEN :start ELSE s.nextStart END " +
+            "WHERE s.itemId = :itemId")
+    int applyApprovedUpcoming(@Param("itemId") long itemId,
+                              @Param("bookingId") long bookingId,
+                              @Param("bookerId") long bookerId,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end);
+
+    @Modifying
+    @Query("UPDATE ItemBookingSummary s SET s.rejectedCount = s.rejectedCount + 1 WHERE s.itemId = :itemId")
+    int incrementRejected(@Param("itemId") long itemId);
+
+    // Сводки, у которых наступило начало следующего бронирования (по индексу next_start).
+    @Query("SELECT s.itemId FROM ItemBookingSummary s WHERE s.nextStart <= :now ORDER BY s.nextStart")
+    List<Long> findItemIdsToRollover(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT i.id FROM Item i WHERE i.id > :afterId " +
+            "AND NOT EXISTS (SELECT s.itemId FROM ItemBookingSummary s WHERE s.itemId = i.id) ORDER BY i.id")
+    List<Long> findItemIdsWithoutSummary(@Param("afterId") long afterId, Pageable pageable);
+}
@@ -7,11 +7,12 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, CustomItemRepository {
     Optional<Item> findByIdAndOwnerId(long id, long ownerId);
 
     List<Item> findByOwnerId(long ownerId);
@@ -20,10 +21,10 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     boolean existsByIdAndOwnerId(long itemId, long userId);
 
-    @Query("SELECT it FROM Item as it WHERE it.isAvailable = true AND (lower(it.name) LIKE lower(concat('%', :searchText,'%')) OR lower(it.description) LIKE lower(concat('%', :searchText,'%')))")
+    @Query("SELECT it FROM Item as it WHERE it.isAvailable = true AND (lower(it.name) LIKE lower(concat('%', :searchText,'%')) OR lower(it.description) LIKE lower(concat('%', :searchText,'%'))) ORDER BY it.id")
     List<Item> findAvailableByNameOrDescription(@Param("searchText") String text);
 
-    @Query("SELECT it FROM Item as it WHERE it.isAvailable = true AND (lower(it.name) LIKE lower(concat('%', :searchText,'%')) OR lower(it.description) LIKE lower(concat('%', :searchText,'%')))")
+    @Query("SELECT it FROM Item as it WHERE it.isAvailable = true AND (lower(it.name) LIKE lower(concat('%', :searchText,'%')) OR lower(it.description) LIKE lower(concat('%', :searchText,'%'))) ORDER BY it.id")
     List<Item> findAvailableByNameOrDescription(@Param("searchText") String text, Pageable pageable);
 
     @Query("SELECT it FROM Item as it WHERE it.request.id = :requestId")
@@ -31,4 +32,24 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     @Query("SELECT it FROM Item as it WHERE it.request.id IN (:requestIds)")
     List<Item> findItemsForItemRequests(@Param("requestIds") List<Long> requestIds);
+
+    @Query("SELECT it FROM Item as it JOIN FETCH it.owner LEFT JOIN FETCH it.request WHERE it.id IN (:itemIds)")
+    List<Item> findByIdInWithOwner(@Param("itemIds") List<Long> itemIds);
+
+    // Вещи владельца, измененные после (sinceUpdatedAt, sinceId) и раньше horizon.
+    @Query("SELECT it FROM Item as it WHERE it.owner.id = :ownerId " +
+            "AND (it.updatedAt > :sinceUpdatedAt OR (it.updatedAt = :sinceUpdatedAt AND it.id > :sinceId)) " +
+            "AND it.updatedAt < :horizon ORDER BY it.updatedAt, it.id")
+    List<Item> findChanged(@Param("ownerId") long ownerId,
+                           @Param("sinceUpdatedAt") LocalDateTime sinceUpdatedAt,
+                           @Param("sinceId") long sinceId,
+                           @Param("horizon") LocalDateTime horizon,
+                           Pageable pageable);
+
+    // Блокировка вещей владельца из заявок (в порядке id, чтобы не было взаимных блокировок).
+    // Только id: блокировка не загружает сущности и их связи, это всегда один запрос.
+    @Query(value = "SELECT id FROM items WHERE owner_id = :ownerId " +
+            "AND id IN (SELECT item_id FROM bookings WHERE id IN (:bookingIds)) ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockOwnerItemsOfBookings(@Param("ownerId") long ownerId, @Param("bookingIds") List<Long> bookingIds);
 }
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Построение отсутствующих сводок по бронированиям при старте и их пересчет, когда следующее бронирование становится последним.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemBookingSummaryJob {
+    private final ItemBookingSummaryService itemBookingSummaryService;
+
+    @Value("${shareit.items.booking-summary.batch-size:500}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildMissing() {
+        long afterItemId = 0;
+        int built = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = itemBookingSummaryService.buildMissing(afterItemId, batchSize);
+            if (!itemIds.isEmpty()) {
+                afterItemId = itemIds.get(itemIds.size() - 1);
+            }
+            built += itemIds.size();
+        } while (itemIds.size() == batchSize);
+
+        if (built > 0) {
+            log.info("Построено сводок по бронированиям вещей: {}", built);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.items.booking-summary.rollover-ms:1000}")
+    public void rollover() {
+        final LocalDateTime now = LocalDateTime.now();
+        int rolled;
+        do {
+            rolled = itemBookingSummaryService.rollover(now, batchSize);
+        } while (rolled == batchSize);
+    }
+}
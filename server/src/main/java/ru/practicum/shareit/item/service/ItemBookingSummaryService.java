@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.model.ItemWithBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface ItemBookingSummaryService {
+    void createEmpty(long itemId);
+
+    void onBookingDecided(BookingEventDto booking);
+
+    List<ItemWithBookingSummary> findOwnerItems(long ownerId, Pageable pageable, LocalDateTime now);
+
+    ItemBookingSummary getSummary(long itemId, LocalDateTime now);
+
+    Map<Long, ItemBookingSummary> getSummaries(List<Long> itemIds, LocalDateTime now);
+
+    int rollover(LocalDateTime now, int batchSize);
+
+    List<Long> buildMissing(long afterItemId, int batchSize);
+}
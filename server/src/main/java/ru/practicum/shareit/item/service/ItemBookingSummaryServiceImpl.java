@@ -0,0 +1,248 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingStatusCount;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.ParallelReadExecutor;
+import ru.practicum.shareit.common.replica.ReplicaQueryExecutor;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.model.ItemWithBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+// Сводка по бронированиям вещи (item_booking_summary): последнее и следующее подтвержденные бронирования и счетчики.
+// Подтверждение/отклонение заявки обновляет сводку одним условным UPDATE в той же транзакции.
+// Когда наступает начало следующего бронирования, сводка пересчитывается по bookings (ItemBookingSummaryJob);
+// до пересчета такая сводка, как и отсутствующая, при чтении заменяется расчетом по bookings, поэтому ответ всегда точный.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ItemBookingSummaryServiceImpl implements ItemBookingSummaryService {
+    private static final List<BookingStatus> COUNTED_STATUSES = List.of(BookingStatus.APPROVED, BookingStatus.REJECTED);
+    private static final ParallelReadExecutor IN_TRANSACTION = ParallelReadExecutor.inline();
+
+    private final ItemBookingSummaryRepository itemBookingSummaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ReplicaQueryExecutor replicaQueryExecutor;
+    private final ParallelReadExecutor parallelReadExecutor;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void createEmpty(long itemId) {
+        itemBookingSummaryRepository.save(ItemBookingSummary.builder()
+                .itemId(itemId)
+                .build());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void onBookingDecided(BookingEventDto booking) {
+        final long itemId = booking.getItemId();
+        final LocalDateTime now = LocalDateTime.now();
+
+        final int updated;
+        if (booking.getStatus() == BookingStatus.APPROVED) {
+            updated = booking.getStart().isAfter(now)
+                    ? itemBookingSummaryRepository.applyApprovedUpcoming(itemId, booking.getBookingId(), booking.getBookerId(), booking.getStart(), booking.getEnd())
+                    : itemBookingSummaryRepository.applyApprovedStarted(itemId, booking.getBookingId(), booking.getBookerId(), booking.getStart(), booking.getEnd());
+        } else if (booking.getStatus() == BookingStatus.REJECTED) {
+            updated = itemBookingSummaryRepository.incrementRejected(itemId);
+        } else {
+            return;
+        }
+
+        // Сводки еще нет (вещь создана до ее появления) - строим по bookings, новый статус заявки уже в БД.
+        if (updated == 0) {
+            rebuild(List.of(itemId), now);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemWithBookingSummary> findOwnerItems(long ownerId, Pageable pageable, LocalDateTime now) {
+        final List<ItemWithBookingSummary> items = replicaQueryExecutor.readOnOwnerReplica(ownerId,
+                () -> itemBookingSummaryRepository.findOwnerItemsWithSummary(ownerId, pageable));
+
+        final List<ItemBookingSummary> staleSummaries = new ArrayList<>();
+        final List<Long> staleItemIds = new ArrayList<>();
+        for (ItemWithBookingSummary item : items) {
+            if (isNull(item.getSummary()) || !item.getSummary().isActualAt(now)) {
+                staleItemIds.add(item.getItem().getId());
+                if (nonNull(item.getSummary())) {
+                    staleSummaries.add(item.getSummary());
+                }
+            }
+        }
+        if (staleItemIds.isEmpty()) {
+            return items;
+        }
+
+        final Map<Long, ItemBookingSummary> computed = compute(staleItemIds, staleSummaries, now, parallelReadExecutor);
+        return items.stream()
+                .map(item -> computed.containsKey(item.getItem().getId())
+                        ? new ItemWithBookingSummary(item.getItem(), computed.get(item.getItem().getId()))
+                        : item)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public ItemBookingSummary getSummary(long itemId, LocalDateTime now) {
+        final ItemBookingSummary summary = itemBookingSummaryRepository.findById(itemId).orElse(null);
+        if (nonNull(summary) && summary.isActualAt(now)) {
+            return summary;
+        }
+
+        final List<ItemBookingSummary> existing = isNull(summary) ? List.of() : List.of(summary);
+        return compute(List.of(itemId), existing, now, parallelReadExecutor).get(itemId);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Long, ItemBookingSummary> getSummaries(List<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+
+        final Map<Long, ItemBookingSummary> summaries = itemBookingSummaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        final List<Long> staleItemIds = itemIds.stream()
+                .filter(itemId -> !summaries.containsKey(itemId) || !summaries.get(itemId).isActualAt(now))
+                .distinct()
+                .collect(Collectors.toList());
+        if (staleItemIds.isEmpty()) {
+            return summaries;
+        }
+
+        final List<ItemBookingSummary> staleSummaries = staleItemIds.stream()
+                .map(summaries::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        final Map<Long, ItemBookingSummary> result = new HashMap<>(summaries);
+        result.putAll(compute(staleItemIds, staleSummaries, now, parallelReadExecutor));
+        return result;
+    }
+
+    // Пересчет сводок, у которых следующее бронирование уже началось. Пересчет идемпотентен, поэтому на нескольких узлах безопасен.
+    @Transactional
+    @Override
+    public int rollover(LocalDateTime now, int batchSize) {
+        final List<Long> itemIds = itemBookingSummaryRepository.findItemIdsToRollover(now, PageRequest.of(0, batchSize));
+        if (!itemIds.isEmpty()) {
+            rebuild(itemIds, now);
+        }
+
+        return itemIds.size();
+    }
+
+    @Transactional
+    @Override
+    public List<Long> buildMissing(long afterItemId, int batchSize) {
+        final List<Long> itemIds = itemBookingSummaryRepository.findItemIdsWithoutSummary(afterItemId, PageRequest.of(0, batchSize));
+        if (!itemIds.isEmpty()) {
+            rebuild(itemIds, LocalDateTime.now());
+        }
+
+        return itemIds;
+    }
+
+    private void rebuild(List<Long> itemIds, LocalDateTime now) {
+        final List<ItemBookingSummary> existing = itemBookingSummaryRepository.findAllById(itemIds);
+        // Пересчет должен видеть изменения текущей транзакции, поэтому чтения - в ней же.
+        itemBookingSummaryRepository.saveAll(compute(itemIds, existing, now, IN_TRANSACTION).values());
+    }
+
+    // Расчет сводок по bookings (как раньше при каждом чтении) в виде новых объектов, загруженные сводки не меняются.
+    // Счетчики берутся из существующих сводок, для вещей без сводки - считаются по основной и архивной таблицам.
+    private Map<Long, ItemBookingSummary> compute(List<Long> itemIds, List<ItemBookingSummary> existing, LocalDateTime now,
+                                                  ParallelReadExecutor readExecutor) {
+        final Map<Long, ItemBookingSummary> summaries = existing.stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        final List<Long> itemIdsWithoutSummary = itemIds.stream()
+                .filter(itemId -> !summaries.containsKey(itemId))
+                .collect(Collectors.toList());
+
+        // Последние бронирования, следующие бронирования и счетчики читаются независимо друг от друга.
+        final CompletableFuture<Map<Long, Booking>> lastBookingsRead = readExecutor.fork("last bookings",
+                () -> bookingRepository.getLastBookingForItemsByIdList(itemIds, now));
+        final CompletableFuture<Map<Long, Booking>> nextBookingsRead = readExecutor.fork("next bookings",
+                () -> bookingRepository.getNextBookingForItemsByIdList(itemIds, now));
+        final CompletableFuture<Map<Long, List<ItemBookingStatusCount>>> countsRead = readExecutor.fork("booking counts",
+                () -> countBookings(itemIdsWithoutSummary));
+
+        final Map<Long, Booking> lastBookings = readExecutor.join("last bookings", lastBookingsRead);
+        final Map<Long, Booking> nextBookings = readExecutor.join("next bookings", nextBookingsRead);
+        final Map<Long, List<ItemBookingStatusCount>> counts = readExecutor.join("booking counts", countsRead);
+
+        final Map<Long, ItemBookingSummary> result = new HashMap<>();
+        for (Long itemId : itemIds) {
+            final ItemBookingSummary current = summaries.get(itemId);
+            final ItemBookingSummary summary = ItemBookingSummary.builder()
+                    .itemId(itemId)
+                    .approvedCount(nonNull(current) ? current.getApprovedCount() : sumCount(counts.get(itemId), BookingStatus.APPROVED))
+                    .rejectedCount(nonNull(current) ? current.getRejectedCount() : sumCount(counts.get(itemId), BookingStatus.REJECTED))
+                    .build();
+            setLastBooking(summary, lastBookings.get(itemId));
+            setNextBooking(summary, nextBookings.get(itemId));
+            result.put(itemId, summary);
+        }
+
+        return result;
+    }
+
+    private Map<Long, List<ItemBookingStatusCount>> countBookings(List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return Stream.concat(
+                        bookingRepository.countByItemIdInAndStatusIn(itemIds, COUNTED_STATUSES).stream(),
+                        archivedBookingRepository.countByItemIdInAndStatusIn(itemIds, COUNTED_STATUSES).stream())
+                .collect(Collectors.groupingBy(ItemBookingStatusCount::getItemId));
+    }
+
+    private long sumCount(List<ItemBookingStatusCount> counts, BookingStatus status) {
+        if (isNull(counts)) {
+            return 0;
+        }
+
+        return counts.stream()
+                .filter(count -> count.getStatus() == status)
+                .mapToLong(ItemBookingStatusCount::getCount)
+                .sum();
+    }
+
+    private void setLastBooking(ItemBookingSummary summary, Booking booking) {
+        summary.setLastBookingId(isNull(booking) ? null : booking.getId());
+        summary.setLastBookerId(isNull(booking) ? null : booking.getBooker().getId());
+        summary.setLastStart(isNull(booking) ? null : booking.getStart());
+        summary.setLastEnd(isNull(booking) ? null : booking.getEnd());
+    }
+
+    private void setNextBooking(ItemBookingSummary summary, Booking booking) {
+        summary.setNextBookingId(isNull(booking) ? null : booking.getId());
+        summary.setNextBookerId(isNull(booking) ? null : booking.getBooker().getId());
+        summary.setNextStart(isNull(booking) ? null : booking.getStart());
+        summary.setNextEnd(isNull(booking) ? null : booking.getEnd());
+    }
+}
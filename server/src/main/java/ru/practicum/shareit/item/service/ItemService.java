@@ -1,5 +1,8 @@
 package ru.practicum.shareit.item.service;
 
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.common.fields.FieldSet;
+import ru.practicum.shareit.common.sync.ChangesDto;
 import ru.practicum.shareit.item.dto.*;
 
 import java.util.List;
@@ -13,12 +16,22 @@ public interface ItemService {
 
     ItemWithAdditionalDataDto getById(long id, long userId);
 
+    List<ItemWithAdditionalDataDto> getByIds(List<Long> ids, long userId);
+
     ItemDto getOwnerItemById(long itemId, long ownerId);
 
     List<ItemWithAdditionalDataDto> getAllOwnerItems(long ownerId);
 
     List<ItemWithAdditionalDataDto> getAllOwnerItems(long ownerId, Integer from, Integer size);
 
+    List<ItemWithAdditionalDataDto> getAllOwnerItems(long ownerId, Integer from, Integer size, FieldSet fields);
+
+    List<ItemWithAdditionalDataDto> findOwnerItems(long ownerId, Pageable pageable);
+
+    List<ItemWithAdditionalDataDto> findOwnerItems(long ownerId, Pageable pageable, FieldSet fields);
+
+    ChangesDto<ItemDto> getChanges(long ownerId, String since);
+
     List<ItemDto> searchItems(String text, long userId);
 
     List<ItemDto> searchItems(String text, long userId, Integer from, Integer size);
@@ -6,12 +6,20 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.ParallelReadExecutor;
+import ru.practicum.shareit.common.fields.FieldSet;
+import ru.practicum.shareit.common.outbox.OutboxEventType;
+import ru.practicum.shareit.common.outbox.OutboxService;
+import ru.practicum.shareit.common.sync.ChangeFeedReader;
+import ru.practicum.shareit.common.sync.ChangesDto;
+import ru.practicum.shareit.common.sync.SyncToken;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.exception.NotOwnerAccessException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.model.ItemWithBookingSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.DaoItem;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
@@ -25,12 +33,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static java.util.Objects.nonNull;
 import static java.util.stream.Collectors.*;
 import static org.apache.logging.log4j.util.Strings.isBlank;
-import static org.springframework.data.domain.Sort.Direction.DESC;
 import static ru.practicum.shareit.common.Utils.createOffsetBasedPageRequest;
+import static ru.practicum.shareit.common.Utils.orderByIds;
+import static ru.practicum.shareit.item.dto.ItemWithAdditionalDataDto.COMMENTS_FIELD;
+import static ru.practicum.shareit.item.dto.ItemWithAdditionalDataDto.LAST_BOOKING_FIELD;
+import static ru.practicum.shareit.item.dto.ItemWithAdditionalDataDto.NEXT_BOOKING_FIELD;
 
 @Service
 @RequiredArgsConstructor
@@ -40,6 +52,10 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final OutboxService outboxService;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ParallelReadExecutor parallelReadExecutor;
+    private final ChangeFeedReader changeFeedReader;
 
     @Transactional
     @Override
@@ -59,6 +75,9 @@ public class ItemServiceImpl implements ItemService {
         itemEntity.setOwner(owner);
         itemEntity.setRequest(itemRequest);
         itemEntity = daoItem.save(itemEntity);
+        touchRequest(itemEntity);
+        itemBookingSummaryService.createEmpty(itemEntity.getId());
+        outboxService.add(OutboxEventType.ITEM_CREATED, itemEntity.getId(), ItemMapper.toItemEventDto(itemEntity));
 
         return itemEntity.getId();
     }
@@ -81,33 +100,81 @@ public class ItemServiceImpl implements ItemService {
         final Item itemFromRepo = daoItem.getByIdAndOwnerId(id, ownerId);
         final Item changedItem = ItemMapper.updateIfDifferent(itemFromRepo, item);
         final Item updatedItem = daoItem.save(changedItem);
+        touchRequest(updatedItem);
+        outboxService.add(OutboxEventType.ITEM_UPDATED, id, ItemMapper.toItemEventDto(updatedItem));
 
         return ItemMapper.toItemDto(updatedItem);
     }
 
-    @Transactional(readOnly = true)
+    // Комментарии зависят только от id вещи, поэтому читаются параллельно с самой вещью (каждое - в своем этапе).
+    // Метод без своей транзакции и без чтений в вызывающем потоке: иначе соединение, взятое первым запросом вызывающего,
+    // при open-in-view держится до конца HTTP-запроса, пока этапы ждут своих соединений.
     @Override
     public ItemWithAdditionalDataDto getById(long id, long userId) {
-        final Item item = daoItem.getItemById(id);
-        final ItemWithAdditionalDataDto itemWithAdditionalDataDto = ItemMapper.toItemWithAdditionalDataDto(item);
+        // Комментарии преобразуются в dto внутри этапа, пока открыта его транзакция.
+        final CompletableFuture<List<CommentDto>> commentsRead = parallelReadExecutor.fork("comments",
+                () -> commentRepository.findByItemId(id).stream().map(CommentMapper::toCommentDto).collect(toUnmodifiableList()));
 
-        // Комментарии.
-        final List<Comment> commentsList = commentRepository.findByItemId(id);
-        final List<CommentDto> commentDtoList = commentsList.stream().map(CommentMapper::toCommentDto).collect(toUnmodifiableList());
-        itemWithAdditionalDataDto.setComments(commentDtoList);
+        final CompletableFuture<ItemWithAdditionalDataDto> itemRead = parallelReadExecutor.fork("item", () -> {
+            final Item item = daoItem.getItemById(id);
+            final ItemWithAdditionalDataDto itemWithAdditionalDataDto = ItemMapper.toItemWithAdditionalDataDto(item);
 
-        // Данные о бронировании может видеть только владелец вещи.
-        if (item.getOwner().getId().equals(userId)) {
-            final LocalDateTime now = LocalDateTime.now();
+            // Данные о бронировании может видеть только владелец вещи, поэтому сводка читается, только когда владелец известен.
+            if (item.getOwner().getId().equals(userId)) {
+                setLastAndNextBooking(itemWithAdditionalDataDto, itemBookingSummaryService.getSummary(id, LocalDateTime.now()));
+            }
+            return itemWithAdditionalDataDto;
+        });
 
-            final Booking lastBooking = bookingRepository.getLastBookingForItemById(id, now);
-            final Booking nextBooking = bookingRepository.getNextBookingForItemById(id, now);
-            setLastAndNextBooking(itemWithAdditionalDataDto, lastBooking, nextBooking);
-        }
+        final ItemWithAdditionalDataDto itemWithAdditionalDataDto = parallelReadExecutor.join("item", itemRead);
+        itemWithAdditionalDataDto.setComments(parallelReadExecutor.join("comments", commentsRead));
 
         return itemWithAdditionalDataDto;
     }
 
+    // Несколько вещей одним запросом (в порядке запрошенных id, несуществующие пропускаются).
+    // Права как у getById: данные о бронированиях - только для вещей пользователя.
+    // Как и getById, без своей транзакции: вещи со сводками и комментарии читаются параллельно в отдельных этапах.
+    @Override
+    public List<ItemWithAdditionalDataDto> getByIds(List<Long> ids, long userId) {
+        final CompletableFuture<Map<Long, List<CommentDto>>> commentsRead = ids.isEmpty()
+                ? CompletableFuture.completedFuture(Collections.emptyMap())
+                : parallelReadExecutor.fork("comments", () -> commentRepository.findByItemIdIn(ids).stream()
+                        .collect(groupingBy(c -> c.getItem().getId(), mapping(CommentMapper::toCommentDto, toUnmodifiableList()))));
+
+        final CompletableFuture<List<ItemWithAdditionalDataDto>> itemsRead = parallelReadExecutor.fork("items", () -> {
+            daoUser.checkUserExists(userId);
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            final List<Item> items = orderByIds(ids, daoItem.findByIdIn(ids), Item::getId);
+            final List<Long> ownItemIds = items.stream()
+                    .filter(item -> item.getOwner().getId().equals(userId))
+                    .map(Item::getId)
+                    .collect(toUnmodifiableList());
+            final Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.getSummaries(ownItemIds, LocalDateTime.now());
+
+            final List<ItemWithAdditionalDataDto> itemDtoList = new ArrayList<>();
+            for (Item item : items) {
+                final ItemWithAdditionalDataDto itemWithAdditionalDataDto = ItemMapper.toItemWithAdditionalDataDto(item);
+                if (summaries.containsKey(item.getId())) {
+                    setLastAndNextBooking(itemWithAdditionalDataDto, summaries.get(item.getId()));
+                }
+                itemDtoList.add(itemWithAdditionalDataDto);
+            }
+            return itemDtoList;
+        });
+
+        final List<ItemWithAdditionalDataDto> itemDtoList = parallelReadExecutor.join("items", itemsRead);
+        final Map<Long, List<CommentDto>> comments = parallelReadExecutor.join("comments", commentsRead);
+        for (ItemWithAdditionalDataDto itemWithAdditionalDataDto : itemDtoList) {
+            itemWithAdditionalDataDto.setComments(comments.getOrDefault(itemWithAdditionalDataDto.getId(), Collections.emptyList()));
+        }
+
+        return itemDtoList;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public ItemDto getOwnerItemById(long itemId, long ownerId) {
@@ -121,59 +188,89 @@ public class ItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     @Override
     public List<ItemWithAdditionalDataDto> getAllOwnerItems(long ownerId) {
-        return getAllOwnerItems(ownerId, null);
+        return getAllOwnerItems(ownerId, null, FieldSet.all());
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<ItemWithAdditionalDataDto> getAllOwnerItems(long ownerId, Integer from, Integer size) {
-        return getAllOwnerItems(ownerId, createOffsetBasedPageRequest(from, size, Sort.by("id")));
+        return getAllOwnerItems(ownerId, from, size, FieldSet.all());
     }
 
     @Transactional(readOnly = true)
-    private List<ItemWithAdditionalDataDto> getAllOwnerItems(long ownerId, Pageable pageable) {
+    @Override
+    public List<ItemWithAdditionalDataDto> getAllOwnerItems(long ownerId, Integer from, Integer size, FieldSet fields) {
+        return getAllOwnerItems(ownerId, createOffsetBasedPageRequest(from, size, Sort.by("id")), fields);
+    }
+
+    private List<ItemWithAdditionalDataDto> getAllOwnerItems(long ownerId, Pageable pageable, FieldSet fields) {
         daoUser.checkUserExists(ownerId);
 
-        final List<Item> ownerItems = daoItem.findByOwnerId(ownerId, pageable);
+        return findOwnerItems(ownerId, pageable, fields);
+    }
+
+    // Без проверки существования пользователя (ее выполняет вызывающий).
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemWithAdditionalDataDto> findOwnerItems(long ownerId, Pageable pageable) {
+        return findOwnerItems(ownerId, pageable, FieldSet.all());
+    }
+
+    // Читается только то, что нужно для выбранных полей: без lastBooking/nextBooking - одни столбцы вещи
+    // (без сводок по бронированиям), без comments - без запроса комментариев.
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemWithAdditionalDataDto> findOwnerItems(long ownerId, Pageable pageable, FieldSet fields) {
         final List<ItemWithAdditionalDataDto> ownerItemDtoList = new ArrayList<>();
 
-        if (ownerItems.isEmpty()) {
-            return ownerItemDtoList;
+        if (fields.includesAny(LAST_BOOKING_FIELD, NEXT_BOOKING_FIELD)) {
+            // Вещи вместе со сводками по бронированиям (последнее и следующее бронирование) - одним запросом.
+            final List<ItemWithBookingSummary> ownerItems = itemBookingSummaryService.findOwnerItems(ownerId, pageable, LocalDateTime.now());
+            for (final ItemWithBookingSummary ownerItem : ownerItems) {
+                final ItemWithAdditionalDataDto itemWithAdditionalDataDto = ItemMapper.toItemWithAdditionalDataDto(ownerItem.getItem());
+                setLastAndNextBooking(itemWithAdditionalDataDto, ownerItem.getSummary());
+                ownerItemDtoList.add(itemWithAdditionalDataDto);
+            }
+        } else {
+            daoItem.findOwnerItemDtoList(ownerId, pageable).stream()
+                    .map(ItemMapper::toItemWithAdditionalDataDto)
+                    .forEach(ownerItemDtoList::add);
         }
 
-        final List<Long> itemIds = ownerItems.stream().map(Item::getId).collect(toUnmodifiableList());
+        if (ownerItemDtoList.isEmpty() || !fields.includes(COMMENTS_FIELD)) {
+            return ownerItemDtoList;
+        }
 
-        // Получение последнего и последующего бронирования для каждого предмета.
-        final LocalDateTime now = LocalDateTime.now();
-        final Map<Long, Booking> lastBookings = bookingRepository.getLastBookingForItemsByIdList(itemIds, now);
-        final Map<Long, Booking> nextBookings = bookingRepository.getNextBookingForItemsByIdList(itemIds, now);
+        final List<Long> itemIds = ownerItemDtoList.stream().map(ItemWithAdditionalDataDto::getId).collect(toUnmodifiableList());
 
         // Получить комментарии для каждой вещи.
-        final Map<Long, List<Comment>> comments = commentRepository.findByItemIdIn(itemIds, Sort.by(DESC, "created"))
+        final Map<Long, List<Comment>> comments = commentRepository.findOwnerItemsComments(ownerId, itemIds)
                 .stream()
                 .collect(groupingBy(c -> c.getItem().getId(), toList()));
 
-        // Установка последнего и последующего бронирования для каждого предмета, а также комментариев.
-        for (final Item item : ownerItems) {
-            final long itemId = item.getId();
-            final ItemWithAdditionalDataDto itemWithAdditionalDataDto = ItemMapper.toItemWithAdditionalDataDto(item);
-
-            final Booking lastBooking = lastBookings.get(itemId);
-            final Booking nextBooking = nextBookings.get(itemId);
-            setLastAndNextBooking(itemWithAdditionalDataDto, lastBooking, nextBooking);
-
-            final List<Comment> commentsToItem = comments.get(itemId);
+        for (final ItemWithAdditionalDataDto itemWithAdditionalDataDto : ownerItemDtoList) {
+            final List<Comment> commentsToItem = comments.get(itemWithAdditionalDataDto.getId());
             if (nonNull(commentsToItem)) {
                 final List<CommentDto> commentDtoList = commentsToItem.stream().map(CommentMapper::toCommentDto).collect(toUnmodifiableList());
                 itemWithAdditionalDataDto.setComments(commentDtoList);
             }
-
-            ownerItemDtoList.add(itemWithAdditionalDataDto);
         }
 
         return ownerItemDtoList;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public ChangesDto<ItemDto> getChanges(long ownerId, String since) {
+        daoUser.checkUserExists(ownerId);
+
+        return changeFeedReader.read(since,
+                (sinceUpdatedAt, sinceId, horizon, pageable) ->
+                        daoItem.findChanged(ownerId, sinceUpdatedAt, sinceId, horizon, pageable),
+                item -> new SyncToken(item.getUpdatedAt(), item.getId()),
+                items -> items.stream().map(ItemMapper::toItemDto).collect(toUnmodifiableList()));
+    }
+
     @Transactional(readOnly = true)
     @Override
     public List<ItemDto> searchItems(String text, long userId) {
@@ -219,18 +316,26 @@ public class ItemServiceImpl implements ItemService {
         comment.setItem(item);
 
         comment = commentRepository.save(comment);
+        outboxService.add(OutboxEventType.COMMENT_ADDED, comment.getId(), CommentMapper.toCommentEventDto(comment));
 
         return CommentMapper.toCommentDto(comment);
     }
 
+    // Вещи входят в ответ по запросу, поэтому изменение вещи - изменение запроса для синхронизации.
+    private void touchRequest(Item item) {
+        if (nonNull(item.getRequest())) {
+            item.getRequest().touch();
+        }
+    }
+
     private void checkUserOwnItem(long userId, long itemId) {
         if (!daoItem.existsByIdAndOwnerId(itemId, userId)) {
             throw new NotOwnerAccessException(String.format("Вещь с id = %s не принадлежит пользователю с id = %s", itemId, userId));
         }
     }
 
-    private void setLastAndNextBooking(ItemWithAdditionalDataDto itemWithAdditionalDataDto, Booking lastBooking, Booking nextBooking) {
-        itemWithAdditionalDataDto.setLastBooking(BookingMapper.toBookingForItemDto(lastBooking));
-        itemWithAdditionalDataDto.setNextBooking(BookingMapper.toBookingForItemDto(nextBooking));
+    private void setLastAndNextBooking(ItemWithAdditionalDataDto itemWithAdditionalDataDto, ItemBookingSummary summary) {
+        itemWithAdditionalDataDto.setLastBooking(BookingMapper.toLastBookingForItemDto(summary));
+        itemWithAdditionalDataDto.setNextBooking(BookingMapper.toNextBookingForItemDto(summary));
     }
 }
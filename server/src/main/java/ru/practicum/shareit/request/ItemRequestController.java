@@ -3,12 +3,17 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.normalized.NormalizedListDto;
+import ru.practicum.shareit.common.sync.ChangesDto;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.ItemRequestRefDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.List;
 
+import static ru.practicum.shareit.common.ConstantParamStorage.NORMALIZED_VIEW_PARAM;
 import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
 
 @RestController
@@ -22,9 +27,9 @@ public class ItemRequestController {
     @PostMapping
     public ItemRequestDto addItemRequest(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                          @RequestBody ItemRequestCreateDto itemRequest) {
-        log.info(String.format("POST /requests, body = %s, %s = %s", itemRequest, USER_ID_REQUEST_HEADER, userId));
+        log.debug("POST /requests, body = {}, {} = {}", itemRequest, USER_ID_REQUEST_HEADER, userId);
         final ItemRequestDto newItemRequest = itemRequestService.createAndGet(itemRequest, userId);
-        log.info(String.format("Успешно создан запрос на вещь. Id запроса = %s", newItemRequest.getId()));
+        log.debug("Успешно создан запрос на вещь. Id запроса = {}", newItemRequest.getId());
 
         return newItemRequest;
     }
@@ -32,32 +37,55 @@ public class ItemRequestController {
     // Получить список своих запросов вместе с данными об ответах на них
     @GetMapping
     public List<ItemRequestDto> getAllUserItemRequests(@RequestHeader(USER_ID_REQUEST_HEADER) long userId) {
-        log.info(String.format("GET /requests, %s = %s", USER_ID_REQUEST_HEADER, userId));
+        log.debug("GET /requests, {} = {}", USER_ID_REQUEST_HEADER, userId);
         final List<ItemRequestDto> userItemRequests = itemRequestService.getAllUserItemRequests(userId);
-        log.info(String.format("Успешно получены заявки на вещи от пользователя с id = %s", userId));
+        log.debug("Успешно получены заявки на вещи от пользователя с id = {}", userId);
 
         return userItemRequests;
     }
 
+    @GetMapping(params = NORMALIZED_VIEW_PARAM)
+    public NormalizedListDto<ItemRequestRefDto> getAllUserItemRequestsNormalized(@RequestHeader(USER_ID_REQUEST_HEADER) long userId) {
+        return ItemRequestMapper.toNormalizedItemRequestList(getAllUserItemRequests(userId));
+    }
+
     // Получить список запросов, созданных другими пользователями
     @GetMapping("/all")
     public List<ItemRequestDto> getAllItemRequests(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                                    @RequestParam(name = "from", required = false) Integer from,
                                                    @RequestParam(name = "size", required = false) Integer size) {
-        log.info(String.format("GET /requests/all?from={from}&size={size}, {from} = %s, {size} = %s, %s = %s", from, size, USER_ID_REQUEST_HEADER, userId));
+        log.debug("GET /requests/all?from={from}&size={size}, {from} = {}, {size} = {}, {} = {}", from, size, USER_ID_REQUEST_HEADER, userId);
         final List<ItemRequestDto> itemRequests = itemRequestService.getAllItemRequests(userId, from, size);
-        log.info(String.format("Успешно получены заявки на вещи. Их кол-во %s", itemRequests.size()));
+        log.debug("Успешно получены заявки на вещи. Их кол-во {}", itemRequests.size());
 
         return itemRequests;
     }
 
+    @GetMapping(path = "/all", params = NORMALIZED_VIEW_PARAM)
+    public NormalizedListDto<ItemRequestRefDto> getAllItemRequestsNormalized(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                                                             @RequestParam(name = "from", required = false) Integer from,
+                                                                             @RequestParam(name = "size", required = false) Integer size) {
+        return ItemRequestMapper.toNormalizedItemRequestList(getAllItemRequests(userId, from, size));
+    }
+
+    // Свои запросы, измененные после токена since (без since - все запросы). Возвращает токен для следующего вызова.
+    @GetMapping("/changes")
+    public ChangesDto<ItemRequestDto> getChanges(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
+                                                 @RequestParam(name = "since", required = false) String since) {
+        log.debug("GET /requests/changes?since={since}, {since} = {}, {} = {}", since, USER_ID_REQUEST_HEADER, userId);
+        final ChangesDto<ItemRequestDto> changes = itemRequestService.getChanges(userId, since);
+        log.debug("Успешно получены измененные запросы ({} штук) пользователя с id = {}", changes.getChanged().size(), userId);
+
+        return changes;
+    }
+
     // Получить данные об одном конкретном запросе
     @GetMapping("/{requestId}")
     public ItemRequestDto getItemRequest(@RequestHeader(USER_ID_REQUEST_HEADER) long userId,
                                          @PathVariable(name = "requestId") long requestId) {
-        log.info(String.format("GET /requests/{requestId}, {requestId} = %s, %s = %s", requestId, USER_ID_REQUEST_HEADER, userId));
+        log.debug("GET /requests/{requestId}, {requestId} = {}, {} = {}", requestId, USER_ID_REQUEST_HEADER, userId);
         final ItemRequestDto itemRequestDto = itemRequestService.getItemRequestById(requestId, userId);
-        log.info(String.format("Успешно получен заявка на вещь. Id заявки = %S", itemRequestDto.getId()));
+        log.debug("Успешно получен заявка на вещь. Id заявки = %S", itemRequestDto.getId());
 
         return itemRequestDto;
     }
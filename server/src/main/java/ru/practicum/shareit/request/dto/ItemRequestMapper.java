@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request.dto;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.common.normalized.IncludedCollector;
+import ru.practicum.shareit.common.normalized.NormalizedListDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -42,6 +44,25 @@ public class ItemRequestMapper {
                 .build();
     }
 
+    public NormalizedListDto<ItemRequestRefDto> toNormalizedItemRequestList(List<ItemRequestDto> itemRequests) {
+        final IncludedCollector included = new IncludedCollector();
+        final List<ItemRequestRefDto> requests = Stream.ofNullable(itemRequests)
+                .flatMap(Collection::stream)
+                .map(itemRequest -> ItemRequestRefDto.builder()
+                        .id(itemRequest.getId())
+                        .description(itemRequest.getDescription())
+                        .requestorId(included.addUser(itemRequest.getRequestor()))
+                        .created(itemRequest.getCreated())
+                        .itemIds(Stream.ofNullable(itemRequest.getItemsByRequest())
+                                .flatMap(Collection::stream)
+                                .map(included::addItem)
+                                .collect(toUnmodifiableList()))
+                        .build())
+                .collect(toUnmodifiableList());
+
+        return new NormalizedListDto<>(requests, included.toIncludedDto());
+    }
+
     public List<ItemRequestDto> toItemRequestDtoList(List<ItemRequest> itemRequests) {
         return Stream.ofNullable(itemRequests)
                 .flatMap(Collection::stream)
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Запрос вещи в нормализованном списке: автор и вещи-ответы - ссылками на included.
+@Builder
+@Jacksonized
+@Data
+@AllArgsConstructor
+public class ItemRequestRefDto {
+    private Long id;
+    private String description;
+    private Long requestorId;
+    private LocalDateTime created;
+    private List<Long> itemIds;
+}
@@ -24,6 +24,14 @@ public class ItemRequest {
     @JoinColumn(name = "user_id")
     private User requestor; //  пользователь, создавший запрос
     private LocalDateTime created; // дата и время создания запроса
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt; // время последнего изменения, в т.ч. добавления или изменения вещей по запросу
     @Transient
     private List<Item> itemsByRequest; // все предметы добавленные по данному запросу.
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        updatedAt = LocalDateTime.now();
+    }
 }
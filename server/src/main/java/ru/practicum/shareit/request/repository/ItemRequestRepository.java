@@ -3,9 +3,12 @@ package ru.practicum.shareit.request.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -14,7 +17,19 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
 
     List<ItemRequest> findByRequestorId(long requestorId, Sort sort);
 
+    List<ItemRequest> findByRequestorId(long requestorId, Pageable pageable);
+
     List<ItemRequest> findByRequestorIdNot(long requestorId, Sort sort);
 
     List<ItemRequest> findByRequestorIdNot(long requestorId, Pageable pageable);
+
+    // Запросы пользователя, измененные после (sinceUpdatedAt, sinceId) и раньше horizon.
+    @Query("SELECT r FROM ItemRequest r WHERE r.requestor.id = :requestorId " +
+            "AND (r.updatedAt > :sinceUpdatedAt OR (r.updatedAt = :sinceUpdatedAt AND r.id > :sinceId)) " +
+            "AND r.updatedAt < :horizon ORDER BY r.updatedAt, r.id")
+    List<ItemRequest> findChanged(@Param("requestorId") long requestorId,
+                                  @Param("sinceUpdatedAt") LocalDateTime sinceUpdatedAt,
+                                  @Param("sinceId") long sinceId,
+                                  @Param("horizon") LocalDateTime horizon,
+                                  Pageable pageable);
 }
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.request.service;
 
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.common.sync.ChangesDto;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -14,7 +16,11 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getAllItemRequests(long userId, Integer from, Integer size);
 
+    List<ItemRequestDto> findUserItemRequests(long userId, Pageable pageable);
+
     ItemRequestDto getItemRequestById(long id);
 
+    ChangesDto<ItemRequestDto> getChanges(long userId, String since);
+
     ItemRequestDto getItemRequestById(long id, long userId);
 }
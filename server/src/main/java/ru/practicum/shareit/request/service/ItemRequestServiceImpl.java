@@ -6,6 +6,9 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.common.OffsetBasedPageRequest;
+import ru.practicum.shareit.common.sync.ChangeFeedReader;
+import ru.practicum.shareit.common.sync.ChangesDto;
+import ru.practicum.shareit.common.sync.SyncToken;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.DaoItem;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
@@ -31,6 +34,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final DaoUser daoUser;
     private final DaoItem daoItem;
+    private final ChangeFeedReader changeFeedReader;
 
     private final Sort itemRequestCreatedSort = Sort.by("created");
 
@@ -63,6 +67,18 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return ItemRequestMapper.toItemRequestDtoList(itemRequests);
     }
 
+    // Свои запросы без проверки существования пользователя (ее выполняет вызывающий).
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemRequestDto> findUserItemRequests(long userId, Pageable pageable) {
+        final List<ItemRequest> itemRequests = itemRequestRepository.findByRequestorId(userId, pageable);
+
+        // Устанавливаем предметы по запросам
+        getAndSetItemsForItemRequests(itemRequests);
+
+        return ItemRequestMapper.toItemRequestDtoList(itemRequests);
+    }
+
     // Получить список запросов, созданных другими пользователями (свои запросы не нужны).
     // Запросы сортируются по дате создания: от более новых к более старым.
     @Transactional(readOnly = true)
@@ -102,6 +118,23 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return getItemRequestById(id);
     }
 
+    // Свои запросы, измененные после токена since (в том числе из-за добавления или изменения вещей по запросу).
+    @Transactional(readOnly = true)
+    @Override
+    public ChangesDto<ItemRequestDto> getChanges(long userId, String since) {
+        daoUser.checkUserExists(userId);
+
+        return changeFeedReader.read(since,
+                (sinceUpdatedAt, sinceId, horizon, pageable) ->
+                        itemRequestRepository.findChanged(userId, sinceUpdatedAt, sinceId, horizon, pageable),
+                itemRequest -> new SyncToken(itemRequest.getUpdatedAt(), itemRequest.getId()),
+                itemRequests -> {
+                    // Устанавливаем предметы по запросам
+                    getAndSetItemsForItemRequests(itemRequests);
+                    return ItemRequestMapper.toItemRequestDtoList(itemRequests);
+                });
+    }
+
     private ItemRequest getById(long id) {
         final Optional<ItemRequest> itemRequest = itemRequestRepository.findById(id);
         return itemRequest.orElseThrow(() -> new ItemRequestNotFoundException(id));
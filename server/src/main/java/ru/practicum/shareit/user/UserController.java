@@ -18,44 +18,53 @@ public class UserController {
 
     @PostMapping
     public UserDto create(@RequestBody UserCreateDto user) {
-        log.info(String.format("POST /users, body = %s", user));
+        log.debug("POST /users, body = {}", user);
         final UserDto newUser = userService.createAndGet(user);
-        log.info(String.format("Успешно создан пользователь с id = %s", newUser.getId()));
+        log.debug("Успешно создан пользователь с id = {}", newUser.getId());
 
         return newUser;
     }
 
     @PatchMapping("/{id}")
     public UserDto update(@RequestBody UserDto user, @PathVariable(name = "id") long id) {
-        log.info(String.format("PATCH /users/{id}, {id} = %s", id));
+        log.debug("PATCH /users/{id}, {id} = {}", id);
         final UserDto updatedUser = userService.update(id, user);
-        log.info(String.format("Успешно обновлены данные пользователя с id = %s", updatedUser.getId()));
+        log.debug("Успешно обновлены данные пользователя с id = {}", updatedUser.getId());
 
         return updatedUser;
     }
 
     @GetMapping("/{id}")
     public UserDto getById(@PathVariable(name = "id") long id) {
-        log.info(String.format("GET /users/{id}, {id} = %s", id));
+        log.debug("GET /users/{id}, {id} = {}", id);
         final UserDto user = userService.getById(id);
-        log.info(String.format("Успешно получены данные пользователя с id = %s", user.getId()));
+        log.debug("Успешно получены данные пользователя с id = {}", user.getId());
 
         return user;
     }
 
+    @GetMapping(params = "ids")
+    public List<UserDto> getByIds(@RequestParam(name = "ids") List<Long> ids) {
+        log.debug("GET /users?ids={ids}, {ids} = {}", ids);
+        final List<UserDto> users = userService.getByIds(ids);
+        log.debug("Успешно получены пользователи ({} штук) по списку id", users.size());
+
+        return users;
+    }
+
     @GetMapping
     public List<UserDto> getAll() {
-        log.info("GET /users/");
+        log.debug("GET /users/");
         final List<UserDto> users = userService.getAll();
-        log.info("Успешно получены все пользователи");
+        log.debug("Успешно получены все пользователи");
 
         return users;
     }
 
     @DeleteMapping("/{id}")
     public void deleteById(@PathVariable(name = "id") long id) {
-        log.info(String.format("DELETE /users/{id}, {id} = %s", id));
+        log.debug("DELETE /users/{id}, {id} = {}", id);
         userService.delete(id);
-        log.info(String.format("Успешно удален пользователь с id = %s", id));
+        log.debug("Успешно удален пользователь с id = {}", id);
     }
 }
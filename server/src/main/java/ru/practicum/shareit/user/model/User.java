@@ -1,10 +1,12 @@
 package ru.practicum.shareit.user.model;
 
 import lombok.*;
+import ru.practicum.shareit.common.bloom.IdExistenceListener;
 
 import javax.persistence.*;
 
 @Entity
+@EntityListeners(IdExistenceListener.class)
 @Table(name = "users")
 @Builder
 @Getter
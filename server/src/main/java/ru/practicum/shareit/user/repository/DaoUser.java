@@ -13,6 +13,8 @@ public interface DaoUser {
 
     List<User> findAll();
 
+    List<User> findByIdIn(List<Long> ids);
+
     User save(User entity);
 
     boolean existsByEmail(String email);
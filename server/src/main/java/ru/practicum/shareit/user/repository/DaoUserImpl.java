@@ -1,17 +1,22 @@
 package ru.practicum.shareit.user.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.common.bloom.IdExistenceFilters;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
 import java.util.Optional;
 
+import static java.util.Objects.nonNull;
+
 @Repository
 @RequiredArgsConstructor
 public class DaoUserImpl implements DaoUser {
     private final UserRepository userRepository;
+    private final ObjectProvider<IdExistenceFilters> idExistenceFilters;
 
     @Override
     public User getUserById(long id) {
@@ -21,7 +26,16 @@ public class DaoUserImpl implements DaoUser {
 
     @Override
     public void checkUserExists(long id) {
+        // Фильтр Блума: если id точно нет, запрос в БД не нужен.
+        final IdExistenceFilters filters = idExistenceFilters.getIfAvailable();
+        if (nonNull(filters) && !filters.users().mightExist(id)) {
+            throw new UserNotFoundException(id);
+        }
+
         if (!userRepository.existsById(id)) {
+            if (nonNull(filters)) {
+                filters.users().recordFalsePositive(id);
+            }
             throw new UserNotFoundException(id);
         }
     }
@@ -31,6 +45,11 @@ public class DaoUserImpl implements DaoUser {
         return userRepository.findAll();
     }
 
+    @Override
+    public List<User> findByIdIn(List<Long> ids) {
+        return userRepository.findAllById(ids);
+    }
+
     @Override
     public User save(User entity) {
         return userRepository.save(entity);
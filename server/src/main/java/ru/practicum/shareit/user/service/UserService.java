@@ -10,6 +10,8 @@ public interface UserService {
 
     List<UserDto> getAll();
 
+    List<UserDto> getByIds(List<Long> ids);
+
     Long create(UserCreateDto userDto);
 
     UserDto createAndGet(UserCreateDto userDto);
@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.nonNull;
+import static ru.practicum.shareit.common.Utils.orderByIds;
 
 @Service
 @RequiredArgsConstructor
@@ -34,6 +35,18 @@ public class UserServiceImpl implements UserService {
         return users.stream().map(UserMapper::toUserDto).collect(Collectors.toUnmodifiableList());
     }
 
+    // Пользователи в порядке запрошенных id, несуществующие пропускаются.
+    @Transactional(readOnly = true)
+    @Override
+    public List<UserDto> getByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        final List<User> users = orderByIds(ids, daoUser.findByIdIn(ids), User::getId);
+        return users.stream().map(UserMapper::toUserDto).collect(Collectors.toUnmodifiableList());
+    }
+
     @Transactional
     @Override
     public Long create(UserCreateDto userDto) {
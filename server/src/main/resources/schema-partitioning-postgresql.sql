@@ -0,0 +1,31 @@
+-- Только для PostgreSQL, выполняется после schema.sql (см. spring.sql.init.schema-locations).
+-- Таблица bookings пересоздается секционированной по месяцу начала бронирования.
+-- Помесячные секции создает BookingPartitionMaintainer, все что не попало в них - в bookings_default.
+-- Ключ секционирования обязан входить в первичный ключ, поэтому pk - (id, start_booking).
+DROP TABLE IF EXISTS bookings;
+CREATE SEQUENCE IF NOT EXISTS bookings_id_seq;
+
+CREATE TABLE bookings (
+    id BIGINT NOT NULL DEFAULT nextval('bookings_id_seq'),
+    item_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    start_booking TIMESTAMP NOT NULL,
+    end_booking TIMESTAMP,
+    status varchar NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    long_running BOOLEAN DEFAULT FALSE NOT NULL,
+    CONSTRAINT pk_bookings PRIMARY KEY (id, start_booking),
+    CONSTRAINT fk_items_bookings FOREIGN KEY (item_id) REFERENCES items(id),
+    CONSTRAINT fk_users_bookings FOREIGN KEY (user_id) REFERENCES users(id),
+    CONSTRAINT un_unique_booking_record UNIQUE (item_id, user_id, status, start_booking, end_booking)
+) PARTITION BY RANGE (start_booking);
+
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+CREATE INDEX ix_bookings_user_start ON bookings (user_id, start_booking);
+CREATE INDEX ix_bookings_end ON bookings (end_booking);
+-- Текущие длительные бронирования (long_running) ищутся по всем секциям, но только в этом небольшом индексе.
+CREATE INDEX ix_bookings_long_running_end ON bookings (end_booking) WHERE long_running;
+CREATE INDEX ix_bookings_user_updated_at ON bookings (user_id, updated_at, id);
+CREATE INDEX ix_bookings_item_updated_at ON bookings (item_id, updated_at, id);
@@ -1,6 +1,10 @@
 DROP TABLE IF EXISTS requests CASCADE;
 DROP TABLE IF EXISTS comments;
 DROP TABLE IF EXISTS bookings;
+DROP TABLE IF EXISTS bookings_archive;
+DROP TABLE IF EXISTS outbox_events;
+DROP TABLE IF EXISTS background_jobs;
+DROP TABLE IF EXISTS item_booking_summary;
 DROP TABLE IF EXISTS items;
 DROP TABLE IF EXISTS users;
 
@@ -17,6 +21,7 @@ CREATE TABLE IF NOT EXISTS requests (
     description VARCHAR(1000) NOT NULL,
     user_id BIGINT NOT NULL,
     created TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     CONSTRAINT pk_requests PRIMARY KEY (id),
     CONSTRAINT fk_users_requests FOREIGN KEY (user_id) REFERENCES users(id)
 );
@@ -30,6 +35,7 @@ CREATE TABLE IF NOT EXISTS items (
     is_available boolean NOT NULL,
     owner_id BIGINT NOT NULL,
     request_id BIGINT,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     CONSTRAINT pk_items PRIMARY KEY (id),
     CONSTRAINT fk_users_items FOREIGN KEY (owner_id) REFERENCES users(id),
     CONSTRAINT fk_requests_items FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE SET NULL
@@ -44,6 +50,9 @@ CREATE TABLE IF NOT EXISTS bookings (
     start_booking TIMESTAMP,
     end_booking TIMESTAMP,
     status varchar NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    long_running BOOLEAN DEFAULT FALSE NOT NULL,
     CONSTRAINT pk_bookings PRIMARY KEY (id),
     CONSTRAINT fk_items_bookings FOREIGN KEY (item_id) REFERENCES items(id),
     CONSTRAINT fk_users_bookings FOREIGN KEY (user_id) REFERENCES users(id),
@@ -61,4 +70,80 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT pk_comments PRIMARY KEY (id),
     CONSTRAINT fk_items_comments FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
     CONSTRAINT fk_users_comments FOREIGN KEY (author_id) REFERENCES users(id)
-);
\ No newline at end of file
+);
+
+-- Архив давно закончившихся бронирований (переносятся из bookings фоновой задачей, id сохраняются).
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    start_booking TIMESTAMP,
+    end_booking TIMESTAMP,
+    status varchar NOT NULL,
+    CONSTRAINT pk_bookings_archive PRIMARY KEY (id),
+    CONSTRAINT fk_items_bookings_archive FOREIGN KEY (item_id) REFERENCES items(id),
+    CONSTRAINT fk_users_bookings_archive FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+-- События об изменении бронирований, вещей и комментариев (transactional outbox).
+-- Пишутся в одной транзакции с изменением, доставляются фоновой задачей в порядке id.
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    aggregate_type VARCHAR(32) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload VARCHAR(8000) NOT NULL,
+    created TIMESTAMP NOT NULL,
+    published_at TIMESTAMP,
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_published_at ON outbox_events (published_at, id);
+
+-- Очередь фоновых задач. Задачи берутся в работу с FOR UPDATE SKIP LOCKED и арендой до locked_until.
+CREATE TABLE IF NOT EXISTS background_jobs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    type VARCHAR(64) NOT NULL,
+    payload VARCHAR(8000) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INTEGER NOT NULL,
+    max_attempts INTEGER NOT NULL,
+    run_at TIMESTAMP NOT NULL,
+    locked_by VARCHAR(255),
+    locked_until TIMESTAMP,
+    last_error VARCHAR(2000),
+    created TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_background_jobs PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_background_jobs_status_run_at ON background_jobs (status, run_at, id);
+CREATE INDEX IF NOT EXISTS idx_background_jobs_status_locked_until ON background_jobs (status, locked_until);
+
+-- Сводка по бронированиям вещи для чтения (последнее и следующее подтвержденные бронирования, счетчики).
+-- Обновляется при подтверждении/отклонении заявок и пересчитывается, когда наступает начало следующего бронирования (next_start).
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT NOT NULL,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    last_start TIMESTAMP,
+    last_end TIMESTAMP,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_start TIMESTAMP,
+    next_end TIMESTAMP,
+    approved_count BIGINT DEFAULT 0 NOT NULL,
+    rejected_count BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_items_item_booking_summary FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_next_start ON item_booking_summary (next_start);
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id, id);
+
+-- Синхронизация изменений (GET .../changes?since=): выборка по пользователю в порядке (updated_at, id).
+CREATE INDEX IF NOT EXISTS idx_items_owner_updated_at ON items (owner_id, updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_requests_user_updated_at ON requests (user_id, updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_user_updated_at ON bookings (user_id, updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_updated_at ON bookings (item_id, updated_at, id);
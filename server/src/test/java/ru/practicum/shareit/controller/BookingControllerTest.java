@@ -4,30 +4,55 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.val;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.model.BookingDecisionOutcome;
 import ru.practicum.shareit.booking.model.BookingStateForSearch;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingStreamService;
 import ru.practicum.shareit.common.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Collections;
-
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.common.ConstantParamStorage.IDEMPOTENCY_KEY_HEADER;
+import static ru.practicum.shareit.common.ConstantParamStorage.LAST_EVENT_ID_HEADER;
 import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -38,6 +63,8 @@ public class BookingControllerTest {
     private final ObjectMapper objectMapper;
     @MockBean
     private final BookingService bookingService;
+    @MockBean
+    private final BookingStreamService bookingStreamService;
 
     private final long userId = 1;
     private final long bookingId = 1;
@@ -65,6 +92,115 @@ public class BookingControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @SneakyThrows
+    @Test
+    public void create_whenRetriedWithSameIdempotencyKey_thenReturnSavedResponse() {
+        val bookingCreateDto = BookingCreateDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().withNano(0).plusDays(1))
+                .end(LocalDateTime.now().withNano(0).plusDays(2))
+                .build();
+        val idempotencyKey = UUID.randomUUID().toString();
+
+        Mockito.when(bookingService.create(bookingCreateDto, userId)).thenReturn(BookingDto.builder().id(bookingId).build());
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post(BASE_ENDPOINT)
+                            .content(objectMapper.writeValueAsBytes(bookingCreateDto))
+                            .header(USER_ID_REQUEST_HEADER, userId)
+                            .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .characterEncoding(StandardCharsets.UTF_8)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(1));
+        }
+
+        verify(bookingService, times(1)).create(bookingCreateDto, userId);
+    }
+
+    @SneakyThrows
+    @Test
+    public void create_whenSameIdempotencyKeyWithOtherBody_thenReturn422() {
+        val bookingCreateDto = BookingCreateDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().withNano(0).plusDays(1))
+                .end(LocalDateTime.now().withNano(0).plusDays(2))
+                .build();
+        val otherBookingCreateDto = BookingCreateDto.builder()
+                .itemId(2L)
+                .start(bookingCreateDto.getStart())
+                .end(bookingCreateDto.getEnd())
+                .build();
+        val idempotencyKey = UUID.randomUUID().toString();
+
+        Mockito.when(bookingService.create(bookingCreateDto, userId)).thenReturn(BookingDto.builder().id(bookingId).build());
+
+        mockMvc.perform(post(BASE_ENDPOINT)
+                        .content(objectMapper.writeValueAsBytes(bookingCreateDto))
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post(BASE_ENDPOINT)
+                        .content(objectMapper.writeValueAsBytes(otherBookingCreateDto))
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(bookingService, times(1)).create(bookingCreateDto, userId);
+        verify(bookingService, never()).create(otherBookingCreateDto, userId);
+    }
+
+    @SneakyThrows
+    @Test
+    public void create_whenConcurrentDuplicates_thenSecondWaitsForFirst() {
+        val bookingCreateDto = BookingCreateDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().withNano(0).plusDays(1))
+                .end(LocalDateTime.now().withNano(0).plusDays(2))
+                .build();
+        val idempotencyKey = UUID.randomUUID().toString();
+        val firstStarted = new CountDownLatch(1);
+        val releaseFirst = new CountDownLatch(1);
+
+        Mockito.when(bookingService.create(bookingCreateDto, userId)).thenAnswer(invocation -> {
+            firstStarted.countDown();
+            releaseFirst.await(10, TimeUnit.SECONDS);
+            return BookingDto.builder().id(bookingId).build();
+        });
+
+        final Callable<Integer> sendRequest = () -> mockMvc.perform(post(BASE_ENDPOINT)
+                        .content(objectMapper.writeValueAsBytes(bookingCreateDto))
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getStatus();
+
+        val executor = Executors.newFixedThreadPool(2);
+        try {
+            val first = executor.submit(sendRequest);
+            assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+            val duplicate = executor.submit(sendRequest);
+            releaseFirst.countDown();
+
+            assertEquals(200, first.get(10, TimeUnit.SECONDS));
+            assertEquals(200, duplicate.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(bookingService, times(1)).create(bookingCreateDto, userId);
+    }
+
     @SneakyThrows
     @Test
     public void create_whenItemNotExists_thenReturn404() {
@@ -88,6 +224,48 @@ public class BookingControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @SneakyThrows
+    @Test
+    public void create_whenUniqueConstraintViolated_thenReturn409() {
+        val bookingCreateDto = BookingCreateDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().withNano(0).plusDays(1))
+                .end(LocalDateTime.now().withNano(0).plusDays(2))
+                .build();
+
+        Mockito.when(bookingService.create(bookingCreateDto, userId)).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException("duplicate", "23505"), "un_unique_booking_record")));
+
+        mockMvc.perform(post(BASE_ENDPOINT)
+                        .content(objectMapper.writeValueAsBytes(bookingCreateDto))
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
+    @SneakyThrows
+    @Test
+    public void create_whenForeignKeyViolated_thenReturn500() {
+        val bookingCreateDto = BookingCreateDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().withNano(0).plusDays(1))
+                .end(LocalDateTime.now().withNano(0).plusDays(2))
+                .build();
+
+        Mockito.when(bookingService.create(bookingCreateDto, userId)).thenThrow(new DataIntegrityViolationException("fk",
+                new ConstraintViolationException("fk", new SQLException("fk", "23503"), "fk_items_bookings")));
+
+        mockMvc.perform(post(BASE_ENDPOINT)
+                        .content(objectMapper.writeValueAsBytes(bookingCreateDto))
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError());
+    }
+
     @SneakyThrows
     @Test
     public void approveBooking_whenOk_thenReturnOk() {
@@ -105,6 +283,28 @@ public class BookingControllerTest {
         verify(bookingService).approve(bookingId, userId, approved);
     }
 
+    @SneakyThrows
+    @Test
+    public void approveBookings_whenOk_thenReturnOutcomes() {
+        val decision = BookingBulkDecisionDto.builder()
+                .bookingIds(List.of(bookingId))
+                .approved(true)
+                .build();
+        Mockito.when(bookingService.approveAll(decision.getBookingIds(), userId, true))
+                .thenReturn(List.of(new BookingDecisionResultDto(bookingId, BookingDecisionOutcome.UPDATED, BookingStatus.APPROVED)));
+
+        mockMvc.perform(patch(BASE_ENDPOINT + "/bulk")
+                        .content(objectMapper.writeValueAsBytes(decision))
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value(BookingDecisionOutcome.UPDATED.name()));
+
+        verify(bookingService).approveAll(decision.getBookingIds(), userId, true);
+    }
+
     @SneakyThrows
     @Test
     public void approveBooking_whenBookingNotExists_thenReturn404() {
@@ -245,6 +445,35 @@ public class BookingControllerTest {
         verify(bookingService).getBookingsByItemOwner(userId, BookingStateForSearch.ALL, null, null);
     }
 
+    @SneakyThrows
+    @Test
+    public void getBookingsByItemOwner_whenNormalizedView_thenItemsAndUsersIncludedOnce() {
+        val item = ItemDto.builder().id(10L).name("item").description("desc").isAvailable(true).build();
+        val booker = UserDto.builder().id(20L).name("booker").email("booker@email.com").build();
+        val start = LocalDateTime.now().withNano(0).plusDays(1);
+        val bookings = List.of(
+                BookingDto.builder().id(1L).item(item).booker(booker).start(start).end(start.plusDays(1))
+                        .status(BookingStatus.WAITING).build(),
+                BookingDto.builder().id(2L).item(item).booker(booker).start(start.plusDays(2)).end(start.plusDays(3))
+                        .status(BookingStatus.APPROVED).build());
+
+        Mockito.when(bookingService.getBookingsByItemOwner(userId, BookingStateForSearch.ALL, null, null))
+                .thenReturn(bookings);
+
+        mockMvc.perform(get(BASE_ENDPOINT + "/owner")
+                        .param("view", "normalized")
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[1].itemId").value(10))
+                .andExpect(jsonPath("$.data[1].bookerId").value(20))
+                .andExpect(jsonPath("$.data[1].item").doesNotExist())
+                .andExpect(jsonPath("$.included.items.length()").value(1))
+                .andExpect(jsonPath("$.included.users.length()").value(1))
+                .andExpect(jsonPath("$.included.users[0].name").value("booker"));
+    }
+
     @SneakyThrows
     @Test
     public void getBookingsByItemOwner_whenUserNotExists_thenReturn404() {
@@ -279,4 +508,28 @@ public class BookingControllerTest {
 
         verify(bookingService).getBookingsByItemOwner(userId, state, null, null);
     }
+
+    @SneakyThrows
+    @Test
+    public void streamBookingEvents_whenLastEventIdPassed_thenSubscribeFromIt() {
+        Mockito.when(bookingStreamService.subscribe(userId, 5L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get(BASE_ENDPOINT + "/stream")
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .header(LAST_EVENT_ID_HEADER, 5)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(bookingStreamService).subscribe(userId, 5L);
+    }
+
+    @SneakyThrows
+    @Test
+    public void streamBookingEvents_whenUserNotExists_thenReturn404() {
+        Mockito.when(bookingStreamService.subscribe(userId, null)).thenThrow(UserNotFoundException.class);
+
+        mockMvc.perform(get(BASE_ENDPOINT + "/stream")
+                        .header(USER_ID_REQUEST_HEADER, userId))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.dashboard.DashboardController;
+import ru.practicum.shareit.dashboard.dto.DashboardDto;
+import ru.practicum.shareit.dashboard.service.DashboardService;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
+
+@WebMvcTest(controllers = DashboardController.class)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class DashboardControllerTest {
+    private static final String BASE_ENDPOINT = "/me/dashboard";
+    private final MockMvc mockMvc;
+    @MockBean
+    private final DashboardService dashboardService;
+
+    private final long userId = 1;
+
+    @SneakyThrows
+    @Test
+    public void getDashboard_whenOk_thenReturnOk() {
+        Mockito.when(dashboardService.getDashboard(userId)).thenReturn(DashboardDto.builder()
+                .items(Collections.emptyList())
+                .bookings(Collections.emptyList())
+                .waitingOwnerBookings(Collections.emptyList())
+                .requests(Collections.emptyList())
+                .build());
+
+        mockMvc.perform(get(BASE_ENDPOINT)
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.waitingOwnerBookings").isArray());
+
+        verify(dashboardService).getDashboard(userId);
+    }
+
+    @SneakyThrows
+    @Test
+    public void getDashboard_whenUserNotExists_thenReturn404() {
+        Mockito.when(dashboardService.getDashboard(userId)).thenThrow(UserNotFoundException.class);
+
+        mockMvc.perform(get(BASE_ENDPOINT)
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+
+        verify(dashboardService).getDashboard(userId);
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.common.fields.FieldSet;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.exception.NotOwnerAccessException;
@@ -20,6 +21,11 @@ import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -311,6 +317,44 @@ public class ItemControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    @SneakyThrows
+    @Test
+    public void getAllOwnerItems_whenFields_thenReturnOnlySelectedFields() {
+        final ItemWithAdditionalDataDto item = ItemWithAdditionalDataDto.builder()
+                .id(itemId)
+                .name(itemDto.getName())
+                .description(itemDto.getDescription())
+                .isAvailable(true)
+                .comments(Collections.emptyList())
+                .build();
+        Mockito.when(itemService.getAllOwnerItems(eq(userId), isNull(), isNull(),
+                        argThat(fields -> fields.includes("comments") && !fields.includes("lastBooking"))))
+                .thenReturn(List.of(item));
+
+        mockMvc.perform(get(BASE_ENDPOINT)
+                        .param("fields", "name,comments")
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(itemId))
+                .andExpect(jsonPath("$[0].name").value(itemDto.getName()))
+                .andExpect(jsonPath("$[0].comments").isArray())
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].lastBooking").doesNotExist());
+    }
+
+    @SneakyThrows
+    @Test
+    public void getAllOwnerItems_whenUnknownField_thenReturn400() {
+        mockMvc.perform(get(BASE_ENDPOINT)
+                        .param("fields", "name,owner")
+                        .header(USER_ID_REQUEST_HEADER, userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).getAllOwnerItems(anyLong(), any(), any(), any(FieldSet.class));
+    }
+
     @SneakyThrows
     @Test
     public void getAllOwnerItems_whenOk_thenReturnItems() {
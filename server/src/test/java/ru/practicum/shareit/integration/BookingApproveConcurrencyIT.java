@@ -0,0 +1,173 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.exception.BookingConflictException;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.outbox.OutboxEventRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Одновременные подтверждения/отклонения одной заявки: успешным должно быть ровно одно, остальные получают ошибку.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.integration.BookingApproveConcurrencyIT$ThreadStatementInspector")
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BookingApproveConcurrencyIT {
+    private static final int THREAD_COUNT = 8;
+    private static final int ROUNDS = 20;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemBookingSummaryRepository itemBookingSummaryRepository;
+    private final OutboxEventRepository outboxEventRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    public void init() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@email.com")
+                .build());
+
+        item = itemRepository.save(Item.builder()
+                .owner(owner)
+                .name("item")
+                .description("desc")
+                .isAvailable(true)
+                .build());
+
+        // Сводка бронирований вещи уже есть (как у созданной через сервис): решение по заявке обновляет ее одним UPDATE.
+        itemBookingSummaryRepository.save(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .build());
+    }
+
+    @Test
+    public void approve_whenConcurrentApproveAndReject_thenOnlyOneSucceeds() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                final long bookingId = createWaitingBooking(round).getId();
+                final CountDownLatch startGate = new CountDownLatch(1);
+
+                final List<Future<BookingDto>> results = new ArrayList<>();
+                for (int thread = 0; thread < THREAD_COUNT; thread++) {
+                    final boolean isApproved = thread % 2 == 0;
+                    results.add(executor.submit(() -> {
+                        startGate.await();
+                        return bookingService.approve(bookingId, owner.getId(), isApproved);
+                    }));
+                }
+                startGate.countDown();
+
+                final List<BookingDto> succeeded = new ArrayList<>();
+                for (Future<BookingDto> result : results) {
+                    try {
+                        succeeded.add(result.get(30, TimeUnit.SECONDS));
+                    } catch (ExecutionException exp) {
+                        // Обычно проигравший видит уже не WAITING (400), реже - изменение между UPDATE и чтением (409).
+                        assertTrue(exp.getCause() instanceof UnsupportedOperationException
+                                || exp.getCause() instanceof BookingConflictException, exp.getCause().toString());
+                    }
+                }
+
+                assertEquals(1, succeeded.size());
+
+                final Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+                assertEquals(succeeded.get(0).getStatus(), booking.getStatus());
+                assertEquals(1L, booking.getVersion());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Раньше подтверждение занимало 3 запроса (чтение заявки, проверка владельца, сохранение) до записи события и сводки.
+    // Считаются только запросы потока теста: фоновые задачи (outbox, истечение заявок) на результат не влияют.
+    @Test
+    public void approve_whenOk_thenExactStatements() {
+        final long bookingId = createWaitingBooking(0).getId();
+
+        final List<String> statements = ThreadStatementInspector.record(
+                () -> bookingService.approve(bookingId, owner.getId(), true));
+
+        // Условный UPDATE заявки, чтение заявки для ответа, запись события в outbox, UPDATE сводки вещи.
+        assertEquals(4, statements.size(), String.join("\n", statements));
+    }
+
+    private Booking createWaitingBooking(int shiftDays) {
+        final LocalDateTime start = LocalDateTime.now().plusDays(1 + shiftDays);
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .start(start)
+                .end(start.plusDays(1))
+                .build());
+    }
+
+    @AfterEach
+    public void clean() {
+        outboxEventRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    // Запоминает SQL, выполненные в потоке внутри record.
+    public static class ThreadStatementInspector implements StatementInspector {
+        private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+        static List<String> record(Runnable action) {
+            final List<String> statements = new ArrayList<>();
+            STATEMENTS.set(statements);
+            try {
+                action.run();
+            } finally {
+                STATEMENTS.remove();
+            }
+            return statements;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            final List<String> statements = STATEMENTS.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStateForSearch;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingArchiveService;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BookingArchiveServiceIT {
+    private final BookingArchiveService bookingArchiveService;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    public void init() {
+        final User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+
+        item = itemRepository.save(Item.builder()
+                .owner(owner)
+                .name("item")
+                .description("desc")
+                .isAvailable(true)
+                .build());
+
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@email.com")
+                .build());
+    }
+
+    @Test
+    public void archiveBatch_whenHasOldBookings_thenMoveOnlyOldInBatches() {
+        final LocalDateTime now = LocalDateTime.now();
+        final List<Long> oldBookingIds = List.of(
+                saveBooking(now.minusYears(3)).getId(),
+                saveBooking(now.minusYears(2)).getId(),
+                saveBooking(now.minusMonths(18)).getId());
+        final Booking recentBooking = saveBooking(now.minusDays(5));
+
+        final LocalDateTime endBefore = now.minusYears(1);
+        assertEquals(2, bookingArchiveService.archiveBatch(endBefore, 2));
+        assertEquals(1, bookingArchiveService.archiveBatch(endBefore, 2));
+        assertEquals(0, bookingArchiveService.archiveBatch(endBefore, 2));
+
+        final List<Long> archivedIds = archivedBookingRepository.findAll().stream()
+                .map(ArchivedBooking::getId)
+                .collect(Collectors.toList());
+        assertThat(archivedIds).containsExactlyInAnyOrderElementsOf(oldBookingIds);
+
+        final List<Long> hotIds = bookingRepository.findAll().stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        assertEquals(List.of(recentBooking.getId()), hotIds);
+    }
+
+    @Test
+    public void getBookings_whenArchived_thenReadThroughArchive() {
+        final LocalDateTime now = LocalDateTime.now();
+        final Booking archivedApproved = saveBooking(now.minusYears(3));
+        final Booking archivedRejected = saveBooking(now.minusYears(2), BookingStatus.REJECTED);
+        final Booking recentBooking = saveBooking(now.minusDays(5));
+        bookingArchiveService.archiveBatch(now.minusYears(1), 10);
+
+        final long ownerId = item.getOwner().getId();
+        assertThat(bookingService.getUserBookingsByState(booker.getId(), BookingStateForSearch.ALL))
+                .extracting(BookingDto::getId)
+                .containsExactly(recentBooking.getId(), archivedRejected.getId(), archivedApproved.getId());
+        assertThat(bookingService.getBookingsByItemOwner(ownerId, BookingStateForSearch.ALL, 1, 2))
+                .extracting(BookingDto::getId)
+                .containsExactly(archivedRejected.getId(), archivedApproved.getId());
+        assertThat(bookingService.getBookingsByItemOwner(ownerId, BookingStateForSearch.REJECTED))
+                .extracting(BookingDto::getId)
+                .containsExactly(archivedRejected.getId());
+        assertEquals(archivedApproved.getId(), bookingService.getBooking(archivedApproved.getId(), booker.getId()).getId());
+        assertThat(bookingService.getBookings(List.of(archivedRejected.getId(), recentBooking.getId()), ownerId))
+                .extracting(BookingDto::getId)
+                .containsExactly(archivedRejected.getId(), recentBooking.getId());
+    }
+
+    @Test
+    public void getBooking_whenArchivedAndNotOwnerOrBooker_thenThrowNotFound() {
+        final Booking archivedBooking = saveBooking(LocalDateTime.now().minusYears(3));
+        bookingArchiveService.archiveBatch(LocalDateTime.now().minusYears(1), 10);
+        final User stranger = userRepository.save(User.builder()
+                .name("stranger")
+                .email("stranger@email.com")
+                .build());
+
+        assertThrows(NotFoundException.class, () -> bookingService.getBooking(archivedBooking.getId(), stranger.getId()));
+    }
+
+    private Booking saveBooking(LocalDateTime start) {
+        return saveBooking(start, BookingStatus.APPROVED);
+    }
+
+    private Booking saveBooking(LocalDateTime start, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .start(start)
+                .end(start.plusDays(1))
+                .build());
+    }
+
+    @AfterEach
+    public void clean() {
+        archivedBookingRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingExpiryService;
+import ru.practicum.shareit.common.outbox.OutboxEvent;
+import ru.practicum.shareit.common.outbox.OutboxEventRepository;
+import ru.practicum.shareit.common.outbox.OutboxEventType;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BookingExpiryServiceIT {
+    private final BookingExpiryService bookingExpiryService;
+    private final BookingRepository bookingRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    public void init() {
+        final User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+
+        item = itemRepository.save(Item.builder()
+                .owner(owner)
+                .name("item")
+                .description("desc")
+                .isAvailable(true)
+                .build());
+
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@email.com")
+                .build());
+    }
+
+    @Test
+    public void expire_whenWaitingAndStarted_thenExpireOnlyThem() {
+        final LocalDateTime now = LocalDateTime.now();
+        final Booking started = saveBooking(BookingStatus.WAITING, now.minusHours(1));
+        final Booking future = saveBooking(BookingStatus.WAITING, now.plusDays(1));
+        final Booking approved = saveBooking(BookingStatus.APPROVED, now.minusHours(1));
+
+        final int expired = bookingExpiryService.expire(List.of(started.getId(), future.getId(), approved.getId()), now);
+
+        assertEquals(1, expired);
+        assertEquals(BookingStatus.EXPIRED, getStatus(started));
+        assertEquals(BookingStatus.WAITING, getStatus(future));
+        assertEquals(BookingStatus.APPROVED, getStatus(approved));
+
+        final List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertEquals(1, events.size());
+        assertEquals(OutboxEventType.BOOKING_EXPIRED, events.get(0).getEventType());
+        assertEquals(started.getId(), events.get(0).getAggregateId());
+    }
+
+    @Test
+    public void expireStarted_whenManyStarted_thenExpireInBatches() {
+        final LocalDateTime now = LocalDateTime.now();
+        final List<Long> startedIds = List.of(
+                saveBooking(BookingStatus.WAITING, now.minusDays(2)).getId(),
+                saveBooking(BookingStatus.WAITING, now.minusDays(1)).getId(),
+                saveBooking(BookingStatus.WAITING, now.minusMinutes(1)).getId());
+        final Booking future = saveBooking(BookingStatus.WAITING, now.plusHours(1));
+
+        assertEquals(2, bookingExpiryService.expireStarted(now, 2));
+        assertEquals(1, bookingExpiryService.expireStarted(now, 2));
+        assertEquals(0, bookingExpiryService.expireStarted(now, 2));
+
+        final List<Long> expiredIds = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.EXPIRED)
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        assertThat(expiredIds).containsExactlyInAnyOrderElementsOf(startedIds);
+        assertEquals(BookingStatus.WAITING, getStatus(future));
+        assertEquals(3, outboxEventRepository.findAll().size());
+    }
+
+    private BookingStatus getStatus(Booking booking) {
+        return bookingRepository.findById(booking.getId()).orElseThrow().getStatus();
+    }
+
+    private Booking saveBooking(BookingStatus status, LocalDateTime start) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .start(start)
+                .end(start.plusDays(3))
+                .build());
+    }
+
+    @AfterEach
+    public void clean() {
+        outboxEventRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
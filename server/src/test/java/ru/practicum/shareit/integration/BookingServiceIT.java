@@ -9,8 +9,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDecisionOutcome;
 import ru.practicum.shareit.booking.model.BookingStateForSearch;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -24,6 +26,8 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -270,6 +274,104 @@ public class BookingServiceIT {
         assertThat(userBookings).isSortedAccordingTo(Comparator.comparing(BookingDto::getStart, LocalDateTime::compareTo).reversed());
     }
 
+    @Test
+    public void approveAll_whenOverlappingBookings_thenApproveInStartOrder() {
+        val start = LocalDateTime.now().withNano(0).plusDays(10);
+
+        val approvedBefore = bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .start(start)
+                .end(start.plusDays(2))
+                .build());
+        val overlapsApproved = bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .start(start.plusDays(1))
+                .end(start.plusDays(3))
+                .build());
+        val second = bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .start(start.plusDays(6))
+                .end(start.plusDays(8))
+                .build());
+        val first = bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .start(start.plusDays(5))
+                .end(start.plusDays(7))
+                .build());
+
+        val ids = List.of(second.getId(), first.getId(), overlapsApproved.getId(), approvedBefore.getId());
+        val results = bookingService.approveAll(ids, owner.getId(), true);
+
+        assertEquals(List.of(
+                new BookingDecisionResultDto(second.getId(), BookingDecisionOutcome.OVERLAPS, BookingStatus.WAITING),
+                new BookingDecisionResultDto(first.getId(), BookingDecisionOutcome.UPDATED, BookingStatus.APPROVED),
+                new BookingDecisionResultDto(overlapsApproved.getId(), BookingDecisionOutcome.OVERLAPS, BookingStatus.WAITING),
+                new BookingDecisionResultDto(approvedBefore.getId(), BookingDecisionOutcome.NOT_WAITING, BookingStatus.APPROVED)), results);
+
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(first.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(second.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void approveAll_whenNotOwner_thenNothingChanged() {
+        val booking = bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build());
+
+        val results = bookingService.approveAll(List.of(booking.getId()), booker.getId(), false);
+
+        assertEquals(List.of(new BookingDecisionResultDto(booking.getId(), BookingDecisionOutcome.NOT_FOUND, null)), results);
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void getBookings_whenSomeNotAccessible_thenReturnAccessibleInRequestOrder() {
+        val stranger = userRepository.save(User.builder()
+                .name("stranger")
+                .email("stranger@email.com")
+                .build());
+        val start = LocalDateTime.now().plusDays(1);
+        val bookerBooking = saveBooking(booker, start);
+        val strangerBooking = saveBooking(stranger, start.plusDays(3));
+        val notExistedBookingId = strangerBooking.getId() + 100;
+        val requestedIds = List.of(strangerBooking.getId(), notExistedBookingId, bookerBooking.getId());
+
+        val ownerBookings = bookingService.getBookings(requestedIds, owner.getId());
+        assertEquals(List.of(strangerBooking.getId(), bookerBooking.getId()),
+                ownerBookings.stream().map(BookingDto::getId).collect(Collectors.toList()));
+        assertEquals(item.getId(), ownerBookings.get(0).getItem().getId());
+        assertEquals(stranger.getId(), ownerBookings.get(0).getBooker().getId());
+
+        val bookerBookings = bookingService.getBookings(requestedIds, booker.getId());
+        assertEquals(List.of(bookerBooking.getId()),
+                bookerBookings.stream().map(BookingDto::getId).collect(Collectors.toList()));
+
+        val notExistedUserId = stranger.getId() + 100;
+        assertThrows(NotFoundException.class, () -> bookingService.getBookings(requestedIds, notExistedUserId));
+    }
+
+    private Booking saveBooking(User bookingAuthor, LocalDateTime start) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(bookingAuthor)
+                .status(BookingStatus.WAITING)
+                .start(start)
+                .end(start.plusDays(1))
+                .build());
+    }
+
     // Множество других проверок уже есть в тестах для репозитория.
 
     @AfterEach
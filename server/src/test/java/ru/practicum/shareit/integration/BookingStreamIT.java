@@ -0,0 +1,230 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.util.StringUtils;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingStreamServiceImpl;
+import ru.practicum.shareit.common.outbox.OutboxEvent;
+import ru.practicum.shareit.common.outbox.OutboxEventMessage;
+import ru.practicum.shareit.common.outbox.OutboxEventRepository;
+import ru.practicum.shareit.common.outbox.OutboxService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static ru.practicum.shareit.common.ConstantParamStorage.LAST_EVENT_ID_HEADER;
+import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
+
+@SpringBootTest(properties = {
+        "shareit.bookings.stream.replay-buffer-size=2",
+        "shareit.bookings.stream.max-connections-per-user=1"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BookingStreamIT {
+    private final MockMvc mockMvc;
+    private final BookingService bookingService;
+    private final BookingStreamServiceImpl bookingStreamService;
+    private final OutboxService outboxService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private User stranger;
+    private Item item;
+
+    @BeforeEach
+    public void init() {
+        outboxEventRepository.deleteAll();
+
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@email.com")
+                .build());
+        stranger = userRepository.save(User.builder()
+                .name("stranger")
+                .email("stranger@email.com")
+                .build());
+
+        item = itemRepository.save(Item.builder()
+                .owner(owner)
+                .name("item")
+                .description("desc")
+                .isAvailable(true)
+                .build());
+    }
+
+    @SneakyThrows
+    @Test
+    public void stream_whenBookingCreatedAndApproved_thenPushToOwnerAndBooker() {
+        final MvcResult ownerStream = subscribe(owner.getId(), null);
+        final MvcResult bookerStream = subscribe(booker.getId(), null);
+        final MvcResult strangerStream = subscribe(stranger.getId(), null);
+
+        final Long bookingId = createBooking(1).getId();
+        bookingService.approve(bookingId, owner.getId(), false);
+        outboxService.relayBatch(10);
+
+        final List<Long> eventIds = getEventIds();
+        for (MvcResult stream : List.of(ownerStream, bookerStream)) {
+            // Подписчикам события отправляются асинхронно, после доставки outbox.
+            final String content = awaitContent(stream, "id:" + eventIds.get(1) + "\n");
+            assertThat(content).contains("id:" + eventIds.get(0) + "\nevent:BOOKING_CREATED\n");
+            assertThat(content).contains("id:" + eventIds.get(1) + "\nevent:BOOKING_REJECTED\n");
+            assertThat(content).contains("\"bookingId\":" + bookingId);
+        }
+        assertThat(strangerStream.getResponse().getContentAsString()).doesNotContain("BOOKING_");
+    }
+
+    @SneakyThrows
+    @Test
+    public void stream_whenReconnectWithLastEventId_thenReplayMissedEvents() {
+        createBooking(1);
+        createBooking(2);
+        outboxService.relayBatch(10);
+        final List<Long> eventIds = getEventIds();
+
+        final String content = awaitContent(subscribe(booker.getId(), eventIds.get(0)), "id:" + eventIds.get(1) + "\n");
+
+        assertThat(content).doesNotContain("id:" + eventIds.get(0) + "\n");
+        assertThat(content).contains("id:" + eventIds.get(1) + "\nevent:BOOKING_CREATED\n");
+    }
+
+    @SneakyThrows
+    @Test
+    public void stream_whenLastEventIdOutOfBuffer_thenSendReset() {
+        createBooking(1);
+        createBooking(2);
+        createBooking(3);
+        outboxService.relayBatch(10);
+        final List<Long> eventIds = getEventIds();
+
+        final String content = awaitContent(subscribe(owner.getId(), eventIds.get(0) - 1), "id:" + eventIds.get(2) + "\n");
+
+        assertThat(content).contains("id:" + eventIds.get(0) + "\nevent:" + BookingStreamServiceImpl.RESET_EVENT_NAME + "\n");
+        assertThat(content).contains("id:" + eventIds.get(1) + "\n");
+        assertThat(content).contains("id:" + eventIds.get(2) + "\n");
+    }
+
+    @SneakyThrows
+    @Test
+    public void stream_whenLowerIdArrivesLater_thenDeliverOnceAndReplayInArrivalOrder() {
+        createBooking(1);
+        outboxService.relayBatch(10);
+        final OutboxEvent created = outboxEventRepository.findAll().get(0);
+        // id выше выдаваемых последовательностью: не совпадут с событиями других тестов.
+        final long laterId = Long.MAX_VALUE - 1;
+        final long lowerId = Long.MAX_VALUE - 2;
+        final MvcResult ownerStream = subscribe(owner.getId(), null);
+
+        bookingStreamService.onOutboxEvent(copyWithId(created, laterId));
+        bookingStreamService.onOutboxEvent(copyWithId(created, lowerId));
+        bookingStreamService.onOutboxEvent(copyWithId(created, laterId));
+
+        final String content = awaitContent(ownerStream, "id:" + lowerId + "\n");
+        assertThat(content).contains("id:" + lowerId + "\n");
+        assertEquals(1, StringUtils.countOccurrencesOf(content, "id:" + laterId + "\n"));
+
+        final String replayed = awaitContent(subscribe(booker.getId(), laterId), "id:" + lowerId + "\n");
+        assertThat(replayed).contains("id:" + lowerId + "\n");
+        assertThat(replayed).doesNotContain("id:" + laterId + "\n");
+        assertThat(replayed).doesNotContain(BookingStreamServiceImpl.RESET_EVENT_NAME);
+    }
+
+    @SneakyThrows
+    @Test
+    public void stream_whenTooManyUserConnections_thenCloseOldest() {
+        final int connectionsBefore = bookingStreamService.getConnectionCount();
+
+        subscribe(owner.getId(), null);
+        subscribe(owner.getId(), null);
+
+        assertEquals(connectionsBefore + 1, bookingStreamService.getConnectionCount());
+    }
+
+    @SneakyThrows
+    private MvcResult subscribe(long userId, Long lastEventId) {
+        final MockHttpServletRequestBuilder requestBuilder = get("/bookings/stream")
+                .header(USER_ID_REQUEST_HEADER, userId)
+                .accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            requestBuilder.header(LAST_EVENT_ID_HEADER, lastEventId);
+        }
+
+        return mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    @SneakyThrows
+    private String awaitContent(MvcResult stream, String expected) {
+        final long deadline = System.currentTimeMillis() + 5000;
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = stream.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    private BookingDto createBooking(int daysFromNow) {
+        final LocalDateTime start = LocalDateTime.now().plusDays(daysFromNow);
+        return bookingService.create(BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusHours(1))
+                .build(), booker.getId());
+    }
+
+    private OutboxEventMessage copyWithId(OutboxEvent event, long id) {
+        return new OutboxEventMessage(id, event.getAggregateType(), event.getAggregateId(), event.getEventType(),
+                event.getPayload(), event.getCreated());
+    }
+
+    private List<Long> getEventIds() {
+        return outboxEventRepository.findAll().stream()
+                .map(OutboxEvent::getId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @AfterEach
+    public void clean() {
+        outboxEventRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.outbox.OutboxEventRepository;
+import ru.practicum.shareit.dashboard.dto.DashboardDto;
+import ru.practicum.shareit.dashboard.service.DashboardService;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.dto.ItemWithAdditionalDataDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "shareit.dashboard.items-limit=2",
+        "shareit.dashboard.bookings-limit=2",
+        "shareit.dashboard.waiting-owner-bookings-limit=2",
+        "shareit.dashboard.requests-limit=2"
+})
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class DashboardServiceIT {
+    private final DashboardService dashboardService;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserRepository userRepository;
+    private final OutboxEventRepository outboxEventRepository;
+
+    private User owner;
+    private User booker;
+    private final List<Long> itemIds = new ArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@email.com")
+                .build());
+
+        for (int i = 0; i < 3; i++) {
+            itemIds.add(itemService.create(ItemCreateDto.builder()
+                    .name("item" + i)
+                    .description("desc")
+                    .isAvailable(true)
+                    .build(), owner.getId()));
+        }
+    }
+
+    @Test
+    public void getDashboard_whenOwner_thenSectionsLimited() {
+        final LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            createBooking(itemIds.get(i), now.plusDays(i + 1), BookingStatus.WAITING);
+        }
+        createBooking(itemIds.get(0), now.minusDays(2), BookingStatus.APPROVED);
+        for (int i = 0; i < 3; i++) {
+            itemRequestService.create(ItemRequestCreateDto.builder()
+                    .description("need item " + i)
+                    .build(), owner.getId());
+        }
+
+        final DashboardDto dashboard = dashboardService.getDashboard(owner.getId());
+
+        assertEquals(itemIds.subList(0, 2), dashboard.getItems().stream()
+                .map(ItemWithAdditionalDataDto::getId)
+                .collect(Collectors.toList()));
+        assertTrue(dashboard.getBookings().isEmpty());
+        assertEquals(2, dashboard.getWaitingOwnerBookings().size());
+        assertTrue(dashboard.getWaitingOwnerBookings().stream()
+                .allMatch(booking -> booking.getStatus() == BookingStatus.WAITING));
+        assertEquals(2, dashboard.getRequests().size());
+    }
+
+    @Test
+    public void getDashboard_whenBooker_thenOwnBookings() {
+        final LocalDateTime now = LocalDateTime.now();
+        final long bookingId = createBooking(itemIds.get(0), now.plusDays(1), BookingStatus.WAITING).getId();
+
+        final DashboardDto dashboard = dashboardService.getDashboard(booker.getId());
+
+        assertTrue(dashboard.getItems().isEmpty());
+        assertEquals(List.of(bookingId), dashboard.getBookings().stream()
+                .map(BookingDto::getId)
+                .collect(Collectors.toList()));
+        assertTrue(dashboard.getWaitingOwnerBookings().isEmpty());
+        assertTrue(dashboard.getRequests().isEmpty());
+    }
+
+    @Test
+    public void getDashboard_whenUserNotExists_thenThrowUserNotFoundException() {
+        final long unknownUserId = booker.getId() + 100;
+
+        assertThrows(UserNotFoundException.class, () -> dashboardService.getDashboard(unknownUserId));
+    }
+
+    private Booking createBooking(long itemId, LocalDateTime start, BookingStatus status) {
+        final Item item = itemRepository.findById(itemId).orElseThrow();
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .start(start)
+                .end(start.plusDays(1))
+                .build());
+    }
+
+    @AfterEach
+    public void clean() {
+        outboxEventRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,345 @@
+package ru.practicum.shareit.integration;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.jdbc.JdbcStatementListener;
+import ru.practicum.shareit.common.jdbc.StatementExecution;
+import ru.practicum.shareit.common.outbox.OutboxEventRepository;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
+
+// Бюджеты эндпоинтов на заполненных данных: число SQL-запросов на один HTTP-запрос и p95 времени ответа.
+// Запросы считаются наблюдателем ObservedDataSource (все соединения, в том числе этапов параллельного чтения).
+// Данных больше размера страницы, поэтому N+1 (запрос на каждую запись списка) превышает любой бюджет списка.
+// У каждого GET-эндпоинта должен быть бюджет: новый эндпоинт без бюджета тоже роняет сборку.
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@Slf4j
+public class EndpointBudgetIT {
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 30;
+    private static final int ITEM_COUNT = 25;
+    private static final int BOOKER_COUNT = 20;
+    private static final int REQUEST_COUNT = 40;
+    private static final String PAGE = "from=0&size=20";
+    // Эндпоинты без бюджета: долгоживущий поток событий (SSE).
+    private static final Set<String> UNBUDGETED_ENDPOINTS = Set.of("BookingController#streamBookingEvents");
+
+    private final MockMvc mockMvc;
+    private final StatementCounter statementCounter;
+    private final RequestMappingHandlerMapping requestMappingHandlerMapping;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final CommentRepository commentRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserRepository userRepository;
+
+    private User owner;
+    private final List<User> bookers = new ArrayList<>();
+    private final List<Long> itemIds = new ArrayList<>();
+    private final List<Long> bookingIds = new ArrayList<>();
+    private final List<Long> requestIds = new ArrayList<>();
+
+    // Владелец с ITEM_COUNT вещами; у каждой вещи прошлое бронирование и комментарий разных пользователей
+    // и будущее бронирование первого пользователя. Половина запросов вещей - первого пользователя, остальные - разных,
+    // на каждый запрос ответили вещью другого владельца.
+    @BeforeAll
+    public void seed() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+        final User responder = userRepository.save(User.builder()
+                .name("responder")
+                .email("responder@email.com")
+                .build());
+        for (int i = 0; i < BOOKER_COUNT; i++) {
+            bookers.add(userRepository.save(User.builder()
+                    .name("booker" + i)
+                    .email("booker" + i + "@email.com")
+                    .build()));
+        }
+
+        final LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            final long itemId = itemService.create(ItemCreateDto.builder()
+                    .name("item" + i)
+                    .description("searchable item " + i)
+                    .isAvailable(true)
+                    .build(), owner.getId());
+            itemIds.add(itemId);
+
+            final Item item = itemRepository.findById(itemId).orElseThrow();
+            final User pastBooker = bookers.get(i % BOOKER_COUNT);
+            bookingIds.add(saveBooking(item, pastBooker, now.minusDays(10 + i), BookingStatus.APPROVED).getId());
+            bookingIds.add(saveBooking(item, bookers.get(0), now.plusDays(1 + i), BookingStatus.WAITING).getId());
+            commentRepository.save(Comment.builder()
+                    .item(item)
+                    .author(pastBooker)
+                    .text("comment " + i)
+                    .created(now.minusDays(1))
+                    .build());
+        }
+
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            final Long requestId = itemRequestService.create(ItemRequestCreateDto.builder()
+                    .description("need item " + i)
+                    .build(), bookers.get(i % 2 == 0 ? 0 : i % BOOKER_COUNT).getId());
+            requestIds.add(requestId);
+            itemService.create(ItemCreateDto.builder()
+                    .name("answer" + i)
+                    .description("searchable answer " + i)
+                    .isAvailable(true)
+                    .requestId(requestId)
+                    .build(), responder.getId());
+        }
+    }
+
+    private List<EndpointBudget> budgets() {
+        final long ownerId = owner.getId();
+        final long bookerId = bookers.get(0).getId();
+        final long itemId = itemIds.get(0);
+        final long bookingId = bookingIds.get(0);
+        final long requestId = requestIds.get(0);
+        final String itemIdList = joinIds(itemIds.subList(0, 20));
+        final String bookingIdList = joinIds(bookingIds.subList(0, 20));
+        final String userIdList = bookers.stream().map(User::getId).map(String::valueOf).collect(Collectors.joining(","));
+
+        return List.of(
+                budget("UserController#getById", 2, 100, () -> get("/users/{id}", ownerId)),
+                budget("UserController#getByIds", 2, 100, () -> get("/users?ids=" + userIdList)),
+                budget("UserController#getAll", 2, 150, () -> get("/users")),
+                budget("UserController#update", 6, 150, () -> patch("/users/{id}", ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"owner\"}")),
+
+                budget("ItemController#getItemById", 8, 150, () -> get("/items/{id}", itemId)
+                        .header(USER_ID_REQUEST_HEADER, ownerId)),
+                budget("ItemController#getItemsByIds", 12, 200, () -> get("/items?ids=" + itemIdList)
+                        .header(USER_ID_REQUEST_HEADER, ownerId)),
+                budget("ItemController#getAllOwnerItems", 12, 200, () -> get("/items?" + PAGE)
+                        .header(USER_ID_REQUEST_HEADER, ownerId)),
+                budget("ItemController#getAllOwnerItemsFields", 4, 150, () -> get("/items?fields=id,name&" + PAGE)
+                        .header(USER_ID_REQUEST_HEADER, ownerId)),
+                budget("ItemController#searchItems", 6, 150, () -> get("/items/search?text=searchable&" + PAGE)
+                        .header(USER_ID_REQUEST_HEADER, bookerId)),
+                budget("ItemController#searchItemsFields", 6, 150, () -> get("/items/search?text=searchable&fields=id,name&" + PAGE)
+                        .header(USER_ID_REQUEST_HEADER, bookerId)),
+                budget("ItemController#getChanges", 6, 150, () -> get("/items/changes")
+                        .header(USER_ID_REQUEST_HEADER, ownerId)),
+                budget("ItemController#update", 12, 200, () -> patch("/items/{id}", itemId)
+                        .header(USER_ID_REQUEST_HEADER, ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"item0\"}")),
+
+                budget("BookingController#getBooking", 4, 100, () -> get("/bookings/{id}", bookingId)
+                        .header(USER_ID_REQUEST_HEADER, ownerId)),
+                budget("BookingController#getBookingsByIds", 6, 150, () -> get("/bookings?ids=" + bookingIdList)
+                        .header(USER_ID_REQUEST_HEADER, ownerId)),
+                budget("BookingController#getUserBookingsByState", 6, 150, () -> get("/bookings?state=ALL&" + PAGE)
+                        .header(USER_ID_REQUEST_HEADER, bookerId)),
+                budget("BookingController#getUserBookingsByStateNormalized", 6, 150, () -> get("/bookings?view=normalized&state=ALL&" + PAGE)
+                        .header(USER_ID_REQUEST_HEADER, bookerId)),
+                budget("BookingController#getUserBookingsByStateFields", 6, 150, () -> get("/bookings?fields=id,status&state=ALL&" + PAGE)
+                        .header(USER_ID_REQUEST_HEADER, bookerId)),
+                budget("BookingController#getBookingsByItemOwner", 6, 150, () -> get("/bookings/owner?state=ALL&" + PAGE)
+                        .header(USER_ID_REQUEST_HEADER, ownerId)),
+                budget("BookingController#getBookingsByItemOwnerNormalized", 6, 150, () -> get("/bookings/owner?view=normalized&state=ALL&" + PAGE)
+                        .header(USER_ID_REQUEST_HEADER, ownerId)),
+                budget("BookingController#getBookingsByItemOwnerFields", 6, 150, () -> get("/bookings/owner?fields=id,status&state=ALL&" + PAGE)
+                        .header(USER_ID_REQUEST_HEADER, ownerId)),
+                budget("BookingController#getChanges", 6, 150, () -> get("/bookings/changes")
+                        .header(USER_ID_REQUEST_HEADER, ownerId)),
+
+                budget("ItemRequestController#getAllUserItemRequests", 8, 150, () -> get("/requests")
+                        .header(USER_ID_REQUEST_HEADER, bookerId)),
+                budget("ItemRequestController#getAllUserItemRequestsNormalized", 8, 150, () -> get("/requests?view=normalized")
+                        .header(USER_ID_REQUEST_HEADER, bookerId)),
+                budget("ItemRequestController#getAllItemRequests", 8, 150, () -> get("/requests/all?" + PAGE)
+                        .header(USER_ID_REQUEST_HEADER, ownerId)),
+                budget("ItemRequestController#getAllItemRequestsNormalized", 8, 150, () -> get("/requests/all?view=normalized&" + PAGE)
+                        .header(USER_ID_REQUEST_HEADER, ownerId)),
+                budget("ItemRequestController#getChanges", 8, 150, () -> get("/requests/changes")
+                        .header(USER_ID_REQUEST_HEADER, bookerId)),
+                budget("ItemRequestController#getItemRequest", 5, 100, () -> get("/requests/{id}", requestId)
+                        .header(USER_ID_REQUEST_HEADER, bookerId)),
+
+                budget("DashboardController#getDashboard", 25, 300, () -> get("/me/dashboard")
+                        .header(USER_ID_REQUEST_HEADER, ownerId))
+        );
+    }
+
+    @TestFactory
+    public Stream<DynamicTest> endpoint_whenSeeded_thenWithinStatementAndLatencyBudget() {
+        return budgets().stream().map(budget -> DynamicTest.dynamicTest(budget.endpoint, () -> checkBudget(budget)));
+    }
+
+    @Test
+    public void everyGetEndpoint_hasBudget() {
+        final Set<String> budgeted = budgets().stream().map(budget -> budget.endpoint).collect(Collectors.toSet());
+        final List<String> unbudgeted = requestMappingHandlerMapping.getHandlerMethods().entrySet().stream()
+                .filter(entry -> entry.getKey().getMethodsCondition().getMethods().contains(RequestMethod.GET))
+                .map(entry -> endpointName(entry.getValue()))
+                .filter(endpoint -> endpoint.startsWith("ru.practicum.shareit."))
+                .map(endpoint -> endpoint.substring(endpoint.lastIndexOf('.') + 1))
+                .filter(endpoint -> !budgeted.contains(endpoint) && !UNBUDGETED_ENDPOINTS.contains(endpoint))
+                .sorted()
+                .collect(Collectors.toList());
+
+        assertTrue(unbudgeted.isEmpty(), String.format("Эндпоинты без бюджета: %s", unbudgeted));
+    }
+
+    private void checkBudget(EndpointBudget budget) throws Exception {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            perform(budget);
+        }
+
+        final List<Long> statementCounts = new ArrayList<>();
+        final List<Long> durations = new ArrayList<>();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            final long statementsBefore = statementCounter.getStatementCount();
+            final long startNanos = System.nanoTime();
+            perform(budget);
+            durations.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+            statementCounts.add(statementCounter.getStatementCount() - statementsBefore);
+        }
+
+        final long maxStatements = Collections.max(statementCounts);
+        final double p95Ms = percentile(durations, 0.95) / 1000.0;
+        log.info(String.format("%s: SQL-запросов %s (бюджет %s), p95 %.1f мс (бюджет %s мс)",
+                budget.endpoint, maxStatements, budget.maxStatements, p95Ms, budget.p95Ms));
+
+        assertTrue(maxStatements <= budget.maxStatements, String.format("%s: %s SQL-запросов на запрос, бюджет %s",
+                budget.endpoint, maxStatements, budget.maxStatements));
+        assertTrue(p95Ms <= budget.p95Ms, String.format("%s: p95 %.1f мс, бюджет %s мс",
+                budget.endpoint, p95Ms, budget.p95Ms));
+    }
+
+    // Запрос должен обработаться успешно и именно тем методом контроллера, для которого задан бюджет.
+    private void perform(EndpointBudget budget) throws Exception {
+        final MvcResult result = mockMvc.perform(budget.request.get()).andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), budget.endpoint);
+        final String endpoint = endpointName((HandlerMethod) result.getHandler());
+        assertTrue(endpoint.endsWith("." + budget.endpoint), String.format("%s обработан %s", budget.endpoint, endpoint));
+    }
+
+    private static String endpointName(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getName() + "#" + handlerMethod.getMethod().getName();
+    }
+
+    private static long percentile(List<Long> durations, double percentile) {
+        final List<Long> sorted = new ArrayList<>(durations);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(percentile * sorted.size()) - 1);
+    }
+
+    private static String joinIds(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static EndpointBudget budget(String endpoint, int maxStatements, long p95Ms, Supplier<MockHttpServletRequestBuilder> request) {
+        return new EndpointBudget(endpoint, maxStatements, p95Ms, request);
+    }
+
+    private Booking saveBooking(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .start(start)
+                .end(start.plusDays(1))
+                .build());
+    }
+
+    @AfterAll
+    public void clean() {
+        outboxEventRepository.deleteAll();
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @AllArgsConstructor
+    private static class EndpointBudget {
+        private final String endpoint; // Контроллер#метод
+        private final int maxStatements;
+        private final long p95Ms;
+        private final Supplier<MockHttpServletRequestBuilder> request;
+    }
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+        @Bean
+        StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+    }
+
+    // Считает выполненные SQL-запросы: ObservedDataSource сообщает о каждом запросе всех соединений приложения.
+    static class StatementCounter implements JdbcStatementListener {
+        private final AtomicLong statementCount = new AtomicLong();
+
+        @Override
+        public void afterExecute(StatementExecution execution) {
+            statementCount.incrementAndGet();
+        }
+
+        long getStatementCount() {
+            return statementCount.get();
+        }
+    }
+}
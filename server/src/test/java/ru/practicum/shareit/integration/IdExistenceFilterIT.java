@@ -0,0 +1,114 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.common.bloom.IdExistenceFilters;
+import ru.practicum.shareit.item.exception.ItemNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.DaoItem;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.DaoUser;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class IdExistenceFilterIT {
+    private final IdExistenceFilters idExistenceFilters;
+    private final DaoUser daoUser;
+    private final DaoItem daoItem;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void checkUserExists_whenUserSavedThroughJpa_thenFilterPassesIt() {
+        assertTrue(idExistenceFilters.users().isReady());
+        final User user = userRepository.save(User.builder()
+                .name("user")
+                .email("user@email.com")
+                .build());
+
+        assertTrue(idExistenceFilters.users().mightExist(user.getId()));
+        assertDoesNotThrow(() -> daoUser.checkUserExists(user.getId()));
+    }
+
+    @Test
+    public void checkUserExists_whenUserNotExists_thenThrowExceptionAndCountCheck() {
+        final long checksBefore = idExistenceFilters.users().getDefiniteMisses() + idExistenceFilters.users().getPassed();
+
+        assertThrows(UserNotFoundException.class, () -> daoUser.checkUserExists(Long.MAX_VALUE));
+
+        assertEquals(checksBefore + 1, idExistenceFilters.users().getDefiniteMisses() + idExistenceFilters.users().getPassed());
+    }
+
+    // Пользователь, созданный в обход JPA (как другим экземпляром server), до следующего чтения фильтра находится через БД.
+    @Test
+    public void checkUserExists_whenUserInsertedBypassingJpa_thenFoundAboveScannedIds() {
+        idExistenceFilters.rebuild();
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES (?, ?)", "other", "other@email.com");
+        final long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, "other@email.com");
+
+        assertTrue(userId > idExistenceFilters.users().getScannedUpToId());
+        assertTrue(idExistenceFilters.users().mightExist(userId));
+        assertDoesNotThrow(() -> daoUser.checkUserExists(userId));
+
+        idExistenceFilters.refresh();
+        assertEquals(userId, idExistenceFilters.users().getScannedUpToId());
+    }
+
+    // Запись с id ниже прочитанных могла зафиксироваться позже чтения (в пределах lookback-ids): фильтр ее не отсекает.
+    @Test
+    public void mightExist_whenIdMissingWithinLookback_thenCheckedInDb() {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES (?, ?)", "late", "late@email.com");
+        final long lateId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, "late@email.com");
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES (?, ?)", "other", "other@email.com");
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", lateId);
+        idExistenceFilters.rebuild();
+        assertTrue(lateId < idExistenceFilters.users().getScannedUpToId());
+
+        final long passedBefore = idExistenceFilters.users().getPassed();
+        final long definiteMissesBefore = idExistenceFilters.users().getDefiniteMisses();
+        assertTrue(idExistenceFilters.users().mightExist(lateId));
+
+        assertEquals(passedBefore + 1, idExistenceFilters.users().getPassed());
+        assertEquals(definiteMissesBefore, idExistenceFilters.users().getDefiniteMisses());
+    }
+
+    @Test
+    public void checkItemExists_whenItemSavedThroughJpaAndAfterRebuild_thenFilterPassesIt() {
+        final User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+        final Item item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("desc")
+                .isAvailable(true)
+                .owner(owner)
+                .build());
+
+        assertDoesNotThrow(() -> daoItem.checkItemExists(item.getId()));
+
+        idExistenceFilters.rebuild();
+
+        assertTrue(idExistenceFilters.items().mightExist(item.getId()));
+        assertTrue(idExistenceFilters.users().mightExist(owner.getId()));
+        assertThrows(ItemNotFoundException.class, () -> daoItem.checkItemExists(Long.MAX_VALUE));
+    }
+
+    @AfterEach
+    public void clean() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
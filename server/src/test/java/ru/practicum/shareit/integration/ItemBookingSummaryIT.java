@@ -0,0 +1,180 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.outbox.OutboxEventRepository;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.dto.ItemWithAdditionalDataDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ItemBookingSummaryIT {
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemBookingSummaryRepository itemBookingSummaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final OutboxEventRepository outboxEventRepository;
+
+    private User owner;
+    private User booker;
+    private long itemId;
+
+    @BeforeEach
+    public void init() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@email.com")
+                .build());
+
+        itemId = itemService.create(ItemCreateDto.builder()
+                .name("item")
+                .description("desc")
+                .isAvailable(true)
+                .build(), owner.getId());
+    }
+
+    @Test
+    public void create_thenEmptySummary() {
+        final ItemBookingSummary summary = itemBookingSummaryRepository.findById(itemId).orElseThrow();
+
+        assertNull(summary.getLastBookingId());
+        assertNull(summary.getNextBookingId());
+        assertEquals(0, summary.getApprovedCount());
+    }
+
+    @Test
+    public void approve_thenSummaryUpdatedAndServedToOwner() {
+        final LocalDateTime now = LocalDateTime.now();
+        final long pastId = createBooking(now.minusDays(3)).getId();
+        final long farId = createBooking(now.plusDays(10)).getId();
+        final long nearId = createBooking(now.plusDays(2)).getId();
+        final long rejectedId = createBooking(now.plusDays(5)).getId();
+
+        bookingService.approve(farId, owner.getId(), true);
+        bookingService.approve(pastId, owner.getId(), true);
+        bookingService.approveAll(List.of(nearId), owner.getId(), true);
+        bookingService.approve(rejectedId, owner.getId(), false);
+
+        final ItemBookingSummary summary = itemBookingSummaryRepository.findById(itemId).orElseThrow();
+        assertEquals(pastId, summary.getLastBookingId());
+        assertEquals(nearId, summary.getNextBookingId());
+        assertEquals(booker.getId(), summary.getNextBookerId());
+        assertEquals(3, summary.getApprovedCount());
+        assertEquals(1, summary.getRejectedCount());
+
+        final List<ItemWithAdditionalDataDto> items = itemService.getAllOwnerItems(owner.getId());
+        assertEquals(1, items.size());
+        assertEquals(pastId, items.get(0).getLastBooking().getId());
+        assertEquals(nearId, items.get(0).getNextBooking().getId());
+
+        final ItemWithAdditionalDataDto item = itemService.getById(itemId, owner.getId());
+        assertEquals(pastId, item.getLastBooking().getId());
+        assertEquals(nearId, item.getNextBooking().getId());
+    }
+
+    @Test
+    public void rollover_whenNextBookingStarted_thenNextBecomesLast() {
+        final LocalDateTime now = LocalDateTime.now();
+        final long nearId = createBooking(now.plusDays(1)).getId();
+        final long farId = createBooking(now.plusDays(5)).getId();
+        bookingService.approve(nearId, owner.getId(), true);
+        bookingService.approve(farId, owner.getId(), true);
+
+        final LocalDateTime later = now.plusDays(2);
+        // До пересчета устаревшая сводка при чтении заменяется расчетом по bookings.
+        assertEquals(nearId, itemBookingSummaryService.getSummary(itemId, later).getLastBookingId());
+
+        assertEquals(1, itemBookingSummaryService.rollover(later, 10));
+        assertEquals(0, itemBookingSummaryService.rollover(later, 10));
+
+        final ItemBookingSummary summary = itemBookingSummaryRepository.findById(itemId).orElseThrow();
+        assertEquals(nearId, summary.getLastBookingId());
+        assertEquals(farId, summary.getNextBookingId());
+        assertEquals(2, summary.getApprovedCount());
+    }
+
+    @Test
+    public void buildMissing_whenItemWithoutSummary_thenBuildFromBookings() {
+        final Item legacyItem = itemRepository.save(Item.builder()
+                .owner(owner)
+                .name("legacy")
+                .description("desc")
+                .isAvailable(true)
+                .build());
+        final LocalDateTime now = LocalDateTime.now();
+        final Booking lastBooking = saveBooking(legacyItem, BookingStatus.APPROVED, now.minusDays(1));
+        saveBooking(legacyItem, BookingStatus.REJECTED, now.plusDays(1));
+
+        // Без сводки данные о бронированиях считаются по bookings.
+        final ItemWithAdditionalDataDto item = itemService.getById(legacyItem.getId(), owner.getId());
+        assertEquals(lastBooking.getId(), item.getLastBooking().getId());
+        assertNull(item.getNextBooking());
+
+        assertEquals(List.of(legacyItem.getId()), itemBookingSummaryService.buildMissing(itemId, 10));
+
+        final ItemBookingSummary summary = itemBookingSummaryRepository.findById(legacyItem.getId()).orElseThrow();
+        assertEquals(lastBooking.getId(), summary.getLastBookingId());
+        assertNull(summary.getNextBookingId());
+        assertEquals(1, summary.getApprovedCount());
+        assertEquals(1, summary.getRejectedCount());
+    }
+
+    private Booking createBooking(LocalDateTime start) {
+        final long bookingId = bookingService.create(BookingCreateDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusHours(12))
+                .build(), booker.getId()).getId();
+        return bookingRepository.findById(bookingId).orElseThrow();
+    }
+
+    private Booking saveBooking(Item item, BookingStatus status, LocalDateTime start) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .start(start)
+                .end(start.plusHours(12))
+                .build());
+    }
+
+    @AfterEach
+    public void clean() {
+        outboxEventRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,229 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.ParallelReadExecutor;
+import ru.practicum.shareit.common.outbox.OutboxEventRepository;
+import ru.practicum.shareit.common.outbox.OutboxService;
+import ru.practicum.shareit.common.sync.ChangeFeedReader;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.dto.ItemWithAdditionalDataDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.DaoItem;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.DaoUser;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Замер getById под нагрузкой: параллельные чтения (бин сервиса) против последовательных (тот же сервис с inline-исполнителем).
+// Задержка сети до БД имитируется паузой перед каждым SQL-запросом.
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.integration.ItemReadFanOutIT$LatencyStatementInspector",
+        "spring.datasource.hikari.maximum-pool-size=20"
+})
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@Slf4j
+public class ItemReadFanOutIT {
+    private static final long STATEMENT_LATENCY_MS = 20;
+    private static final int CLIENT_COUNT = 4;
+    private static final int REQUESTS_PER_CLIENT = 15;
+
+    private final ItemService itemService;
+    private final DaoItem daoItem;
+    private final DaoUser daoUser;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final OutboxService outboxService;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ChangeFeedReader changeFeedReader;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ParallelReadExecutor parallelReadExecutor;
+
+    private User owner;
+    private long itemId;
+
+    @BeforeEach
+    public void init() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+
+        final User author = userRepository.save(User.builder()
+                .name("author")
+                .email("author@email.com")
+                .build());
+
+        itemId = itemService.create(ItemCreateDto.builder()
+                .name("item")
+                .description("desc")
+                .isAvailable(true)
+                .build(), owner.getId());
+
+        commentRepository.save(Comment.builder()
+                .item(itemRepository.findById(itemId).orElseThrow())
+                .author(author)
+                .text("comment")
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    public void getById_whenStatementsAreSlow_thenParallelReadsAreFaster() throws Exception {
+        final ItemService sequentialItemService = new ItemServiceImpl(daoItem, daoUser, bookingRepository, commentRepository,
+                itemRequestRepository, outboxService, itemBookingSummaryService, ParallelReadExecutor.inline(), changeFeedReader);
+        final TransactionTemplate readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+
+        final ItemWithAdditionalDataDto expected = itemService.getById(itemId, owner.getId());
+
+        LatencyStatementInspector.latencyMs = STATEMENT_LATENCY_MS;
+        try {
+            final List<Long> sequential = measure(() ->
+                    readOnlyTransactionTemplate.execute(status -> sequentialItemService.getById(itemId, owner.getId())), expected);
+            final List<Long> parallel = measure(() -> itemService.getById(itemId, owner.getId()), expected);
+
+            final double sequentialMean = mean(sequential);
+            final double parallelMean = mean(parallel);
+            log.info(String.format("getById, %s клиента, задержка запроса %s мс: последовательно - среднее %.1f мс, p95 %s мс; "
+                            + "параллельно - среднее %.1f мс, p95 %s мс", CLIENT_COUNT, STATEMENT_LATENCY_MS,
+                    sequentialMean, percentile(sequential, 0.95), parallelMean, percentile(parallel, 0.95)));
+
+            assertTrue(parallelMean < sequentialMean);
+        } finally {
+            LatencyStatementInspector.latencyMs = 0;
+        }
+    }
+
+    @Test
+    public void fork_whenCallerInTransaction_thenRunsInCallerThread() {
+        final Thread caller = Thread.currentThread();
+
+        // Внутри транзакции этап не берет второе соединение, а выполняется в транзакции вызывающего.
+        final Thread inTransaction = new TransactionTemplate(transactionManager).execute(status ->
+                parallelReadExecutor.join("thread", parallelReadExecutor.fork("thread", Thread::currentThread)));
+        assertSame(caller, inTransaction);
+
+        final Thread withoutTransaction = parallelReadExecutor.join("thread", parallelReadExecutor.fork("thread", Thread::currentThread));
+        assertNotSame(caller, withoutTransaction);
+    }
+
+    // Вызывающий поток не читает БД: при open-in-view он держал бы соединение до конца HTTP-запроса, пока этапы ждут своих.
+    @Test
+    public void getByIdAndGetByIds_whenCalled_thenCallerThreadRunsNoStatements() {
+        LatencyStatementInspector.statementThreads.clear();
+        LatencyStatementInspector.recordThreads = true;
+        try {
+            itemService.getById(itemId, owner.getId());
+            itemService.getByIds(List.of(itemId), owner.getId());
+        } finally {
+            LatencyStatementInspector.recordThreads = false;
+        }
+
+        assertFalse(LatencyStatementInspector.statementThreads.isEmpty());
+        assertFalse(LatencyStatementInspector.statementThreads.contains(Thread.currentThread()));
+    }
+
+    // Время каждого запроса в мс (CLIENT_COUNT клиентов одновременно), результат сверяется с ожидаемым.
+    private List<Long> measure(Supplier<ItemWithAdditionalDataDto> request, ItemWithAdditionalDataDto expected) throws Exception {
+        final ExecutorService clients = Executors.newFixedThreadPool(CLIENT_COUNT);
+        try {
+            final CountDownLatch startGate = new CountDownLatch(1);
+            final List<Future<List<Long>>> results = new ArrayList<>();
+            for (int client = 0; client < CLIENT_COUNT; client++) {
+                results.add(clients.submit(() -> {
+                    startGate.await();
+                    final List<Long> durations = new ArrayList<>();
+                    for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                        final long startNanos = System.nanoTime();
+                        final ItemWithAdditionalDataDto actual = request.get();
+                        durations.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                        assertEquals(expected, actual);
+                    }
+                    return durations;
+                }));
+            }
+            startGate.countDown();
+
+            final List<Long> durations = new ArrayList<>();
+            for (Future<List<Long>> result : results) {
+                durations.addAll(result.get(60, TimeUnit.SECONDS));
+            }
+            return durations;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static double mean(List<Long> durations) {
+        return durations.stream().mapToLong(Long::longValue).average().orElse(0);
+    }
+
+    private static long percentile(List<Long> durations, double percentile) {
+        final List<Long> sorted = new ArrayList<>(durations);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(percentile * sorted.size()) - 1);
+    }
+
+    @AfterEach
+    public void clean() {
+        outboxEventRepository.deleteAll();
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    // Пауза перед каждым SQL-запросом (имитация задержки сети до БД) и, по запросу теста, потоки, выполнявшие запросы.
+    public static class LatencyStatementInspector implements StatementInspector {
+        private static volatile long latencyMs;
+        private static volatile boolean recordThreads;
+        private static final Set<Thread> statementThreads = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public String inspect(String sql) {
+            if (recordThreads) {
+                statementThreads.add(Thread.currentThread());
+            }
+            if (latencyMs > 0) {
+                try {
+                    Thread.sleep(latencyMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return sql;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -134,6 +135,37 @@ public class ItemServiceIT {
                 .isEqualTo(commentsToItem);
     }
 
+    @Test
+    public void getByIds_whenMixedOwners_thenReturnInRequestOrderWithOwnBookingsOnly() {
+        val otherItem = itemRepository.save(Item.builder()
+                .name("Other item")
+                .description("other item desc")
+                .owner(user)
+                .isAvailable(true)
+                .build());
+        val lastBooking = bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .start(LocalDateTime.now().minusDays(3))
+                .end(LocalDateTime.now().minusDays(2))
+                .build());
+        val notExistedItemId = otherItem.getId() + 100;
+        val requestedIds = List.of(otherItem.getId(), notExistedItemId, item.getId());
+
+        val ownerItems = itemService.getByIds(requestedIds, owner.getId());
+        assertEquals(2, ownerItems.size());
+        assertEquals(otherItem.getId(), ownerItems.get(0).getId());
+        assertNull(ownerItems.get(0).getLastBooking());
+        assertEquals(item.getId(), ownerItems.get(1).getId());
+        assertEquals(lastBooking.getId(), ownerItems.get(1).getLastBooking().getId());
+        assertTrue(ownerItems.get(1).getComments().isEmpty());
+
+        val userItems = itemService.getByIds(requestedIds, booker.getId());
+        assertEquals(2, userItems.size());
+        assertNull(userItems.get(1).getLastBooking());
+    }
+
     @Test
     public void getById_whenHasBookingButNotOwner_thenReturnItem() {
         var lastBooking = Booking.builder()
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.common.job.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"shareit.jobs.max-attempts=2", "shareit.jobs.backoff-ms=0"})
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class JobQueueIT {
+    private static final String WORKER_ID = "worker-1";
+
+    private final JobService jobService;
+    private final BackgroundJobRepository backgroundJobRepository;
+    private final ObjectMapper objectMapper;
+
+    private RecordingHandler handler;
+    private JobWorkerPool pool;
+
+    @BeforeEach
+    public void init() {
+        handler = new RecordingHandler();
+        pool = new JobWorkerPool(jobService, objectMapper, List.of(handler), "test", 1, 10,
+                Duration.ofMillis(10), Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void runOnce_whenHandlerSucceeds_thenJobDone() {
+        final long jobId = jobService.enqueue(RecordingHandler.TYPE, "ok");
+
+        assertEquals(1, pool.runOnce(WORKER_ID));
+
+        final BackgroundJob job = backgroundJobRepository.findById(jobId).orElseThrow();
+        assertEquals(JobStatus.DONE, job.getStatus());
+        assertEquals(1, job.getAttempts());
+        assertNull(job.getLockedBy());
+        assertNotNull(job.getFinishedAt());
+        assertEquals(1, handler.calls.get("ok"));
+        assertEquals(0, pool.runOnce(WORKER_ID));
+    }
+
+    @Test
+    public void start_whenNoHandlers_thenPoolNotStarted() {
+        final JobWorkerPool emptyPool = new JobWorkerPool(jobService, objectMapper, List.of(), "empty", 4, 10,
+                Duration.ofMillis(10), Duration.ofMinutes(5));
+
+        emptyPool.start();
+        try {
+            assertFalse(emptyPool.isRunning());
+        } finally {
+            emptyPool.stop();
+        }
+    }
+
+    @Test
+    public void runOnce_whenNotDueYet_thenSkipJob() {
+        jobService.enqueue(RecordingHandler.TYPE, "later", LocalDateTime.now().plusHours(1));
+
+        assertEquals(0, pool.runOnce(WORKER_ID));
+        assertTrue(handler.calls.isEmpty());
+    }
+
+    @Test
+    public void runOnce_whenHandlerFails_thenRetryUntilMaxAttempts() {
+        final long jobId = jobService.enqueue(RecordingHandler.TYPE, "fail");
+
+        assertEquals(1, pool.runOnce(WORKER_ID));
+        BackgroundJob job = backgroundJobRepository.findById(jobId).orElseThrow();
+        assertEquals(JobStatus.PENDING, job.getStatus());
+        assertEquals(1, job.getAttempts());
+        assertNotNull(job.getLastError());
+
+        assertEquals(1, pool.runOnce(WORKER_ID));
+        job = backgroundJobRepository.findById(jobId).orElseThrow();
+        assertEquals(JobStatus.FAILED, job.getStatus());
+        assertEquals(2, job.getAttempts());
+
+        assertEquals(0, pool.runOnce(WORKER_ID));
+        assertEquals(2, handler.calls.get("fail"));
+    }
+
+    @Test
+    public void claim_whenLeaseExpired_thenOtherWorkerTakesJobAndStaleCompleteIgnored() throws InterruptedException {
+        final long jobId = jobService.enqueue(RecordingHandler.TYPE, "ok");
+
+        assertEquals(1, jobService.claim("crashed-worker", 10, Duration.ZERO).size());
+        Thread.sleep(10);
+
+        final List<ClaimedJob> reclaimed = jobService.claim(WORKER_ID, 10, Duration.ofMinutes(5));
+        assertEquals(1, reclaimed.size());
+        assertEquals(2, reclaimed.get(0).getAttempts());
+        assertEquals(0, jobService.claim("other-worker", 10, Duration.ofMinutes(5)).size());
+
+        assertFalse(jobService.complete(jobId, "crashed-worker"));
+        assertTrue(jobService.complete(jobId, WORKER_ID));
+        assertEquals(JobStatus.DONE, backgroundJobRepository.findById(jobId).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void runOnce_whenNoHandlerForType_thenJobFails() {
+        final long jobId = jobService.enqueue("unknown", "ok");
+
+        pool.runOnce(WORKER_ID);
+        pool.runOnce(WORKER_ID);
+
+        final BackgroundJob job = backgroundJobRepository.findById(jobId).orElseThrow();
+        assertEquals(JobStatus.FAILED, job.getStatus());
+        assertTrue(job.getLastError().contains("unknown"));
+    }
+
+    @AfterEach
+    public void clean() {
+        backgroundJobRepository.deleteAll();
+    }
+
+    static class RecordingHandler implements JobHandler<String> {
+        static final String TYPE = "test";
+
+        private final Map<String, Integer> calls = new ConcurrentHashMap<>();
+
+        @Override
+        public String getType() {
+            return TYPE;
+        }
+
+        @Override
+        public Class<String> getPayloadType() {
+            return String.class;
+        }
+
+        @Override
+        public void handle(String payload) {
+            calls.merge(payload, 1, Integer::sum);
+            if (payload.startsWith("fail")) {
+                throw new IllegalStateException("Обработчик недоступен");
+            }
+        }
+    }
+}
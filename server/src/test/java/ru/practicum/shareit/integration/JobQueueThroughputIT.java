@@ -0,0 +1,100 @@
+package ru.practicum.shareit.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.common.job.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Пропускная способность очереди задач при 1, 4 и 16 обработчиках.
+// Задача имитирует ввод-вывод (JOB_DURATION_MS), поэтому при росте числа обработчиков пропускная способность должна расти.
+// Проверяется также, что каждая задача выполнена ровно один раз.
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@Slf4j
+public class JobQueueThroughputIT {
+    private static final int JOB_COUNT = 800;
+    private static final long JOB_DURATION_MS = 5;
+    private static final int BATCH_SIZE = 10;
+
+    private final JobService jobService;
+    private final BackgroundJobRepository backgroundJobRepository;
+    private final ObjectMapper objectMapper;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, 16})
+    public void throughput(int workers) throws InterruptedException {
+        for (int i = 0; i < JOB_COUNT; i++) {
+            jobService.enqueue(SlowHandler.TYPE, i);
+        }
+
+        final SlowHandler handler = new SlowHandler();
+        final JobWorkerPool pool = new JobWorkerPool(jobService, objectMapper, List.of(handler), "benchmark", workers,
+                BATCH_SIZE, Duration.ofMillis(5), Duration.ofMinutes(5));
+
+        final long startNanos = System.nanoTime();
+        pool.start();
+        try {
+            final long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(2);
+            while (pool.getProcessedCount() < JOB_COUNT && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            pool.stop();
+        }
+        final double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        log.info(String.format("Очередь задач, обработчиков: %s, задач: %s, время: %.2f с, задач в секунду: %.0f",
+                workers, JOB_COUNT, seconds, JOB_COUNT / seconds));
+
+        assertEquals(JOB_COUNT, backgroundJobRepository.countByStatus(JobStatus.DONE));
+        assertEquals(JOB_COUNT, handler.calls.size());
+        assertTrue(handler.calls.values().stream().allMatch(count -> count == 1));
+    }
+
+    @AfterEach
+    public void clean() {
+        backgroundJobRepository.deleteAll();
+    }
+
+    static class SlowHandler implements JobHandler<Integer> {
+        static final String TYPE = "slow";
+
+        private final Map<Integer, Integer> calls = new ConcurrentHashMap<>();
+
+        @Override
+        public String getType() {
+            return TYPE;
+        }
+
+        @Override
+        public Class<Integer> getPayloadType() {
+            return Integer.class;
+        }
+
+        @Override
+        public void handle(Integer payload) {
+            calls.merge(payload, 1, Integer::sum);
+            try {
+                Thread.sleep(JOB_DURATION_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.IllegalTransactionStateException;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.outbox.*;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class OutboxServiceIT {
+    private final OutboxService outboxService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final RecordingSink recordingSink;
+    private final RecordingListener recordingListener;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+
+    @TestConfiguration
+    static class OutboxTestConfig {
+        @Bean
+        public RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+
+        @Bean
+        public RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    static class RecordingSink implements OutboxEventSink {
+        private final List<OutboxEventMessage> messages = new ArrayList<>();
+        private Long failOnEventId;
+
+        @Override
+        public void publish(OutboxEventMessage message) {
+            if (message.getId().equals(failOnEventId)) {
+                failOnEventId = null;
+                throw new IllegalStateException("Приемник недоступен");
+            }
+            messages.add(message);
+        }
+    }
+
+    static class RecordingListener {
+        private final List<OutboxEventMessage> messages = new ArrayList<>();
+
+        @EventListener
+        public void onEvent(OutboxEventMessage message) {
+            messages.add(message);
+        }
+    }
+
+    @BeforeEach
+    public void init() {
+        outboxEventRepository.deleteAll();
+        recordingSink.messages.clear();
+        recordingListener.messages.clear();
+
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@email.com")
+                .build());
+    }
+
+    @Test
+    public void relayBatch_whenBookingCreatedAndApproved_thenDeliverEventsInOrder() {
+        final BookingDto booking = createItemAndBooking();
+        bookingService.approve(booking.getId(), owner.getId(), true);
+
+        assertEquals(3, outboxService.relayBatch(10));
+        assertEquals(0, outboxService.relayBatch(10));
+
+        final List<OutboxEventType> eventTypes = recordingSink.messages.stream()
+                .map(OutboxEventMessage::getEventType)
+                .collect(Collectors.toList());
+        assertEquals(List.of(OutboxEventType.ITEM_CREATED, OutboxEventType.BOOKING_CREATED, OutboxEventType.BOOKING_APPROVED), eventTypes);
+        assertEquals(recordingSink.messages.size(), recordingListener.messages.size());
+
+        final OutboxEventMessage approved = recordingSink.messages.get(2);
+        assertEquals(OutboxAggregateType.BOOKING, approved.getAggregateType());
+        assertEquals(booking.getId(), approved.getAggregateId());
+        assertThat(approved.getPayload()).contains("\"status\":\"APPROVED\"");
+        assertThat(outboxEventRepository.findAll()).allMatch(event -> event.getPublishedAt() != null);
+    }
+
+    @Test
+    public void relayBatch_whenSinkFails_thenStopAndRedeliverLater() {
+        createItemAndBooking();
+        final List<Long> eventIds = outboxEventRepository.findAll().stream()
+                .map(OutboxEvent::getId)
+                .sorted()
+                .collect(Collectors.toList());
+        recordingSink.failOnEventId = eventIds.get(1);
+
+        assertEquals(1, outboxService.relayBatch(10));
+        assertEquals(1, outboxService.relayBatch(10));
+
+        final List<Long> deliveredIds = recordingSink.messages.stream()
+                .map(OutboxEventMessage::getId)
+                .collect(Collectors.toList());
+        assertEquals(eventIds, deliveredIds);
+        // Подписчик внутри приложения получил событие дважды: доставка "хотя бы один раз".
+        assertEquals(3, recordingListener.messages.size());
+    }
+
+    @Test
+    public void deletePublishedBefore_whenPublished_thenDeleteOnlyPublished() {
+        createItemAndBooking();
+        outboxService.relayBatch(1);
+
+        assertEquals(1, outboxService.deletePublishedBefore(LocalDateTime.now().plusMinutes(1)));
+        assertEquals(1, outboxEventRepository.count());
+    }
+
+    @Test
+    public void add_whenNoTransaction_thenThrowException() {
+        assertThrows(IllegalTransactionStateException.class, () -> outboxService.add(OutboxEventType.ITEM_UPDATED, 1L, "{}"));
+    }
+
+    private BookingDto createItemAndBooking() {
+        final ItemDto item = itemService.createAndGet(ItemCreateDto.builder()
+                .name("item")
+                .description("desc")
+                .isAvailable(true)
+                .build(), owner.getId());
+
+        return bookingService.create(BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build(), booker.getId());
+    }
+
+    @AfterEach
+    public void clean() {
+        outboxEventRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.integration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.common.outbox.OutboxEventRepository;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class RequestMetricsIT {
+    private final MockMvc mockMvc;
+    private final MeterRegistry meterRegistry;
+    private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final OutboxEventRepository outboxEventRepository;
+
+    private User owner;
+    private long itemId;
+
+    @BeforeEach
+    public void init() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+
+        itemId = itemService.create(ItemCreateDto.builder()
+                .name("item")
+                .description("desc")
+                .isAvailable(true)
+                .build(), owner.getId());
+    }
+
+    @Test
+    public void getItemById_thenSqlAndMethodTimingsRecorded() throws Exception {
+        mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header(USER_ID_REQUEST_HEADER, owner.getId()))
+                .andExpect(status().isOk());
+
+        // Запросы из параллельных этапов чтения тоже относятся к HTTP-запросу.
+        final DistributionSummary statements = meterRegistry.find("shareit.sql.statements")
+                .tag("handler", "ItemController#getItemById")
+                .summary();
+        assertNotNull(statements);
+        assertTrue(statements.count() >= 1);
+        assertTrue(statements.totalAmount() >= 2);
+
+        final DistributionSummary rows = meterRegistry.find("shareit.sql.rows")
+                .tag("handler", "ItemController#getItemById")
+                .summary();
+        assertNotNull(rows);
+        assertTrue(rows.totalAmount() >= 1);
+
+        final Timer serviceTimer = meterRegistry.find("shareit.method")
+                .tags("layer", "service", "class", "ItemServiceImpl", "method", "getById", "outcome", "success")
+                .timer();
+        assertNotNull(serviceTimer);
+        assertTrue(serviceTimer.count() >= 1);
+
+        assertNotNull(meterRegistry.find("shareit.method")
+                .tags("layer", "controller", "class", "ItemController", "method", "getItemById")
+                .timer());
+    }
+
+    @AfterEach
+    public void clean() {
+        outboxEventRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.common.slowquery.SlowQuery;
+import ru.practicum.shareit.common.slowquery.SlowQueryLog;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "shareit.slow-queries.threshold-ms=0")
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class SlowQueryLogIT {
+    private final SlowQueryLog slowQueryLog;
+    private final UserService userService;
+    private final UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    public void init() {
+        slowQueryLog.clear();
+        user = userRepository.save(User.builder()
+                .name("user")
+                .email("secret@email.com")
+                .build());
+    }
+
+    @Test
+    public void save_thenInsertLoggedWithRedactedParametersAndCaller() {
+        final SlowQuery insert = findQuery("insert into users");
+
+        assertEquals("SlowQueryLogIT.init -> UserRepository.save", insert.getCaller());
+        assertFalse(insert.getParameters().isEmpty());
+        assertTrue(insert.getParameters().stream().allMatch("'***'"::equals));
+        assertNull(insert.getPlan());
+    }
+
+    @Test
+    public void getById_thenSelectLoggedWithServiceCallerAndIdParameter() {
+        slowQueryLog.clear();
+        userService.getById(user.getId());
+
+        final SlowQuery select = findQuery("select");
+        assertTrue(select.getCaller().startsWith("UserServiceImpl.getById"));
+        assertEquals(List.of(String.valueOf(user.getId())), select.getParameters());
+    }
+
+    private SlowQuery findQuery(String sqlPrefix) {
+        return slowQueryLog.getRecent().stream()
+                .filter(query -> query.getSql().toLowerCase().stripLeading().startsWith(sqlPrefix))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @AfterEach
+    public void clean() {
+        userRepository.deleteAll();
+    }
+}
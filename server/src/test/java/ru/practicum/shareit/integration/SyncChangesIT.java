@@ -0,0 +1,166 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.ValidationException;
+import ru.practicum.shareit.common.outbox.OutboxEventRepository;
+import ru.practicum.shareit.common.sync.ChangesDto;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "shareit.sync.page-size=2")
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class SyncChangesIT {
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService itemRequestService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserRepository userRepository;
+    private final OutboxEventRepository outboxEventRepository;
+
+    private User owner;
+    private User booker;
+    private final List<Long> itemIds = new ArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@email.com")
+                .build());
+
+        for (int i = 0; i < 3; i++) {
+            itemIds.add(itemService.create(ItemCreateDto.builder()
+                    .name("item" + i)
+                    .description("desc")
+                    .isAvailable(true)
+                    .build(), owner.getId()));
+        }
+    }
+
+    @Test
+    public void getItemChanges_whenMoreThanPage_thenReturnedInPartsAndOnlyLaterChangesAfterToken() {
+        final ChangesDto<ItemDto> firstPage = itemService.getChanges(owner.getId(), null);
+        assertEquals(itemIds.subList(0, 2), getItemIds(firstPage));
+        assertTrue(firstPage.isHasMore());
+
+        final ChangesDto<ItemDto> secondPage = itemService.getChanges(owner.getId(), firstPage.getNextToken());
+        assertEquals(itemIds.subList(2, 3), getItemIds(secondPage));
+        assertFalse(secondPage.isHasMore());
+
+        final ChangesDto<ItemDto> noChanges = itemService.getChanges(owner.getId(), secondPage.getNextToken());
+        assertTrue(noChanges.getChanged().isEmpty());
+        assertFalse(noChanges.isHasMore());
+
+        itemService.update(itemIds.get(1), ItemDto.builder().name("updated").build(), owner.getId());
+
+        final ChangesDto<ItemDto> changes = itemService.getChanges(owner.getId(), noChanges.getNextToken());
+        assertEquals(List.of(itemIds.get(1)), getItemIds(changes));
+        assertEquals("updated", changes.getChanged().get(0).getName());
+        assertTrue(itemService.getChanges(booker.getId(), null).getChanged().isEmpty());
+    }
+
+    @Test
+    public void getBookingChanges_whenApproved_thenReturnedToOwnerAndBookerAgain() {
+        final Booking booking = bookingRepository.save(Booking.builder()
+                .item(itemRepository.findById(itemIds.get(0)).orElseThrow())
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build());
+
+        final ChangesDto<BookingDto> ownerChanges = bookingService.getChanges(owner.getId(), null);
+        final ChangesDto<BookingDto> bookerChanges = bookingService.getChanges(booker.getId(), null);
+        assertEquals(List.of(booking.getId()), getBookingIds(ownerChanges));
+        assertEquals(List.of(booking.getId()), getBookingIds(bookerChanges));
+
+        bookingService.approve(booking.getId(), owner.getId(), true);
+
+        final ChangesDto<BookingDto> ownerUpdates = bookingService.getChanges(owner.getId(), ownerChanges.getNextToken());
+        final ChangesDto<BookingDto> bookerUpdates = bookingService.getChanges(booker.getId(), bookerChanges.getNextToken());
+        assertEquals(List.of(booking.getId()), getBookingIds(ownerUpdates));
+        assertEquals(BookingStatus.APPROVED, ownerUpdates.getChanged().get(0).getStatus());
+        assertEquals(List.of(booking.getId()), getBookingIds(bookerUpdates));
+    }
+
+    @Test
+    public void getItemRequestChanges_whenItemAddedForRequest_thenRequestReturnedAgain() {
+        final Long requestId = itemRequestService.create(ItemRequestCreateDto.builder()
+                .description("need item")
+                .build(), booker.getId());
+
+        final ChangesDto<ItemRequestDto> changes = itemRequestService.getChanges(booker.getId(), null);
+        assertEquals(1, changes.getChanged().size());
+        assertTrue(changes.getChanged().get(0).getItemsByRequest().isEmpty());
+
+        final Long itemId = itemService.create(ItemCreateDto.builder()
+                .name("answer")
+                .description("desc")
+                .isAvailable(true)
+                .requestId(requestId)
+                .build(), owner.getId());
+
+        final ChangesDto<ItemRequestDto> updates = itemRequestService.getChanges(booker.getId(), changes.getNextToken());
+        assertEquals(1, updates.getChanged().size());
+        assertEquals(requestId, updates.getChanged().get(0).getId());
+        assertEquals(List.of(itemId), updates.getChanged().get(0).getItemsByRequest().stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void getChanges_whenTokenInvalid_thenThrowValidationException() {
+        assertThrows(ValidationException.class, () -> itemService.getChanges(owner.getId(), "not a token"));
+    }
+
+    private List<Long> getItemIds(ChangesDto<ItemDto> changes) {
+        return changes.getChanged().stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+
+    private List<Long> getBookingIds(ChangesDto<BookingDto> changes) {
+        return changes.getChanged().stream().map(BookingDto::getId).collect(Collectors.toList());
+    }
+
+    @AfterEach
+    public void clean() {
+        outboxEventRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.common.seed.SyntheticDataGenerator;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Масштаб 0.002: 20 пользователей, 40 запросов, 100 вещей, 2000 бронирований, 200 комментариев.
+@SpringBootTest(properties = {
+        "shareit.seed.scale-factor=0.002",
+        "shareit.seed.batch-size=128"
+})
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class SyntheticDataGeneratorIT {
+    private final SyntheticDataGenerator syntheticDataGenerator;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void generate_whenScaled_thenCountsMatchAndOwnersSkewed() {
+        syntheticDataGenerator.generate();
+
+        assertEquals(20, count("users"));
+        assertEquals(40, count("requests"));
+        assertEquals(100, count("items"));
+        assertEquals(2000, count("bookings"));
+        assertEquals(200, count("comments"));
+
+        assertEquals(0, countWhere("SELECT COUNT(*) FROM bookings b JOIN items i ON i.id = b.item_id "
+                + "WHERE b.user_id = i.owner_id"));
+        assertEquals(0, countWhere("SELECT COUNT(*) FROM comments c WHERE NOT EXISTS (SELECT 1 FROM bookings b "
+                + "WHERE b.item_id = c.item_id AND b.user_id = c.author_id AND b.status = 'APPROVED')"));
+
+        // Горячий владелец: вещей больше, чем у самых "холодных" владельцев вместе взятых, и бронирований у него больше всех.
+        final List<Long> itemsPerOwner = jdbcTemplate.queryForList("SELECT COUNT(*) FROM items GROUP BY owner_id "
+                + "ORDER BY COUNT(*) DESC", Long.class);
+        assertTrue(itemsPerOwner.get(0) > itemsPerOwner.get(itemsPerOwner.size() - 1) * 5);
+        final List<Long> bookingsPerOwner = jdbcTemplate.queryForList("SELECT COUNT(*) FROM bookings b JOIN items i ON i.id = b.item_id "
+                + "GROUP BY i.owner_id ORDER BY COUNT(*) DESC", Long.class);
+        assertTrue(bookingsPerOwner.get(0) * 4 > count("bookings"));
+    }
+
+    @Test
+    public void generate_whenSameSeed_thenSameData() {
+        syntheticDataGenerator.generate();
+        final List<String> firstNames = itemNames();
+        final List<Long> firstBookedItems = bookedItemNumbers();
+
+        syntheticDataGenerator.generate();
+        final List<String> names = itemNames();
+        final List<Long> bookedItems = bookedItemNumbers();
+
+        // Вторая генерация дописывает такие же строки после первой: вещи с теми же именами, бронирования тех же по счету вещей.
+        assertEquals(firstNames, names.subList(firstNames.size(), names.size()));
+        assertEquals(firstBookedItems, bookedItems.subList(firstBookedItems.size(), bookedItems.size()).stream()
+                .map(itemNumber -> itemNumber - firstNames.size())
+                .collect(Collectors.toList()));
+    }
+
+    private List<String> itemNames() {
+        return jdbcTemplate.queryForList("SELECT name FROM items ORDER BY id", String.class);
+    }
+
+    // Порядковый номер вещи каждого бронирования (от первой вещи в таблице).
+    private List<Long> bookedItemNumbers() {
+        return jdbcTemplate.queryForList("SELECT b.item_id - (SELECT MIN(id) FROM items) FROM bookings b ORDER BY b.id", Long.class);
+    }
+
+    private long count(String table) {
+        return countWhere(String.format("SELECT COUNT(*) FROM %s", table));
+    }
+
+    private long countWhere(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    @AfterEach
+    public void clean() {
+        jdbcTemplate.update("DELETE FROM comments");
+        jdbcTemplate.update("DELETE FROM bookings");
+        jdbcTemplate.update("DELETE FROM items");
+        jdbcTemplate.update("DELETE FROM requests");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.common.outbox.OutboxEventRepository;
+import ru.practicum.shareit.common.tracing.InMemorySpanExporter;
+import ru.practicum.shareit.common.tracing.Span;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.common.ConstantParamStorage.TRACEPARENT_HEADER;
+import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class TracingIT {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_SPAN_ID = "00f067aa0ba902b7";
+
+    private final MockMvc mockMvc;
+    private final InMemorySpanExporter spanExporter;
+    private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final OutboxEventRepository outboxEventRepository;
+
+    private User owner;
+    private long itemId;
+
+    @BeforeEach
+    public void init() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+
+        itemId = itemService.create(ItemCreateDto.builder()
+                .name("item")
+                .description("desc")
+                .isAvailable(true)
+                .build(), owner.getId());
+        spanExporter.clear();
+    }
+
+    @Test
+    public void getItemById_whenTraceparentSent_thenTraceContinuedThroughAllLayers() throws Exception {
+        mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header(USER_ID_REQUEST_HEADER, owner.getId())
+                        .header(TRACEPARENT_HEADER, "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TRACEPARENT_HEADER, startsWith("00-" + TRACE_ID + "-")));
+
+        final List<Span> spans = spanExporter.getSpans(TRACE_ID, Integer.MAX_VALUE);
+        final Map<String, Span> byId = spans.stream().collect(Collectors.toMap(Span::getSpanId, Function.identity()));
+        final Set<String> kinds = spans.stream().map(Span::getKind).collect(Collectors.toSet());
+        assertTrue(kinds.containsAll(Set.of("server", "controller", "service", "repository", "jdbc")));
+
+        final Span root = spans.stream().filter(span -> span.getKind().equals("server")).findFirst().orElseThrow();
+        assertEquals(PARENT_SPAN_ID, root.getParentSpanId());
+        assertEquals("GET /items/{itemId}", root.getName());
+        assertEquals("200", root.getAttributes().get("http.status"));
+
+        // Все остальные участки - потомки корневого.
+        for (Span span : spans) {
+            if (span != root) {
+                assertTrue(byId.containsKey(span.getParentSpanId()));
+            }
+        }
+        assertTrue(spans.stream().anyMatch(span -> span.getName().equals("ItemController.getItemById")));
+        assertTrue(spans.stream().anyMatch(span -> span.getName().equals("ItemServiceImpl.getById")));
+    }
+
+    @Test
+    public void getItemById_whenTraceNotSampled_thenNoSpansExported() throws Exception {
+        mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header(USER_ID_REQUEST_HEADER, owner.getId())
+                        .header(TRACEPARENT_HEADER, "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-00"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TRACEPARENT_HEADER, endsWith("-00")));
+
+        assertTrue(spanExporter.getSpans(TRACE_ID, Integer.MAX_VALUE).isEmpty());
+    }
+
+    @AfterEach
+    public void clean() {
+        outboxEventRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
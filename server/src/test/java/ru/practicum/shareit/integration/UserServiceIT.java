@@ -16,6 +16,8 @@ import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -82,6 +84,23 @@ public class UserServiceIT {
         assertEquals(1, userRepository.count());
     }
 
+    @Test
+    public void getByIds_whenSomeNotExist_thenReturnExistingInRequestOrder() {
+        val user1 = userService.createAndGet(UserCreateDto.builder()
+                .name("user 1")
+                .email("user1@email.com")
+                .build());
+        val user2 = userService.createAndGet(UserCreateDto.builder()
+                .name("user 2")
+                .email("user2@email.com")
+                .build());
+        val notExistedUserId = user2.getId() + 100;
+
+        val users = userService.getByIds(List.of(user2.getId(), notExistedUserId, user1.getId(), user2.getId()));
+
+        assertEquals(List.of(user2, user1), users);
+    }
+
     @AfterEach
     public void clean() {
         userRepository.deleteAll();
@@ -9,11 +9,15 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStateForSearch;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.OffsetBasedPageRequest;
+import ru.practicum.shareit.common.replica.ReplicaQueryExecutor;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.DaoItem;
 import ru.practicum.shareit.user.model.User;
@@ -21,16 +25,20 @@ import ru.practicum.shareit.user.repository.DaoUser;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest(includeFilters = @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = Repository.class))
+@Import(ReplicaQueryExecutor.class)
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class BookingRepositoryTest {
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final DaoUser daoUser;
     private final DaoItem daoItem;
     private TestEntityManager em;
@@ -830,6 +838,8 @@ public class BookingRepositoryTest {
             bookingList.add(booking);
         }
 
+        // При равном start порядок - по id по убыванию, т.е. обратный порядку сохранения.
+        Collections.reverse(bookingList);
         final List<Booking> bookings = bookingRepository.getUserBookingsByState(booker.getId(), BookingStateForSearch.ALL);
         assertFalse(bookings.isEmpty());
         assertEquals(bookingList.size(), bookings.size());
@@ -980,6 +990,45 @@ public class BookingRepositoryTest {
         assertEquals(expectedResult, bookings);
     }
 
+    @Test
+    public void getUserBookingsByState_whenStateIsCURRENTAndLongRunning_thenReturnStartedLongAgo() {
+        final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        Booking longRunningBooking = Booking.builder()
+                .booker(booker)
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .start(now.minusYears(2))
+                .end(now.plusDays(10))
+                .build();
+        longRunningBooking = bookingRepository.save(longRunningBooking);
+
+        Booking currentBooking = Booking.builder()
+                .booker(booker)
+                .item(item2)
+                .status(BookingStatus.APPROVED)
+                .start(now.minusDays(1))
+                .end(now.plusDays(1))
+                .build();
+        currentBooking = bookingRepository.save(currentBooking);
+
+        Booking pastLongRunningBooking = Booking.builder()
+                .booker(booker)
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .start(now.minusYears(3))
+                .end(now.minusYears(2).minusDays(1))
+                .build();
+        bookingRepository.save(pastLongRunningBooking);
+
+        assertTrue(longRunningBooking.isLongRunning());
+        assertFalse(currentBooking.isLongRunning());
+        assertEquals(List.of(currentBooking, longRunningBooking),
+                bookingRepository.getUserBookingsByState(booker.getId(), BookingStateForSearch.CURRENT));
+        assertEquals(List.of(longRunningBooking),
+                bookingRepository.getUserBookingsByState(booker.getId(), BookingStateForSearch.CURRENT, new OffsetBasedPageRequest(1, 1)));
+    }
+
     @Test
     public void getUserBookingsByState_whenStateIsPAST_thenReturnPast() {
         final LocalDateTime startPast = LocalDateTime.now().withNano(0).minusDays(10);
@@ -1037,7 +1086,8 @@ public class BookingRepositoryTest {
                 .build();
         booking2 = bookingRepository.save(booking2);
 
-        final List<Booking> expectedResult = List.of(booking1, booking2);
+        // При равном start порядок - по id по убыванию.
+        final List<Booking> expectedResult = List.of(booking2, booking1);
         final List<Booking> bookings = bookingRepository.getBookingsByItemOwner(owner.getId(), BookingStateForSearch.ALL);
 
         assertFalse(bookings.isEmpty());
@@ -1121,7 +1171,7 @@ public class BookingRepositoryTest {
                 .build();
         bookingAnotherOwner = bookingRepository.save(bookingAnotherOwner);
 
-        final List<Booking> expectedResult = List.of(bookingOwner1, bookingOwner2);
+        final List<Booking> expectedResult = List.of(bookingOwner2, bookingOwner1);
         final List<Booking> bookings = bookingRepository.getBookingsByItemOwner(owner.getId(), BookingStateForSearch.ALL);
 
         assertFalse(bookings.isEmpty());
@@ -1130,8 +1180,96 @@ public class BookingRepositoryTest {
         assertThat(bookings).doesNotContain(bookingAnotherOwner);
     }
 
+    @Test
+    public void getUserBookingsByState_whenStateIsPASTAndSomeArchived_thenReturnFromBothTables() {
+        final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        final Booking oldBooking = bookingRepository.save(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .start(now.minusYears(2))
+                .end(now.minusYears(2).plusDays(1))
+                .build());
+        final Booking recentBooking = bookingRepository.save(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .start(now.minusDays(3))
+                .end(now.minusDays(2))
+                .build());
+        bookingRepository.save(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .start(now.plusDays(3))
+                .end(now.plusDays(4))
+                .build());
+
+        archive(oldBooking);
+
+        final List<Booking> bookings = bookingRepository.getUserBookingsByState(booker.getId(), BookingStateForSearch.PAST);
+        assertEquals(List.of(recentBooking.getId(), oldBooking.getId()), toIds(bookings));
+
+        final List<Booking> secondPage = bookingRepository.getUserBookingsByState(booker.getId(), BookingStateForSearch.PAST,
+                new OffsetBasedPageRequest(1, 1));
+        assertEquals(List.of(oldBooking.getId()), toIds(secondPage));
+
+        final List<Booking> ownerBookings = bookingRepository.getBookingsByItemOwner(owner.getId(), BookingStateForSearch.PAST);
+        assertEquals(List.of(recentBooking.getId(), oldBooking.getId()), toIds(ownerBookings));
+    }
+
+    @Test
+    public void getUserBookingsByState_whenStateIsFUTUREAndSomeArchived_thenArchiveIsIgnored() {
+        final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        final Booking oldBooking = bookingRepository.save(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .start(now.minusYears(2))
+                .end(now.minusYears(2).plusDays(1))
+                .build());
+        archive(oldBooking);
+
+        assertTrue(bookingRepository.getUserBookingsByState(booker.getId(), BookingStateForSearch.FUTURE).isEmpty());
+        assertTrue(bookingRepository.getUserBookingsByState(booker.getId(), BookingStateForSearch.CURRENT).isEmpty());
+    }
+
+    @Test
+    public void lastBookingAndIsUserBookingItem_whenBookingArchived_thenReadFromArchive() {
+        final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        final Booking oldBooking = bookingRepository.save(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .start(now.minusYears(2))
+                .end(now.minusYears(2).plusDays(1))
+                .build());
+        archive(oldBooking);
+
+        assertTrue(bookingRepository.isUserBookingItem(booker.getId(), item.getId(), now));
+        assertEquals(oldBooking.getId(), bookingRepository.getLastBookingForItemById(item.getId(), now).getId());
+
+        final Map<Long, Booking> lastBookings = bookingRepository.getLastBookingForItemsByIdList(List.of(item.getId(), item2.getId()), now);
+        assertEquals(1, lastBookings.size());
+        assertEquals(oldBooking.getId(), lastBookings.get(item.getId()).getId());
+    }
+
+    private void archive(Booking booking) {
+        final List<Long> bookingIds = List.of(booking.getId());
+        archivedBookingRepository.copyFromBookings(bookingIds);
+        bookingRepository.deleteByIdIn(bookingIds);
+    }
+
+    private List<Long> toIds(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(Collectors.toList());
+    }
+
     @AfterEach
     public void clean() {
+        archivedBookingRepository.deleteAll();
         bookingRepository.deleteAll();
         daoItem.deleteAll();
         daoUser.deleteAll();
@@ -10,7 +10,9 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.common.replica.ReplicaQueryExecutor;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
@@ -27,6 +29,7 @@ import java.util.stream.Collectors;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest(includeFilters = @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = Repository.class))
+@Import(ReplicaQueryExecutor.class)
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class CommentRepositoryTest {
     private final CommentRepository commentRepository;
@@ -263,6 +266,36 @@ public class CommentRepositoryTest {
             assertEquals(comments, commentsFromRepo);
         }
 
+        @Test
+        public void findOwnerItemsComments_whenCommentsExists_thenReturnNewestFirst() {
+            final Item item = owner2Items.get(0);
+            final LocalDateTime now = LocalDateTime.now();
+
+            final Comment older = commentRepository.save(Comment.builder()
+                    .item(item)
+                    .author(commentator)
+                    .created(now.minusDays(1))
+                    .text("older comment")
+                    .build());
+            final Comment newer = commentRepository.save(Comment.builder()
+                    .item(item)
+                    .author(commentator)
+                    .created(now)
+                    .text("newer comment")
+                    .build());
+
+            final List<Long> itemIds = owner2Items.stream().map(Item::getId).collect(Collectors.toList());
+            final List<Comment> commentsFromRepo = commentRepository.findOwnerItemsComments(owner2.getId(), itemIds);
+
+            assertEquals(List.of(newer, older), commentsFromRepo);
+        }
+
+        @Test
+        public void findOwnerItemsComments_whenEmptyIdList_thenReturnEmpty() {
+            final List<Comment> commentsFromRepo = commentRepository.findOwnerItemsComments(owner1.getId(), Collections.emptyList());
+            assertTrue(commentsFromRepo.isEmpty());
+        }
+
         @AfterEach
         public void clean() {
             commentRepository.deleteAll();
@@ -10,8 +10,12 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.common.replica.ReplicaQueryExecutor;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.DaoItem;
@@ -32,6 +36,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static ru.practicum.shareit.common.Utils.createOffsetBasedPageRequest;
 
 @DataJpaTest(includeFilters = @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = Repository.class))
+@Import(ReplicaQueryExecutor.class)
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class ItemRepositoryTest {
     private final DaoItem daoItem;
@@ -92,6 +97,26 @@ public class ItemRepositoryTest {
         assertEquals(items, ownerItems);
     }
 
+    @Test
+    void findOwnerItemDtoList_whenPageable_thenReturnPageOfItemFields() {
+        final List<Item> items = new ArrayList<>();
+        for (int counter = 1; counter <= 3; counter++) {
+            items.add(daoItem.save(Item.builder()
+                    .owner(owner)
+                    .name("item " + counter)
+                    .description("Description for item " + counter)
+                    .isAvailable(counter % 2 == 0)
+                    .build()));
+        }
+
+        final List<ItemDto> ownerItems = daoItem.findOwnerItemDtoList(owner.getId(), createOffsetBasedPageRequest(1, 2));
+
+        assertEquals(2, ownerItems.size());
+        assertEquals(ItemMapper.toItemDto(items.get(1)), ownerItems.get(0));
+        assertEquals(ItemMapper.toItemDto(items.get(2)), ownerItems.get(1));
+        assertEquals(items.size(), daoItem.findOwnerItemDtoList(owner.getId(), Pageable.unpaged()).size());
+    }
+
     @Test
     void findByOwnerIdWithUnpaged_whenOneItem_thenReturnOne() {
         final Item item = createAndGetItem(owner);
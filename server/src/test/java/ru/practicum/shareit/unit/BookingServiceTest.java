@@ -3,31 +3,45 @@ package ru.practicum.shareit.unit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.exception.BookingConflictException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
 import ru.practicum.shareit.booking.model.BookingStateForSearch;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingExpiryScheduler;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.common.NotFoundException;
+import ru.practicum.shareit.common.outbox.OutboxEventType;
+import ru.practicum.shareit.common.outbox.OutboxService;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
 import ru.practicum.shareit.item.repository.DaoItem;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.DaoUser;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -49,6 +63,12 @@ public class BookingServiceTest {
     private DaoItem daoItem;
     @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private OutboxService outboxService;
+    @Mock
+    private BookingExpiryScheduler bookingExpiryScheduler;
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -101,6 +121,8 @@ public class BookingServiceTest {
         verify(daoUser).getUserById(anyLong());
         verify(daoItem).getItemById(anyLong());
         verify(bookingRepository).save(any(Booking.class));
+        verify(outboxService).add(eq(OutboxEventType.BOOKING_CREATED), eq(bookingId), any(BookingEventDto.class));
+        verify(bookingExpiryScheduler).onCreated(bookingId, start);
     }
 
     @Test
@@ -178,48 +200,124 @@ public class BookingServiceTest {
 
     @Test
     public void approve_whenOk_thenReturnBooking() {
+        Mockito.when(bookingRepository.updateStatusIfOwner(anyLong(), anyLong(), any(BookingStatus.class), any(BookingStatus.class))).thenReturn(1);
         Mockito.when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        Mockito.when(bookingRepository.isUserOwnItemFromBooking(anyLong(), anyLong())).thenReturn(true);
-        Mockito.when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         bookingService.approve(bookingId, ownerId, true);
 
+        verify(bookingRepository).updateStatusIfOwner(bookingId, ownerId, BookingStatus.WAITING, BookingStatus.APPROVED);
         verify(bookingRepository).findById(anyLong());
-        verify(bookingRepository).isUserOwnItemFromBooking(anyLong(), anyLong());
-        verify(bookingRepository).save(any(Booking.class));
+        verify(bookingRepository, never()).isUserOwnItemFromBooking(anyLong(), anyLong());
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(outboxService).add(eq(OutboxEventType.BOOKING_APPROVED), eq(bookingId), any(BookingEventDto.class));
+        verify(bookingExpiryScheduler).onDecided(List.of(bookingId));
+        verify(itemBookingSummaryService).onBookingDecided(any(BookingEventDto.class));
+    }
+
+    @Test
+    public void approve_whenOkAndReject_thenUpdateToRejected() {
+        Mockito.when(bookingRepository.updateStatusIfOwner(anyLong(), anyLong(), any(BookingStatus.class), any(BookingStatus.class))).thenReturn(1);
+        Mockito.when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+
+        bookingService.approve(bookingId, ownerId, false);
+
+        verify(bookingRepository).updateStatusIfOwner(bookingId, ownerId, BookingStatus.WAITING, BookingStatus.REJECTED);
+        verify(daoItem, never()).lockOwnerItemsOfBookings(anyLong(), anyList());
     }
 
     @Test
     public void approve_whenBookingNotExisted_thenThrowException() {
+        Mockito.when(bookingRepository.updateStatusIfOwner(anyLong(), anyLong(), any(BookingStatus.class), any(BookingStatus.class))).thenReturn(0);
         Mockito.when(bookingRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(BookingNotFoundException.class, () -> bookingService.approve(bookingId, ownerId, true));
 
         verify(bookingRepository).findById(anyLong());
-        verify(bookingRepository, never()).isUserOwnItemFromBooking(anyLong(), anyLong());
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
     public void approve_whenBookingNotWaitingStatus_thenThrowException() {
+        Mockito.when(bookingRepository.updateStatusIfOwner(anyLong(), anyLong(), any(BookingStatus.class), any(BookingStatus.class))).thenReturn(0);
         Mockito.when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
         booking.setStatus(BookingStatus.CANCELED);
 
         assertThrows(UnsupportedOperationException.class, () -> bookingService.approve(bookingId, ownerId, true));
 
-        verify(bookingRepository, never()).isUserOwnItemFromBooking(anyLong(), anyLong());
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
     public void approve_whenTryApproveNotOwner_thenThrowException() {
+        Mockito.when(bookingRepository.updateStatusIfOwner(anyLong(), anyLong(), any(BookingStatus.class), any(BookingStatus.class))).thenReturn(0);
         Mockito.when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        Mockito.when(bookingRepository.isUserOwnItemFromBooking(anyLong(), anyLong())).thenReturn(false);
 
-        assertThrows(NotFoundException.class, () -> bookingService.approve(bookingId, anyLong(), true));
+        assertThrows(NotFoundException.class, () -> bookingService.approve(bookingId, bookerId, true));
 
-        verify(bookingRepository).isUserOwnItemFromBooking(anyLong(), anyLong());
         verify(bookingRepository, never()).save(any(Booking.class));
+        verify(outboxService, never()).add(any(OutboxEventType.class), anyLong(), any());
+    }
+
+    @Test
+    public void approve_whenChangedConcurrentlyAndWaitingAgain_thenThrowConflict() {
+        Mockito.when(bookingRepository.updateStatusIfOwner(anyLong(), anyLong(), any(BookingStatus.class), any(BookingStatus.class))).thenReturn(0);
+        Mockito.when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+
+        assertThrows(BookingConflictException.class, () -> bookingService.approve(bookingId, ownerId, true));
+
+        verify(outboxService, never()).add(any(OutboxEventType.class), anyLong(), any());
+    }
+
+    @Test
+    public void approveAll_whenMixedBookings_thenReturnOutcomePerBooking() {
+        final BookingSnapshot waiting = new BookingSnapshot(1L, itemId, ownerId, bookerId, BookingStatus.WAITING, start, end);
+        final BookingSnapshot approved = new BookingSnapshot(2L, itemId, ownerId, bookerId, BookingStatus.APPROVED, start.plusDays(5), end.plusDays(5));
+        final BookingSnapshot foreign = new BookingSnapshot(3L, 10L, 100L, bookerId, BookingStatus.WAITING, start, end);
+
+        Mockito.when(bookingRepository.findSnapshotsByIdIn(anyList())).thenReturn(List.of(waiting, approved, foreign));
+        Mockito.when(bookingRepository.updateStatusIfOwner(anyList(), anyLong(), any(BookingStatus.class), any(BookingStatus.class))).thenReturn(1);
+
+        final List<BookingDecisionResultDto> results = bookingService.approveAll(List.of(1L, 2L, 3L, 4L), ownerId, false);
+
+        assertEquals(List.of(
+                new BookingDecisionResultDto(1L, BookingDecisionOutcome.UPDATED, BookingStatus.REJECTED),
+                new BookingDecisionResultDto(2L, BookingDecisionOutcome.NOT_WAITING, BookingStatus.APPROVED),
+                new BookingDecisionResultDto(3L, BookingDecisionOutcome.NOT_FOUND, null),
+                new BookingDecisionResultDto(4L, BookingDecisionOutcome.NOT_FOUND, null)), results);
+        verify(bookingRepository).updateStatusIfOwner(List.of(1L), ownerId, BookingStatus.WAITING, BookingStatus.REJECTED);
+        verify(outboxService).add(eq(OutboxEventType.BOOKING_REJECTED), eq(1L), any(BookingEventDto.class));
+        verify(daoItem, never()).lockOwnerItemsOfBookings(anyLong(), anyList());
+    }
+
+    @Test
+    public void approveAll_whenBookingsOverlap_thenApproveEarliest() {
+        final BookingSnapshot later = new BookingSnapshot(1L, itemId, ownerId, bookerId, BookingStatus.WAITING, start.plusHours(12), end.plusHours(12));
+        final BookingSnapshot earlier = new BookingSnapshot(2L, itemId, ownerId, bookerId, BookingStatus.WAITING, start, end);
+
+        Mockito.when(bookingRepository.findSnapshotsByIdIn(anyList())).thenReturn(List.of(later, earlier));
+        Mockito.when(bookingRepository.findApprovedSnapshotsInPeriod(anyList(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of());
+        Mockito.when(bookingRepository.updateStatusIfOwner(anyList(), anyLong(), any(BookingStatus.class), any(BookingStatus.class))).thenReturn(1);
+
+        final List<BookingDecisionResultDto> results = bookingService.approveAll(List.of(1L, 2L), ownerId, true);
+
+        assertEquals(BookingDecisionOutcome.OVERLAPS, results.get(0).getOutcome());
+        assertEquals(BookingDecisionOutcome.UPDATED, results.get(1).getOutcome());
+        final InOrder inOrder = inOrder(daoItem, bookingRepository);
+        inOrder.verify(daoItem).lockOwnerItemsOfBookings(ownerId, List.of(1L, 2L));
+        inOrder.verify(bookingRepository).findSnapshotsByIdIn(List.of(1L, 2L));
+        verify(bookingRepository).updateStatusIfOwner(List.of(2L), ownerId, BookingStatus.WAITING, BookingStatus.APPROVED);
+        verify(outboxService).add(eq(OutboxEventType.BOOKING_APPROVED), eq(2L), any(BookingEventDto.class));
+        verify(outboxService, never()).add(any(OutboxEventType.class), eq(1L), any());
+    }
+
+    @Test
+    public void approveAll_whenBookingChangedConcurrently_thenThrowException() {
+        final BookingSnapshot waiting = new BookingSnapshot(1L, itemId, ownerId, bookerId, BookingStatus.WAITING, start, end);
+
+        Mockito.when(bookingRepository.findSnapshotsByIdIn(anyList())).thenReturn(List.of(waiting));
+        Mockito.when(bookingRepository.updateStatusIfOwner(anyList(), anyLong(), any(BookingStatus.class), any(BookingStatus.class))).thenReturn(0);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> bookingService.approveAll(List.of(1L), ownerId, false));
     }
 
     @Test
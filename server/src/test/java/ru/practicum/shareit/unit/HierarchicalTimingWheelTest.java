@@ -0,0 +1,62 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.common.HierarchicalTimingWheel;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchicalTimingWheelTest {
+    private static final long TICK_MS = 10;
+
+    @Test
+    public void advance_whenKeysOnAllLevels_thenEachFiresExactlyAtDeadline() {
+        // 4 ячейки x 2 уровня = горизонт 16 тиков, остальное попадает в список переполнения.
+        final HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK_MS, 4, 2, 0);
+        final Random random = new Random(42);
+        final Map<Long, Long> deadlines = new HashMap<>();
+        for (long key = 1; key <= 300; key++) {
+            final long deadlineMs = 1 + random.nextInt(100 * (int) TICK_MS);
+            deadlines.put(key, deadlineMs);
+            assertFalse(wheel.schedule(key, deadlineMs));
+        }
+
+        final Map<Long, Long> firedAt = new HashMap<>();
+        for (long nowMs = TICK_MS; nowMs <= 110 * TICK_MS; nowMs += TICK_MS) {
+            for (Long key : wheel.advance(nowMs)) {
+                assertNull(firedAt.put(key, nowMs), "Ключ сработал дважды: " + key);
+            }
+        }
+
+        assertEquals(deadlines.size(), firedAt.size());
+        deadlines.forEach((key, deadlineMs) -> {
+            final long expectedMs = (deadlineMs + TICK_MS - 1) / TICK_MS * TICK_MS;
+            assertEquals(expectedMs, firedAt.get(key), "Ключ " + key);
+        });
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void advance_whenCancelledOrRescheduled_thenFireOnlyActualDeadline() {
+        final HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK_MS, 4, 2, 0);
+        wheel.schedule(1L, 5 * TICK_MS);
+        wheel.schedule(2L, 5 * TICK_MS);
+        wheel.schedule(2L, 30 * TICK_MS);
+        wheel.cancel(1L);
+
+        assertEquals(List.of(), wheel.advance(10 * TICK_MS));
+        assertEquals(List.of(2L), wheel.advance(30 * TICK_MS));
+    }
+
+    @Test
+    public void schedule_whenDeadlinePassed_thenReturnTrue() {
+        final HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK_MS, 4, 2, 100 * TICK_MS);
+
+        assertTrue(wheel.schedule(1L, 50 * TICK_MS));
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.common.idempotency.IdempotencyFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.common.ConstantParamStorage.IDEMPOTENCY_KEY_HEADER;
+import static ru.practicum.shareit.common.ConstantParamStorage.USER_ID_REQUEST_HEADER;
+
+// Хранилище на одну запись: запись выполняющегося запроса не вытесняется новым ключом.
+public class IdempotencyFilterTest {
+    private static final String BODY = "{\"itemId\":1}";
+
+    private final IdempotencyFilter filter = new IdempotencyFilter(1, 3600, 10);
+    private final AtomicInteger executions = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final FilterChain slowChain = (request, response) -> {
+        executions.incrementAndGet();
+        started.countDown();
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exp) {
+            throw new ServletException(exp);
+        }
+        response.setContentType("application/json");
+        response.getOutputStream().write(request.getInputStream().readAllBytes());
+    };
+
+    @Test
+    public void doFilter_whenStoreFullOfRunningRequests_thenRejectNewKeyAndKeepRunningOne() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<MockHttpServletResponse> first = executor.submit(() -> perform("first", BODY, slowChain));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            assertEquals(503, perform("second", BODY, slowChain).getStatus());
+
+            release.countDown();
+            assertEquals(200, first.get(10, TimeUnit.SECONDS).getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final MockHttpServletResponse retry = perform("first", BODY, slowChain);
+        assertEquals(200, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_RESPONSE_HEADER));
+        assertEquals(BODY, retry.getContentAsString());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void doFilter_whenStoreFullOfDoneResponses_thenEvictOldest() throws Exception {
+        release.countDown();
+        assertEquals(200, perform("first", BODY, slowChain).getStatus());
+        assertEquals(200, perform("second", BODY, slowChain).getStatus());
+
+        assertEquals("true", perform("second", BODY, slowChain).getHeader(IdempotencyFilter.REPLAYED_RESPONSE_HEADER));
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void doFilter_whenSameKeyWithOtherBody_thenReturn422() throws Exception {
+        release.countDown();
+        assertEquals(200, perform("first", BODY, slowChain).getStatus());
+
+        assertEquals(422, perform("first", "{\"itemId\":2}", slowChain).getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    private MockHttpServletResponse perform(String key, String body, FilterChain chain) throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/bookings");
+        request.addHeader(USER_ID_REQUEST_HEADER, 1L);
+        request.addHeader(IDEMPOTENCY_KEY_HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -5,19 +5,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.ParallelReadExecutor;
+import ru.practicum.shareit.common.fields.FieldSet;
+import ru.practicum.shareit.common.outbox.OutboxEventType;
+import ru.practicum.shareit.common.outbox.OutboxService;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.exception.NotOwnerAccessException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.model.ItemWithBookingSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.DaoItem;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -30,7 +35,6 @@ import java.util.List;
 import java.util.Optional;
 
 import static java.util.Collections.emptyList;
-import static java.util.Collections.emptyMap;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -83,6 +87,12 @@ public class ItemServiceTest {
     private DaoUser daoUser;
     @Mock
     private DaoItem daoItem;
+    @Mock
+    private OutboxService outboxService;
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+    @Spy
+    private ParallelReadExecutor parallelReadExecutor = ParallelReadExecutor.inline();
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -99,6 +109,8 @@ public class ItemServiceTest {
 
         final long newItemId = itemService.create(itemCreateDto, ownerId);
         assertEquals(item.getId(), newItemId);
+        verify(outboxService).add(eq(OutboxEventType.ITEM_CREATED), eq(itemId), any(ItemEventDto.class));
+        verify(itemBookingSummaryService).createEmpty(itemId);
 
         verify(daoUser).getUserById(anyLong());
         verify(daoItem).save(any(Item.class));
@@ -243,8 +255,12 @@ public class ItemServiceTest {
         Mockito.when(daoItem.getItemById(anyLong())).thenReturn(item);
         Mockito.when(commentRepository.findByItemId(anyLong())).thenReturn(emptyList());
 
-        itemService.getById(itemId, userId);
+        final ItemWithAdditionalDataDto result = itemService.getById(itemId, userId);
 
+        // Сводка не владельцу не нужна и не читается.
+        assertNull(result.getLastBooking());
+        assertNull(result.getNextBooking());
+        verify(itemBookingSummaryService, never()).getSummary(anyLong(), any(LocalDateTime.class));
         verify(daoItem).getItemById(anyLong());
         verify(commentRepository).findByItemId(anyLong());
         verify(bookingRepository, never()).getLastBookingForItemById(anyLong(), any(LocalDateTime.class));
@@ -253,35 +269,32 @@ public class ItemServiceTest {
 
     @Test
     public void getById_whenOkOwner_thenReturnItem() {
-        final Booking lastBooking = Booking.builder()
-                .id(1L)
-                .booker(user)
-                .item(item)
-                .status(BookingStatus.APPROVED)
-                .start(LocalDateTime.now())
-                .end(LocalDateTime.now())
-                .build();
-
-        final Booking nextBooking = Booking.builder()
-                .id(2L)
-                .booker(user)
-                .item(item)
-                .status(BookingStatus.APPROVED)
-                .start(LocalDateTime.now())
-                .end(LocalDateTime.now())
+        final ItemBookingSummary summary = ItemBookingSummary.builder()
+                .itemId(itemId)
+                .lastBookingId(1L)
+                .lastBookerId(userId)
+                .lastStart(LocalDateTime.now().minusDays(2))
+                .lastEnd(LocalDateTime.now().minusDays(1))
+                .nextBookingId(2L)
+                .nextBookerId(userId)
+                .nextStart(LocalDateTime.now().plusDays(1))
+                .nextEnd(LocalDateTime.now().plusDays(2))
                 .build();
 
         Mockito.when(daoItem.getItemById(anyLong())).thenReturn(item);
         Mockito.when(commentRepository.findByItemId(anyLong())).thenReturn(emptyList());
-        Mockito.when(bookingRepository.getLastBookingForItemById(anyLong(), any(LocalDateTime.class))).thenReturn(lastBooking);
-        Mockito.when(bookingRepository.getNextBookingForItemById(anyLong(), any(LocalDateTime.class))).thenReturn(nextBooking);
+        Mockito.when(itemBookingSummaryService.getSummary(anyLong(), any(LocalDateTime.class))).thenReturn(summary);
 
-        itemService.getById(itemId, ownerId);
+        final ItemWithAdditionalDataDto result = itemService.getById(itemId, ownerId);
 
+        assertEquals(1L, result.getLastBooking().getId());
+        assertEquals(2L, result.getNextBooking().getId());
+        assertEquals(userId, result.getNextBooking().getBookerId());
         verify(daoItem).getItemById(anyLong());
         verify(commentRepository).findByItemId(anyLong());
-        verify(bookingRepository).getLastBookingForItemById(anyLong(), any(LocalDateTime.class));
-        verify(bookingRepository).getNextBookingForItemById(anyLong(), any(LocalDateTime.class));
+        verify(itemBookingSummaryService).getSummary(eq(itemId), any(LocalDateTime.class));
+        verify(bookingRepository, never()).getLastBookingForItemById(anyLong(), any(LocalDateTime.class));
+        verify(bookingRepository, never()).getNextBookingForItemById(anyLong(), any(LocalDateTime.class));
     }
 
     @Test
@@ -311,35 +324,50 @@ public class ItemServiceTest {
     @Test
     public void getAllOwnerItems_whenOk_thenReturnItems() {
         doNothing().when(daoUser).checkUserExists(anyLong());
-        Mockito.when(daoItem.findByOwnerId(ownerId, null)).thenReturn(List.of(item));
-        Mockito.when(bookingRepository.getLastBookingForItemsByIdList(anyList(), any(LocalDateTime.class)))
-                .thenReturn(emptyMap());
-        Mockito.when(bookingRepository.getNextBookingForItemsByIdList(anyList(), any(LocalDateTime.class)))
-                .thenReturn(emptyMap());
-        Mockito.when(commentRepository.findByItemIdIn(anyList(), any(Sort.class))).thenReturn(emptyList());
+        Mockito.when(itemBookingSummaryService.findOwnerItems(eq(ownerId), isNull(), any(LocalDateTime.class)))
+                .thenReturn(List.of(new ItemWithBookingSummary(item, null)));
+        Mockito.when(commentRepository.findOwnerItemsComments(anyLong(), anyList())).thenReturn(emptyList());
 
-        itemService.getAllOwnerItems(ownerId);
+        final List<ItemWithAdditionalDataDto> items = itemService.getAllOwnerItems(ownerId);
 
+        assertEquals(1, items.size());
+        assertNull(items.get(0).getLastBooking());
+        assertNull(items.get(0).getNextBooking());
         verify(daoUser).checkUserExists(anyLong());
-        verify(daoItem).findByOwnerId(ownerId, null);
-        verify(bookingRepository).getLastBookingForItemsByIdList(anyList(), any(LocalDateTime.class));
-        verify(bookingRepository).getNextBookingForItemsByIdList(anyList(), any(LocalDateTime.class));
-        verify(commentRepository).findByItemIdIn(anyList(), any(Sort.class));
+        verify(itemBookingSummaryService).findOwnerItems(eq(ownerId), isNull(), any(LocalDateTime.class));
+        verify(bookingRepository, never()).getLastBookingForItemsByIdList(anyList(), any(LocalDateTime.class));
+        verify(bookingRepository, never()).getNextBookingForItemsByIdList(anyList(), any(LocalDateTime.class));
+        verify(commentRepository).findOwnerItemsComments(anyLong(), anyList());
     }
 
     @Test
     public void getAllOwnerItems_whenNoItems_thenReturnEmpty() {
         doNothing().when(daoUser).checkUserExists(anyLong());
-        Mockito.when(daoItem.findByOwnerId(ownerId, null)).thenReturn(emptyList());
+        Mockito.when(itemBookingSummaryService.findOwnerItems(eq(ownerId), isNull(), any(LocalDateTime.class)))
+                .thenReturn(emptyList());
 
         final List<ItemWithAdditionalDataDto> emptyCollection = itemService.getAllOwnerItems(ownerId);
         assertTrue(emptyCollection.isEmpty());
 
         verify(daoUser).checkUserExists(anyLong());
-        verify(daoItem).findByOwnerId(ownerId, null);
-        verify(bookingRepository, never()).getLastBookingForItemsByIdList(anyList(), any(LocalDateTime.class));
-        verify(bookingRepository, never()).getNextBookingForItemsByIdList(anyList(), any(LocalDateTime.class));
-        verify(commentRepository, never()).findByItemIdIn(anyList(), any(Sort.class));
+        verify(itemBookingSummaryService).findOwnerItems(eq(ownerId), isNull(), any(LocalDateTime.class));
+        verify(commentRepository, never()).findOwnerItemsComments(anyLong(), anyList());
+    }
+
+    @Test
+    public void getAllOwnerItems_whenOnlyItemFields_thenNoBookingsAndCommentsRead() {
+        final FieldSet fields = FieldSet.parse("name,available", ItemWithAdditionalDataDto.FIELDS);
+        doNothing().when(daoUser).checkUserExists(anyLong());
+        Mockito.when(daoItem.findOwnerItemDtoList(ownerId, null)).thenReturn(List.of(ItemMapper.toItemDto(item)));
+
+        final List<ItemWithAdditionalDataDto> items = itemService.getAllOwnerItems(ownerId, null, null, fields);
+
+        assertEquals(1, items.size());
+        assertEquals(item.getName(), items.get(0).getName());
+        assertNull(items.get(0).getComments());
+        verify(daoItem).findOwnerItemDtoList(ownerId, null);
+        verify(itemBookingSummaryService, never()).findOwnerItems(anyLong(), any(), any(LocalDateTime.class));
+        verify(commentRepository, never()).findOwnerItemsComments(anyLong(), anyList());
     }
 
     @Test
@@ -388,6 +416,7 @@ public class ItemServiceTest {
                 .build();
         final Comment comment = Comment.builder()
                 .author(user)
+                .item(item)
                 .text(commentCreateDto.getText())
                 .build();
 
@@ -403,6 +432,7 @@ public class ItemServiceTest {
         verify(daoItem).getItemById(anyLong());
         verify(bookingRepository).isUserBookingItem(anyLong(), anyLong(), any(LocalDateTime.class));
         verify(commentRepository).save(any(Comment.class));
+        verify(outboxService).add(eq(OutboxEventType.COMMENT_ADDED), anyLong(), any(CommentEventDto.class));
     }
 
     @Test
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.unit;
+
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.shareit.common.profiling.JfrProfiler;
+import ru.practicum.shareit.common.profiling.JfrSummary;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JfrProfilerTest {
+    @TempDir
+    Path directory;
+
+    private JfrProfiler profiler;
+
+    @BeforeEach
+    public void init() {
+        profiler = new JfrProfiler(10, 60, directory.toString());
+    }
+
+    @Test
+    public void record_thenFileWrittenAndNextRecordingRateLimited() throws Exception {
+        final Path file = profiler.record(Duration.ofSeconds(1), "profile");
+        assertTrue(Files.size(file) > 0);
+
+        final JfrSummary summary = profiler.summarize(file, "profile", Duration.ofSeconds(1), 5);
+        assertEquals(file.toFile().length(), summary.getRecordingBytes());
+        assertTrue(summary.getCpuHotspots().size() <= 5);
+        assertTrue(summary.getAllocatedClasses().size() <= 5);
+
+        assertThrows(IllegalStateException.class, () -> profiler.record(Duration.ofSeconds(1), "profile"));
+    }
+
+    @Test
+    public void record_thenNoEnvironmentEvents() throws Exception {
+        final Path file = profiler.record(Duration.ofSeconds(1), "default");
+
+        // Переменные окружения (пароль БД), системные свойства и аргументы JVM не должны попадать в файл.
+        assertTrue(RecordingFile.readAllEvents(file).stream()
+                .map(event -> event.getEventType().getName())
+                .noneMatch(type -> type.equals("jdk.InitialEnvironmentVariable")
+                        || type.equals("jdk.InitialSystemProperty")
+                        || type.equals("jdk.JVMInformation")));
+    }
+
+    @Test
+    public void record_whenUnknownSettingsOrTooLong_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> profiler.record(Duration.ofSeconds(1), "custom"));
+        assertThrows(IllegalArgumentException.class, () -> profiler.record(Duration.ofSeconds(11), "default"));
+        assertThrows(IllegalArgumentException.class, () -> profiler.record(Duration.ZERO, "default"));
+    }
+
+    @AfterEach
+    public void clean() throws Exception {
+        profiler.deleteLastFile();
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.common.OffsetBasedPageRequest;
+import ru.practicum.shareit.common.Utils;
+import ru.practicum.shareit.common.replica.ReplicaContext;
+import ru.practicum.shareit.common.replica.ReplicaRoutingDataSource;
+import ru.practicum.shareit.common.replica.ReplicaQueryExecutor;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Scatter-gather при включенном чтении с реплик: каждая "реплика" - список строк, запрос к нему сортирует строки
+// так же, как SQL (start desc, id desc) и отдает первые offset + size. Страницы подряд должны дать
+// ровно общий отсортированный список - без пропусков и повторов, в том числе при равных start.
+public class ReplicaQueryExecutorTest {
+    private static final int REPLICA_COUNT = 3;
+    private static final Comparator<Row> START_DESC_ORDER = Comparator.comparing(Row::getStart)
+            .thenComparing(Row::getId)
+            .reversed();
+
+    private final List<List<Row>> replicas = new ArrayList<>();
+    private final List<Row> allRows = new ArrayList<>();
+    private ReplicaQueryExecutor executor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void init() {
+        final List<DataSource> replicaDataSources = new ArrayList<>();
+        for (int replica = 0; replica < REPLICA_COUNT; replica++) {
+            replicaDataSources.add(mock(DataSource.class));
+            replicas.add(new ArrayList<>());
+        }
+        final ObjectProvider<ReplicaRoutingDataSource> routingDataSource = mock(ObjectProvider.class);
+        when(routingDataSource.getIfAvailable()).thenReturn(new ReplicaRoutingDataSource(mock(DataSource.class), replicaDataSources));
+        executor = new ReplicaQueryExecutor(mock(PlatformTransactionManager.class), routingDataSource);
+
+        // Мало различных start: много строк с одинаковым start на разных репликах.
+        final SplittableRandom random = new SplittableRandom(42);
+        for (long id = 1; id <= 100; id++) {
+            final Row row = new Row(id, random.nextInt(10));
+            replicas.get(random.nextInt(REPLICA_COUNT)).add(row);
+            allRows.add(row);
+        }
+        allRows.sort(START_DESC_ORDER);
+    }
+
+    @Test
+    public void readOnAllReplicas_whenPagedThroughAll_thenEveryRowOnceInOrder() {
+        assertTrue(executor.isEnabled());
+
+        for (int size : new int[]{1, 7, 10, 33}) {
+            final List<Row> paged = new ArrayList<>();
+            for (int from = 0; from < allRows.size(); from += size) {
+                paged.addAll(executor.readOnAllReplicas(this::queryCurrentReplica, START_DESC_ORDER, new OffsetBasedPageRequest(from, size)));
+            }
+            assertEquals(allRows, paged);
+        }
+    }
+
+    @Test
+    public void readOnAllReplicas_whenNoPageable_thenAllRowsInOrder() {
+        assertEquals(allRows, executor.readOnAllReplicas(this::queryCurrentReplica, START_DESC_ORDER, null));
+    }
+
+    @Test
+    public void readOnAllReplicas_whenPageAfterEnd_thenEmpty() {
+        assertTrue(executor.readOnAllReplicas(this::queryCurrentReplica, START_DESC_ORDER, new OffsetBasedPageRequest(100, 10)).isEmpty());
+    }
+
+    @Test
+    public void mergeSortedAndPage_whenPartsSorted_thenPageOfMerged() {
+        final Function<Integer, List<Row>> part = replica -> replicas.get(replica).stream()
+                .sorted(START_DESC_ORDER)
+                .collect(Collectors.toList());
+        final List<List<Row>> parts = List.of(part.apply(0), part.apply(1), part.apply(2));
+
+        assertEquals(allRows.subList(20, 30), Utils.mergeSortedAndPage(parts, START_DESC_ORDER, new OffsetBasedPageRequest(20, 10)));
+        assertEquals(allRows, Utils.mergeSortedAndPage(parts, START_DESC_ORDER, null));
+    }
+
+    @AfterEach
+    public void clean() {
+        executor.shutdown();
+    }
+
+    // Запрос к реплике из ReplicaContext: сортировка как в SQL и первые offset + size строк.
+    private List<Row> queryCurrentReplica(Pageable pageable) {
+        final Integer replica = ReplicaContext.getCurrentReplica();
+        assertNotNull(replica);
+
+        final List<Row> sorted = replicas.get(replica).stream()
+                .sorted(START_DESC_ORDER)
+                .collect(Collectors.toList());
+        if (pageable == null) {
+            return sorted;
+        }
+        return sorted.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    private static class Row {
+        private final long id;
+        private final int start;
+
+        Row(long id, int start) {
+            this.id = id;
+            this.start = start;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        int getStart() {
+            return start;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Row(id=%s, start=%s)", id, start);
+        }
+    }
+}
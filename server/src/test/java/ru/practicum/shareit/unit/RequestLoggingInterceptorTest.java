@@ -0,0 +1,40 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.common.logging.RequestLoggingInterceptor;
+import ru.practicum.shareit.common.logging.RequestLoggingProperties;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestLoggingInterceptorTest {
+    private RequestLoggingInterceptor interceptor;
+
+    @BeforeEach
+    public void init() {
+        final RequestLoggingProperties properties = new RequestLoggingProperties();
+        properties.setSampleRate(0);
+        properties.setSampleRates(Map.of("ItemController#getItemById", 1.0));
+        properties.setSlowMs(500);
+        interceptor = new RequestLoggingInterceptor(properties);
+    }
+
+    @Test
+    public void shouldLog_whenFastAndNotSampled_thenFalse() {
+        assertFalse(interceptor.shouldLog("BookingController#getBooking", 10, 200));
+        assertFalse(interceptor.shouldLog("BookingController#getBooking", 10, 404));
+    }
+
+    @Test
+    public void shouldLog_whenHandlerRateSet_thenHandlerRateUsed() {
+        assertTrue(interceptor.shouldLog("ItemController#getItemById", 10, 200));
+    }
+
+    @Test
+    public void shouldLog_whenSlowOrServerError_thenAlwaysTrue() {
+        assertTrue(interceptor.shouldLog("BookingController#getBooking", 500, 200));
+        assertTrue(interceptor.shouldLog("BookingController#getBooking", 10, 500));
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.common.bloom.ScalableBloomFilter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScalableBloomFilterTest {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    public void mightContain_whenAddedBeyondInitialCapacity_thenNoFalseNegatives() {
+        final ScalableBloomFilter filter = new ScalableBloomFilter(1_000, FALSE_POSITIVE_RATE);
+        final long initialBits = filter.bitCount();
+
+        for (long id = 1; id <= 50_000; id++) {
+            filter.add(id);
+        }
+
+        for (long id = 1; id <= 50_000; id++) {
+            assertTrue(filter.mightContain(id));
+        }
+        assertTrue(filter.bitCount() > initialBits);
+        assertTrue(filter.size() > 49_000 && filter.size() <= 50_000);
+    }
+
+    @Test
+    public void mightContain_whenAbsentIds_thenFalsePositiveRateWithinTarget() {
+        final ScalableBloomFilter filter = new ScalableBloomFilter(1_000, FALSE_POSITIVE_RATE);
+        for (long id = 1; id <= 50_000; id++) {
+            filter.add(id);
+        }
+
+        int falsePositives = 0;
+        final int checks = 100_000;
+        for (long id = 1_000_000; id < 1_000_000 + checks; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+
+        // После роста ступеней общая доля не больше заданной (с запасом на разброс выборки).
+        assertTrue((double) falsePositives / checks < FALSE_POSITIVE_RATE * 1.5);
+        assertTrue(filter.expectedFalsePositiveRate() < FALSE_POSITIVE_RATE);
+    }
+
+    @Test
+    public void mightContain_whenEmpty_thenFalse() {
+        final ScalableBloomFilter filter = new ScalableBloomFilter(100, FALSE_POSITIVE_RATE);
+
+        assertFalse(filter.mightContain(1));
+        assertEquals(0, filter.size());
+        assertEquals(0, filter.expectedFalsePositiveRate());
+    }
+
+    @Test
+    public void add_whenSameIdTwice_thenCountedOnce() {
+        final ScalableBloomFilter filter = new ScalableBloomFilter(100, FALSE_POSITIVE_RATE);
+
+        filter.add(42);
+        filter.add(42);
+
+        assertTrue(filter.mightContain(42));
+        assertEquals(1, filter.size());
+    }
+
+    @Test
+    public void create_whenWrongParameters_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(0, FALSE_POSITIVE_RATE));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 1));
+    }
+}
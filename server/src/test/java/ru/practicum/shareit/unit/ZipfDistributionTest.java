@@ -0,0 +1,57 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.common.seed.ZipfDistribution;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZipfDistributionTest {
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    public void sample_whenExponentOne_thenRankFrequenciesFollowZipf() {
+        final ZipfDistribution distribution = new ZipfDistribution(100, 1.0);
+        final int[] counts = sample(distribution, new SplittableRandom(7));
+
+        // Гармоническое число H(100) ~ 5.187: ранг 0 выпадает с вероятностью 1 / H, ранг 1 - вдвое реже.
+        assertEquals(1 / 5.187, (double) counts[0] / SAMPLES, 0.01);
+        assertEquals(2.0, (double) counts[0] / counts[1], 0.1);
+        assertTrue(counts[0] > counts[99] * 50);
+    }
+
+    @Test
+    public void sample_whenExponentZero_thenUniform() {
+        final ZipfDistribution distribution = new ZipfDistribution(10, 0);
+        final int[] counts = sample(distribution, new SplittableRandom(7));
+
+        for (int count : counts) {
+            assertEquals(0.1, (double) count / SAMPLES, 0.01);
+        }
+    }
+
+    @Test
+    public void sample_whenSameSeed_thenSameSequence() {
+        final ZipfDistribution distribution = new ZipfDistribution(1000, 1.1);
+        final SplittableRandom first = new SplittableRandom(42);
+        final SplittableRandom second = new SplittableRandom(42);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(distribution.sample(first), distribution.sample(second));
+        }
+    }
+
+    @Test
+    public void create_whenEmpty_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new ZipfDistribution(0, 1.0));
+    }
+
+    private int[] sample(ZipfDistribution distribution, SplittableRandom random) {
+        final int[] counts = new int[distribution.size()];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[distribution.sample(random)]++;
+        }
+        return counts;
+    }
+}